@@ -0,0 +1,46 @@
+package com.mccrae.healthcare.benchmarks;
+
+import com.mccrae.healthcare.audit.AuditLogger;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuditLogger.log - caller-side cost of an audit event
+ * 
+ * Includes the journal append (group-committed fsync) and the hand-off to the
+ * write-behind pipeline; the batched database insert happens on the drainer thread.
+ * Run with -t 8 to see group commit at work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AuditLoggerBenchmark {
+    
+    @Param({"10000", "1000000"})
+    private int rows;
+    
+    private BenchmarkApplication application;
+    private AuditLogger auditLogger;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start(rows, Map.of());
+        auditLogger = application.bean(AuditLogger.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+    
+    @Benchmark
+    public void log() {
+        auditLogger.log("PATIENT_ACCESSED", application.data().randomPatientRef(), "Patient record accessed");
+    }
+}
@@ -0,0 +1,100 @@
+package com.mccrae.healthcare.benchmarks;
+
+import com.mccrae.healthcare.HealthcareApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Boots the healthcare service against a private embedded H2 database
+ * seeded with synthetic data (see {@link SyntheticData})
+ * 
+ * - No web server unless asked for: benchmarks call the beans directly
+ * - Application logging at WARN so console I/O is not what gets measured
+ * - Audit journal and consent snapshot files in a temp directory, deleted on close
+ */
+final class BenchmarkApplication implements AutoCloseable {
+    
+    private final ConfigurableApplicationContext context;
+    private final Path workDirectory;
+    private final SyntheticData data;
+    
+    private BenchmarkApplication(ConfigurableApplicationContext context, Path workDirectory, SyntheticData data) {
+        this.context = context;
+        this.workDirectory = workDirectory;
+        this.data = data;
+    }
+    
+    /**
+     * @param rows       patients (and consents, audit rows) to seed
+     * @param properties extra application properties for this benchmark
+     */
+    static BenchmarkApplication start(int rows, Map<String, Object> properties) {
+        return start(rows, properties, WebApplicationType.NONE);
+    }
+    
+    /**
+     * Same, with the embedded web server listening on a random port (see {@link #port()})
+     */
+    static BenchmarkApplication startWebServer(int rows, Map<String, Object> properties) {
+        Map<String, Object> withPort = new HashMap<>(properties);
+        withPort.put("server.port", "0");
+        return start(rows, withPort, WebApplicationType.SERVLET);
+    }
+    
+    private static BenchmarkApplication start(int rows, Map<String, Object> properties, WebApplicationType web) {
+        Path workDirectory;
+        try {
+            workDirectory = Files.createTempDirectory("bench-work");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:bench_" + rows + "_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        defaults.put("spring.h2.console.enabled", "false");
+        defaults.put("spring.main.banner-mode", "off");
+        defaults.put("logging.level.root", "WARN");
+        defaults.put("logging.level.com.mccrae.healthcare", "WARN");
+        defaults.put("healthcare.audit.journal.directory", workDirectory.resolve("audit-journal").toString());
+        defaults.put("healthcare.consent.snapshot.directory", workDirectory.resolve("consent-snapshot").toString());
+        defaults.putAll(properties);
+        
+        // Passed as command-line arguments so they override application.properties
+        String[] args = defaults.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HealthcareApplication.class)
+                .web(web)
+                .run(args);
+        SyntheticData data = SyntheticData.seed(context.getBean(JdbcTemplate.class), rows);
+        return new BenchmarkApplication(context, workDirectory, data);
+    }
+    
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+    
+    int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+    
+    SyntheticData data() {
+        return data;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(workDirectory);
+    }
+}
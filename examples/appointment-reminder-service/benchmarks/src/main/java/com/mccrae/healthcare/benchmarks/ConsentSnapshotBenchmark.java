@@ -0,0 +1,55 @@
+package com.mccrae.healthcare.benchmarks;
+
+import com.mccrae.healthcare.consent.ConsentSnapshotStore;
+import com.mccrae.healthcare.consent.ConsentValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConsentValidator.hasValidConsent for a random seeded patient, decision cache off
+ *
+ * validatorMode=database runs the consent query on every call,
+ * validatorMode=snapshot binary-searches the memory-mapped consent snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ConsentSnapshotBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    @Param({"database", "snapshot"})
+    private String validatorMode;
+
+    private BenchmarkApplication application;
+    private ConsentValidator consentValidator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start(rows, Map.of(
+                "healthcare.consent.cache.enabled", false,
+                "healthcare.consent.validator.mode", validatorMode));
+        consentValidator = application.bean(ConsentValidator.class);
+        if (validatorMode.equals("snapshot")) {
+            // Seeded with plain JDBC after startup - not in the startup snapshot yet
+            application.bean(ConsentSnapshotStore.class).rebuild();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    @Benchmark
+    public boolean hasValidConsent() {
+        return consentValidator.hasValidConsent(application.data().randomPatientRef(), SyntheticData.SCOPE);
+    }
+}
@@ -0,0 +1,50 @@
+package com.mccrae.healthcare.benchmarks;
+
+import com.mccrae.healthcare.consent.Consent;
+import com.mccrae.healthcare.consent.ConsentValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConsentValidator.validateConsent for a random seeded patient
+ * 
+ * consentCache=false measures the database path (query + CONSENT_VALIDATED audit),
+ * consentCache=true the steady state with the decision cache warm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ConsentValidationBenchmark {
+    
+    @Param({"10000", "1000000"})
+    private int rows;
+    
+    @Param({"false", "true"})
+    private boolean consentCache;
+    
+    private BenchmarkApplication application;
+    private ConsentValidator consentValidator;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start(rows, Map.of("healthcare.consent.cache.enabled", consentCache));
+        consentValidator = application.bean(ConsentValidator.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+    
+    @Benchmark
+    public Optional<Consent> validateConsent() {
+        return consentValidator.validateConsent(application.data().randomPatientRef(), SyntheticData.SCOPE);
+    }
+}
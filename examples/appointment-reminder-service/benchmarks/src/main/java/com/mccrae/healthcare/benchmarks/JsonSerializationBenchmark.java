@@ -0,0 +1,74 @@
+package com.mccrae.healthcare.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.mccrae.healthcare.consent.Consent;
+import com.mccrae.healthcare.consent.ConsentScope;
+import com.mccrae.healthcare.patient.Patient;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of Patient and Consent as done by the REST controllers
+ * 
+ * No database needed - the mapper mirrors Spring Boot's defaults
+ * (JSR-310 module, ISO-8601 dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    
+    private ObjectMapper objectMapper;
+    private Patient patient;
+    private Consent consent;
+    private byte[] patientJson;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        
+        patient = new Patient();
+        patient.setReferenceId(SyntheticData.patientRef(1));
+        patient.setFullName("TEST_PATIENT_001");
+        patient.setDateOfBirth(Instant.parse("1900-01-01T00:00:00Z"));
+        patient.setEmail("test1@example.test");
+        patient.setPhone("+64-21-555-0000");
+        patient.setTimezone("Pacific/Auckland");
+        
+        consent = new Consent();
+        consent.setPatientRef(SyntheticData.patientRef(1));
+        consent.setScopes(Set.of(ConsentScope.APPOINTMENT_REMINDER, ConsentScope.MEDICATION_REMINDER));
+        consent.setGrantedAt(Instant.now());
+        consent.setExpiresAt(Instant.now().plus(365, ChronoUnit.DAYS));
+        
+        patientJson = objectMapper.writeValueAsBytes(patient);
+    }
+    
+    @Benchmark
+    public byte[] serializePatient() throws IOException {
+        return objectMapper.writeValueAsBytes(patient);
+    }
+    
+    @Benchmark
+    public byte[] serializeConsent() throws IOException {
+        return objectMapper.writeValueAsBytes(consent);
+    }
+    
+    @Benchmark
+    public Patient deserializePatient() throws IOException {
+        return objectMapper.readValue(patientJson, Patient.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.mccrae.healthcare.benchmarks;
+
+import com.mccrae.healthcare.notification.ConsentLevel;
+import com.mccrae.healthcare.notification.ContentField;
+import com.mccrae.healthcare.notification.NotificationContent;
+import com.mccrae.healthcare.notification.NotificationContentBuilder;
+import com.mccrae.healthcare.notification.NotificationTemplates;
+import com.mccrae.healthcare.notification.NotificationType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering one emergency contact admission notification (mass-casualty fan-out)
+ *
+ * compiled: NotificationContentBuilder - precompiled template, reused buffer.
+ * naive: the same message built per call the straightforward way - template
+ * string, String.replace per placeholder, consent checks inline.
+ *
+ * No database needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class NotificationContentBenchmark {
+
+    private static final String NAIVE_TEMPLATE = "{patientName} has been admitted to {facilityName}, {department}.\n"
+            + "Reason: {admissionReason}\nCurrent status: {generalStatus}\nAdmitted: {admissionTime}\n"
+            + "For information, contact the care team at {careTeamPhone}.\nVisiting hours: {visitingHours}.";
+
+    @Param({"STANDARD", "DETAILED"})
+    private ConsentLevel level;
+
+    private NotificationContentBuilder builder;
+    private NotificationContent content;
+    private Instant admissionTime;
+    private ZoneId zone;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        builder = new NotificationContentBuilder(
+                new NotificationTemplates(new ClassPathResource("notification-templates.properties")));
+        admissionTime = Instant.parse("2024-01-15T02:00:00Z");
+        zone = ZoneId.of("Pacific/Auckland");
+        content = new NotificationContent()
+                .set(ContentField.FACILITY_NAME, "BENCH Hospital")
+                .set(ContentField.FACILITY_PHONE, "+64-9-555-0100")
+                .set(ContentField.VISITING_HOURS, "10 AM - 8 PM daily")
+                .set(ContentField.PATIENT_NAME, "BENCH_PATIENT_001")
+                .set(ContentField.GENERAL_STATUS, "Stable")
+                .set(ContentField.ADMISSION_TIME, admissionTime)
+                .set(ContentField.CARE_TEAM_PHONE, "+64-9-555-0150")
+                .set(ContentField.ADMISSION_REASON, "BENCH_REASON")
+                .set(ContentField.DEPARTMENT, "Cardiology")
+                .zone(zone);
+    }
+
+    @Benchmark
+    public String compiled() {
+        return builder.build(NotificationType.EMERGENCY_CONTACT_ADMISSION, level, "en", content).body();
+    }
+
+    @Benchmark
+    public String naive() {
+        String message = NAIVE_TEMPLATE
+                .replace("{patientName}", "BENCH_PATIENT_001")
+                .replace("{facilityName}", "BENCH Hospital")
+                .replace("{generalStatus}", "Stable")
+                .replace("{admissionTime}", DateTimeFormatter.ofPattern("d MMM yyyy, h:mm a z", Locale.ENGLISH)
+                        .format(admissionTime.atZone(zone)))
+                .replace("{careTeamPhone}", "+64-9-555-0150")
+                .replace("{visitingHours}", "10 AM - 8 PM daily");
+        if (level == ConsentLevel.DETAILED) {
+            return message.replace("{department}", "Cardiology").replace("{admissionReason}", "BENCH_REASON");
+        }
+        return message.replace(", {department}", "").replace("Reason: {admissionReason}\n", "");
+    }
+}
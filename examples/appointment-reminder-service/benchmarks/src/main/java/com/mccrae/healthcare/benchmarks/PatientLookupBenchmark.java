@@ -0,0 +1,52 @@
+package com.mccrae.healthcare.benchmarks;
+
+import com.mccrae.healthcare.patient.Patient;
+import com.mccrae.healthcare.patient.PatientService;
+import com.mccrae.healthcare.patient.PatientSummary;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PatientService.getPatientByReferenceId for a random seeded patient
+ * (unique-index lookup + PATIENT_ACCESSED audit), and getPatientSummary
+ * (same lookup, non-PHI columns only, no entity and no audit)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PatientLookupBenchmark {
+    
+    @Param({"10000", "1000000"})
+    private int rows;
+    
+    private BenchmarkApplication application;
+    private PatientService patientService;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start(rows, Map.of());
+        patientService = application.bean(PatientService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+    
+    @Benchmark
+    public Optional<Patient> getPatientByReferenceId() {
+        return patientService.getPatientByReferenceId(application.data().randomPatientRef());
+    }
+    
+    @Benchmark
+    public Optional<PatientSummary> getPatientSummary() {
+        return patientService.getPatientSummary(application.data().randomPatientRef());
+    }
+}
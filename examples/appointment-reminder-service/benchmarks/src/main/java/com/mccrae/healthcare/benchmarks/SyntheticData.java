@@ -0,0 +1,110 @@
+package com.mccrae.healthcare.benchmarks;
+
+import com.mccrae.healthcare.consent.ConsentScope;
+import com.mccrae.healthcare.sharding.ShardKey;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Synthetic benchmark data - never real patient data
+ * 
+ * For N rows:
+ * - N patients BENCH_PAT_0000000 .. BENCH_PAT_{N-1}
+ * - N consents, one per patient: 90% active with APPOINTMENT_REMINDER,
+ *   5% expired, 5% for a different scope
+ * - N audit_logs rows spread over the last year
+ * 
+ * Every row carries shard_bucket = ShardKey.bucketOf(patient_ref), as the
+ * entities and AuditBatchWriter set it (the column is NOT NULL).
+ * 
+ * Seeded with plain JDBC batches - going through JPA would take longer than
+ * the benchmarks themselves at 1M rows.
+ */
+final class SyntheticData {
+    
+    static final String SCOPE = ConsentScope.APPOINTMENT_REMINDER.name();
+    
+    private static final int BATCH_SIZE = 5_000;
+    
+    private final String[] patientRefs;
+    
+    private SyntheticData(String[] patientRefs) {
+        this.patientRefs = patientRefs;
+    }
+    
+    static String patientRef(int i) {
+        return String.format("BENCH_PAT_%07d", i);
+    }
+    
+    /**
+     * Reference of a random seeded patient (no allocation on the hot path)
+     */
+    String randomPatientRef() {
+        return patientRefs[ThreadLocalRandom.current().nextInt(patientRefs.length)];
+    }
+    
+    static SyntheticData seed(JdbcTemplate jdbcTemplate, int rows) {
+        String[] refs = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            refs[i] = patientRef(i);
+        }
+        
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        SplittableRandom random = new SplittableRandom(42);
+        
+        List<Object[]> patients = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> consents = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> auditLogs = new ArrayList<>(BATCH_SIZE);
+        
+        for (int i = 0; i < rows; i++) {
+            Timestamp createdAt = Timestamp.from(now.minusSeconds(rows - i));
+            int shardBucket = ShardKey.bucketOf(refs[i]);
+            patients.add(new Object[]{
+                    UUID.randomUUID(), refs[i], "TEST_PATIENT_" + i,
+                    Timestamp.from(Instant.parse("1900-01-01T00:00:00Z")),
+                    "test" + i + "@example.test", "+64-21-555-0000", "Pacific/Auckland",
+                    createdAt, createdAt, shardBucket
+            });
+            
+            int bucket = random.nextInt(100);
+            UUID consentId = UUID.randomUUID();
+            Instant expiresAt = bucket < 95 ? now.plus(365, ChronoUnit.DAYS) : now.minus(1, ChronoUnit.DAYS);
+            ConsentScope scope = bucket < 90 || bucket >= 95
+                    ? ConsentScope.APPOINTMENT_REMINDER : ConsentScope.MEDICATION_REMINDER;
+            consents.add(new Object[]{
+                    consentId, refs[i], scope.bit(), createdAt, Timestamp.from(expiresAt), createdAt, createdAt,
+                    shardBucket
+            });
+            
+            auditLogs.add(new Object[]{
+                    UUID.randomUUID(), Timestamp.from(now.minusSeconds(random.nextInt(365 * 24 * 3600))),
+                    "PATIENT_ACCESSED", refs[i], "Patient record accessed", shardBucket
+            });
+            
+            if (patients.size() == BATCH_SIZE || i == rows - 1) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO patients (id, reference_id, full_name, date_of_birth, email, phone, timezone, created_at, updated_at, "
+                                + "shard_bucket) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", patients);
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO consents (id, patient_ref, scope_mask, granted_at, expires_at, created_at, updated_at, "
+                                + "shard_bucket) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", consents);
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO audit_logs (id, timestamp, event_type, patient_ref, details, shard_bucket) "
+                                + "VALUES (?, ?, ?, ?, ?, ?)",
+                        auditLogs);
+                patients.clear();
+                consents.clear();
+                auditLogs.clear();
+            }
+        }
+        return new SyntheticData(refs);
+    }
+}
@@ -0,0 +1,142 @@
+package com.mccrae.healthcare.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP load test: platform-thread vs virtual-thread request handling
+ * 
+ * Boots the service once per mode (same seeded data, same Hikari pool) and drives
+ * GET /api/patients/{ref} - JPA lookup plus audit - from more concurrent clients
+ * than Tomcat has platform threads.
+ * 
+ * Usage: java -cp target/benchmarks.jar com.mccrae.healthcare.benchmarks.ThreadingLoadTest
+ *        [concurrency=400] [seconds=30] [rows=10000]
+ * 
+ * Virtual-thread mode needs Java 21+; on older JVMs only the platform run is reported.
+ */
+public final class ThreadingLoadTest {
+    
+    private ThreadingLoadTest() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        
+        List<Result> results = new ArrayList<>();
+        results.add(run("platform", false, concurrency, duration, rows));
+        if (Runtime.version().feature() >= 21) {
+            results.add(run("virtual", true, concurrency, duration, rows));
+        } else {
+            System.out.println("Skipping virtual-thread mode: requires Java 21+ (running " + Runtime.version() + ")");
+        }
+        
+        System.out.printf("%n%-10s %12s %10s %10s %10s %10s %8s%n",
+                "mode", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %12d %10.0f %10.1f %10.1f %10.1f %8d%n",
+                    result.mode(), result.requests(), result.throughput(),
+                    result.p50Millis(), result.p99Millis(), result.maxMillis(), result.errors());
+        }
+    }
+    
+    private static Result run(String mode, boolean virtual, int concurrency, Duration duration, int rows)
+            throws Exception {
+        Map<String, Object> properties = Map.of(
+                "spring.threads.virtual.enabled", virtual,
+                "spring.datasource.hikari.maximum-pool-size", 20,
+                "spring.datasource.hikari.connection-timeout", 3000);
+        try (BenchmarkApplication application = BenchmarkApplication.startWebServer(rows, properties)) {
+            String baseUrl = "http://localhost:" + application.port() + "/api/patients/";
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            
+            // Warm-up (JIT, connection pools) is not measured
+            drive(client, baseUrl, application.data(), concurrency, duration.dividedBy(5));
+            Result result = drive(client, baseUrl, application.data(), concurrency, duration);
+            return new Result(mode, result.requests(), result.throughput(),
+                    result.p50Millis(), result.p99Millis(), result.maxMillis(), result.errors());
+        }
+    }
+    
+    private static Result drive(HttpClient client, String baseUrl, SyntheticData data,
+                                int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        LongAdder errors = new LongAdder();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        
+        for (int i = 0; i < concurrency; i++) {
+            int clientIndex = i;
+            Thread thread = new Thread(() -> {
+                long[] own = new long[1024];
+                int count = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + data.randomPatientRef()))
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        if (count == own.length) {
+                            own = Arrays.copyOf(own, count * 2);
+                        }
+                        own[count++] = System.nanoTime() - start;
+                    }
+                } finally {
+                    latencies[clientIndex] = own;
+                    counts[clientIndex] = count;
+                    done.countDown();
+                }
+            }, "load-client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int i = 0; i < concurrency; i++) {
+            System.arraycopy(latencies[i], 0, all, offset, counts[i]);
+            offset += counts[i];
+        }
+        Arrays.sort(all);
+        return new Result(null, total, total / (duration.toNanos() / 1e9),
+                percentileMillis(all, 0.50), percentileMillis(all, 0.99),
+                total == 0 ? 0 : all[total - 1] / 1e6, errors.sum());
+    }
+    
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+    
+    private record Result(String mode, long requests, double throughput,
+                          double p50Millis, double p99Millis, double maxMillis, long errors) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.mccrae.healthcare.benchmarks;
+
+import com.mccrae.healthcare.timezone.InstantFormatter;
+import com.mccrae.healthcare.timezone.ZoneRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting a notification time in the recipient's timezone
+ *
+ * naive: ZoneId.of + DateTimeFormatter.ofPattern + atZone per call.
+ * cachedFormatter: shared DateTimeFormatter and ZoneId, atZone per call.
+ * registry: ZoneRegistry lookups + InstantFormatter.formatTo into a reused buffer.
+ *
+ * Patient zones rotate across a few ids, as in a reminder batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ZoneFormatBenchmark {
+
+    private static final String PATTERN = "d MMM yyyy, h:mm a z";
+    private static final String[] ZONE_IDS = {"Pacific/Auckland", "America/New_York", "Europe/London", "Asia/Kolkata"};
+
+    private final DateTimeFormatter sharedFormatter = DateTimeFormatter.ofPattern(PATTERN, Locale.ENGLISH);
+    private final ZoneId[] sharedZones = new ZoneId[ZONE_IDS.length];
+    private final StringBuilder buffer = new StringBuilder(64);
+
+    private Instant time;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        time = Instant.now().plusSeconds(86_400);
+        for (int i = 0; i < ZONE_IDS.length; i++) {
+            sharedZones[i] = ZoneId.of(ZONE_IDS[i]);
+        }
+    }
+
+    @Benchmark
+    public String naive() {
+        String id = ZONE_IDS[next++ & 3];
+        return DateTimeFormatter.ofPattern(PATTERN, Locale.ENGLISH).format(time.atZone(ZoneId.of(id)));
+    }
+
+    @Benchmark
+    public String cachedFormatter() {
+        return sharedFormatter.format(time.atZone(sharedZones[next++ & 3]));
+    }
+
+    @Benchmark
+    public int registry() {
+        String id = ZONE_IDS[next++ & 3];
+        InstantFormatter formatter = ZoneRegistry.formatter(PATTERN, Locale.ENGLISH);
+        buffer.setLength(0);
+        formatter.formatTo(time, ZoneRegistry.zone(id), buffer);
+        return buffer.length();
+    }
+}
@@ -0,0 +1,219 @@
+package com.mccrae.healthcare.admission;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit for one RequestClass, adjusted by AIMD on observed latency
+ *
+ * - Additive increase: a request that finishes within latency-target while the
+ *   limit is at least half used grows the limit by 1/limit (about +1 per limit's
+ *   worth of requests)
+ * - Multiplicative decrease: a request slower than latency-target, or failing with
+ *   a 5xx, multiplies the limit by backoff-ratio - at most once per latency-target,
+ *   so one burst of slow requests counts as one signal
+ *
+ * A request over the limit waits up to max-queue-time in a FIFO queue of at
+ * most max-queue-size; max-queue-time 0 means reject immediately.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private final RequestClass requestClass;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyTargetNanos;
+    private final long maxQueueNanos;
+    private final int maxQueueSize;
+    private final LongSupplier nanoTime;
+
+    // ReentrantLock, not synchronized: acquire() waits on permitReleased while holding it
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private long lastDecreaseAt;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAccumulator maxQueueNanosSeen = new LongAccumulator(Math::max, 0);
+
+    AdaptiveConcurrencyLimit(RequestClass requestClass, int initialLimit, int minLimit, int maxLimit,
+                             double backoffRatio, Duration latencyTarget, Duration maxQueueTime, int maxQueueSize) {
+        this(requestClass, initialLimit, minLimit, maxLimit, backoffRatio, latencyTarget, maxQueueTime, maxQueueSize,
+                System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimit(RequestClass requestClass, int initialLimit, int minLimit, int maxLimit,
+                             double backoffRatio, Duration latencyTarget, Duration maxQueueTime, int maxQueueSize,
+                             LongSupplier nanoTime) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit
+                || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid " + requestClass + " limit: initial " + initialLimit
+                    + ", min " + minLimit + ", max " + maxLimit + ", backoff " + backoffRatio);
+        }
+        this.requestClass = requestClass;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.maxQueueNanos = maxQueueTime.toNanos();
+        this.maxQueueSize = maxQueueSize;
+        this.nanoTime = nanoTime;
+        this.limit = initialLimit;
+        this.lastDecreaseAt = nanoTime.getAsLong() - latencyTargetNanos;
+    }
+
+    /**
+     * Take a slot, waiting up to max-queue-time if the class is at its limit
+     *
+     * @return the admission start time (pass it to {@link #release}), or -1 if rejected
+     */
+    long acquire() throws InterruptedException {
+        long arrivedAt = nanoTime.getAsLong();
+        lock.lock();
+        try {
+            if (waiting == 0 && inFlight < currentLimit()) {
+                inFlight++;
+                admitted.increment();
+                return arrivedAt;
+            }
+            if (maxQueueNanos <= 0 || waiting >= maxQueueSize) {
+                rejected.increment();
+                return -1;
+            }
+
+            waiting++;
+            try {
+                long remaining = maxQueueNanos;
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        return -1;
+                    }
+                    remaining = permitReleased.awaitNanos(remaining);
+                }
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            if (inFlight < currentLimit()) {
+                permitReleased.signal(); // The limit may have grown by more than one
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        long admittedAt = nanoTime.getAsLong();
+        long waited = admittedAt - arrivedAt;
+        admitted.increment();
+        queued.increment();
+        queueNanos.add(waited);
+        maxQueueNanosSeen.accumulate(waited);
+        return admittedAt;
+    }
+
+    /**
+     * Free a slot and feed the request's latency into the limit
+     *
+     * @param admittedAt value returned by {@link #acquire()}
+     * @param failed true for a 5xx - counts as overload regardless of latency
+     * @return true if the request was an overload signal (slow or failed)
+     */
+    boolean release(long admittedAt, boolean failed) {
+        long now = nanoTime.getAsLong();
+        boolean overloaded = failed || now - admittedAt > latencyTargetNanos;
+        lock.lock();
+        try {
+            if (overloaded) {
+                decrease(now);
+            } else if (inFlight * 2 >= limit) {
+                // Only grow a limit that is actually being used
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            inFlight--;
+            if (waiting > 0) {
+                permitReleased.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return overloaded;
+    }
+
+    /**
+     * Multiplicative decrease from outside (a higher-priority class is overloaded)
+     */
+    void backOff() {
+        lock.lock();
+        try {
+            decrease(nanoTime.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Count a request shed before it reached this limit
+     */
+    void reject() {
+        rejected.increment();
+    }
+
+    int waiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    AdmissionStats.ClassStats stats() {
+        int currentLimit;
+        int currentInFlight;
+        int currentWaiting;
+        lock.lock();
+        try {
+            currentLimit = currentLimit();
+            currentInFlight = inFlight;
+            currentWaiting = waiting;
+        } finally {
+            lock.unlock();
+        }
+        long queuedCount = queued.sum();
+        double averageQueueMillis = queuedCount == 0 ? 0
+                : queueNanos.sum() / (double) queuedCount / TimeUnit.MILLISECONDS.toNanos(1);
+        return new AdmissionStats.ClassStats(
+                requestClass,
+                currentLimit,
+                currentInFlight,
+                currentWaiting,
+                admitted.sum(),
+                queuedCount,
+                rejected.sum(),
+                averageQueueMillis,
+                maxQueueNanosSeen.get() / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    // Caller holds the lock
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    // Caller holds the lock
+    private void decrease(long now) {
+        if (now - lastDecreaseAt >= latencyTargetNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            lastDecreaseAt = now;
+        }
+    }
+}
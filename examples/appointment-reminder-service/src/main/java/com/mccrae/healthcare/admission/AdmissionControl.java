@@ -0,0 +1,125 @@
+package com.mccrae.healthcare.admission;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission Control - separate adaptive concurrency limits per RequestClass
+ *
+ * Each class (CRITICAL, INTERACTIVE, BULK) has its own AIMD limit, configured under
+ * healthcare.admission.{class}.*, so a bulk export can only ever hold BULK slots.
+ * On top of that BULK yields to the other classes:
+ * - While CRITICAL or INTERACTIVE requests are queueing, BULK is rejected outright
+ * - A slow or failing CRITICAL/INTERACTIVE request also backs the BULK limit off
+ *
+ * BULK never queues (max-queue-time 0) - overload answers 429 immediately rather
+ * than holding a server thread.
+ */
+@Component
+public class AdmissionControl {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControl.class);
+
+    private final boolean enabled;
+    private final Map<RequestClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(RequestClass.class);
+
+    public AdmissionControl(
+            @Value("${healthcare.admission.enabled:true}") boolean enabled,
+            Environment environment) {
+        this.enabled = enabled;
+        // Defaults: initial/min/max limit, latency target, max queue time, max queue size
+        limits.put(RequestClass.CRITICAL, limit(environment, RequestClass.CRITICAL,
+                50, 10, 200, Duration.ofMillis(250), Duration.ofSeconds(5), 1000));
+        limits.put(RequestClass.INTERACTIVE, limit(environment, RequestClass.INTERACTIVE,
+                100, 10, 400, Duration.ofMillis(500), Duration.ofMillis(500), 200));
+        limits.put(RequestClass.BULK, limit(environment, RequestClass.BULK,
+                4, 1, 16, Duration.ofSeconds(30), Duration.ZERO, 0));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Admit a request, waiting up to its class's max-queue-time
+     *
+     * @return the admission to release when the request completes, or null if rejected
+     */
+    Admission admit(RequestClass requestClass) throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = limits.get(requestClass);
+        if (requestClass == RequestClass.BULK
+                && (limits.get(RequestClass.CRITICAL).waiting() > 0 || limits.get(RequestClass.INTERACTIVE).waiting() > 0)) {
+            limit.reject();
+            return null;
+        }
+        long admittedAt = limit.acquire();
+        return admittedAt < 0 ? null : new Admission(requestClass, admittedAt);
+    }
+
+    public AdmissionStats stats() {
+        List<AdmissionStats.ClassStats> stats = new ArrayList<>(limits.size());
+        for (AdaptiveConcurrencyLimit limit : limits.values()) {
+            stats.add(limit.stats());
+        }
+        return new AdmissionStats(enabled, stats);
+    }
+
+    private static AdaptiveConcurrencyLimit limit(Environment environment, RequestClass requestClass,
+                                                  int initialLimit, int minLimit, int maxLimit,
+                                                  Duration latencyTarget, Duration maxQueueTime, int maxQueueSize) {
+        String prefix = "healthcare.admission." + requestClass.name().toLowerCase(Locale.ROOT) + ".";
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                requestClass,
+                environment.getProperty(prefix + "initial-limit", Integer.class, initialLimit),
+                environment.getProperty(prefix + "min-limit", Integer.class, minLimit),
+                environment.getProperty(prefix + "max-limit", Integer.class, maxLimit),
+                environment.getProperty(prefix + "backoff-ratio", Double.class, 0.9),
+                environment.getProperty(prefix + "latency-target", Duration.class, latencyTarget),
+                environment.getProperty(prefix + "max-queue-time", Duration.class, maxQueueTime),
+                environment.getProperty(prefix + "max-queue-size", Integer.class, maxQueueSize));
+        logger.info("Admission class {}: limit {}", requestClass, limit.stats().limit());
+        return limit;
+    }
+
+    /**
+     * A slot held by one request - release exactly once when the response is complete
+     */
+    final class Admission {
+        private final RequestClass requestClass;
+        private final long admittedAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Admission(RequestClass requestClass, long admittedAt) {
+            this.requestClass = requestClass;
+            this.admittedAt = admittedAt;
+        }
+
+        RequestClass requestClass() {
+            return requestClass;
+        }
+
+        /**
+         * @param failed true if the response was a 5xx
+         */
+        void release(boolean failed) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            boolean overloaded = limits.get(requestClass).release(admittedAt, failed);
+            if (overloaded && requestClass != RequestClass.BULK) {
+                limits.get(RequestClass.BULK).backOff();
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.mccrae.healthcare.admission;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admission control REST API (exempt from admission control itself)
+ * 
+ * Endpoints:
+ * - GET    /api/admission/stats    - Per-class limits, in-flight, queue times and rejections
+ */
+@RestController
+@RequestMapping("/api/admission")
+public class AdmissionController {
+    
+    @Autowired
+    private AdmissionControl admissionControl;
+    
+    @GetMapping("/stats")
+    public ResponseEntity<AdmissionStats> stats() {
+        return ResponseEntity.ok(admissionControl.stats());
+    }
+}
@@ -0,0 +1,117 @@
+package com.mccrae.healthcare.admission;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Admission Filter - classifies every API request and admits or rejects it
+ *
+ * Rejected requests get 429 with Retry-After, written directly (no error dispatch,
+ * no handler) so shedding load costs next to nothing. Streaming responses
+ * (NDJSON export) hold their slot until the async response completes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionFilter.class);
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !admissionControl.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestClass requestClass = RequestClassifier.classify(
+                request.getMethod(), request.getRequestURI(), request.getHeader(HttpHeaders.ACCEPT));
+        if (requestClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AdmissionControl.Admission admission;
+        try {
+            admission = admissionControl.admit(requestClass);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admission = null;
+        }
+        if (admission == null) {
+            reject(response, requestClass);
+            return;
+        }
+
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(admission));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                admission.release(isServerError(response.getStatus()));
+            }
+        }
+    }
+
+    private static void reject(HttpServletResponse response, RequestClass requestClass) throws IOException {
+        // ✅ CORRECT: Class only - the path can carry a patient reference
+        logger.debug("Rejected {} request (over admission limit)", requestClass);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\",\"requestClass\":\"" + requestClass + "\"}");
+    }
+
+    private static boolean isServerError(int status) {
+        return status >= 500;
+    }
+
+    private record ReleaseOnComplete(AdmissionControl.Admission admission) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            admission.release(isServerError(((HttpServletResponse) event.getSuppliedResponse()).getStatus()));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            admission.release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            admission.release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the next async cycle
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
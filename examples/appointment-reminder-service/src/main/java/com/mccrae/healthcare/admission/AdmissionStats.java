@@ -0,0 +1,29 @@
+package com.mccrae.healthcare.admission;
+
+import java.util.List;
+
+/**
+ * Point-in-time admission counters, one entry per RequestClass
+ */
+public record AdmissionStats(
+        boolean enabled,
+        List<ClassStats> classes
+) {
+
+    /**
+     * queued: admitted after waiting for a slot; queue times are over those requests
+     * (admitted without waiting count as 0 and are not included)
+     */
+    public record ClassStats(
+            RequestClass requestClass,
+            int limit,
+            int inFlight,
+            int waiting,
+            long admitted,
+            long queued,
+            long rejected,
+            double averageQueueMillis,
+            double maxQueueMillis
+    ) {
+    }
+}
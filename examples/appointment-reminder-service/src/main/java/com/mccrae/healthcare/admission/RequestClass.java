@@ -0,0 +1,15 @@
+package com.mccrae.healthcare.admission;
+
+/**
+ * Admission class of an API request - each class has its own adaptive concurrency limit
+ *
+ * - CRITICAL: notification submission (emergency contact) - queues rather than fails
+ * - INTERACTIVE: single-record reads and writes - queues briefly
+ * - BULK: imports, exports, change-feed paging, audit chain verification and BULK-priority
+ *   notifications - never queues, 429 under overload
+ */
+public enum RequestClass {
+    CRITICAL,
+    INTERACTIVE,
+    BULK
+}
@@ -0,0 +1,43 @@
+package com.mccrae.healthcare.admission;
+
+import org.springframework.http.HttpMethod;
+
+/**
+ * Maps a request to its RequestClass from method, path and Accept header
+ *
+ * Classification happens before the handler runs, so it only looks at what is
+ * on the request line - never the body. That is why BULK-priority notifications
+ * have their own path (/api/notifications/bulk): NotificationController refuses
+ * them on /api/notifications, which is admitted as CRITICAL.
+ */
+final class RequestClassifier {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private RequestClassifier() {
+    }
+
+    /**
+     * @return the request's class, or null if it is not subject to admission control
+     *         (non-API paths, and /api/admission itself so it can be read under overload)
+     */
+    static RequestClass classify(String method, String path, String accept) {
+        if (!path.startsWith("/api/") || path.startsWith("/api/admission")) {
+            return null;
+        }
+        boolean get = HttpMethod.GET.matches(method);
+
+        if (path.equals("/api/notifications") && HttpMethod.POST.matches(method)) {
+            return RequestClass.CRITICAL;
+        }
+        if (path.startsWith("/api/patients/import")
+                || path.equals("/api/notifications/bulk")
+                || path.startsWith("/api/consents/changes")
+                || path.startsWith("/api/audit-logs/verify")
+                || (!get && path.startsWith("/api/shards"))
+                || (get && path.equals("/api/patients") && accept != null && accept.contains(NDJSON))) {
+            return RequestClass.BULK;
+        }
+        return RequestClass.INTERACTIVE;
+    }
+}
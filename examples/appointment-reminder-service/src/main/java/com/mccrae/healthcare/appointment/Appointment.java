@@ -0,0 +1,164 @@
+package com.mccrae.healthcare.appointment;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Appointment entity - a scheduled visit and the state of its reminder
+ * 
+ * Note: 
+ * - Uses Instant for timestamps (UTC); the patient's timezone is only applied
+ *   when computing reminderDueAt and when rendering the reminder
+ * - reminderDueAt is indexed so the ReminderScheduler can load upcoming
+ *   reminders incrementally instead of polling the whole table
+ */
+@Entity
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_reminder_due", columnList = "reminderStatus, reminderDueAt, id"),
+        @Index(name = "idx_appointments_patient_ref", columnList = "patientRef")
+})
+public class Appointment {
+    
+    @Id
+    private UUID id;
+    
+    @Column(nullable = false)
+    @NotBlank
+    private String patientRef; // Reference to patient (safe to log)
+    
+    @Column(nullable = false)
+    @NotBlank
+    private String appointmentType; // e.g., "Checkup", "Follow-up", "Consultation"
+    
+    @Column(nullable = false)
+    @NotNull
+    private Instant scheduledTime; // Always UTC
+    
+    @Column(nullable = false)
+    @NotBlank
+    private String location; // e.g., "Room 101", "Building A"
+    
+    @Column(nullable = false)
+    @NotBlank
+    private String providerName; // PHI - never log this
+    
+    @Column(nullable = false)
+    private Instant reminderDueAt; // When the reminder fires (UTC), computed from the patient's timezone
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReminderStatus reminderStatus;
+    
+    private Instant reminderSentAt; // Set when the reminder was handled (UTC)
+    
+    @Column(nullable = false)
+    private Instant createdAt; // Always UTC
+    
+    @Column(nullable = false)
+    private Instant updatedAt; // Always UTC
+    
+    // Constructors
+    public Appointment() {
+        this.id = UUID.randomUUID();
+        this.reminderStatus = ReminderStatus.PENDING;
+        this.createdAt = Instant.now();
+        this.updatedAt = Instant.now();
+    }
+    
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public String getPatientRef() {
+        return patientRef;
+    }
+    
+    public void setPatientRef(String patientRef) {
+        this.patientRef = patientRef;
+    }
+    
+    public String getAppointmentType() {
+        return appointmentType;
+    }
+    
+    public void setAppointmentType(String appointmentType) {
+        this.appointmentType = appointmentType;
+    }
+    
+    public Instant getScheduledTime() {
+        return scheduledTime;
+    }
+    
+    public void setScheduledTime(Instant scheduledTime) {
+        this.scheduledTime = scheduledTime;
+    }
+    
+    public String getLocation() {
+        return location;
+    }
+    
+    public void setLocation(String location) {
+        this.location = location;
+    }
+    
+    public String getProviderName() {
+        return providerName;
+    }
+    
+    public void setProviderName(String providerName) {
+        this.providerName = providerName;
+    }
+    
+    public Instant getReminderDueAt() {
+        return reminderDueAt;
+    }
+    
+    public void setReminderDueAt(Instant reminderDueAt) {
+        this.reminderDueAt = reminderDueAt;
+    }
+    
+    public ReminderStatus getReminderStatus() {
+        return reminderStatus;
+    }
+    
+    public void setReminderStatus(ReminderStatus reminderStatus) {
+        this.reminderStatus = reminderStatus;
+    }
+    
+    public Instant getReminderSentAt() {
+        return reminderSentAt;
+    }
+    
+    public void setReminderSentAt(Instant reminderSentAt) {
+        this.reminderSentAt = reminderSentAt;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = Instant.now();
+    }
+}
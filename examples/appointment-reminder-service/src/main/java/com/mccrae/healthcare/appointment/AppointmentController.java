@@ -0,0 +1,66 @@
+package com.mccrae.healthcare.appointment;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Appointment REST API
+ * 
+ * Endpoints:
+ * - POST   /api/appointments                  - Create appointment (reminder scheduled automatically)
+ * - GET    /api/appointments/patient/{ref}    - Get appointments for patient
+ * - PUT    /api/appointments/{id}             - Update appointment (new time re-arms the reminder)
+ * - DELETE /api/appointments/{id}             - Delete appointment
+ * - GET    /api/appointments/reminders/stats  - Reminder scheduler counters
+ */
+@RestController
+@RequestMapping("/api/appointments")
+public class AppointmentController {
+    
+    @Autowired
+    private AppointmentService appointmentService;
+    
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+    
+    @PostMapping
+    public ResponseEntity<Appointment> createAppointment(@Valid @RequestBody Appointment appointment) {
+        try {
+            Appointment created = appointmentService.createAppointment(appointment);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/patient/{patientRef}")
+    public ResponseEntity<List<Appointment>> getPatientAppointments(@PathVariable String patientRef) {
+        return ResponseEntity.ok(appointmentService.getAppointmentsForPatient(patientRef));
+    }
+    
+    @PutMapping("/{id}")
+    public ResponseEntity<Appointment> updateAppointment(
+            @PathVariable UUID id,
+            @Valid @RequestBody Appointment appointment) {
+        return appointmentService.updateAppointment(id, appointment)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteAppointment(@PathVariable UUID id) {
+        appointmentService.deleteAppointment(id);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @GetMapping("/reminders/stats")
+    public ResponseEntity<ReminderSchedulerStats> getReminderStats() {
+        return ResponseEntity.ok(reminderScheduler.stats());
+    }
+}
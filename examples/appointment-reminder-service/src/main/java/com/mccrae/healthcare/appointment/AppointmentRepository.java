@@ -0,0 +1,33 @@
+package com.mccrae.healthcare.appointment;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AppointmentRepository extends JpaRepository<Appointment, UUID> {
+    List<Appointment> findByPatientRef(String patientRef);
+    
+    /**
+     * One keyset page of PENDING reminders due in [from, to), in (reminderDueAt, id) order
+     * - backed by idx_appointments_reminder_due
+     */
+    @Query("SELECT new com.mccrae.healthcare.appointment.ReminderTask(a.id, a.reminderDueAt) FROM Appointment a "
+            + "WHERE a.reminderStatus = com.mccrae.healthcare.appointment.ReminderStatus.PENDING "
+            + "AND a.reminderDueAt >= :from AND a.reminderDueAt < :to "
+            + "AND (a.reminderDueAt > :afterDueAt OR (a.reminderDueAt = :afterDueAt AND a.id > :afterId)) "
+            + "ORDER BY a.reminderDueAt, a.id")
+    List<ReminderTask> findPendingReminders(
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("afterDueAt") Instant afterDueAt,
+            @Param("afterId") UUID afterId,
+            Limit limit
+    );
+}
@@ -0,0 +1,142 @@
+package com.mccrae.healthcare.appointment;
+
+import com.mccrae.healthcare.audit.AuditLogger;
+import com.mccrae.healthcare.patient.PatientRepository;
+import com.mccrae.healthcare.patient.PatientTimezone;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import com.mccrae.healthcare.timezone.ZoneRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Appointment Service - appointments and their reminder schedule
+ * 
+ * Reminders are due lead-time before the appointment in the patient's local
+ * time (e.g. 9:00 the day before), so DST changes do not shift them by an hour.
+ */
+@Service
+public class AppointmentService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentService.class);
+    
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    
+    @Autowired
+    private PatientRepository patientRepository;
+    
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+    
+    @Autowired
+    private AuditLogger auditLogger;
+    
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Value("${healthcare.reminders.lead-time:1d}")
+    private Period leadTime;
+    
+    /**
+     * @throws IllegalArgumentException if the patient does not exist
+     */
+    public Appointment createAppointment(Appointment appointment) {
+        // ✅ CORRECT: Log reference IDs, not provider or appointment details
+        logger.info("Creating appointment {} for patient {}", appointment.getId(), appointment.getPatientRef());
+        
+        appointment.setReminderDueAt(reminderDueAt(appointment));
+        appointment.setReminderStatus(ReminderStatus.PENDING);
+        appointment.setReminderSentAt(null);
+        Appointment saved = appointmentRepository.save(appointment);
+        reminderScheduler.schedule(saved);
+        
+        auditLogger.log("APPOINTMENT_CREATED", saved.getPatientRef(), "Appointment " + saved.getId() + " created");
+        return saved;
+    }
+    
+    public List<Appointment> getAppointmentsForPatient(String patientRef) {
+        // ✅ CORRECT: Log reference ID
+        logger.info("Retrieving appointments for patient {}", patientRef);
+        
+        List<Appointment> appointments = appointmentRepository.findByPatientRef(patientRef);
+        auditLogger.log("APPOINTMENT_ACCESSED", patientRef, "Appointments accessed");
+        return appointments;
+    }
+    
+    /**
+     * Update an appointment; a new time re-arms its reminder
+     * 
+     * @return empty if the appointment does not exist
+     */
+    public Optional<Appointment> updateAppointment(UUID id, Appointment changes) {
+        Optional<Appointment> existing = appointmentRepository.findById(id);
+        if (existing.isEmpty()) {
+            return Optional.empty();
+        }
+        Appointment appointment = existing.get();
+        // ✅ CORRECT: Log reference IDs
+        logger.info("Updating appointment {} for patient {}", id, appointment.getPatientRef());
+        
+        boolean rescheduled = !appointment.getScheduledTime().equals(changes.getScheduledTime());
+        appointment.setAppointmentType(changes.getAppointmentType());
+        appointment.setScheduledTime(changes.getScheduledTime());
+        appointment.setLocation(changes.getLocation());
+        appointment.setProviderName(changes.getProviderName());
+        if (rescheduled) {
+            appointment.setReminderDueAt(reminderDueAt(appointment));
+            appointment.setReminderStatus(ReminderStatus.PENDING);
+            appointment.setReminderSentAt(null);
+        }
+        Appointment saved = appointmentRepository.save(appointment);
+        if (rescheduled) {
+            reminderScheduler.schedule(saved);
+        }
+        
+        auditLogger.log("APPOINTMENT_UPDATED", saved.getPatientRef(), "Appointment " + id + " updated");
+        return Optional.of(saved);
+    }
+    
+    public void deleteAppointment(UUID id) {
+        Optional<Appointment> appointment = appointmentRepository.findById(id);
+        if (appointment.isPresent()) {
+            // ✅ CORRECT: Log reference IDs
+            logger.info("Deleting appointment {} for patient {}", id, appointment.get().getPatientRef());
+            
+            appointmentRepository.deleteById(id);
+            reminderScheduler.cancel(id);
+            auditLogger.log("APPOINTMENT_DELETED", appointment.get().getPatientRef(), "Appointment " + id + " deleted");
+        }
+    }
+    
+    private Instant reminderDueAt(Appointment appointment) {
+        List<PatientTimezone> patients = shardRouter.callForPatient(appointment.getPatientRef(),
+                () -> patientRepository.findByReferenceIdIn(List.of(appointment.getPatientRef())));
+        if (patients.isEmpty()) {
+            throw new IllegalArgumentException("Unknown patient " + appointment.getPatientRef());
+        }
+        ZoneId zone;
+        try {
+            zone = ZoneRegistry.zone(patients.get(0).getTimezone());
+        } catch (DateTimeException e) {
+            // ✅ CORRECT: Log reference ID only
+            logger.warn("Invalid timezone for patient {}, using UTC", appointment.getPatientRef());
+            zone = ZoneOffset.UTC;
+        }
+        // Millisecond precision survives the database round trip, so the dispatcher
+        // can match the stored due time against the one in the timing wheel
+        return appointment.getScheduledTime().atZone(zone).minus(leadTime).toInstant().truncatedTo(ChronoUnit.MILLIS);
+    }
+}
@@ -0,0 +1,125 @@
+package com.mccrae.healthcare.appointment;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel - O(1) insert, O(1) amortised expiry
+ * 
+ * Level 0 has wheelSize buckets of tickMillis each. Items further out go to an
+ * overflow wheel whose tick is the whole span of the level below, created on
+ * demand, so the wheel covers any horizon with a handful of levels. When the
+ * clock reaches an overflow bucket, its items cascade down to the finer level.
+ * 
+ * Items fire once the tick containing their due time has ended - never early,
+ * at most one tick late.
+ * 
+ * Note: Not thread-safe - owned by a single ticking thread.
+ */
+final class HierarchicalTimingWheel<T> {
+    
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long intervalMillis;
+    private final ArrayDeque<Entry<T>>[] buckets;
+    
+    private long currentTime; // Start of the oldest bucket not yet expired
+    private int size;
+    private HierarchicalTimingWheel<T> overflow;
+    
+    HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize > 1");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.intervalMillis = Math.multiplyExact(tickMillis, wheelSize);
+        @SuppressWarnings("unchecked") // Array of wildcard deques, only ever filled with Entry<T> deques
+        ArrayDeque<Entry<T>>[] slots = (ArrayDeque<Entry<T>>[]) new ArrayDeque<?>[wheelSize];
+        this.buckets = slots;
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+    }
+    
+    /**
+     * @return false if the item is already due - the caller should fire it now
+     */
+    boolean add(T item, long dueMillis) {
+        return add(new Entry<>(item, dueMillis));
+    }
+    
+    /**
+     * Advance the clock, handing every item whose tick has ended to expired
+     */
+    void advanceTo(long nowMillis, Consumer<? super T> expired) {
+        advance(nowMillis, entry -> expired.accept(entry.item()));
+    }
+    
+    /**
+     * Items held across all levels
+     */
+    int size() {
+        return overflow == null ? size : size + overflow.size();
+    }
+    
+    private boolean add(Entry<T> entry) {
+        if (entry.dueMillis() < currentTime) {
+            return false;
+        }
+        if (entry.dueMillis() < currentTime + intervalMillis) {
+            bucket(entry.dueMillis()).addLast(entry);
+            size++;
+            return true;
+        }
+        return overflow().add(entry);
+    }
+    
+    private void advance(long nowMillis, Consumer<Entry<T>> sink) {
+        while (currentTime + tickMillis <= nowMillis) {
+            ArrayDeque<Entry<T>> bucket = buckets[slot(currentTime)];
+            if (bucket != null) {
+                Entry<T> entry;
+                while ((entry = bucket.pollFirst()) != null) {
+                    size--;
+                    sink.accept(entry);
+                }
+            }
+            currentTime += tickMillis;
+            if (overflow != null) {
+                // An overflow bucket cascades as soon as this level reaches its start
+                overflow.advance(currentTime + intervalMillis, this::reinsert);
+            }
+        }
+    }
+    
+    private void reinsert(Entry<T> entry) {
+        if (!add(entry)) {
+            // Cannot happen while the levels are in step; fire on the next tick rather than lose it
+            bucket(currentTime).addLast(entry);
+            size++;
+        }
+    }
+    
+    private ArrayDeque<Entry<T>> bucket(long dueMillis) {
+        int slot = slot(dueMillis);
+        ArrayDeque<Entry<T>> bucket = buckets[slot];
+        if (bucket == null) {
+            bucket = new ArrayDeque<>();
+            buckets[slot] = bucket;
+        }
+        return bucket;
+    }
+    
+    private int slot(long millis) {
+        return (int) Math.floorMod(Math.floorDiv(millis, tickMillis), (long) wheelSize);
+    }
+    
+    private HierarchicalTimingWheel<T> overflow() {
+        if (overflow == null) {
+            overflow = new HierarchicalTimingWheel<>(intervalMillis, wheelSize, currentTime);
+        }
+        return overflow;
+    }
+    
+    private record Entry<T>(T item, long dueMillis) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.mccrae.healthcare.appointment;
+
+import com.mccrae.healthcare.notification.ConsentLevel;
+import com.mccrae.healthcare.notification.ContentField;
+import com.mccrae.healthcare.notification.NotificationChannel;
+import com.mccrae.healthcare.notification.NotificationContent;
+import com.mccrae.healthcare.notification.NotificationContentBuilder;
+import com.mccrae.healthcare.notification.NotificationPriority;
+import com.mccrae.healthcare.notification.NotificationRequest;
+import com.mccrae.healthcare.notification.NotificationService;
+import com.mccrae.healthcare.notification.NotificationTemplates;
+import com.mccrae.healthcare.notification.NotificationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+
+/**
+ * Reminder Notifier - renders the reminder in the patient's timezone and hands it
+ * to notification delivery (SMS to the patient's own phone, BULK priority - never
+ * ahead of urgent notifications)
+ * 
+ * Only called for patients with APPOINTMENT_REMINDER consent (checked by
+ * ReminderDispatcher), so the STANDARD template is used.
+ * 
+ * Note: The message contains PHI (appointment details) - never log it
+ */
+@Component
+public class ReminderNotifier {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReminderNotifier.class);
+    
+    // Reused per dispatcher thread, cleared after every message
+    private static final ThreadLocal<NotificationContent> CONTENT = ThreadLocal.withInitial(NotificationContent::new);
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private NotificationContentBuilder contentBuilder;
+    
+    public void send(Appointment appointment, ZoneId patientZone) {
+        String message = render(appointment, patientZone);
+        notificationService.deliverNotification(new NotificationRequest(appointment.getPatientRef(),
+                NotificationChannel.SMS, NotificationPriority.BULK, null, message, "appointment-" + appointment.getId()));
+        
+        // ✅ CORRECT: Log appointment ID only, never the message
+        logger.debug("Reminder queued for appointment {}", appointment.getId());
+    }
+    
+    String render(Appointment appointment, ZoneId patientZone) {
+        NotificationContent content = CONTENT.get();
+        try {
+            content.set(ContentField.APPOINTMENT_TYPE, appointment.getAppointmentType())
+                    .set(ContentField.APPOINTMENT_TIME, appointment.getScheduledTime())
+                    .set(ContentField.LOCATION, appointment.getLocation())
+                    .zone(patientZone);
+            return contentBuilder.build(NotificationType.APPOINTMENT_REMINDER, ConsentLevel.STANDARD,
+                    NotificationTemplates.DEFAULT_LANGUAGE, content).body();
+        } finally {
+            content.clear();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.mccrae.healthcare.appointment;
+
+import com.mccrae.healthcare.concurrent.ThreadFactories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reminder Scheduler - fires appointment reminders on time without polling
+ * 
+ * Design:
+ * - Only the next lookahead window of PENDING reminders is held in memory, in a
+ *   hierarchical timing wheel. It is topped up in keyset pages from
+ *   idx_appointments_reminder_due when less than half the window is left.
+ * - One "reminder-ticker" thread owns the wheel: applies schedule/cancel requests,
+ *   loads ahead, advances the clock every tick and hands due reminders to workers.
+ * - Due reminders are dispatched in batches on a bounded worker pool; when the pool
+ *   is saturated the ticker runs the batch itself (back-pressure, nothing is dropped).
+ * - On startup, PENDING reminders from the last catch-up period fire immediately.
+ * 
+ * Note: The database status is the source of truth - the dispatcher re-checks
+ * every reminder before sending, so the in-memory schedule may safely be stale.
+ */
+@Component
+public class ReminderScheduler implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
+    
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    
+    @Autowired
+    private ReminderDispatcher reminderDispatcher;
+    
+    @Autowired
+    private ThreadFactories threadFactories;
+    
+    @Value("${healthcare.reminders.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${healthcare.reminders.tick:1s}")
+    private Duration tick;
+    
+    @Value("${healthcare.reminders.wheel-size:60}")
+    private int wheelSize;
+    
+    @Value("${healthcare.reminders.lookahead:10m}")
+    private Duration lookahead;
+    
+    @Value("${healthcare.reminders.catch-up:6h}")
+    private Duration catchUp;
+    
+    @Value("${healthcare.reminders.load-page-size:5000}")
+    private int loadPageSize;
+    
+    @Value("${healthcare.reminders.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${healthcare.reminders.worker-threads:8}")
+    private int workerThreads;
+    
+    @Value("${healthcare.reminders.worker-queue-capacity:64}")
+    private int workerQueueCapacity;
+    
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+    
+    // Requests from other threads, applied by the ticker
+    private final ConcurrentLinkedQueue<Change> changes = new ConcurrentLinkedQueue<>();
+    
+    // Owned by the ticker thread
+    private HierarchicalTimingWheel<ReminderTask> wheel;
+    private final Map<UUID, Instant> scheduledDue = new HashMap<>();
+    
+    private final AtomicLong loadedUntil = new AtomicLong();
+    private final AtomicInteger scheduledCount = new AtomicInteger();
+    private final LongAdder fired = new LongAdder();
+    private final LongAccumulator maxLagMillis = new LongAccumulator(Math::max, 0);
+    
+    private volatile boolean running;
+    private long startedAtMillis;
+    private ScheduledExecutorService ticker;
+    private ThreadPoolExecutor workers;
+    
+    /**
+     * Make sure a new or rescheduled reminder fires (call after the appointment is saved)
+     */
+    public void schedule(Appointment appointment) {
+        if (appointment.getReminderStatus() == ReminderStatus.PENDING) {
+            changes.add(new Change(appointment.getId(), appointment.getReminderDueAt()));
+        } else {
+            cancel(appointment.getId());
+        }
+    }
+    
+    /**
+     * Drop a reminder from the in-memory schedule (call after the appointment is deleted)
+     */
+    public void cancel(UUID appointmentId) {
+        changes.add(new Change(appointmentId, null));
+    }
+    
+    public ReminderSchedulerStats stats() {
+        return new ReminderSchedulerStats(
+                running,
+                scheduledCount.get(),
+                Instant.ofEpochMilli(loadedUntil.get()),
+                fired.sum(),
+                reminderDispatcher.sentCount(),
+                reminderDispatcher.noConsentCount(),
+                reminderDispatcher.missedCount(),
+                maxLagMillis.get(),
+                workers == null ? 0 : workers.getQueue().size()
+        );
+    }
+    
+    @Override
+    public void start() {
+        if (!enabled) {
+            logger.info("Reminder scheduler disabled");
+            return;
+        }
+        long now = System.currentTimeMillis();
+        startedAtMillis = now;
+        wheel = new HierarchicalTimingWheel<>(tick.toMillis(), wheelSize, now);
+        loadedUntil.set(now - catchUp.toMillis());
+        
+        // Bounded in both thread modes - virtual workers still share the database pool
+        workers = new ThreadPoolExecutor(
+                workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerQueueCapacity),
+                threadFactories.named("reminder-worker"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reminder-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, 0, tick.toMillis(), TimeUnit.MILLISECONDS);
+        running = true;
+        logger.info("Reminder scheduler started (tick {}, lookahead {})", tick, lookahead);
+    }
+    
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        ticker.shutdown();
+        workers.shutdown();
+        try {
+            ticker.awaitTermination(10, TimeUnit.SECONDS);
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Reminder workers did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Reminder scheduler stopped");
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    @Override
+    public int getPhase() {
+        // Starts after (and stops before) the audit pipeline
+        return 10;
+    }
+    
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            applyChanges();
+            loadAhead(now);
+            
+            List<ReminderTask> due = new ArrayList<>();
+            wheel.advanceTo(now, task -> fire(task, due));
+            dispatch(due, now);
+            scheduledCount.set(wheel.size());
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic task
+            logger.error("Reminder tick failed", e);
+        }
+    }
+    
+    private void applyChanges() {
+        List<ReminderTask> due = new ArrayList<>();
+        Change change;
+        while ((change = changes.poll()) != null) {
+            if (change.dueAt() == null) {
+                scheduledDue.remove(change.appointmentId());
+            } else if (change.dueAt().toEpochMilli() < loadedUntil.get()) {
+                // Inside the loaded window - later ones are picked up by loadAhead
+                add(new ReminderTask(change.appointmentId(), change.dueAt()), due);
+            }
+        }
+        dispatch(due, System.currentTimeMillis());
+    }
+    
+    private void loadAhead(long now) {
+        long target = now + lookahead.toMillis();
+        if (loadedUntil.get() > now + lookahead.toMillis() / 2) {
+            return;
+        }
+        Instant from = Instant.ofEpochMilli(loadedUntil.get());
+        Instant to = Instant.ofEpochMilli(target);
+        
+        List<ReminderTask> due = new ArrayList<>();
+        Instant afterDueAt = from;
+        UUID afterId = new UUID(0L, 0L);
+        int loaded = 0;
+        List<ReminderTask> page;
+        do {
+            page = appointmentRepository.findPendingReminders(from, to, afterDueAt, afterId, Limit.of(loadPageSize));
+            for (ReminderTask task : page) {
+                add(task, due);
+            }
+            loaded += page.size();
+            if (!page.isEmpty()) {
+                ReminderTask last = page.get(page.size() - 1);
+                afterDueAt = last.dueAt();
+                afterId = last.appointmentId();
+            }
+        } while (page.size() == loadPageSize);
+        
+        loadedUntil.set(target);
+        dispatch(due, now);
+        logger.debug("Loaded {} reminders due before {}", loaded, to);
+    }
+    
+    private void add(ReminderTask task, List<ReminderTask> due) {
+        Instant previous = scheduledDue.put(task.appointmentId(), task.dueAt());
+        if (task.dueAt().equals(previous)) {
+            return; // Already in the wheel (loaded and scheduled concurrently)
+        }
+        if (!wheel.add(task, task.dueAt().toEpochMilli())) {
+            fire(task, due); // Overdue: fire right away
+        }
+    }
+    
+    private void fire(ReminderTask task, List<ReminderTask> due) {
+        // Cancelled or rescheduled tasks stay in the wheel until their slot expires - skip them here
+        if (task.dueAt().equals(scheduledDue.get(task.appointmentId()))) {
+            scheduledDue.remove(task.appointmentId());
+            due.add(task);
+        }
+    }
+    
+    private void dispatch(List<ReminderTask> due, long now) {
+        if (due.isEmpty()) {
+            return;
+        }
+        for (ReminderTask task : due) {
+            long dueMillis = task.dueAt().toEpochMilli();
+            if (dueMillis >= startedAtMillis) {
+                // Catch-up of reminders missed while the service was down is not lag
+                maxLagMillis.accumulate(now - dueMillis);
+            }
+        }
+        fired.add(due.size());
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<ReminderTask> batch = List.copyOf(due.subList(from, Math.min(from + batchSize, due.size())));
+            workers.execute(() -> dispatchBatch(batch));
+        }
+    }
+    
+    private void dispatchBatch(List<ReminderTask> batch) {
+        try {
+            reminderDispatcher.dispatch(batch);
+        } catch (RuntimeException e) {
+            // Reminders stay PENDING in the database - try the batch again later
+            logger.error("Failed to dispatch {} reminders, retrying in {}", batch.size(), RETRY_DELAY, e);
+            if (running) {
+                ticker.schedule(() -> retry(batch), RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+    
+    private void retry(List<ReminderTask> batch) {
+        List<ReminderTask> due = new ArrayList<>();
+        for (ReminderTask task : batch) {
+            // Skip reminders rescheduled or cancelled in the meantime
+            if (!scheduledDue.containsKey(task.appointmentId())) {
+                add(task, due);
+            }
+        }
+        dispatch(due, System.currentTimeMillis());
+    }
+    
+    // dueAt == null cancels the reminder
+    private record Change(UUID appointmentId, Instant dueAt) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.mccrae.healthcare.appointment;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time counters for the ReminderScheduler
+ * 
+ * maxLagMillis: worst delay between a reminder's due time and its hand-off to a worker
+ */
+public record ReminderSchedulerStats(
+        boolean running,
+        int scheduled,
+        Instant loadedUntil,
+        long fired,
+        long sent,
+        long noConsent,
+        long missed,
+        long maxLagMillis,
+        int workerQueueDepth
+) {
+}
@@ -0,0 +1,14 @@
+package com.mccrae.healthcare.appointment;
+
+/**
+ * Lifecycle of an appointment reminder
+ * 
+ * Only PENDING reminders are loaded by the ReminderScheduler; every other
+ * status is final (until the appointment is rescheduled).
+ */
+public enum ReminderStatus {
+    PENDING,
+    SENT,
+    NO_CONSENT, // Patient has no active APPOINTMENT_REMINDER consent at due time
+    MISSED      // Appointment had already started when the reminder came due
+}
@@ -0,0 +1,11 @@
+package com.mccrae.healthcare.appointment;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * What the ReminderScheduler keeps in memory per upcoming reminder - no PHI,
+ * the appointment itself is loaded again at dispatch time
+ */
+public record ReminderTask(UUID appointmentId, Instant dueAt) {
+}
@@ -0,0 +1,191 @@
+package com.mccrae.healthcare.audit;
+
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Audit Archiver - moves aged audit_logs rows to the columnar cold store
+ *
+ * Works one UTC day at a time, oldest first. A day is only moved once its
+ * chains are sealed with checkpoints and verify clean - a tampered day stays in
+ * audit_logs, where it is visible, instead of being frozen into the archive.
+ * Only rows up to the sequence verify reached in each chain are moved - rows
+ * appended while the day was being verified wait for the next run, so nothing
+ * reaches the archive unverified.
+ * Rows are written to a durable segment file before they are deleted, so a
+ * crash in between leaves them in both tiers (queries and verification count
+ * them once; the next run finishes the delete).
+ *
+ * Sharded, each day is read from every shard in (timestamp, id) order and its
+ * rows are deleted on the shards that hold them.
+ */
+@Component
+@ConditionalOnProperty(name = "healthcare.audit.archive.enabled", havingValue = "true")
+public class AuditArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditArchiver.class);
+
+    private static final int DELETE_CHUNK = 500;
+
+    private static final String NEXT_DAY_SQL =
+            "SELECT MIN(timestamp) FROM audit_logs WHERE timestamp >= ? AND timestamp < ?";
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private AuditChainVerifier verifier;
+
+    @Autowired
+    private AuditColdStore coldStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${healthcare.audit.archive.after-days:90}")
+    private int afterDays;
+
+    @Value("${healthcare.audit.archive.rows-per-segment:100000}")
+    private int rowsPerSegment;
+
+    /**
+     * Archive every day older than after-days
+     *
+     * @return rows moved to the cold store
+     */
+    @Scheduled(cron = "${healthcare.audit.archive.cron:0 30 2 * * *}", zone = "UTC")
+    public long archive() {
+        Instant cutoff = AuditChain.dayOf(Instant.now()).minusDays(afterDays).atStartOfDay(ZoneOffset.UTC).toInstant();
+        long moved = 0;
+        Instant searchFrom = Instant.EPOCH;
+        OffsetDateTime next;
+        while ((next = nextDay(searchFrom, cutoff)) != null) {
+            LocalDate day = AuditChain.dayOf(next.toInstant());
+            moved += archiveDay(day);
+            searchFrom = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+        if (moved > 0) {
+            logger.info("Archived {} audit rows older than {}", moved, cutoff);
+        }
+        return moved;
+    }
+
+    // Earliest row timestamp in [from, cutoff) on any shard, null if none
+    private OffsetDateTime nextDay(Instant from, Instant cutoff) {
+        List<OffsetDateTime> earliest = shardRouter.scatter(() -> {
+            OffsetDateTime first = jdbcTemplate.queryForObject(NEXT_DAY_SQL, OffsetDateTime.class,
+                    from.atOffset(ZoneOffset.UTC), cutoff.atOffset(ZoneOffset.UTC));
+            return first == null ? List.of() : List.of(first);
+        }, null);
+        return earliest.stream().min(Comparator.naturalOrder()).orElse(null);
+    }
+
+    private long archiveDay(LocalDate day) {
+        Instant dayStart = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant dayEnd = dayStart.plus(Duration.ofDays(1));
+
+        verifier.checkpoint(day, day);
+        AuditChainVerifier.VerifiedChains verified = verifier.verifyChains(dayStart, dayEnd);
+        AuditChainVerification verification = verified.verification();
+        if (!verification.valid()) {
+            // Breaks are already reported by the verifier
+            logger.error("Audit day {} not archived: {} chain breaks", day, verification.breaks().size());
+            return 0;
+        }
+
+        // Rows a previous, interrupted run already archived are only deleted
+        Set<UUID> archived = coldStore.ids(day);
+        long moved = 0;
+        long deferred = 0;
+        AuditLogCursor after = AuditLogCursor.startingAt(dayStart);
+        List<AuditLog> page;
+        do {
+            AuditLogCursor pageAfter = after;
+            page = shardRouter.scatterOrdered(shardLimit -> auditLogRepository.findRange(
+                            dayStart, dayEnd, pageAfter.timestamp(), pageAfter.id(), Limit.of(shardLimit)),
+                    AuditLog::getPatientRef, AuditLogCursor.ORDER, rowsPerSegment);
+            if (page.isEmpty()) {
+                break;
+            }
+            List<AuditLog> covered = new ArrayList<>(page.size());
+            List<AuditLog> rows = new ArrayList<>(page.size());
+            for (AuditLog row : page) {
+                if (!verified.covers(row)) {
+                    deferred++;
+                    continue;
+                }
+                covered.add(row);
+                if (!archived.contains(row.getId())) {
+                    rows.add(row);
+                }
+            }
+            if (!rows.isEmpty()) {
+                try {
+                    coldStore.add(day, rows);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot archive audit day " + day, e);
+                }
+            }
+            if (!covered.isEmpty()) {
+                shardRouter.runPerShard(covered, AuditLog::getPatientRef,
+                        rowsOnShard -> delete(dayStart, dayEnd, rowsOnShard));
+            }
+            moved += rows.size();
+            after = AuditLogCursor.after(page.get(page.size() - 1));
+        } while (page.size() == rowsPerSegment);
+
+        if (deferred > 0) {
+            logger.info("Archived audit day {}: {} rows, {} appended after verification left for the next run",
+                    day, moved, deferred);
+        } else {
+            logger.info("Archived audit day {}: {} rows", day, moved);
+        }
+        return moved;
+    }
+
+    // timestamp bounds keep the delete inside the day's partition
+    private void delete(Instant dayStart, Instant dayEnd, List<AuditLog> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < rows.size(); i += DELETE_CHUNK) {
+                List<AuditLog> chunk = rows.subList(i, Math.min(rows.size(), i + DELETE_CHUNK));
+                List<Object> args = new ArrayList<>(chunk.size() + 2);
+                args.add(dayStart.atOffset(ZoneOffset.UTC));
+                args.add(dayEnd.atOffset(ZoneOffset.UTC));
+                for (AuditLog row : chunk) {
+                    args.add(row.getId());
+                }
+                jdbcTemplate.update("DELETE FROM audit_logs WHERE timestamp >= ? AND timestamp < ? AND id IN ("
+                        + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")", args.toArray());
+            }
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package com.mccrae.healthcare.audit;
+
+import com.mccrae.healthcare.sharding.ShardKey;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Audit Batch Writer - JDBC batch inserts into audit_logs
+ *
+ * Bypasses JPA on purpose: AuditLog is insert-only, so there is nothing for
+ * the persistence context to track, and one multi-row batch per flush is far
+ * cheaper than one save() per event.
+ *
+ * Every batch goes through AuditChain, which hash-chains the rows just before
+ * they are inserted.
+ *
+ * Sharded, a batch is split by the shard that owns each row's patient - one
+ * insert transaction per shard. A batch written inside the caller's
+ * transaction goes to that transaction's shard as it is (AuditLogger only
+ * passes rows that belong there).
+ */
+@Component
+public class AuditBatchWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (id, timestamp, event_type, patient_ref, details, user_id, correlation_id, "
+                    + "chain_day, chain_shard, chain_seq, content_hash, shard_bucket) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int EXISTING_ID_CHUNK = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuditChain auditChain;
+
+    @Autowired
+    private AuditMetrics metrics;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    /**
+     * Insert all events in a single transaction
+     */
+    public void write(List<AuditLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            insert(batch);
+        } else {
+            shardRouter.runPerShard(batch, AuditLog::getPatientRef, this::insert);
+        }
+        metrics.recordWrite(batch.size(), start);
+    }
+
+    private void insert(List<AuditLog> batch) {
+        auditChain.append(batch, () -> transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), AuditBatchWriter::bind)));
+    }
+
+    /**
+     * Insert only the events that are not already stored (journal replay after a crash,
+     * where some batches may have committed before the process died)
+     *
+     * @return number of events inserted
+     */
+    public int writeMissing(List<AuditLog> events) {
+        List<AuditLog> missing = new ArrayList<>();
+        for (int from = 0; from < events.size(); from += EXISTING_ID_CHUNK) {
+            List<AuditLog> chunk = events.subList(from, Math.min(from + EXISTING_ID_CHUNK, events.size()));
+            Set<UUID> existing = findExistingIds(chunk);
+            for (AuditLog event : chunk) {
+                if (!existing.contains(event.getId())) {
+                    missing.add(event);
+                }
+            }
+        }
+        write(missing);
+        return missing.size();
+    }
+
+    private Set<UUID> findExistingIds(List<AuditLog> chunk) {
+        if (chunk.isEmpty()) {
+            return Collections.emptySet();
+        }
+        String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+        Object[] ids = chunk.stream().map(AuditLog::getId).toArray();
+        return new HashSet<>(shardRouter.scatter(() -> jdbcTemplate.queryForList(
+                "SELECT id FROM audit_logs WHERE id IN (" + placeholders + ")", UUID.class, ids), null));
+    }
+
+    private static void bind(PreparedStatement ps, AuditLog auditLog) throws SQLException {
+        ps.setObject(1, auditLog.getId());
+        // Column precision - what is hashed is exactly what is stored
+        ps.setObject(2, auditLog.getTimestamp().truncatedTo(ChronoUnit.MICROS).atOffset(ZoneOffset.UTC));
+        ps.setString(3, auditLog.getEventType());
+        ps.setString(4, auditLog.getPatientRef());
+        ps.setString(5, auditLog.getDetails());
+        ps.setString(6, auditLog.getUserId());
+        ps.setString(7, auditLog.getCorrelationId());
+        ps.setObject(8, auditLog.getChainDay());
+        ps.setInt(9, auditLog.getChainShard());
+        ps.setLong(10, auditLog.getChainSeq());
+        ps.setBytes(11, auditLog.getContentHash());
+        ps.setInt(12, ShardKey.bucketOf(auditLog.getPatientRef()));
+    }
+}
@@ -0,0 +1,220 @@
+package com.mccrae.healthcare.audit;
+
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Audit Chain - assigns each audit_logs row its place in a hash chain
+ *
+ * One chain per (UTC day, shard of patientRef): row n stores
+ * SHA-256(hash of row n-1 | row n), so changing, removing or reordering any row
+ * breaks every hash after it. Short chains keep verification parallel and
+ * bounded - checking a week never reads the other 7 years.
+ *
+ * Chain positions are assigned and the rows inserted under a lock, and the
+ * chain heads only advance once the insert has committed - so sequence order is
+ * commit order, and a rolled-back batch leaves no gap. Two kinds of writer:
+ * - Batches in their own transaction (the audit pipeline) chain by shard of
+ *   patientRef (chain shards 0..shards-1); the lock covers that one short insert.
+ * - Batches joining an outer transaction (patient import, notification outcomes)
+ *   must keep their lock until that transaction completes, so they get chains of
+ *   their own: one per transaction lane (chain shard shards + lane). A long import
+ *   chunk holds one lane - the pipeline and the other lanes keep appending.
+ *
+ * Hashing runs here, on the batch path (about a microsecond per row), never on
+ * the caller of AuditLogger.
+ *
+ * Chains are logical: with database sharding (ShardRouter - not to be confused
+ * with the chain shards here) a chain's rows live on the database shards of
+ * their patients, and the chain head is the highest sequence across all of them.
+ *
+ * Note: One writer process per database - two instances appending to the same
+ * chain would fork it, and verification would report the fork.
+ */
+@Component
+public class AuditChain {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditColdStore coldStore;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${healthcare.audit.chain.shards:4}")
+    private int shards;
+
+    @Value("${healthcare.audit.chain.transaction-lanes:4}")
+    private int transactionLanes;
+
+    // Own-transaction batches
+    private final Lane direct = new Lane(-1);
+    // Batches joining an outer transaction, created on first use
+    private final Map<Integer, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * Chain and hash every row of the batch, then run insert (which must store
+     * them all, in one transaction)
+     */
+    void append(List<AuditLog> batch, Runnable insert) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Joins an outer transaction: commit order is decided when that one completes
+            Lane lane = acquireLane();
+            TransactionSynchronizationManager.registerSynchronization(new ReleaseOnCompletion(lane));
+            lane.assign(batch);
+            insert.run();
+            return;
+        }
+
+        direct.lock.lock();
+        boolean committed = false;
+        try {
+            direct.assign(batch);
+            insert.run();
+            committed = true;
+        } finally {
+            direct.release(committed);
+        }
+    }
+
+    // A lane this thread already holds (second batch in the same transaction), else the first free one
+    private Lane acquireLane() {
+        for (Lane lane : lanes.values()) {
+            if (lane.lock.isHeldByCurrentThread()) {
+                lane.lock.lock();
+                return lane;
+            }
+        }
+        for (int i = 0; i < transactionLanes; i++) {
+            Lane lane = lanes.computeIfAbsent(i, Lane::new);
+            if (lane.lock.tryLock()) {
+                return lane;
+            }
+        }
+        // Every lane is in a transaction: wait for one
+        Lane lane = lanes.computeIfAbsent(ThreadLocalRandom.current().nextInt(transactionLanes), Lane::new);
+        lane.lock.lock();
+        return lane;
+    }
+
+    int shardOf(String patientRef) {
+        return patientRef == null ? 0 : (patientRef.hashCode() & Integer.MAX_VALUE) % shards;
+    }
+
+    static LocalDate dayOf(Instant timestamp) {
+        return LocalDate.ofInstant(timestamp, ZoneOffset.UTC);
+    }
+
+    // Last committed row of the chain - only on the first write to a chain since startup.
+    // A late event for an archived day continues after the chain's archived rows.
+    private Head loadHead(ChainKey key) {
+        List<Head> last = shardRouter.scatter(() -> jdbcTemplate.query(
+                "SELECT chain_seq, content_hash FROM audit_logs WHERE chain_day = ? AND chain_shard = ? "
+                        + "ORDER BY chain_seq DESC LIMIT 1",
+                (rs, rowNum) -> new Head(rs.getLong(1), rs.getBytes(2)),
+                Date.valueOf(key.day()), key.shard()), null);
+        if (!last.isEmpty()) {
+            return last.stream().max(Comparator.comparingLong(Head::seq)).orElseThrow();
+        }
+        return coldStore.lastChainRow(key.day(), key.shard())
+                .map(row -> new Head(row.getChainSeq(), row.getContentHash()))
+                .orElse(new Head(0, AuditChainHasher.GENESIS));
+    }
+
+    /**
+     * One writer's chains: the chain heads it has committed, and those of the batch
+     * it holds the lock for
+     */
+    private final class Lane {
+
+        // -1 for own-transaction batches (chain shard of patientRef)
+        private final int index;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // Everything below is guarded by lock
+        private final AuditChainHasher hasher = new AuditChainHasher();
+        private final Map<ChainKey, Head> heads = new HashMap<>();
+        private final Map<ChainKey, Head> uncommitted = new HashMap<>();
+
+        private Lane(int index) {
+            this.index = index;
+        }
+
+        // Heads move to uncommitted only once the whole batch is chained - a failure
+        // part way leaves an earlier batch of the same transaction intact
+        private void assign(List<AuditLog> batch) {
+            Map<ChainKey, Head> chained = new HashMap<>();
+            for (AuditLog row : batch) {
+                ChainKey key = new ChainKey(dayOf(row.getTimestamp()),
+                        index < 0 ? shardOf(row.getPatientRef()) : shards + index);
+                Head head = chained.get(key);
+                if (head == null) {
+                    head = uncommitted.get(key);
+                }
+                if (head == null) {
+                    head = heads.computeIfAbsent(key, AuditChain.this::loadHead);
+                }
+                long seq = head.seq() + 1;
+                row.chain(key.day(), key.shard(), seq);
+                byte[] hash = hasher.hash(head.hash(), row);
+                row.setContentHash(hash);
+                chained.put(key, new Head(seq, hash));
+            }
+            uncommitted.putAll(chained);
+            pruneHeads();
+        }
+
+        // Releases one hold of the lock - the heads advance only if the batch committed
+        private void release(boolean committed) {
+            try {
+                if (committed) {
+                    heads.putAll(uncommitted);
+                }
+                uncommitted.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Only recent days are written to; a late event for an older day reloads its head
+        private void pruneHeads() {
+            if (heads.size() > shards * 4) {
+                LocalDate yesterday = dayOf(Instant.now()).minusDays(1);
+                heads.keySet().removeIf(key -> key.day().isBefore(yesterday));
+            }
+        }
+    }
+
+    private record ReleaseOnCompletion(Lane lane) implements TransactionSynchronization {
+
+        @Override
+        public void afterCompletion(int status) {
+            lane.release(status == STATUS_COMMITTED);
+        }
+    }
+
+    record ChainKey(LocalDate day, int shard) {
+    }
+
+    private record Head(long seq, byte[] hash) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.mccrae.healthcare.audit;
+
+import java.time.LocalDate;
+
+/**
+ * One place where an audit chain does not verify
+ *
+ * @param chainSeq first affected row of the chain
+ * @param problem  e.g. "hash mismatch", "missing rows 41..57" - never row contents
+ */
+public record AuditChainBreak(LocalDate chainDay, int chainShard, long chainSeq, String problem) {
+}
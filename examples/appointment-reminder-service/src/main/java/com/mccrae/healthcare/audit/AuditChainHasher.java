@@ -0,0 +1,110 @@
+package com.mccrae.healthcare.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SHA-256 hashes of the audit chain - row hashes and Merkle roots
+ *
+ * Row hash = SHA-256(previous row's hash | chain position | every stored column),
+ * with fixed-width numbers and length-prefixed UTF-8 strings so no two rows
+ * encode the same way. The first row of a chain hashes against {@link #GENESIS}.
+ *
+ * Timestamps are hashed as epoch microseconds - the precision audit_logs stores.
+ *
+ * Not thread-safe: one instance per thread (the digest is reused).
+ */
+final class AuditChainHasher {
+
+    static final int HASH_BYTES = 32;
+    static final byte[] GENESIS = new byte[HASH_BYTES];
+
+    // Domain separation: a Merkle leaf can never be confused with an inner node
+    private static final byte LEAF = 0;
+    private static final byte NODE = 1;
+
+    private final MessageDigest digest;
+    private final ByteBuffer scratch = ByteBuffer.allocate(Long.BYTES);
+
+    AuditChainHasher() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+    }
+
+    /**
+     * @param previous hash of the row before this one in its chain (GENESIS for the first)
+     * @param row      with its chain position (day, shard, sequence) already assigned
+     */
+    byte[] hash(byte[] previous, AuditLog row) {
+        digest.update(previous);
+        putLong(row.getChainDay().toEpochDay());
+        putLong(row.getChainShard());
+        putLong(row.getChainSeq());
+        putLong(row.getId().getMostSignificantBits());
+        putLong(row.getId().getLeastSignificantBits());
+        putLong(epochMicros(row.getTimestamp()));
+        putString(row.getEventType());
+        putString(row.getPatientRef());
+        putString(row.getDetails());
+        putString(row.getUserId());
+        putString(row.getCorrelationId());
+        return digest.digest();
+    }
+
+    /**
+     * Merkle root over row hashes in chain order - an odd node is carried up unchanged
+     */
+    byte[] merkleRoot(List<byte[]> rowHashes) {
+        if (rowHashes.isEmpty()) {
+            return GENESIS;
+        }
+        List<byte[]> level = new ArrayList<>(rowHashes.size());
+        for (byte[] rowHash : rowHashes) {
+            digest.update(LEAF);
+            level.add(digest.digest(rowHash));
+        }
+        while (level.size() > 1) {
+            List<byte[]> parents = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2) {
+                if (i + 1 == level.size()) {
+                    parents.add(level.get(i));
+                } else {
+                    digest.update(NODE);
+                    digest.update(level.get(i));
+                    parents.add(digest.digest(level.get(i + 1)));
+                }
+            }
+            level = parents;
+        }
+        return level.get(0);
+    }
+
+    static long epochMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    private void putLong(long value) {
+        scratch.clear();
+        scratch.putLong(value);
+        digest.update(scratch.array(), 0, Long.BYTES);
+    }
+
+    // Length-prefixed; -1 marks null so null and "" hash differently
+    private void putString(String value) {
+        if (value == null) {
+            putLong(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putLong(bytes.length);
+        digest.update(bytes);
+    }
+}
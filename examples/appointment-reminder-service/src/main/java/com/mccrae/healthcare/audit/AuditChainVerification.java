@@ -0,0 +1,25 @@
+package com.mccrae.healthcare.audit;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result of verifying the audit chains of the UTC days overlapping [from, to)
+ *
+ * @param chains   (day, shard) chains checked
+ * @param segments checkpointed segments plus one open tail per chain, verified in parallel
+ */
+public record AuditChainVerification(
+        Instant from,
+        Instant to,
+        int chains,
+        int segments,
+        long rowsVerified,
+        double durationMillis,
+        List<AuditChainBreak> breaks
+) {
+
+    public boolean valid() {
+        return breaks.isEmpty();
+    }
+}
@@ -0,0 +1,421 @@
+package com.mccrae.healthcare.audit;
+
+import com.mccrae.healthcare.concurrent.ThreadFactories;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit Chain Verifier - checkpoints and verifies the audit_logs hash chains
+ *
+ * Incremental checkpointing (scheduled): for each chain of the last few days,
+ * re-hash only the rows after its last checkpoint; every full segment of
+ * checkpoint-rows rows (and the rest of a day once it is over) gets a checkpoint
+ * holding its Merkle root and final chain hash. Each row is re-hashed once here.
+ *
+ * Range verification (on demand): every checkpointed segment and every chain's
+ * open tail of the requested days is re-hashed in parallel - each segment starts
+ * from its predecessor's checkpointed chain hash, so none waits for another.
+ * Only the days in the range are read.
+ *
+ * Detects changed rows (hash mismatch), deleted or inserted rows (sequence gaps
+ * and duplicates) and changed or deleted checkpoints. Rows of archived days are
+ * read from AuditColdStore, so chains verify the same before and after archiving.
+ *
+ * Sharded, a chain's rows are gathered from every shard and ordered here;
+ * checkpoints stay on the home shard.
+ */
+@Component
+public class AuditChainVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditChainVerifier.class);
+
+    private static final String CHAINS_SQL =
+            "SELECT DISTINCT chain_day, chain_shard FROM audit_logs "
+                    + "WHERE chain_day >= ? AND chain_day <= ? AND timestamp >= ? AND timestamp < ?";
+
+    // timestamp bounds the monthly partitions scanned (chain_day is the UTC day of timestamp)
+    private static final String ROWS_SQL =
+            "SELECT id, timestamp, event_type, patient_ref, details, user_id, correlation_id, chain_seq, content_hash "
+                    + "FROM audit_logs WHERE chain_day = ? AND chain_shard = ? AND timestamp >= ? AND timestamp < ? "
+                    + "AND chain_seq >= ? AND chain_seq <= ? ORDER BY chain_seq";
+
+    private static final String CHECKPOINTS_SQL =
+            "SELECT chain_day, chain_shard, from_seq, through_seq, merkle_root, chain_hash FROM audit_checkpoints "
+                    + "WHERE chain_day >= ? AND chain_day <= ? ORDER BY chain_day, chain_shard, through_seq";
+
+    private static final String INSERT_CHECKPOINT_SQL =
+            "INSERT INTO audit_checkpoints (id, chain_day, chain_shard, from_seq, through_seq, merkle_root, chain_hash, "
+                    + "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final ThreadLocal<AuditChainHasher> HASHERS = ThreadLocal.withInitial(AuditChainHasher::new);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ThreadFactories threadFactories;
+
+    @Autowired
+    private AuditMetrics metrics;
+
+    @Autowired
+    private AuditColdStore coldStore;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${healthcare.audit.chain.checkpoint-rows:1024}")
+    private int checkpointRows;
+
+    @Value("${healthcare.audit.chain.checkpoint-lookback-days:2}")
+    private int lookbackDays;
+
+    @Value("${healthcare.audit.chain.verify-threads:4}")
+    private int verifyThreads;
+
+    /**
+     * Checkpoint every complete segment written since the last run
+     *
+     * @return checkpoints created
+     */
+    @Scheduled(fixedDelayString = "${healthcare.audit.chain.checkpoint-interval-ms:60000}")
+    public int checkpoint() {
+        LocalDate today = AuditChain.dayOf(Instant.now());
+        return checkpoint(today.minusDays(lookbackDays), today);
+    }
+
+    /**
+     * Checkpoint the chains of firstDay..lastDay - days that are over are sealed completely
+     * (AuditArchiver seals a day before archiving it)
+     *
+     * @return checkpoints created
+     */
+    public int checkpoint(LocalDate firstDay, LocalDate lastDay) {
+        LocalDate today = AuditChain.dayOf(Instant.now());
+        Map<AuditChain.ChainKey, List<Checkpoint>> checkpoints = loadCheckpoints(firstDay, lastDay);
+        AuditChainHasher hasher = HASHERS.get();
+
+        int created = 0;
+        for (AuditChain.ChainKey chain : chains(firstDay, lastDay, checkpoints)) {
+            List<Checkpoint> existing = checkpoints.getOrDefault(chain, List.of());
+            Checkpoint last = existing.isEmpty() ? null : existing.get(existing.size() - 1);
+            long nextSeq = last == null ? 1 : last.throughSeq() + 1;
+            byte[] previousHash = last == null ? AuditChainHasher.GENESIS : last.chainHash();
+            // A finished day's last, partial segment is sealed too (late events start a new one)
+            boolean dayOver = chain.day().isBefore(today);
+
+            while (true) {
+                Segment segment = new Segment(chain, nextSeq, nextSeq + checkpointRows - 1, previousHash, null);
+                SegmentResult result = verify(segment, hasher);
+                if (!result.breaks().isEmpty()) {
+                    reportBreaks(result.breaks());
+                    break;
+                }
+                if (result.rows() == 0 || (result.rows() < checkpointRows && !dayOver)) {
+                    break;
+                }
+                jdbcTemplate.update(INSERT_CHECKPOINT_SQL, UUID.randomUUID(), Date.valueOf(chain.day()), chain.shard(),
+                        nextSeq, result.lastSeq(), result.merkleRoot(), result.lastHash(),
+                        Instant.now().atOffset(ZoneOffset.UTC));
+                created++;
+                nextSeq = result.lastSeq() + 1;
+                previousHash = result.lastHash();
+            }
+        }
+        if (created > 0) {
+            logger.info("Created {} audit chain checkpoints", created);
+        }
+        return created;
+    }
+
+    /**
+     * Verify every chain of the UTC days overlapping [from, to)
+     */
+    public AuditChainVerification verify(Instant from, Instant to) {
+        return verifyChains(from, to).verification();
+    }
+
+    /**
+     * Same, plus the last sequence checked in each chain - rows appended after that
+     * were not verified (AuditArchiver leaves them for its next run)
+     */
+    VerifiedChains verifyChains(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        long start = System.nanoTime();
+        LocalDate firstDay = AuditChain.dayOf(from);
+        LocalDate lastDay = AuditChain.dayOf(to.minusNanos(1));
+        Map<AuditChain.ChainKey, List<Checkpoint>> checkpoints = loadCheckpoints(firstDay, lastDay);
+        Set<AuditChain.ChainKey> chains = chains(firstDay, lastDay, checkpoints);
+
+        List<AuditChainBreak> breaks = new ArrayList<>();
+        List<Segment> segments = new ArrayList<>();
+        for (AuditChain.ChainKey chain : chains) {
+            long nextSeq = 1;
+            byte[] previousHash = AuditChainHasher.GENESIS;
+            for (Checkpoint checkpoint : checkpoints.getOrDefault(chain, List.of())) {
+                if (checkpoint.fromSeq() != nextSeq) {
+                    breaks.add(new AuditChainBreak(chain.day(), chain.shard(), nextSeq, "checkpoint gap"));
+                }
+                segments.add(new Segment(chain, checkpoint.fromSeq(), checkpoint.throughSeq(), previousHash, checkpoint));
+                nextSeq = checkpoint.throughSeq() + 1;
+                previousHash = checkpoint.chainHash();
+            }
+            // Rows written since the last checkpoint
+            segments.add(new Segment(chain, nextSeq, Long.MAX_VALUE, previousHash, null));
+        }
+
+        long rows = 0;
+        Map<AuditChain.ChainKey, Long> verifiedThrough = new HashMap<>();
+        List<SegmentResult> results = verifyInParallel(segments);
+        for (int i = 0; i < results.size(); i++) {
+            SegmentResult result = results.get(i);
+            rows += result.rows();
+            breaks.addAll(result.breaks());
+            verifiedThrough.merge(segments.get(i).chain(), result.lastSeq(), Math::max);
+        }
+        breaks.sort(Comparator.comparing(AuditChainBreak::chainDay)
+                .thenComparingInt(AuditChainBreak::chainShard)
+                .thenComparingLong(AuditChainBreak::chainSeq));
+        if (!breaks.isEmpty()) {
+            reportBreaks(breaks);
+        }
+        double millis = (System.nanoTime() - start) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        logger.info("Verified audit chains {} to {}: {} chains, {} segments, {} rows, {} breaks",
+                firstDay, lastDay, chains.size(), segments.size(), rows, breaks.size());
+        return new VerifiedChains(
+                new AuditChainVerification(from, to, chains.size(), segments.size(), rows, millis, List.copyOf(breaks)),
+                verifiedThrough);
+    }
+
+    private List<SegmentResult> verifyInParallel(List<Segment> segments) {
+        if (segments.isEmpty()) {
+            return List.of();
+        }
+        int threads = Math.max(1, Math.min(verifyThreads, segments.size()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, threadFactories.named("audit-verify"));
+        try {
+            List<Callable<SegmentResult>> tasks = new ArrayList<>(segments.size());
+            for (Segment segment : segments) {
+                tasks.add(() -> verify(segment, HASHERS.get()));
+            }
+            List<SegmentResult> results = new ArrayList<>(segments.size());
+            for (Future<SegmentResult> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Audit chain verification interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Audit chain verification failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Re-hash one segment in sequence order - rows of archived days come from the cold store too
+    private SegmentResult verify(Segment segment, AuditChainHasher hasher) {
+        AuditChain.ChainKey chain = segment.chain();
+        SegmentCheck check = new SegmentCheck(segment, hasher);
+        Object[] args = {Date.valueOf(chain.day()), chain.shard(), dayStart(chain.day()),
+                dayStart(chain.day().plusDays(1)), segment.fromSeq(), segment.throughSeq()};
+        boolean archivedDay = coldStore.hasDay(chain.day());
+        if (!archivedDay && !shardRouter.isSharded()) {
+            jdbcTemplate.query(ROWS_SQL, rs -> {
+                check.accept(toAuditLog(rs, chain));
+            }, args);
+            return check.finish(hasher);
+        }
+
+        List<AuditLog> rows = archivedDay
+                ? new ArrayList<>(coldStore.chainRows(chain.day(), chain.shard(), segment.fromSeq(), segment.throughSeq()))
+                : new ArrayList<>();
+        Set<UUID> archived = new HashSet<>();
+        for (AuditLog row : rows) {
+            archived.add(row.getId());
+        }
+        List<AuditLog> hot = shardRouter.scatter(() -> jdbcTemplate.query(ROWS_SQL,
+                (rs, rowNum) -> toAuditLog(rs, chain), args), AuditLog::getPatientRef);
+        for (AuditLog row : hot) {
+            // Archived but not yet deleted from audit_logs (archiver interrupted) - count it once
+            if (!archived.contains(row.getId())) {
+                rows.add(row);
+            }
+        }
+        rows.sort(Comparator.comparing(AuditLog::getChainSeq));
+        for (AuditLog row : rows) {
+            check.accept(row);
+        }
+        return check.finish(hasher);
+    }
+
+    private Set<AuditChain.ChainKey> chains(LocalDate firstDay, LocalDate lastDay,
+                                            Map<AuditChain.ChainKey, List<Checkpoint>> checkpoints) {
+        Set<AuditChain.ChainKey> chains = new LinkedHashSet<>(checkpoints.keySet());
+        chains.addAll(shardRouter.scatter(() -> jdbcTemplate.query(CHAINS_SQL,
+                (rs, rowNum) -> new AuditChain.ChainKey(rs.getDate(1).toLocalDate(), rs.getInt(2)),
+                Date.valueOf(firstDay), Date.valueOf(lastDay), dayStart(firstDay), dayStart(lastDay.plusDays(1))),
+                null));
+        return chains;
+    }
+
+    private Map<AuditChain.ChainKey, List<Checkpoint>> loadCheckpoints(LocalDate firstDay, LocalDate lastDay) {
+        Map<AuditChain.ChainKey, List<Checkpoint>> checkpoints = new LinkedHashMap<>();
+        jdbcTemplate.query(CHECKPOINTS_SQL, rs -> {
+                    AuditChain.ChainKey chain = new AuditChain.ChainKey(rs.getDate(1).toLocalDate(), rs.getInt(2));
+                    checkpoints.computeIfAbsent(chain, key -> new ArrayList<>()).add(
+                            new Checkpoint(rs.getLong(3), rs.getLong(4), rs.getBytes(5), rs.getBytes(6)));
+                },
+                Date.valueOf(firstDay), Date.valueOf(lastDay));
+        return checkpoints;
+    }
+
+    private void reportBreaks(List<AuditChainBreak> breaks) {
+        metrics.recordChainBreaks(breaks.size());
+        AuditChainBreak first = breaks.get(0);
+        // ✅ CORRECT: Chain position only - no row contents
+        logger.error("Audit chain verification failed: {} breaks, first at {} shard {} seq {} ({})",
+                breaks.size(), first.chainDay(), first.chainShard(), first.chainSeq(), first.problem());
+    }
+
+    private static AuditLog toAuditLog(ResultSet rs, AuditChain.ChainKey chain) throws SQLException {
+        AuditLog row = new AuditLog(
+                rs.getObject("id", UUID.class),
+                rs.getObject("timestamp", OffsetDateTime.class).toInstant(),
+                rs.getString("event_type"),
+                rs.getString("patient_ref"),
+                rs.getString("details"));
+        row.setUserId(rs.getString("user_id"));
+        row.setCorrelationId(rs.getString("correlation_id"));
+        row.chain(chain.day(), chain.shard(), rs.getLong("chain_seq"));
+        row.setContentHash(rs.getBytes("content_hash"));
+        return row;
+    }
+
+    private static OffsetDateTime dayStart(LocalDate day) {
+        return day.atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * A verification and, per chain, the highest sequence it re-hashed
+     */
+    record VerifiedChains(AuditChainVerification verification, Map<AuditChain.ChainKey, Long> verifiedThrough) {
+
+        /**
+         * @return true if the row's chain position was part of this verification;
+         *         rows written before chaining have none and are always covered
+         */
+        boolean covers(AuditLog row) {
+            if (row.getChainSeq() == null) {
+                return true;
+            }
+            Long through = verifiedThrough.get(new AuditChain.ChainKey(row.getChainDay(), row.getChainShard()));
+            return through != null && row.getChainSeq() <= through;
+        }
+    }
+
+    /**
+     * Rows fromSeq..throughSeq of a chain; checkpoint is null for the open tail
+     */
+    private record Segment(AuditChain.ChainKey chain, long fromSeq, long throughSeq, byte[] previousHash,
+                           Checkpoint checkpoint) {
+    }
+
+    private record Checkpoint(long fromSeq, long throughSeq, byte[] merkleRoot, byte[] chainHash) {
+    }
+
+    private record SegmentResult(long rows, long lastSeq, byte[] lastHash, byte[] merkleRoot,
+                                 List<AuditChainBreak> breaks) {
+    }
+
+    private static final class SegmentCheck {
+
+        private final Segment segment;
+        private final AuditChainHasher hasher;
+        private final List<byte[]> rowHashes = new ArrayList<>();
+        private final List<AuditChainBreak> breaks = new ArrayList<>();
+        private byte[] previousHash;
+        private long expectedSeq;
+
+        SegmentCheck(Segment segment, AuditChainHasher hasher) {
+            this.segment = segment;
+            this.hasher = hasher;
+            this.previousHash = segment.previousHash();
+            this.expectedSeq = segment.fromSeq();
+        }
+
+        void accept(AuditLog row) {
+            long seq = row.getChainSeq();
+            if (seq < expectedSeq) {
+                breaks.add(problem(seq, "duplicate sequence"));
+            } else if (seq > expectedSeq) {
+                breaks.add(problem(expectedSeq, "missing rows " + expectedSeq + ".." + (seq - 1)));
+            }
+            byte[] computed = hasher.hash(previousHash, row);
+            if (!Arrays.equals(computed, row.getContentHash())) {
+                breaks.add(problem(seq, "hash mismatch"));
+            }
+            // Continue from the stored hash, so one changed row is reported once
+            previousHash = row.getContentHash() != null ? row.getContentHash() : computed;
+            rowHashes.add(previousHash);
+            expectedSeq = seq + 1;
+        }
+
+        SegmentResult finish(AuditChainHasher hasher) {
+            byte[] merkleRoot = hasher.merkleRoot(rowHashes);
+            Checkpoint checkpoint = segment.checkpoint();
+            if (checkpoint != null) {
+                if (expectedSeq <= checkpoint.throughSeq()) {
+                    breaks.add(problem(expectedSeq, "missing rows " + expectedSeq + ".." + checkpoint.throughSeq()));
+                }
+                if (!Arrays.equals(merkleRoot, checkpoint.merkleRoot())) {
+                    breaks.add(problem(checkpoint.fromSeq(), "checkpoint Merkle root mismatch"));
+                }
+                if (!Arrays.equals(previousHash, checkpoint.chainHash())) {
+                    breaks.add(problem(checkpoint.throughSeq(), "checkpoint chain hash mismatch"));
+                }
+            }
+            return new SegmentResult(rowHashes.size(), expectedSeq - 1, previousHash, merkleRoot, breaks);
+        }
+
+        private AuditChainBreak problem(long seq, String problem) {
+            return new AuditChainBreak(segment.chain().day(), segment.chain().shard(), seq, problem);
+        }
+    }
+}
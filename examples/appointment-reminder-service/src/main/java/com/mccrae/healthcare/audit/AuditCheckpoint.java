@@ -0,0 +1,85 @@
+package com.mccrae.healthcare.audit;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Audit Checkpoint - Merkle root and chain hash of one verified segment of an audit chain
+ *
+ * Written by AuditChainVerifier after it has re-hashed rows fromSeq..throughSeq
+ * of the chain (chainDay, chainShard). Segments of a chain are contiguous, so
+ * the chainHash of one checkpoint is where the next segment's chain starts -
+ * segments can then be verified independently and in parallel.
+ *
+ * Note: This entity is IMMUTABLE - rows are only inserted
+ */
+@Entity
+@Table(name = "audit_checkpoints", indexes = {
+        @Index(name = "idx_audit_checkpoints_chain", columnList = "chainDay, chainShard, throughSeq", unique = true)
+})
+public class AuditCheckpoint {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private LocalDate chainDay;
+
+    @Column(nullable = false)
+    private int chainShard;
+
+    @Column(nullable = false)
+    private long fromSeq;
+
+    @Column(nullable = false)
+    private long throughSeq;
+
+    @Column(nullable = false, length = AuditChainHasher.HASH_BYTES)
+    private byte[] merkleRoot; // Over the row hashes fromSeq..throughSeq
+
+    @Column(nullable = false, length = AuditChainHasher.HASH_BYTES)
+    private byte[] chainHash; // Hash of row throughSeq
+
+    @Column(nullable = false)
+    private Instant createdAt; // Always UTC
+
+    // Constructors
+    protected AuditCheckpoint() {
+    }
+
+    // Getters only - checkpoints are inserted by AuditChainVerifier with JDBC
+    public UUID getId() {
+        return id;
+    }
+
+    public LocalDate getChainDay() {
+        return chainDay;
+    }
+
+    public int getChainShard() {
+        return chainShard;
+    }
+
+    public long getFromSeq() {
+        return fromSeq;
+    }
+
+    public long getThroughSeq() {
+        return throughSeq;
+    }
+
+    public byte[] getMerkleRoot() {
+        return merkleRoot;
+    }
+
+    public byte[] getChainHash() {
+        return chainHash;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,184 @@
+package com.mccrae.healthcare.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Audit Cold Store - archived audit rows in columnar segment files on local disk
+ *
+ * The archive tier behind audit_logs: AuditArchiver moves rows older than
+ * healthcare.audit.archive.after-days here, one or more AuditSegmentFiles per
+ * UTC day. Every segment's index (footer) is held in memory, so a query only
+ * opens segments whose time range, event types and patientRef bloom filter can
+ * match - a patient's trail over 7 years touches a handful of files.
+ *
+ * Queries go through AuditLogQueryService, which merges hot and cold rows in
+ * (timestamp, id) order - callers never see which tier a row came from.
+ *
+ * Segment files are immutable; the store only ever adds files.
+ */
+@Component
+public class AuditColdStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditColdStore.class);
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".aseg";
+
+    private final Path directory;
+
+    // Copy-on-write: readers take the current list without locking
+    private final ReentrantLock addLock = new ReentrantLock();
+    private volatile List<AuditSegmentFile> segments;
+
+    public AuditColdStore(@Value("${healthcare.audit.archive.directory:data/audit-archive}") String directory) {
+        this.directory = Path.of(directory);
+        this.segments = load(this.directory);
+    }
+
+    /**
+     * Archived rows matching the filter in [from, to), after the cursor, in (timestamp, id) order
+     *
+     * @param patientRef null for any patient
+     * @param eventType  null for any event type
+     */
+    public List<AuditLog> find(String patientRef, String eventType, Instant from, Instant to,
+                               AuditLogCursor after, int limit) {
+        long fromMicros = AuditChainHasher.epochMicros(from);
+        long toMicros = AuditChainHasher.epochMicros(to);
+        List<AuditLog> rows = new ArrayList<>();
+        for (AuditSegmentFile segment : segments) {
+            if (!segment.mightContain(patientRef, eventType, fromMicros, toMicros)) {
+                continue;
+            }
+            try {
+                rows.addAll(segment.find(patientRef, eventType, fromMicros, toMicros, after, limit));
+            } catch (IOException e) {
+                // Never answer with a silently incomplete audit trail
+                throw new UncheckedIOException("Cannot read audit segment " + segment.path().getFileName(), e);
+            }
+        }
+        rows.sort(AuditLogCursor.ORDER);
+        return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+    }
+
+    public boolean hasDay(LocalDate day) {
+        for (AuditSegmentFile segment : segments) {
+            if (segment.day().equals(day)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Archived rows of one chain in sequence range, in sequence order
+     */
+    List<AuditLog> chainRows(LocalDate day, int shard, long fromSeq, long throughSeq) {
+        List<AuditLog> rows = new ArrayList<>();
+        for (AuditSegmentFile segment : segments) {
+            if (!segment.day().equals(day)) {
+                continue;
+            }
+            try {
+                rows.addAll(segment.chainRows(shard, fromSeq, throughSeq));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read audit segment " + segment.path().getFileName(), e);
+            }
+        }
+        rows.sort(Comparator.comparing(AuditLog::getChainSeq));
+        return rows;
+    }
+
+    /**
+     * Last archived row of a chain (AuditChain resumes a chain whose rows are all archived)
+     */
+    Optional<AuditLog> lastChainRow(LocalDate day, int shard) {
+        List<AuditLog> rows = hasDay(day) ? chainRows(day, shard, 1, Long.MAX_VALUE) : List.of();
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(rows.size() - 1));
+    }
+
+    Set<UUID> ids(LocalDate day) {
+        Set<UUID> ids = new HashSet<>();
+        for (AuditSegmentFile segment : segments) {
+            if (segment.day().equals(day)) {
+                try {
+                    ids.addAll(segment.ids());
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read audit segment " + segment.path().getFileName(), e);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Write rows of one day (sorted by timestamp, id) as a new segment; durable when this returns
+     */
+    void add(LocalDate day, List<AuditLog> rows) throws IOException {
+        addLock.lock();
+        try {
+            Files.createDirectories(directory);
+            int number = 1;
+            Path file;
+            do {
+                file = directory.resolve(String.format("%s%s-%04d%s", SEGMENT_PREFIX, day, number++, SEGMENT_SUFFIX));
+            } while (Files.exists(file));
+            AuditSegmentFile.write(file, day, rows);
+
+            List<AuditSegmentFile> updated = new ArrayList<>(segments);
+            updated.add(AuditSegmentFile.open(file));
+            updated.sort(Comparator.comparing(AuditSegmentFile::day));
+            segments = List.copyOf(updated);
+        } finally {
+            addLock.unlock();
+        }
+    }
+
+    public AuditColdStoreStats stats() {
+        List<AuditSegmentFile> current = segments;
+        long rows = 0;
+        for (AuditSegmentFile segment : current) {
+            rows += segment.rowCount();
+        }
+        return new AuditColdStoreStats(current.size(), rows,
+                current.isEmpty() ? null : current.get(0).day(),
+                current.isEmpty() ? null : current.get(current.size() - 1).day());
+    }
+
+    // Unreadable segments stop startup - serving audit trails with a hole in them is worse
+    private static List<AuditSegmentFile> load(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<AuditSegmentFile> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                loaded.add(AuditSegmentFile.open(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit archive in " + directory, e);
+        }
+        loaded.sort(Comparator.comparing(AuditSegmentFile::day));
+        logger.info("Audit archive: {} segments in {}", loaded.size(), directory);
+        return List.copyOf(loaded);
+    }
+}
@@ -0,0 +1,9 @@
+package com.mccrae.healthcare.audit;
+
+import java.time.LocalDate;
+
+/**
+ * Size of the audit archive tier; oldestDay/newestDay are null while it is empty
+ */
+public record AuditColdStoreStats(int segments, long rows, LocalDate oldestDay, LocalDate newestDay) {
+}
@@ -0,0 +1,336 @@
+package com.mccrae.healthcare.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Audit Journal - append-only, fsync'd local log of audit events
+ *
+ * Every event is written here BEFORE it is queued for the database, so an
+ * event accepted by {@link AuditLogger} survives a crash even if its batch
+ * never committed. Segments are deleted once every event in them is in
+ * audit_logs; whatever is left on disk at startup is replayed.
+ *
+ * Record layout: [int length][int crc32][payload]. A torn record at the tail
+ * of a segment (crash mid-write) fails the CRC check and is ignored - the
+ * caller of that write never got an acknowledgement.
+ *
+ * Note: Files contain reference IDs and event details only (NO PHI)
+ */
+public class AuditJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditJournal.class);
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+
+    // Appends are serialized; fsync runs under its own lock so writers keep appending
+    // while a force() is in flight (group commit)
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private long nextSegmentNumber;
+    private Segment active;
+
+    public AuditJournal(Path directory, long maxSegmentBytes) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    /**
+     * Read every record left over from a previous run.
+     *
+     * Must be called before {@link #open()}. The recovered segments stay on disk
+     * until {@link #discardRecovered(List)} is called after the records are safely stored.
+     */
+    public Recovery recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        List<AuditLog> records = new ArrayList<>();
+        for (Path segment : segments) {
+            readSegment(segment, records);
+        }
+        return new Recovery(records, segments);
+    }
+
+    public void discardRecovered(List<Path> segments) throws IOException {
+        for (Path segment : segments) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        appendLock.lock();
+        try {
+            for (Path segment : listSegments()) {
+                nextSegmentNumber = Math.max(nextSegmentNumber, segmentNumber(segment) + 1);
+            }
+            active = newSegment();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Append an event and block until it is durable on disk.
+     *
+     * @return the segment holding the record; pass it to {@link #release(Segment)}
+     *         once the event has been committed to the database
+     */
+    public Segment append(AuditLog auditLog) throws IOException {
+        ByteBuffer record = encode(auditLog);
+
+        Segment segment;
+        long position;
+        appendLock.lock();
+        try {
+            if (active == null) {
+                throw new IOException("Audit journal is closed");
+            }
+            if (active.size >= maxSegmentBytes) {
+                roll();
+            }
+            segment = active;
+            while (record.hasRemaining()) {
+                segment.channel.write(record);
+            }
+            segment.size += record.limit();
+            segment.outstanding.incrementAndGet();
+            position = segment.size;
+        } finally {
+            appendLock.unlock();
+        }
+
+        sync(segment, position);
+        return segment;
+    }
+
+    /**
+     * Mark one event from the segment as committed to the database.
+     * Sealed segments are deleted once nothing in them is outstanding.
+     */
+    public void release(Segment segment) {
+        if (segment.outstanding.decrementAndGet() == 0 && segment.sealed) {
+            deleteSegment(segment);
+        }
+    }
+
+    public int segmentCount() {
+        try {
+            return listSegments().size();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (active != null) {
+                active.channel.force(false);
+                active.channel.close();
+                if (active.outstanding.get() == 0) {
+                    Files.deleteIfExists(active.path);
+                }
+                active = null;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Group commit: whoever takes the lock first forces everything written so far,
+    // later waiters usually find their position already durable and return immediately
+    private void sync(Segment segment, long position) throws IOException {
+        if (segment.durable >= position) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (segment.durable >= position) {
+                return;
+            }
+            long target = segment.size;
+            segment.channel.force(false);
+            segment.durable = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void roll() throws IOException {
+        Segment previous = active;
+        active = newSegment();
+        previous.sealed = true;
+        syncLock.lock();
+        try {
+            previous.channel.force(false);
+            previous.durable = previous.size;
+            previous.channel.close();
+        } finally {
+            syncLock.unlock();
+        }
+        if (previous.outstanding.get() == 0) {
+            deleteSegment(previous);
+        }
+    }
+
+    private Segment newSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSegmentNumber++, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new Segment(path, channel);
+    }
+
+    private void deleteSegment(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            // Harmless: the events are committed, a leftover segment is only replayed (and skipped) at startup
+            logger.warn("Could not delete audit journal segment {}", segment.path.getFileName(), e);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void readSegment(Path segment, List<AuditLog> records) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(segment))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    logger.warn("Ignoring corrupt tail of audit journal segment {}", segment.getFileName());
+                    return;
+                }
+                byte[] payload = new byte[length];
+                int expectedCrc;
+                try {
+                    expectedCrc = in.readInt();
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    logger.warn("Ignoring torn record at tail of audit journal segment {}", segment.getFileName());
+                    return;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != expectedCrc) {
+                    logger.warn("Ignoring corrupt tail of audit journal segment {}", segment.getFileName());
+                    return;
+                }
+                records.add(decode(payload));
+            }
+        }
+    }
+
+    static ByteBuffer encode(AuditLog auditLog) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(auditLog.getId().getMostSignificantBits());
+        out.writeLong(auditLog.getId().getLeastSignificantBits());
+        out.writeLong(auditLog.getTimestamp().getEpochSecond());
+        out.writeInt(auditLog.getTimestamp().getNano());
+        out.writeUTF(auditLog.getEventType());
+        out.writeUTF(auditLog.getPatientRef());
+        writeNullable(out, auditLog.getDetails());
+        writeNullable(out, auditLog.getUserId());
+        writeNullable(out, auditLog.getCorrelationId());
+        out.flush();
+
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(8 + payload.length);
+        record.putInt(payload.length);
+        record.putInt((int) crc.getValue());
+        record.put(payload);
+        record.flip();
+        return record;
+    }
+
+    static AuditLog decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        UUID id = new UUID(in.readLong(), in.readLong());
+        Instant timestamp = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        AuditLog auditLog = new AuditLog(id, timestamp, in.readUTF(), in.readUTF(), readNullable(in));
+        auditLog.setUserId(readNullable(in));
+        auditLog.setCorrelationId(readNullable(in));
+        return auditLog;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * One journal file. Tracks how many of its events are still waiting for the database.
+     */
+    public static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicLong outstanding = new AtomicLong();
+        private volatile long size;
+        private volatile long durable;
+        private volatile boolean sealed;
+
+        private Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Records found on disk at startup, and the segment files they came from
+     */
+    public record Recovery(List<AuditLog> records, List<Path> segments) {
+    }
+}
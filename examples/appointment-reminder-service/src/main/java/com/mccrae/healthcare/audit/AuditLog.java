@@ -1,16 +1,37 @@
 package com.mccrae.healthcare.audit;
 
+import com.mccrae.healthcare.sharding.ShardKey;
 import jakarta.persistence.*;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 /**
  * Audit Log entity - immutable record of all system actions
  * 
  * Note: This entity is IMMUTABLE - no updates or deletes allowed
+ * 
+ * Storage: range-partitioned by month on timestamp in production
+ * (see db/postgresql/audit_logs_partitioned.sql). Every query should bound
+ * timestamp so only the relevant partitions are scanned.
+ * 
+ * Tamper evidence: every row is hash-chained to its predecessor in its chain
+ * (UTC day x shard of patientRef) - see AuditChain. Timestamps are kept at
+ * microsecond precision, exactly what the column stores, so a row re-read from
+ * the database hashes the same as when it was written.
  */
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        // Accounting of disclosures: one patient over a time range
+        @Index(name = "idx_audit_logs_patient_ref_timestamp", columnList = "patientRef, timestamp, id"),
+        // Compliance reports: one event type over a time range
+        @Index(name = "idx_audit_logs_event_type_timestamp", columnList = "eventType, timestamp, id"),
+        @Index(name = "idx_audit_logs_timestamp", columnList = "timestamp, id"),
+        // Chain order - verification and checkpoints read one chain in sequence
+        @Index(name = "idx_audit_logs_chain", columnList = "chainDay, chainShard, chainSeq"),
+        @Index(name = "idx_audit_logs_shard_bucket", columnList = "shardBucket")
+})
 public class AuditLog {
     
     @Id
@@ -34,10 +55,26 @@ public class AuditLog {
     @Column
     private String correlationId; // For tracing across services
     
+    // Hash chain position and hash - assigned when the row is inserted (AuditChain)
+    @Column
+    private LocalDate chainDay; // UTC day of timestamp
+    
+    @Column
+    private Integer chainShard;
+    
+    @Column
+    private Long chainSeq; // 1, 2, 3... within (chainDay, chainShard)
+    
+    @Column(length = AuditChainHasher.HASH_BYTES)
+    private byte[] contentHash; // SHA-256 over the previous row's hash and this row
+    
+    @Column(nullable = false)
+    private int shardBucket; // ShardKey bucket of patientRef - set on insert (AuditBatchWriter)
+    
     // Constructors
     public AuditLog() {
         this.id = UUID.randomUUID();
-        this.timestamp = Instant.now();
+        this.timestamp = Instant.now().truncatedTo(ChronoUnit.MICROS);
     }
     
     public AuditLog(String eventType, String patientRef, String details) {
@@ -47,6 +84,15 @@ public class AuditLog {
         this.details = details;
     }
     
+    // Restores an event exactly as it was created (journal replay)
+    AuditLog(UUID id, Instant timestamp, String eventType, String patientRef, String details) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.eventType = eventType;
+        this.patientRef = patientRef;
+        this.details = details;
+    }
+    
     // Getters only - no setters after creation (immutable)
     public UUID getId() {
         return id;
@@ -76,6 +122,22 @@ public class AuditLog {
         return correlationId;
     }
     
+    public LocalDate getChainDay() {
+        return chainDay;
+    }
+    
+    public Integer getChainShard() {
+        return chainShard;
+    }
+    
+    public Long getChainSeq() {
+        return chainSeq;
+    }
+    
+    public byte[] getContentHash() {
+        return contentHash;
+    }
+    
     // Setters only for initial creation
     public void setEventType(String eventType) {
         this.eventType = eventType;
@@ -96,5 +158,15 @@ public class AuditLog {
     public void setCorrelationId(String correlationId) {
         this.correlationId = correlationId;
     }
+    
+    // Chain position - set once by AuditChain when the row is inserted
+    void chain(LocalDate day, int shard, long seq) {
+        this.chainDay = day;
+        this.chainShard = shard;
+        this.chainSeq = seq;
+    }
+    
+    void setContentHash(byte[] contentHash) {
+        this.contentHash = contentHash;
+    }
 }
-
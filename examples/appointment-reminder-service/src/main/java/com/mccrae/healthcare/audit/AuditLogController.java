@@ -0,0 +1,76 @@
+package com.mccrae.healthcare.audit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+/**
+ * Audit Log REST API (read-only - audit logs are immutable)
+ * 
+ * Endpoints:
+ * - GET /api/audit-logs/patient/{ref}?from=&to=        - Patient audit trail (accounting of disclosures)
+ * - GET /api/audit-logs/event-type/{type}?from=&to=    - Events of one type
+ * - GET /api/audit-logs/verify?from=&to=                - Verify the hash chains of the days in range
+ * - GET /api/audit-logs/archive/stats                   - Cold archive size (segments, rows, days)
+ * 
+ * from/to are ISO-8601 instants (UTC); pages are continued with ?cursor=
+ */
+@RestController
+@RequestMapping("/api/audit-logs")
+public class AuditLogController {
+    
+    @Autowired
+    private AuditLogQueryService auditLogQueryService;
+    
+    @Autowired
+    private AuditChainVerifier auditChainVerifier;
+    
+    @Autowired
+    private AuditColdStore auditColdStore;
+    
+    @GetMapping("/patient/{patientRef}")
+    public ResponseEntity<AuditLogPage> getPatientAuditLogs(
+            @PathVariable String patientRef,
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(auditLogQueryService.findByPatient(patientRef, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/event-type/{eventType}")
+    public ResponseEntity<AuditLogPage> getAuditLogsByEventType(
+            @PathVariable String eventType,
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(auditLogQueryService.findByEventType(eventType, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/verify")
+    public ResponseEntity<AuditChainVerification> verifyChains(
+            @RequestParam Instant from,
+            @RequestParam Instant to) {
+        try {
+            return ResponseEntity.ok(auditChainVerifier.verify(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/archive/stats")
+    public ResponseEntity<AuditColdStoreStats> getArchiveStats() {
+        return ResponseEntity.ok(auditColdStore.stats());
+    }
+}
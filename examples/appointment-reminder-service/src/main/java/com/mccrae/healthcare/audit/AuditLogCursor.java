@@ -0,0 +1,58 @@
+package com.mccrae.healthcare.audit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Keyset cursor for paging audit logs in (timestamp, id) order
+ * 
+ * Opaque URL-safe Base64 to clients. Contains no PHI.
+ */
+public record AuditLogCursor(Instant timestamp, UUID id) {
+    
+    // Sorts before every real id at the same timestamp
+    static final UUID MIN_ID = new UUID(0L, 0L);
+    
+    // (timestamp, id) with ids compared as unsigned bytes - the database's order, not UUID.compareTo
+    static final Comparator<AuditLog> ORDER = Comparator.comparing(AuditLog::getTimestamp)
+            .thenComparing((a, b) -> compareIds(
+                    a.getId().getMostSignificantBits(), a.getId().getLeastSignificantBits(), b.getId()));
+    
+    public static AuditLogCursor startingAt(Instant from) {
+        return new AuditLogCursor(from, MIN_ID);
+    }
+    
+    public static AuditLogCursor after(AuditLog auditLog) {
+        return new AuditLogCursor(auditLog.getTimestamp(), auditLog.getId());
+    }
+    
+    static int compareIds(long mostSignificantBits, long leastSignificantBits, UUID other) {
+        int high = Long.compareUnsigned(mostSignificantBits, other.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(leastSignificantBits, other.getLeastSignificantBits());
+    }
+    
+    public String encode() {
+        String raw = timestamp.getEpochSecond() + ":" + timestamp.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static AuditLogCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Instant timestamp = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new AuditLogCursor(timestamp, UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
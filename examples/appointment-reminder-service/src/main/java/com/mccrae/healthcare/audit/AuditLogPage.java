@@ -0,0 +1,9 @@
+package com.mccrae.healthcare.audit;
+
+import java.util.List;
+
+/**
+ * One page of audit logs; nextCursor is null on the last page
+ */
+public record AuditLogPage(List<AuditLog> items, String nextCursor) {
+}
@@ -0,0 +1,161 @@
+package com.mccrae.healthcare.audit;
+
+import com.mccrae.healthcare.replica.ReplicaRouter;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Audit Log Query Service - paginated range scans over audit_logs
+ * 
+ * Every query is bounded by [from, to) and walked one calendar month at a time,
+ * so each SQL statement touches a single monthly partition and a tight index
+ * range, no matter how many years of history the table holds.
+ * 
+ * Rows moved to the archive tier (AuditColdStore) are merged in, in the same
+ * (timestamp, id) order - pages and cursors span both tiers transparently.
+ * 
+ * Sharded, patient queries go to the patient's shard; event type and time
+ * range queries run on every shard and are merged in the same order.
+ * With read replicas, each slice reads from a replica (ReplicaRouter).
+ * 
+ * Note: Patient-scoped queries are themselves audited (AUDIT_LOG_QUERIED)
+ */
+@Service
+public class AuditLogQueryService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogQueryService.class);
+    
+    public static final int MAX_PAGE_SIZE = 1000;
+    
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    
+    @Autowired
+    private AuditLogger auditLogger;
+    
+    @Autowired
+    private AuditColdStore coldStore;
+    
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Autowired
+    private ReplicaRouter replicaRouter;
+    
+    /**
+     * Accounting of disclosures: one patient's audit trail over a time range
+     * 
+     * @param cursor nextCursor from the previous page, null for the first page
+     * @throws IllegalArgumentException if the range or cursor is invalid
+     */
+    public AuditLogPage findByPatient(String patientRef, Instant from, Instant to, String cursor, int limit) {
+        // ✅ CORRECT: Log reference ID only
+        logger.info("Querying audit logs for patient {}", patientRef);
+        
+        AuditLogPage page = scan(from, to, cursor, limit,
+                (sliceFrom, sliceTo, after, remaining) -> replicaRouter.read(patientRef, () ->
+                        shardRouter.callForPatient(patientRef, () -> auditLogRepository.findPatientRange(
+                                patientRef, sliceFrom, sliceTo, after.timestamp(), after.id(), Limit.of(remaining)))),
+                (sliceFrom, sliceTo, after, remaining) ->
+                        coldStore.find(patientRef, null, sliceFrom, sliceTo, after, remaining));
+        
+        // Audit the auditors
+        auditLogger.log("AUDIT_LOG_QUERIED", patientRef, "Audit log range queried");
+        return page;
+    }
+    
+    public AuditLogPage findByEventType(String eventType, Instant from, Instant to, String cursor, int limit) {
+        logger.info("Querying audit logs for event type {}", eventType);
+        return scan(from, to, cursor, limit,
+                (sliceFrom, sliceTo, after, remaining) -> replicaRouter.readAny(() -> shardRouter.scatterOrdered(
+                        shardLimit -> auditLogRepository.findEventTypeRange(
+                                eventType, sliceFrom, sliceTo, after.timestamp(), after.id(), Limit.of(shardLimit)),
+                        AuditLog::getPatientRef, AuditLogCursor.ORDER, remaining)),
+                (sliceFrom, sliceTo, after, remaining) ->
+                        coldStore.find(null, eventType, sliceFrom, sliceTo, after, remaining));
+    }
+    
+    public AuditLogPage findByTimeRange(Instant from, Instant to, String cursor, int limit) {
+        logger.info("Querying audit logs by time range");
+        return scan(from, to, cursor, limit,
+                (sliceFrom, sliceTo, after, remaining) -> replicaRouter.readAny(() -> shardRouter.scatterOrdered(
+                        shardLimit -> auditLogRepository.findRange(
+                                sliceFrom, sliceTo, after.timestamp(), after.id(), Limit.of(shardLimit)),
+                        AuditLog::getPatientRef, AuditLogCursor.ORDER, remaining)),
+                (sliceFrom, sliceTo, after, remaining) ->
+                        coldStore.find(null, null, sliceFrom, sliceTo, after, remaining));
+    }
+    
+    private AuditLogPage scan(Instant from, Instant to, String cursor, int limit, SliceQuery hot, SliceQuery cold) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        AuditLogCursor after = cursor == null ? AuditLogCursor.startingAt(from) : AuditLogCursor.decode(cursor);
+        
+        // Resume in the month the cursor points at - earlier partitions are never touched again
+        Instant resumeAt = after.timestamp().isAfter(from) ? after.timestamp() : from;
+        Instant sliceFrom = max(from, AuditPartitions.monthStart(resumeAt));
+        
+        List<AuditLog> items = new ArrayList<>(pageSize);
+        while (sliceFrom.isBefore(to) && items.size() < pageSize) {
+            Instant sliceTo = min(to, AuditPartitions.nextMonthStart(sliceFrom));
+            int remaining = pageSize - items.size();
+            items.addAll(merge(hot.find(sliceFrom, sliceTo, after, remaining),
+                    cold.find(sliceFrom, sliceTo, after, remaining), remaining));
+            sliceFrom = sliceTo;
+        }
+        
+        String nextCursor = items.size() == pageSize
+                ? AuditLogCursor.after(items.get(items.size() - 1)).encode()
+                : null;
+        return new AuditLogPage(items, nextCursor);
+    }
+    
+    // Both inputs are in (timestamp, id) order; a row present in both tiers (archiver
+    // interrupted before deleting it from audit_logs) is returned once
+    private static List<AuditLog> merge(List<AuditLog> hot, List<AuditLog> cold, int limit) {
+        if (cold.isEmpty()) {
+            return hot;
+        }
+        List<AuditLog> merged = new ArrayList<>(Math.min(limit, hot.size() + cold.size()));
+        int h = 0;
+        int c = 0;
+        while (merged.size() < limit && (h < hot.size() || c < cold.size())) {
+            if (c == cold.size()) {
+                merged.add(hot.get(h++));
+            } else if (h == hot.size()) {
+                merged.add(cold.get(c++));
+            } else {
+                int order = AuditLogCursor.ORDER.compare(hot.get(h), cold.get(c));
+                if (order == 0) {
+                    c++;
+                } else {
+                    merged.add(order < 0 ? hot.get(h++) : cold.get(c++));
+                }
+            }
+        }
+        return merged;
+    }
+    
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+    
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+    
+    @FunctionalInterface
+    private interface SliceQuery {
+        List<AuditLog> find(Instant sliceFrom, Instant sliceTo, AuditLogCursor after, int limit);
+    }
+}
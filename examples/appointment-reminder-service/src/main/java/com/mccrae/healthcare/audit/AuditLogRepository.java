@@ -1,6 +1,9 @@
 package com.mccrae.healthcare.audit;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
@@ -10,12 +13,62 @@ import java.util.UUID;
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
     
+    /**
+     * @deprecated unbounded - scans every partition; use {@link AuditLogQueryService#findByPatient}
+     */
+    @Deprecated
     List<AuditLog> findByPatientRef(String patientRef);
     
+    /**
+     * @deprecated unbounded - scans every partition; use {@link AuditLogQueryService#findByEventType}
+     */
+    @Deprecated
     List<AuditLog> findByEventType(String eventType);
     
+    /**
+     * @deprecated unbounded result; use {@link AuditLogQueryService#findByTimeRange}
+     */
+    @Deprecated
     List<AuditLog> findByTimestampBetween(Instant start, Instant end);
     
     List<AuditLog> findByPatientRefAndEventType(String patientRef, String eventType);
+    
+    // Keyset range scans: [from, to) bounds the partitions touched, (afterTimestamp, afterId) is the page cursor
+    
+    @Query("SELECT a FROM AuditLog a WHERE a.patientRef = :patientRef "
+            + "AND a.timestamp >= :from AND a.timestamp < :to "
+            + "AND (a.timestamp > :afterTimestamp OR (a.timestamp = :afterTimestamp AND a.id > :afterId)) "
+            + "ORDER BY a.timestamp, a.id")
+    List<AuditLog> findPatientRange(
+            @Param("patientRef") String patientRef,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("afterTimestamp") Instant afterTimestamp,
+            @Param("afterId") UUID afterId,
+            Limit limit
+    );
+    
+    @Query("SELECT a FROM AuditLog a WHERE a.eventType = :eventType "
+            + "AND a.timestamp >= :from AND a.timestamp < :to "
+            + "AND (a.timestamp > :afterTimestamp OR (a.timestamp = :afterTimestamp AND a.id > :afterId)) "
+            + "ORDER BY a.timestamp, a.id")
+    List<AuditLog> findEventTypeRange(
+            @Param("eventType") String eventType,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("afterTimestamp") Instant afterTimestamp,
+            @Param("afterId") UUID afterId,
+            Limit limit
+    );
+    
+    @Query("SELECT a FROM AuditLog a WHERE a.timestamp >= :from AND a.timestamp < :to "
+            + "AND (a.timestamp > :afterTimestamp OR (a.timestamp = :afterTimestamp AND a.id > :afterId)) "
+            + "ORDER BY a.timestamp, a.id")
+    List<AuditLog> findRange(
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("afterTimestamp") Instant afterTimestamp,
+            @Param("afterId") UUID afterId,
+            Limit limit
+    );
 }
-
@@ -0,0 +1,63 @@
+package com.mccrae.healthcare.audit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which audit events also get an application log line
+ *
+ * healthcare.logging.audit.sample.{EVENT_TYPE}=N logs the 1st, (N+1)th, ... event of
+ * that type; unlisted types are always logged. Only the log line is sampled -
+ * AuditLogger stores every event in audit_logs regardless.
+ */
+@Component
+class AuditLogSampler {
+
+    private static final String PROPERTY_PREFIX = "healthcare.logging.audit.sample.";
+
+    @Autowired
+    private Environment environment;
+
+    private final Map<String, Sampler> samplers = new ConcurrentHashMap<>();
+
+    /**
+     * @return true if this occurrence of the event type should be logged
+     */
+    boolean shouldLog(String eventType) {
+        Sampler sampler = samplers.get(eventType);
+        if (sampler == null) {
+            sampler = samplers.computeIfAbsent(eventType,
+                    type -> new Sampler(environment.getProperty(PROPERTY_PREFIX + type, Long.class, 1L)));
+        }
+        return sampler.next();
+    }
+
+    /**
+     * @return " (sampled 1 in N)" for a sampled event type, "" when every event is logged -
+     *         built once per type, so the log line appends a constant
+     */
+    String suffix(String eventType) {
+        Sampler sampler = samplers.get(eventType);
+        return sampler == null ? "" : sampler.suffix;
+    }
+
+    private static final class Sampler {
+        private final long every;
+        private final String suffix;
+        private final AtomicLong seen = new AtomicLong();
+
+        private Sampler(long every) {
+            this.every = Math.max(1, every);
+            this.suffix = this.every == 1 ? "" : " (sampled 1 in " + this.every + ")";
+        }
+
+        private boolean next() {
+            return every == 1 || seen.getAndIncrement() % every == 0;
+        }
+    }
+}
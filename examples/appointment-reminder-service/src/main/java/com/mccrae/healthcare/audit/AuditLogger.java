@@ -1,29 +1,73 @@
 package com.mccrae.healthcare.audit;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import com.mccrae.healthcare.tracing.CorrelationId;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Audit Logger - creates audit log entries for compliance
  * 
  * This is a core service that other features will use.
  * Example: Emergency Contact notifications will use this to log notifications.
+ * 
+ * Every row gets a correlation ID: the one passed in, else the current
+ * request's (X-Correlation-Id, see TracingFilter).
  */
 @Service
 public class AuditLogger {
     
-    private static final Logger logger = LoggerFactory.getLogger(AuditLogger.class);
+    // Log4j2 API rather than SLF4J: its unrolled info(String, Object...) overloads take up to
+    // ten parameters without a varargs array, so the per-event line stays garbage-free
+    private static final Logger logger = LogManager.getLogger(AuditLogger.class);
+    
+    @Autowired
+    private AuditPipeline auditPipeline;
+    
+    @Autowired
+    private AuditBatchWriter batchWriter;
     
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditLogSampler logSampler;
+    
+    @Autowired
+    private ShardRouter shardRouter;
     
     // Patient events
     public void logPatientCreated(String patientRef) {
         log("PATIENT_CREATED", patientRef, "Patient record created");
     }
     
+    /**
+     * One PATIENT_CREATED row per patient, inserted as a single JDBC batch in the
+     * caller's transaction - the audit rows commit or roll back with the patients
+     * they describe, so no journal entry is needed (bulk import)
+     * 
+     * Sharded, see writeWithCaller.
+     */
+    public void logPatientsCreated(Collection<String> patientRefs) {
+        if (patientRefs.isEmpty()) {
+            return;
+        }
+        // ✅ CORRECT: One summary line, not one per patient
+        logger.info("Audit: PATIENT_CREATED for {} patients", patientRefs.size());
+        
+        String correlationId = CorrelationId.current();
+        List<AuditLog> batch = new ArrayList<>(patientRefs.size());
+        for (String patientRef : patientRefs) {
+            AuditLog auditLog = new AuditLog("PATIENT_CREATED", patientRef, "Patient record created");
+            auditLog.setCorrelationId(correlationId);
+            batch.add(auditLog);
+        }
+        writeWithCaller(batch);
+    }
+    
     public void logPatientAccessed(String patientRef) {
         log("PATIENT_ACCESSED", patientRef, "Patient record accessed");
     }
@@ -50,24 +94,83 @@ public class AuditLogger {
         log("CONSENT_REVOKED", patientRef, "Consent revoked");
     }
     
+    // Notification events
+    /**
+     * One NOTIFICATION_{outcome} row per delivery attempt, inserted as a single JDBC
+     * batch in the caller's transaction - committed together with the
+     * notification_deliveries updates they describe (NotificationSender)
+     * 
+     * Sharded, see writeWithCaller - notification_deliveries is not patient-routed,
+     * so these rows are journaled rather than committed with the updates.
+     */
+    public void logNotificationAttempts(Collection<NotificationAttempt> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+        // ✅ CORRECT: One summary line, not one per notification
+        logger.info("Audit: {} notification attempts", attempts.size());
+        
+        String currentCorrelationId = CorrelationId.current();
+        List<AuditLog> batch = new ArrayList<>(attempts.size());
+        for (NotificationAttempt attempt : attempts) {
+            String details = "Delivery " + attempt.deliveryId() + " via " + attempt.channel() + ", attempt " + attempt.attempt()
+                    + (attempt.errorCode() == null ? "" : ": " + attempt.errorCode());
+            AuditLog auditLog = new AuditLog("NOTIFICATION_" + attempt.outcome(), attempt.patientRef(), details);
+            auditLog.setCorrelationId(attempt.correlationId() != null ? attempt.correlationId() : currentCorrelationId);
+            batch.add(auditLog);
+        }
+        writeWithCaller(batch);
+    }
+    
+    // Sharded: only rows whose patient's bucket this thread holds (routed work on the
+    // transaction's shard) can join the caller's transaction - the rest are journaled
+    private void writeWithCaller(List<AuditLog> batch) {
+        if (!shardRouter.isSharded()) {
+            batchWriter.write(batch);
+            return;
+        }
+        int shard = shardRouter.currentShard();
+        List<AuditLog> local = new ArrayList<>(batch.size());
+        for (AuditLog auditLog : batch) {
+            String patientRef = auditLog.getPatientRef();
+            if (shardRouter.holdsBucketOf(patientRef) && shardRouter.owns(shard, patientRef)) {
+                local.add(auditLog);
+            } else {
+                auditPipeline.submit(auditLog);
+            }
+        }
+        if (!local.isEmpty()) {
+            batchWriter.write(local);
+        }
+    }
+    
     // Generic log method
     public void log(String eventType, String patientRef, String details) {
-        // ✅ CORRECT: Log to application log (reference ID only)
-        logger.info("Audit: {} for patient {} - {}", eventType, patientRef, details);
-        
-        // Save to database (synchronously - cannot be lost!)
-        AuditLog auditLog = new AuditLog(eventType, patientRef, details);
-        auditLogRepository.save(auditLog);
+        log(eventType, patientRef, details, CorrelationId.current());
     }
     
     // Log with correlation ID (for tracing across services)
     public void log(String eventType, String patientRef, String details, String correlationId) {
-        logger.info("Audit: {} for patient {} - {} [correlation: {}]", 
-                eventType, patientRef, details, correlationId);
+        // ✅ CORRECT: Log to application log (reference ID only), sampled for high-volume event types
+        logSampled(eventType, patientRef, details, correlationId);
         
+        // Journaled before returning (cannot be lost!), inserted by the pipeline in batches
         AuditLog auditLog = new AuditLog(eventType, patientRef, details);
         auditLog.setCorrelationId(correlationId);
-        auditLogRepository.save(auditLog);
+        auditPipeline.submit(auditLog);
+    }
+    
+    // The MDC correlationId is already in every JSON log line - only repeat an event's own, different one
+    private void logSampled(String eventType, String patientRef, String details, String correlationId) {
+        if (!logger.isInfoEnabled() || !logSampler.shouldLog(eventType)) {
+            return;
+        }
+        String sampling = logSampler.suffix(eventType);
+        if (correlationId == null || correlationId.equals(CorrelationId.current())) {
+            logger.info("Audit: {} for patient {} - {}{}", eventType, patientRef, details, sampling);
+        } else {
+            logger.info("Audit: {} for patient {} - {} [correlation: {}]{}",
+                    eventType, patientRef, details, correlationId, sampling);
+        }
     }
 }
-
@@ -0,0 +1,74 @@
+package com.mccrae.healthcare.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit write metrics
+ *
+ * - healthcare.audit.submit (timer, percentile histogram): what a caller of
+ *   AuditLogger waits for; tag path (journal | sync)
+ * - healthcare.audit.write (timer, percentile histogram): one audit_logs batch insert
+ * - healthcare.audit.write.batch.size (summary): events per batch insert
+ * - healthcare.audit.chain.breaks (counter): hash chain breaks found by AuditChainVerifier
+ *
+ * Queue depth and pipeline counters are gauges bound by AuditPipeline itself.
+ * No tag carries a patient reference or event details.
+ */
+@Component
+public class AuditMetrics {
+
+    static final String SUBMIT = "healthcare.audit.submit";
+    static final String WRITE = "healthcare.audit.write";
+
+    private final Timer journalSubmit;
+    private final Timer syncSubmit;
+    private final Timer write;
+    private final DistributionSummary batchSize;
+    private final Counter chainBreaks;
+
+    public AuditMetrics(MeterRegistry registry) {
+        this.journalSubmit = submitTimer(registry, "journal");
+        this.syncSubmit = submitTimer(registry, "sync");
+        this.write = Timer.builder(WRITE)
+                .description("audit_logs batch insert latency")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchSize = DistributionSummary.builder(WRITE + ".batch.size")
+                .description("Audit events per batch insert")
+                .baseUnit("events")
+                .register(registry);
+        this.chainBreaks = Counter.builder("healthcare.audit.chain.breaks")
+                .description("Audit hash chain breaks found by verification")
+                .register(registry);
+    }
+
+    /**
+     * @param journaled false if the event was inserted synchronously (pipeline off, journal error, buffer full)
+     */
+    void recordSubmit(boolean journaled, long startNanos) {
+        (journaled ? journalSubmit : syncSubmit).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordWrite(int events, long startNanos) {
+        write.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        batchSize.record(events);
+    }
+
+    void recordChainBreaks(int breaks) {
+        chainBreaks.increment(breaks);
+    }
+
+    private static Timer submitTimer(MeterRegistry registry, String path) {
+        return Timer.builder(SUBMIT)
+                .description("Audit event submit latency as seen by the caller")
+                .tag("path", path)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,56 @@
+package com.mccrae.healthcare.audit;
+
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Audit Partition Maintainer - creates upcoming monthly audit_logs partitions
+ * 
+ * Only for PostgreSQL deployments using db/postgresql/audit_logs_partitioned.sql.
+ * Partitions are created ahead of time so inserts never fall into the default
+ * partition. Old partitions are never dropped here (retention is an operations task).
+ * Sharded, every shard gets the same partitions.
+ */
+@Component
+@ConditionalOnProperty(name = "healthcare.audit.partitioning.enabled", havingValue = "true")
+public class AuditPartitionMaintainer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitionMaintainer.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Value("${healthcare.audit.partitioning.months-ahead:2}")
+    private int monthsAhead;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${healthcare.audit.partitioning.cron:0 0 3 * * *}", zone = "UTC")
+    public void ensureUpcomingPartitions() {
+        LocalDate month = AuditPartitions.monthOf(Instant.now());
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.runOnShard(shard, () -> {
+                for (int i = 0; i <= monthsAhead; i++) {
+                    String partition = jdbcTemplate.queryForObject(
+                            "SELECT create_audit_logs_partition(?)", String.class, Date.valueOf(month.plusMonths(i)));
+                    logger.debug("Audit partition ready: {}", partition);
+                }
+            });
+        }
+    }
+}
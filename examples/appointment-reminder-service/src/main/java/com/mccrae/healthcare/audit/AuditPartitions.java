@@ -0,0 +1,26 @@
+package com.mccrae.healthcare.audit;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Month boundaries (UTC) matching the monthly range partitions of audit_logs
+ */
+final class AuditPartitions {
+    
+    private AuditPartitions() {
+    }
+    
+    static LocalDate monthOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC).withDayOfMonth(1);
+    }
+    
+    static Instant monthStart(Instant instant) {
+        return monthOf(instant).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+    
+    static Instant nextMonthStart(Instant instant) {
+        return monthOf(instant).plusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
@@ -0,0 +1,287 @@
+package com.mccrae.healthcare.audit;
+
+import com.mccrae.healthcare.concurrent.ThreadFactories;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Audit Pipeline - write-behind delivery of audit events to audit_logs
+ *
+ * Flow for every event:
+ * 1. Append to the local journal and fsync (durable before the caller returns)
+ * 2. Offer to a bounded ring buffer
+ * 3. Drainer thread flushes the buffer to the database in JDBC batches
+ * 4. Journal space is released once the batch commits
+ *
+ * Backpressure: when the buffer is full the caller waits up to
+ * offer-timeout, then writes its own event synchronously. Events are never dropped.
+ *
+ * On startup anything left in the journal (process died before its batch
+ * committed) is replayed before new events are accepted.
+ *
+ * Metrics: healthcare.audit.queue.depth (gauge), healthcare.audit.sync.fallbacks
+ * and healthcare.audit.flush.failures (counters), plus AuditMetrics timers.
+ */
+@Component
+public class AuditPipeline implements SmartLifecycle, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPipeline.class);
+
+    @Autowired
+    private AuditBatchWriter batchWriter;
+
+    @Autowired
+    private ThreadFactories threadFactories;
+
+    @Autowired
+    private AuditMetrics metrics;
+
+    @Value("${healthcare.audit.async.enabled:true}")
+    private boolean enabled;
+
+    @Value("${healthcare.audit.async.buffer-capacity:8192}")
+    private int bufferCapacity;
+
+    @Value("${healthcare.audit.async.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${healthcare.audit.async.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${healthcare.audit.async.offer-timeout-ms:100}")
+    private long offerTimeoutMs;
+
+    @Value("${healthcare.audit.async.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${healthcare.audit.journal.directory:data/audit-journal}")
+    private String journalDirectory;
+
+    @Value("${healthcare.audit.journal.max-segment-bytes:67108864}")
+    private long maxSegmentBytes;
+
+    private BlockingQueue<PendingEvent> buffer;
+    private AuditJournal journal;
+    private Thread drainer;
+    private volatile boolean running;
+
+    // Counters (read by metrics/monitoring)
+    private final AtomicLong eventsFlushed = new AtomicLong();
+    private final AtomicLong batchesFlushed = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong syncFallbacks = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+
+    /**
+     * Accept an audit event. Returns once the event is durable (journal) -
+     * the database insert happens on the drainer thread.
+     */
+    public void submit(AuditLog auditLog) {
+        long start = System.nanoTime();
+        if (!running) {
+            // Pipeline disabled, not started yet, or shutting down
+            batchWriter.write(List.of(auditLog));
+            metrics.recordSubmit(false, start);
+            return;
+        }
+
+        AuditJournal.Segment segment;
+        try {
+            segment = journal.append(auditLog);
+        } catch (IOException e) {
+            // Journal unavailable: fall back to the synchronous guarantee
+            logger.error("Audit journal append failed, writing event {} synchronously", auditLog.getId(), e);
+            batchWriter.write(List.of(auditLog));
+            metrics.recordSubmit(false, start);
+            return;
+        }
+
+        PendingEvent pending = new PendingEvent(auditLog, segment);
+        boolean queued;
+        try {
+            queued = buffer.offer(pending, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+
+        if (!queued) {
+            // Buffer full: caller pays for its own insert instead of growing the queue
+            syncFallbacks.incrementAndGet();
+            batchWriter.write(List.of(auditLog));
+            journal.release(segment);
+        }
+        metrics.recordSubmit(queued, start);
+    }
+
+    @Override
+    public void start() {
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        if (!enabled) {
+            logger.info("Audit pipeline disabled, audit events are written synchronously");
+            return;
+        }
+
+        journal = new AuditJournal(Path.of(journalDirectory), maxSegmentBytes);
+        try {
+            replay();
+            journal.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit journal in " + journalDirectory, e);
+        }
+
+        running = true;
+        drainer = threadFactories.named("audit-drainer").newThread(this::drainLoop);
+        drainer.start();
+        logger.info("Audit pipeline started (buffer {}, batch {})", bufferCapacity, maxBatchSize);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // New events go synchronous from here; the drainer empties what is already queued
+        running = false;
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logger.warn("Error closing audit journal", e);
+        }
+        logger.info("Audit pipeline stopped ({} events flushed)", eventsFlushed.get());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before and stop after the web server, so in-flight requests can still audit
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("healthcare.audit.queue.depth", this, pipeline -> pipeline.buffer == null ? 0 : pipeline.buffer.size())
+                .description("Audit events waiting for the drainer")
+                .baseUnit("events")
+                .register(registry);
+        FunctionCounter.builder("healthcare.audit.sync.fallbacks", syncFallbacks, AtomicLong::get)
+                .description("Audit events written synchronously because the buffer was full")
+                .register(registry);
+        FunctionCounter.builder("healthcare.audit.flush.failures", failedFlushes, AtomicLong::get)
+                .description("Audit batch inserts that failed and were retried")
+                .register(registry);
+    }
+
+    public AuditPipelineStats stats() {
+        long batches = batchesFlushed.get();
+        return new AuditPipelineStats(
+                buffer == null ? 0 : buffer.size(),
+                eventsFlushed.get(),
+                batches,
+                failedFlushes.get(),
+                syncFallbacks.get(),
+                lastFlushNanos,
+                maxFlushNanos.get(),
+                batches == 0 ? 0 : totalFlushNanos.get() / batches
+        );
+    }
+
+    private void replay() throws IOException {
+        AuditJournal.Recovery recovery = journal.recover();
+        if (recovery.segments().isEmpty()) {
+            return;
+        }
+        int inserted = batchWriter.writeMissing(recovery.records());
+        journal.discardRecovered(recovery.segments());
+        logger.warn("Replayed audit journal: {} events found, {} were missing from audit_logs",
+                recovery.records().size(), inserted);
+    }
+
+    private void drainLoop() {
+        List<PendingEvent> batch = new ArrayList<>(maxBatchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                PendingEvent first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, maxBatchSize - 1);
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Unflushed events stay in the journal and are replayed on next start
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Retries the same batch until it commits - the journal still holds every event in it
+    private void flush(List<PendingEvent> batch) throws InterruptedException {
+        List<AuditLog> events = new ArrayList<>(batch.size());
+        for (PendingEvent pending : batch) {
+            events.add(pending.auditLog());
+        }
+
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                batchWriter.write(events);
+                recordFlush(System.nanoTime() - start, events.size());
+                for (PendingEvent pending : batch) {
+                    journal.release(pending.segment());
+                }
+                return;
+            } catch (RuntimeException e) {
+                failedFlushes.incrementAndGet();
+                logger.error("Audit batch of {} events failed, retrying in {} ms", events.size(), retryBackoffMs, e);
+                if (!running) {
+                    // Shutting down: leave the events in the journal for replay on next start
+                    return;
+                }
+                Thread.sleep(retryBackoffMs);
+            }
+        }
+    }
+
+    private void recordFlush(long nanos, int size) {
+        eventsFlushed.addAndGet(size);
+        batchesFlushed.incrementAndGet();
+        totalFlushNanos.addAndGet(nanos);
+        maxFlushNanos.accumulateAndGet(nanos, Math::max);
+        lastFlushNanos = nanos;
+    }
+
+    private record PendingEvent(AuditLog auditLog, AuditJournal.Segment segment) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.mccrae.healthcare.audit;
+
+/**
+ * Point-in-time counters for the audit pipeline
+ *
+ * Latencies are in nanoseconds and cover one JDBC batch flush.
+ */
+public record AuditPipelineStats(
+        int queueDepth,
+        long eventsFlushed,
+        long batchesFlushed,
+        long failedFlushes,
+        long syncFallbacks,
+        long lastFlushNanos,
+        long maxFlushNanos,
+        long avgFlushNanos
+) {
+}
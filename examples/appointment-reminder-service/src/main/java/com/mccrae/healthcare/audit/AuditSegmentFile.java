@@ -0,0 +1,622 @@
+package com.mccrae.healthcare.audit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Audit segment file - one immutable, columnar, compressed block of archived audit rows
+ *
+ * Rows of one UTC day, sorted by (timestamp, id) - the order of every audit query.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * header   8 bytes    magic "ASEG", version
+ * columns  one Deflate-compressed block per column (see below), each with its own CRC32
+ * footer   index: day, row count, min/max timestamp, event type dictionary,
+ *          patientRef bloom filter, column block offsets/lengths/CRCs
+ * trailer  20 bytes   footer offset, footer length, footer CRC32, magic
+ * </pre>
+ * Column encodings (before compression):
+ * - timestamps: epoch micros as varint deltas from the previous row (first from the footer minimum)
+ * - eventType, patientRef, details: dictionary codes (varint); the eventType dictionary
+ *   is in the footer, the others are column blocks of their own
+ * - userId, correlationId: length-prefixed UTF-8 (length + 1, 0 = null)
+ * - ids, content hashes: fixed width; chain shard/sequence: varint (value + 1, 0 = unchained)
+ *
+ * Only the footer is read when a segment is opened. A query decodes the
+ * timestamp, id and filter columns first and materializes just the matching rows;
+ * the bloom filter and event type dictionary skip most segments without any decoding.
+ *
+ * Files are written once (temp file + atomic move) and never modified.
+ *
+ * Note: Files contain reference IDs and event details only (NO PHI)
+ */
+final class AuditSegmentFile {
+
+    static final int MAGIC = 0x41534547; // "ASEG"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int TRAILER_BYTES = 20;
+
+    private static final int IDS = 0;
+    private static final int TIMESTAMPS = 1;
+    private static final int EVENT_TYPES = 2;
+    private static final int PATIENT_REF_DICTIONARY = 3;
+    private static final int PATIENT_REFS = 4;
+    private static final int DETAILS_DICTIONARY = 5;
+    private static final int DETAILS = 6;
+    private static final int USER_IDS = 7;
+    private static final int CORRELATION_IDS = 8;
+    private static final int CHAIN_SHARDS = 9;
+    private static final int CHAIN_SEQS = 10;
+    private static final int CONTENT_HASHES = 11;
+    private static final int COLUMNS = 12;
+
+    private final Path path;
+    private final LocalDate day;
+    private final int rowCount;
+    private final long minMicros;
+    private final long maxMicros;
+    private final List<String> eventTypes;
+    private final BloomFilter patientRefs;
+    private final Block[] blocks;
+
+    private AuditSegmentFile(Path path, LocalDate day, int rowCount, long minMicros, long maxMicros,
+                             List<String> eventTypes, BloomFilter patientRefs, Block[] blocks) {
+        this.path = path;
+        this.day = day;
+        this.rowCount = rowCount;
+        this.minMicros = minMicros;
+        this.maxMicros = maxMicros;
+        this.eventTypes = eventTypes;
+        this.patientRefs = patientRefs;
+        this.blocks = blocks;
+    }
+
+    /**
+     * Write rows of one UTC day, already sorted by (timestamp, id)
+     */
+    static void write(Path file, LocalDate day, List<AuditLog> rows) throws IOException {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Empty audit segment");
+        }
+        Dictionary eventTypes = new Dictionary();
+        Dictionary patientRefs = new Dictionary();
+        Dictionary details = new Dictionary();
+        ColumnWriter[] columns = new ColumnWriter[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            columns[i] = new ColumnWriter();
+        }
+
+        long minMicros = AuditChainHasher.epochMicros(rows.get(0).getTimestamp());
+        long previousMicros = minMicros;
+        for (AuditLog row : rows) {
+            long micros = AuditChainHasher.epochMicros(row.getTimestamp());
+            if (micros < previousMicros) {
+                throw new IllegalArgumentException("Audit segment rows must be sorted by timestamp");
+            }
+            columns[IDS].writeLong(row.getId().getMostSignificantBits());
+            columns[IDS].writeLong(row.getId().getLeastSignificantBits());
+            columns[TIMESTAMPS].writeVarLong(micros - previousMicros);
+            columns[EVENT_TYPES].writeVarLong(eventTypes.code(row.getEventType()));
+            columns[PATIENT_REFS].writeVarLong(patientRefs.code(row.getPatientRef()));
+            columns[DETAILS].writeVarLong(details.code(row.getDetails()));
+            columns[USER_IDS].writeString(row.getUserId());
+            columns[CORRELATION_IDS].writeString(row.getCorrelationId());
+            columns[CHAIN_SHARDS].writeVarLong(row.getChainShard() == null ? 0 : row.getChainShard() + 1L);
+            columns[CHAIN_SEQS].writeVarLong(row.getChainSeq() == null ? 0 : row.getChainSeq() + 1);
+            columns[CONTENT_HASHES].write(row.getContentHash() == null
+                    ? AuditChainHasher.GENESIS : row.getContentHash(), 0, AuditChainHasher.HASH_BYTES);
+            previousMicros = micros;
+        }
+        for (String patientRef : patientRefs.values()) {
+            columns[PATIENT_REF_DICTIONARY].writeString(patientRef);
+        }
+        for (String detail : details.values()) {
+            columns[DETAILS_DICTIONARY].writeString(detail);
+        }
+        BloomFilter bloom = BloomFilter.sized(patientRefs.size());
+        for (String patientRef : patientRefs.values()) {
+            bloom.add(patientRef);
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip());
+
+            Block[] blocks = new Block[COLUMNS];
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                for (int i = 0; i < COLUMNS; i++) {
+                    byte[] raw = columns[i].toByteArray();
+                    byte[] compressed = deflate(deflater, raw);
+                    blocks[i] = new Block(channel.position(), compressed.length, raw.length, crc(compressed));
+                    writeFully(channel, ByteBuffer.wrap(compressed));
+                }
+            } finally {
+                deflater.end();
+            }
+
+            ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+            DataOutputStream footer = new DataOutputStream(footerBytes);
+            footer.writeLong(day.toEpochDay());
+            footer.writeInt(rows.size());
+            footer.writeLong(minMicros);
+            footer.writeLong(previousMicros);
+            footer.writeInt(eventTypes.size());
+            for (String eventType : eventTypes.values()) {
+                footer.writeUTF(eventType);
+            }
+            bloom.writeTo(footer);
+            for (Block block : blocks) {
+                footer.writeLong(block.offset());
+                footer.writeInt(block.compressedLength());
+                footer.writeInt(block.rawLength());
+                footer.writeInt(block.crc());
+            }
+            footer.flush();
+            byte[] footerArray = footerBytes.toByteArray();
+            long footerOffset = channel.position();
+            writeFully(channel, ByteBuffer.wrap(footerArray));
+            writeFully(channel, ByteBuffer.allocate(TRAILER_BYTES)
+                    .putLong(footerOffset).putInt(footerArray.length).putInt(crc(footerArray)).putInt(MAGIC).flip());
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Read a segment's footer (index). Column blocks are read per query.
+     *
+     * @throws IOException if the file is not a complete, intact segment
+     */
+    static AuditSegmentFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + TRAILER_BYTES) {
+                throw new IOException("Truncated audit segment " + file.getFileName());
+            }
+            ByteBuffer trailer = readFully(channel, size - TRAILER_BYTES, TRAILER_BYTES);
+            long footerOffset = trailer.getLong();
+            int footerLength = trailer.getInt();
+            int footerCrc = trailer.getInt();
+            if (trailer.getInt() != MAGIC || readFully(channel, 0, HEADER_BYTES).getInt(4) != VERSION
+                    || footerOffset + footerLength + TRAILER_BYTES != size) {
+                throw new IOException("Not an audit segment file (version " + VERSION + "): " + file.getFileName());
+            }
+            byte[] footerArray = readFully(channel, footerOffset, footerLength).array();
+            if (crc(footerArray) != footerCrc) {
+                throw new IOException("Corrupt audit segment footer " + file.getFileName());
+            }
+
+            DataInputStream footer = new DataInputStream(new ByteArrayInputStream(footerArray));
+            LocalDate day = LocalDate.ofEpochDay(footer.readLong());
+            int rowCount = footer.readInt();
+            long minMicros = footer.readLong();
+            long maxMicros = footer.readLong();
+            int eventTypeCount = footer.readInt();
+            List<String> eventTypes = new ArrayList<>(eventTypeCount);
+            for (int i = 0; i < eventTypeCount; i++) {
+                eventTypes.add(footer.readUTF());
+            }
+            BloomFilter bloom = BloomFilter.readFrom(footer);
+            Block[] blocks = new Block[COLUMNS];
+            for (int i = 0; i < COLUMNS; i++) {
+                blocks[i] = new Block(footer.readLong(), footer.readInt(), footer.readInt(), footer.readInt());
+            }
+            return new AuditSegmentFile(file, day, rowCount, minMicros, maxMicros, List.copyOf(eventTypes), bloom, blocks);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    LocalDate day() {
+        return day;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * From the index alone: can this segment hold rows matching the filter in [fromMicros, toMicros)?
+     */
+    boolean mightContain(String patientRef, String eventType, long fromMicros, long toMicros) {
+        return maxMicros >= fromMicros && minMicros < toMicros
+                && (eventType == null || eventTypes.contains(eventType))
+                && (patientRef == null || patientRefs.mightContain(patientRef));
+    }
+
+    /**
+     * Rows matching the filter in [fromMicros, toMicros), after the cursor, in (timestamp, id) order
+     *
+     * @param patientRef null for any patient
+     * @param eventType  null for any event type
+     */
+    List<AuditLog> find(String patientRef, String eventType, long fromMicros, long toMicros,
+                        AuditLogCursor after, int limit) throws IOException {
+        if (!mightContain(patientRef, eventType, fromMicros, toMicros)) {
+            return List.of();
+        }
+        int eventTypeCode = eventType == null ? -1 : eventTypes.indexOf(eventType);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            int patientRefCode = -1;
+            if (patientRef != null) {
+                patientRefCode = strings(channel, PATIENT_REF_DICTIONARY).indexOf(patientRef);
+                if (patientRefCode < 0) {
+                    return List.of(); // bloom filter false positive
+                }
+            }
+            long[] micros = timestamps(channel);
+            long[] ids = longs(column(channel, IDS), rowCount * 2);
+            int[] patientRefCodes = patientRef == null ? null : codes(column(channel, PATIENT_REFS));
+            int[] eventTypeCodes = eventType == null ? null : codes(column(channel, EVENT_TYPES));
+            long afterMicros = AuditChainHasher.epochMicros(after.timestamp());
+
+            List<Integer> matches = new ArrayList<>();
+            for (int row = 0; row < rowCount && matches.size() < limit; row++) {
+                if (micros[row] < fromMicros || micros[row] >= toMicros) {
+                    continue;
+                }
+                if (micros[row] < afterMicros || (micros[row] == afterMicros
+                        && AuditLogCursor.compareIds(ids[row * 2], ids[row * 2 + 1], after.id()) <= 0)) {
+                    continue;
+                }
+                if ((patientRefCodes != null && patientRefCodes[row] != patientRefCode)
+                        || (eventTypeCodes != null && eventTypeCodes[row] != eventTypeCode)) {
+                    continue;
+                }
+                matches.add(row);
+            }
+            return matches.isEmpty() ? List.of() : materialize(channel, matches, micros, ids);
+        }
+    }
+
+    /**
+     * Every row of one chain shard in sequence range (chain verification, chain heads)
+     */
+    List<AuditLog> chainRows(int shard, long fromSeq, long throughSeq) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] shards = varLongs(column(channel, CHAIN_SHARDS), rowCount);
+            long[] seqs = varLongs(column(channel, CHAIN_SEQS), rowCount);
+            List<Integer> matches = new ArrayList<>();
+            for (int row = 0; row < rowCount; row++) {
+                long seq = seqs[row] - 1;
+                if (shards[row] - 1 == shard && seqs[row] != 0 && seq >= fromSeq && seq <= throughSeq) {
+                    matches.add(row);
+                }
+            }
+            return matches.isEmpty() ? List.of()
+                    : materialize(channel, matches, timestamps(channel), longs(column(channel, IDS), rowCount * 2));
+        }
+    }
+
+    /**
+     * Every row id (re-archiving after a crash skips rows already archived)
+     */
+    Set<UUID> ids() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] ids = longs(column(channel, IDS), rowCount * 2);
+            Set<UUID> result = new HashSet<>(rowCount * 2);
+            for (int row = 0; row < rowCount; row++) {
+                result.add(new UUID(ids[row * 2], ids[row * 2 + 1]));
+            }
+            return result;
+        }
+    }
+
+    private List<AuditLog> materialize(FileChannel channel, List<Integer> rows, long[] micros, long[] ids)
+            throws IOException {
+        int[] eventTypeCodes = codes(column(channel, EVENT_TYPES));
+        int[] patientRefCodes = codes(column(channel, PATIENT_REFS));
+        List<String> patientRefDictionary = strings(channel, PATIENT_REF_DICTIONARY);
+        int[] detailCodes = codes(column(channel, DETAILS));
+        List<String> detailDictionary = strings(channel, DETAILS_DICTIONARY);
+        List<String> userIds = strings(channel, USER_IDS);
+        List<String> correlationIds = strings(channel, CORRELATION_IDS);
+        long[] shards = varLongs(column(channel, CHAIN_SHARDS), rowCount);
+        long[] seqs = varLongs(column(channel, CHAIN_SEQS), rowCount);
+        ByteBuffer hashes = ByteBuffer.wrap(column(channel, CONTENT_HASHES));
+
+        List<AuditLog> result = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            AuditLog auditLog = new AuditLog(
+                    new UUID(ids[row * 2], ids[row * 2 + 1]),
+                    Instant.ofEpochSecond(Math.floorDiv(micros[row], 1_000_000L),
+                            Math.floorMod(micros[row], 1_000_000L) * 1_000L),
+                    eventTypes.get(eventTypeCodes[row]),
+                    patientRefDictionary.get(patientRefCodes[row]),
+                    detailDictionary.get(detailCodes[row]));
+            auditLog.setUserId(userIds.get(row));
+            auditLog.setCorrelationId(correlationIds.get(row));
+            if (seqs[row] != 0) {
+                auditLog.chain(day, (int) shards[row] - 1, seqs[row] - 1);
+                byte[] hash = new byte[AuditChainHasher.HASH_BYTES];
+                hashes.get(row * AuditChainHasher.HASH_BYTES, hash);
+                auditLog.setContentHash(hash);
+            }
+            result.add(auditLog);
+        }
+        return result;
+    }
+
+    private long[] timestamps(FileChannel channel) throws IOException {
+        long[] micros = varLongs(column(channel, TIMESTAMPS), rowCount);
+        long previous = minMicros;
+        for (int row = 0; row < rowCount; row++) {
+            previous += micros[row];
+            micros[row] = previous;
+        }
+        return micros;
+    }
+
+    private List<String> strings(FileChannel channel, int column) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(column(channel, column));
+        List<String> values = new ArrayList<>();
+        while (in.hasRemaining()) {
+            int length = (int) readVarLong(in) - 1;
+            if (length < 0) {
+                values.add(null);
+            } else {
+                values.add(new String(in.array(), in.position(), length, StandardCharsets.UTF_8));
+                in.position(in.position() + length);
+            }
+        }
+        return values;
+    }
+
+    private byte[] column(FileChannel channel, int column) throws IOException {
+        Block block = blocks[column];
+        byte[] compressed = readFully(channel, block.offset(), block.compressedLength()).array();
+        if (crc(compressed) != block.crc()) {
+            throw new IOException("Corrupt column " + column + " in audit segment " + path.getFileName());
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[block.rawLength()];
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != raw.length) {
+                throw new IOException("Truncated column " + column + " in audit segment " + path.getFileName());
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column " + column + " in audit segment " + path.getFileName(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // Dictionary codes, one per row
+    private int[] codes(byte[] column) {
+        ByteBuffer in = ByteBuffer.wrap(column);
+        int[] codes = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            codes[row] = (int) readVarLong(in);
+        }
+        return codes;
+    }
+
+    private static long[] varLongs(byte[] column, int count) {
+        ByteBuffer in = ByteBuffer.wrap(column);
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = readVarLong(in);
+        }
+        return values;
+    }
+
+    private static long[] longs(byte[] column, int count) {
+        ByteBuffer in = ByteBuffer.wrap(column);
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.getLong();
+        }
+        return values;
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        byte[] chunk = new byte[1 << 16];
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return out.toByteArray();
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of audit segment");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private record Block(long offset, int compressedLength, int rawLength, int crc) {
+    }
+
+    // Codes in first-seen order; null is a regular entry
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new LinkedHashMap<>();
+
+        int code(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = codes.size();
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        int size() {
+            return codes.size();
+        }
+
+        // In code order
+        Iterable<String> values() {
+            return codes.keySet();
+        }
+    }
+
+    private static final class ColumnWriter extends ByteArrayOutputStream {
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * Bloom filter over patientRefs - about 1% false positives at 10 bits per key
+     */
+    static final class BloomFilter {
+
+        private static final int BITS_PER_KEY = 10;
+        private static final int HASHES = 7;
+
+        private final long[] words;
+
+        private BloomFilter(long[] words) {
+            this.words = words;
+        }
+
+        static BloomFilter sized(int keys) {
+            return new BloomFilter(new long[Math.max(1, (keys * BITS_PER_KEY + 63) / 64)]);
+        }
+
+        static BloomFilter readFrom(DataInputStream in) throws IOException {
+            long[] words = new long[in.readInt()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = in.readLong();
+            }
+            return new BloomFilter(words);
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+
+        void add(String key) {
+            long hash = hash(key);
+            long bits = words.length * 64L;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(hash + i * mix(hash), bits);
+                words[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            long bits = words.length * 64L;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(hash + i * mix(hash), bits);
+                if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a over UTF-16 chars - stable across JVMs, unlike identity hashes
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash | 1;
+        }
+    }
+}
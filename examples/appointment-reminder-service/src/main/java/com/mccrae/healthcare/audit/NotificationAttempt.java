@@ -0,0 +1,22 @@
+package com.mccrae.healthcare.audit;
+
+import java.util.UUID;
+
+/**
+ * One notification delivery attempt, as recorded by AuditLogger.logNotificationAttempts
+ * 
+ * No PHI: reference IDs, channel, outcome and a sanitized error code only.
+ * 
+ * @param outcome   SENT, RETRY_SCHEDULED or FAILED
+ * @param errorCode provider error code, null when sent
+ */
+public record NotificationAttempt(
+        UUID deliveryId,
+        String patientRef,
+        String channel,
+        int attempt,
+        String outcome,
+        String errorCode,
+        String correlationId
+) {
+}
@@ -0,0 +1,111 @@
+package com.mccrae.healthcare.concurrent;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pinned Thread Monitor - reports virtual threads blocked while pinned to their carrier
+ * 
+ * Streams the JFR event jdk.VirtualThreadPinned (Java 21+) in-process. Each
+ * pinning site (first frame outside the JDK) is logged once with its stack,
+ * then only counted - see {@link #pinnedSites()}.
+ * 
+ * Only active in virtual-thread mode.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class PinnedThreadMonitor implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+    
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+    
+    @Value("${healthcare.threads.pinned-threshold:20ms}")
+    private Duration threshold;
+    
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+    private volatile boolean running;
+    
+    /**
+     * Pinning events per site since startup
+     */
+    public Map<String, Long> pinnedSites() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        sites.forEach((site, count) -> snapshot.put(site, count.sum()));
+        return snapshot;
+    }
+    
+    @Override
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        running = true;
+        logger.info("Reporting virtual threads pinned for more than {}", threshold);
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        stream.close();
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void onPinned(RecordedEvent event) {
+        String site = site(event);
+        LongAdder count = sites.computeIfAbsent(site, key -> new LongAdder());
+        count.increment();
+        if (count.sum() == 1) {
+            // Stack frames only - no request data
+            logger.warn("Virtual thread pinned for {} ms at {}:\n{}",
+                    event.getDuration().toMillis(), site, frames(event));
+        }
+    }
+    
+    private static String site(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "jdk";
+    }
+    
+    private static String frames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "    (no stack trace)";
+        }
+        StringBuilder frames = new StringBuilder();
+        event.getStackTrace().getFrames().stream().limit(LOGGED_FRAMES).forEach(frame ->
+                frames.append("    at ")
+                        .append(frame.getMethod().getType().getName()).append('.')
+                        .append(frame.getMethod().getName()).append(':')
+                        .append(frame.getLineNumber()).append('\n'));
+        return frames.toString();
+    }
+}
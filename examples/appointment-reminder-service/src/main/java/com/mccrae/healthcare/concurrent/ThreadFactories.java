@@ -0,0 +1,55 @@
+package com.mccrae.healthcare.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread Factories - one switch for every background thread the service creates
+ * 
+ * Virtual-thread mode is opt-in: spring.threads.virtual.enabled=true (the
+ * "virtual" profile) on Java 21+. It then covers Tomcat request handling
+ * (Spring Boot), the audit pipeline drainer and the reminder workers. On older
+ * JVMs or without the property everything runs on platform threads.
+ * 
+ * Note: Code running on these threads must not block inside synchronized
+ * blocks (it would pin the carrier thread) - use ReentrantLock instead.
+ * PinnedThreadMonitor reports any pinning that still happens.
+ */
+@Component
+public class ThreadFactories {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ThreadFactories.class);
+    
+    private final boolean virtual;
+    
+    @Autowired
+    public ThreadFactories(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+        logger.info("Background threads: {}", virtual ? "virtual" : "platform");
+    }
+    
+    public boolean isVirtual() {
+        return virtual;
+    }
+    
+    /**
+     * Factory for threads named "{name}-1", "{name}-2", ...
+     */
+    public ThreadFactory named(String name) {
+        ThreadFactory base = virtual ? new VirtualThreadTaskExecutor().getVirtualThreadFactory() : Thread::new;
+        AtomicInteger number = new AtomicInteger();
+        return runnable -> {
+            Thread thread = base.newThread(runnable);
+            thread.setName(name + "-" + number.incrementAndGet());
+            return thread;
+        };
+    }
+}
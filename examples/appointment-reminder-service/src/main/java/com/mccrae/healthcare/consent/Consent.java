@@ -1,25 +1,26 @@
 package com.mccrae.healthcare.consent;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mccrae.healthcare.sharding.ShardKey;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.Instant;
-import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
 /**
  * Consent entity - tracks patient consent for various operations
  * 
- * Scopes:
- * - PATIENT_VIEW: View basic patient information
- * - EMERGENCY_CONTACT_NOTIFY: Notify emergency contacts
- * - EMERGENCY_CONTACT_NOTIFY_DETAILED: Share detailed info with emergency contacts
- * - APPOINTMENT_REMINDER: Send appointment reminders
- * - MEDICATION_REMINDER: Send medication reminders
+ * Scopes (see ConsentScope) are stored as one bit each in scope_mask - no
+ * join table, no per-row collection, and scope checks are a single AND.
+ * The API still reads and writes them as "scopes": ["APPOINTMENT_REMINDER", ...].
  */
 @Entity
-@Table(name = "consents")
+@Table(name = "consents", indexes = {
+        @Index(name = "idx_consents_patient_ref_expires_at", columnList = "patientRef, expiresAt"),
+        @Index(name = "idx_consents_shard_bucket", columnList = "shardBucket")
+})
 public class Consent {
     
     @Id
@@ -29,10 +30,8 @@ public class Consent {
     @NotBlank
     private String patientRef; // Reference to patient
     
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "consent_scopes", joinColumns = @JoinColumn(name = "consent_id"))
-    @Column(name = "scope")
-    private Set<String> scopes = new HashSet<>();
+    @Column(nullable = false)
+    private long scopeMask; // ConsentScope bits
     
     @Column(nullable = false)
     @NotNull
@@ -48,6 +47,9 @@ public class Consent {
     @Column(nullable = false)
     private Instant updatedAt; // Always UTC
     
+    @Column(nullable = false)
+    private int shardBucket; // ShardKey bucket of patientRef - no getter, not part of the API
+    
     // Constructors
     public Consent() {
         this.id = UUID.randomUUID();
@@ -60,8 +62,13 @@ public class Consent {
         return Instant.now().isAfter(expiresAt);
     }
     
+    // No allocation: name lookup + bitwise AND (unknown scope names are never granted)
     public boolean hasScope(String scope) {
-        return scopes.contains(scope);
+        return (scopeMask & ConsentScope.bitOf(scope)) != 0;
+    }
+    
+    public boolean hasScope(ConsentScope scope) {
+        return (scopeMask & scope.bit()) != 0;
     }
     
     public boolean isValid() {
@@ -85,16 +92,26 @@ public class Consent {
         this.patientRef = patientRef;
     }
     
-    public Set<String> getScopes() {
-        return scopes;
+    // Decoded copy for the API - use hasScope() for checks
+    public Set<ConsentScope> getScopes() {
+        return ConsentScope.fromMask(scopeMask);
     }
     
-    public void setScopes(Set<String> scopes) {
-        this.scopes = scopes;
+    public void setScopes(Set<ConsentScope> scopes) {
+        this.scopeMask = ConsentScope.maskOf(scopes);
     }
     
-    public void addScope(String scope) {
-        this.scopes.add(scope);
+    public void addScope(ConsentScope scope) {
+        this.scopeMask |= scope.bit();
+    }
+    
+    @JsonIgnore
+    public long getScopeMask() {
+        return scopeMask;
+    }
+    
+    public void setScopeMask(long scopeMask) {
+        this.scopeMask = scopeMask;
     }
     
     public Instant getGrantedAt() {
@@ -129,9 +146,15 @@ public class Consent {
         this.updatedAt = updatedAt;
     }
     
+    @PrePersist
+    public void prePersist() {
+        this.shardBucket = ShardKey.bucketOf(patientRef);
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = Instant.now();
+        this.shardBucket = ShardKey.bucketOf(patientRef);
     }
 }
 
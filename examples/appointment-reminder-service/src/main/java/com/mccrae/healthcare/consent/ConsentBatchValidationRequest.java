@@ -0,0 +1,16 @@
+package com.mccrae.healthcare.consent;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request body for POST /api/consents/validate-batch
+ */
+public record ConsentBatchValidationRequest(
+        @NotBlank String scope,
+        @NotEmpty @Size(max = 50_000) List<@NotBlank String> patientRefs
+) {
+}
@@ -0,0 +1,15 @@
+package com.mccrae.healthcare.consent;
+
+import java.util.Map;
+
+/**
+ * Response body for POST /api/consents/validate-batch
+ *
+ * results maps each patientRef to whether it has valid consent for the scope.
+ */
+public record ConsentBatchValidationResponse(
+        String scope,
+        int validCount,
+        Map<String, Boolean> results
+) {
+}
@@ -0,0 +1,17 @@
+package com.mccrae.healthcare.consent;
+
+/**
+ * Point-in-time counters for the consent decision cache
+ */
+public record ConsentCacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        long invalidations,
+        long size
+) {
+    public double hitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
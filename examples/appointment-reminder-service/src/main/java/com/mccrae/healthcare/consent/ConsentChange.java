@@ -0,0 +1,103 @@
+package com.mccrae.healthcare.consent;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Consent Change - one row of the consent change log (transactional outbox)
+ * 
+ * Written in the same transaction as the consent mutation it describes, with a
+ * gap-free sequence assigned under the consent_change_sequence row lock - so
+ * sequence order is commit order and consumers can resume from "last sequence seen".
+ * 
+ * Carries the full consent state (after a grant, before a revoke), so a consumer
+ * can apply it without querying back. No PHI - reference ID, scopes and times only.
+ * 
+ * Note: This entity is IMMUTABLE - rows are only inserted, and pruned after the retention period
+ */
+@Entity
+@Table(name = "consent_changes")
+public class ConsentChange {
+    
+    @Id
+    private long sequence;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ConsentChangeType changeType;
+    
+    @Column(nullable = false)
+    private UUID consentId;
+    
+    @Column(nullable = false)
+    private String patientRef; // Patient reference ID (safe to log)
+    
+    @Column(nullable = false)
+    private long scopeMask; // ConsentScope bits
+    
+    @Column(nullable = false)
+    private Instant grantedAt; // Always UTC
+    
+    @Column(nullable = false)
+    private Instant expiresAt; // Always UTC
+    
+    @Column(nullable = false)
+    private Instant occurredAt; // Always UTC
+    
+    // Constructors
+    protected ConsentChange() {
+    }
+    
+    public ConsentChange(long sequence, ConsentChangeType changeType, Consent consent, Instant occurredAt) {
+        this.sequence = sequence;
+        this.changeType = changeType;
+        this.consentId = consent.getId();
+        this.patientRef = consent.getPatientRef();
+        this.scopeMask = consent.getScopeMask();
+        this.grantedAt = consent.getGrantedAt();
+        this.expiresAt = consent.getExpiresAt();
+        this.occurredAt = occurredAt;
+    }
+    
+    // Getters only - immutable
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public ConsentChangeType getChangeType() {
+        return changeType;
+    }
+    
+    public UUID getConsentId() {
+        return consentId;
+    }
+    
+    public String getPatientRef() {
+        return patientRef;
+    }
+    
+    public Set<ConsentScope> getScopes() {
+        return ConsentScope.fromMask(scopeMask);
+    }
+    
+    @JsonIgnore
+    public long getScopeMask() {
+        return scopeMask;
+    }
+    
+    public Instant getGrantedAt() {
+        return grantedAt;
+    }
+    
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -0,0 +1,33 @@
+package com.mccrae.healthcare.consent;
+
+import java.util.List;
+
+/**
+ * In-process consumer of the consent change log
+ * 
+ * Beans implementing this are registered with ConsentChangePublisher. Each has
+ * its own stored offset (consumerId), so a slow or new consumer never holds
+ * the others back.
+ * 
+ * Delivery is at-least-once and in sequence order: apply changes idempotently
+ * (keyed by consentId), and skip sequences at or below the last one applied.
+ */
+public interface ConsentChangeListener {
+    
+    /**
+     * Stable ID under which the offset is stored - changing it replays from a snapshot
+     */
+    String consumerId();
+    
+    /**
+     * Replace all local state. Called on first start, and when the stored offset
+     * is older than the retained log.
+     */
+    void onSnapshot(ConsentSnapshot snapshot);
+    
+    /**
+     * Apply the next changes, in sequence order. Throwing leaves the offset
+     * unchanged - the same batch is delivered again later.
+     */
+    void onChanges(List<ConsentChange> changes);
+}
@@ -0,0 +1,245 @@
+package com.mccrae.healthcare.consent;
+
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Consent Change Log - ordered, gap-free log of consent mutations (transactional outbox)
+ *
+ * append() runs inside the transaction that changes the consent:
+ * 1. UPDATE the consent_change_sequence row (+1) - the row lock is held until commit
+ * 2. INSERT the change into consent_changes with that sequence
+ *
+ * Because the next writer waits on the same row lock, sequence N+1 can only
+ * commit after N - readers never see a later sequence before an earlier one,
+ * and a rolled-back transaction releases its number without leaving a gap.
+ *
+ * Sharded, the sequence and the log stay on the home shard. append() writes the
+ * change to consent_outbox on the consent's shard instead, and
+ * ConsentOutboxRelay appends it here under the same rules once it has committed.
+ *
+ * Retention: changes older than healthcare.consent.changes.retention are pruned.
+ * A consumer whose offset is older than the oldest retained change must
+ * reload from snapshot() first.
+ */
+@Component
+public class ConsentChangeLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsentChangeLog.class);
+
+    private static final String NEXT_SEQUENCE_SQL =
+            "UPDATE consent_change_sequence SET last_sequence = last_sequence + 1 WHERE id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO consent_changes (sequence, change_type, consent_id, patient_ref, scope_mask, granted_at, expires_at, occurred_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_OUTBOX_SQL =
+            "INSERT INTO consent_outbox (change_type, consent_id, patient_ref, scope_mask, granted_at, expires_at, occurred_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ConsentChangeRepository changeRepository;
+
+    @Autowired
+    private ConsentRepository consentRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    // Notified after each commit that appended a change (ConsentChangePublisher)
+    private final List<Runnable> commitListeners = new CopyOnWriteArrayList<>();
+
+    // Sharded: notified after each commit that wrote to consent_outbox (ConsentOutboxRelay)
+    private final List<Runnable> outboxListeners = new CopyOnWriteArrayList<>();
+
+    @Value("${healthcare.consent.changes.retention:7d}")
+    private Duration retention;
+
+    /**
+     * Create the sequence row if this is a fresh database (idempotent)
+     */
+    public void initialize() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM consent_change_sequence WHERE id = ?", Integer.class, ConsentChangeSequence.ROW_ID);
+            if (rows == null || rows == 0) {
+                jdbcTemplate.update("INSERT INTO consent_change_sequence (id, last_sequence) VALUES (?, 0)",
+                        ConsentChangeSequence.ROW_ID);
+            }
+        });
+    }
+
+    public void addCommitListener(Runnable listener) {
+        commitListeners.add(listener);
+    }
+
+    void addOutboxListener(Runnable listener) {
+        outboxListeners.add(listener);
+    }
+
+    /**
+     * Record a consent mutation. Must be called in the transaction that makes it.
+     *
+     * @param consent state after a grant, or before a revoke
+     * @return the change's sequence; 0 if sharded (the relay assigns it after commit)
+     * @throws IllegalStateException if no transaction is active
+     */
+    public long append(ConsentChangeType changeType, Consent consent) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Consent changes must be appended in the consent's own transaction");
+        }
+        if (shardRouter.isSharded()) {
+            appendToOutbox(changeType, consent);
+            return 0;
+        }
+        return appendChange(changeType, consent, Instant.now());
+    }
+
+    /**
+     * Append a change relayed from a shard's consent_outbox (home shard transaction)
+     */
+    long appendRelayed(ConsentChangeType changeType, Consent consent, Instant occurredAt) {
+        return appendChange(changeType, consent, occurredAt);
+    }
+
+    private long appendChange(ConsentChangeType changeType, Consent consent, Instant occurredAt) {
+        if (jdbcTemplate.update(NEXT_SEQUENCE_SQL, ConsentChangeSequence.ROW_ID) != 1) {
+            throw new IllegalStateException("consent_change_sequence is not initialized");
+        }
+        long sequence = currentSequence();
+        jdbcTemplate.update(INSERT_SQL,
+                sequence,
+                changeType.name(),
+                consent.getId(),
+                consent.getPatientRef(),
+                consent.getScopeMask(),
+                consent.getGrantedAt().atOffset(ZoneOffset.UTC),
+                consent.getExpiresAt().atOffset(ZoneOffset.UTC),
+                occurredAt.atOffset(ZoneOffset.UTC));
+
+        // ✅ CORRECT: Reference ID only
+        logger.debug("Consent change {} {} for patient {}", sequence, changeType, consent.getPatientRef());
+
+        // Wake consumers once the change is visible, not before
+        afterCommit(commitListeners);
+        return sequence;
+    }
+
+    private void appendToOutbox(ConsentChangeType changeType, Consent consent) {
+        jdbcTemplate.update(INSERT_OUTBOX_SQL,
+                changeType.name(),
+                consent.getId(),
+                consent.getPatientRef(),
+                consent.getScopeMask(),
+                consent.getGrantedAt().atOffset(ZoneOffset.UTC),
+                consent.getExpiresAt().atOffset(ZoneOffset.UTC),
+                Instant.now().atOffset(ZoneOffset.UTC));
+
+        // ✅ CORRECT: Reference ID only
+        logger.debug("Consent change {} for patient {} queued on shard {}",
+                changeType, consent.getPatientRef(), shardRouter.currentShard());
+        afterCommit(outboxListeners);
+    }
+
+    private static void afterCommit(List<Runnable> listeners) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                listeners.forEach(Runnable::run);
+            }
+        });
+    }
+
+    /**
+     * Changes after the given sequence, in order
+     *
+     * @throws ConsentSnapshotRequiredException if changes after {@code after} have already been pruned,
+     *         or {@code after} is past the last committed sequence
+     */
+    public List<ConsentChange> changesAfter(long after, int limit) {
+        // Read first: every change up to here is committed before the range query runs
+        long committed = currentSequence();
+        if (after > committed) {
+            // Sequences only grow: an offset the log never issued would otherwise read as "no changes" forever
+            throw new ConsentSnapshotRequiredException(after, committed);
+        }
+        List<ConsentChange> changes = changeRepository.findChangesAfter(after, Limit.of(limit));
+        // The log is gap-free, so a missing next sequence means it was pruned
+        boolean pruned = changes.isEmpty()
+                ? after < committed
+                : changes.get(0).getSequence() != after + 1;
+        if (pruned) {
+            throw new ConsentSnapshotRequiredException(after);
+        }
+        return changes;
+    }
+
+    /**
+     * Every active consent, consistent with the change log at the returned sequence
+     *
+     * Takes the sequence row lock, so no consent mutation can commit while the
+     * snapshot is read. Holds writers for the duration of one full scan - for
+     * catch-up only, never on a request path.
+     *
+     * Sharded, the shards are read in parallel while the lock is held. Consents
+     * whose changes the relay has not appended yet are already included; their
+     * changes follow the snapshot's sequence and, carrying full state, re-apply
+     * harmlessly.
+     */
+    public ConsentSnapshot snapshot() {
+        return transactionTemplate.execute(status -> {
+            Long sequence = jdbcTemplate.queryForObject(
+                    "SELECT last_sequence FROM consent_change_sequence WHERE id = ? FOR UPDATE",
+                    Long.class, ConsentChangeSequence.ROW_ID);
+            Instant now = Instant.now();
+            List<Consent> active = new ArrayList<>(
+                    shardRouter.scatter(() -> consentRepository.findAllActive(now), Consent::getPatientRef));
+            if (shardRouter.isSharded()) {
+                // Each shard's rows are in (patientRef, id) order and a patient lives on one shard
+                active.sort(Comparator.comparing(Consent::getPatientRef));
+            }
+            logger.info("Consent snapshot at sequence {}: {} active consents", sequence, active.size());
+            return new ConsentSnapshot(sequence, active);
+        });
+    }
+
+    public long currentSequence() {
+        Long sequence = jdbcTemplate.queryForObject(
+                "SELECT last_sequence FROM consent_change_sequence WHERE id = ?", Long.class, ConsentChangeSequence.ROW_ID);
+        return sequence == null ? 0 : sequence;
+    }
+
+    @Scheduled(cron = "${healthcare.consent.changes.prune-cron:0 15 * * * *}", zone = "UTC")
+    public void prune() {
+        Instant before = Instant.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> changeRepository.deleteOccurredBefore(before));
+        if (deleted != null && deleted > 0) {
+            logger.info("Pruned {} consent changes older than {}", deleted, before);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.mccrae.healthcare.consent;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Last consent change sequence delivered to an in-process consumer
+ * 
+ * Saved after each delivered batch, so a restarted consumer resumes where it
+ * stopped (at-least-once: the batch in flight at a crash is delivered again).
+ */
+@Entity
+@Table(name = "consent_change_offsets")
+public class ConsentChangeOffset {
+    
+    @Id
+    private String consumerId;
+    
+    @Column(nullable = false)
+    private long lastSequence;
+    
+    @Column(nullable = false)
+    private Instant updatedAt; // Always UTC
+    
+    // Constructors
+    protected ConsentChangeOffset() {
+    }
+    
+    public ConsentChangeOffset(String consumerId, long lastSequence) {
+        this.consumerId = consumerId;
+        this.lastSequence = lastSequence;
+        this.updatedAt = Instant.now();
+    }
+    
+    // Getters
+    public String getConsumerId() {
+        return consumerId;
+    }
+    
+    public long getLastSequence() {
+        return lastSequence;
+    }
+    
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
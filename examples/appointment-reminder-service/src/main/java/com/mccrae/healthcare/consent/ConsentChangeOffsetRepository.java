@@ -0,0 +1,8 @@
+package com.mccrae.healthcare.consent;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ConsentChangeOffsetRepository extends JpaRepository<ConsentChangeOffset, String> {
+}
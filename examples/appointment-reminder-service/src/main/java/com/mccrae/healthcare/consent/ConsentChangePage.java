@@ -0,0 +1,11 @@
+package com.mccrae.healthcare.consent;
+
+import java.util.List;
+
+/**
+ * Response body for GET /api/consents/changes
+ * 
+ * nextAfter is the offset to pass on the next call (unchanged when there were no new changes).
+ */
+public record ConsentChangePage(List<ConsentChange> changes, long nextAfter) {
+}
@@ -0,0 +1,207 @@
+package com.mccrae.healthcare.consent;
+
+import com.mccrae.healthcare.concurrent.ThreadFactories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consent Change Publisher - delivers the consent change log to in-process consumers
+ *
+ * One "consent-changes" thread serves every ConsentChangeListener bean:
+ * - A consumer with no stored offset (or one older than the retained log) gets a
+ *   snapshot first, then every change after the snapshot's sequence
+ * - Changes are delivered in sequence order, batch-size at a time; the offset is
+ *   stored after each batch (consent_change_offsets) so restarts resume, not replay
+ * - Woken right after each committed consent change; poll-interval is only the
+ *   fallback (changes committed by another instance, failed deliveries)
+ *
+ * A failing consumer keeps its offset and is retried on the next pass - it
+ * never blocks the other consumers.
+ */
+@Component
+public class ConsentChangePublisher implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsentChangePublisher.class);
+
+    private static final long NO_OFFSET = -1;
+
+    @Autowired
+    private ConsentChangeLog changeLog;
+
+    @Autowired
+    private ConsentChangeOffsetRepository offsetRepository;
+
+    @Autowired
+    private ThreadFactories threadFactories;
+
+    @Autowired(required = false)
+    private List<ConsentChangeListener> listeners = List.of();
+
+    @Value("${healthcare.consent.changes.enabled:true}")
+    private boolean enabled;
+
+    @Value("${healthcare.consent.changes.batch-size:500}")
+    private int batchSize;
+
+    @Value("${healthcare.consent.changes.poll-interval:1s}")
+    private Duration pollInterval;
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Map<String, Long> offsets = new ConcurrentHashMap<>();
+    private Thread publisher;
+    private volatile boolean running;
+
+    // Counters (read by metrics/monitoring)
+    private final AtomicLong changesDelivered = new AtomicLong();
+    private final AtomicLong snapshotsDelivered = new AtomicLong();
+    private final AtomicLong failedDeliveries = new AtomicLong();
+
+    /**
+     * Deliver pending changes now instead of at the next poll
+     */
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    @Override
+    public void start() {
+        changeLog.initialize();
+        if (!enabled || listeners.isEmpty()) {
+            logger.info("Consent change publisher idle ({} consumers, enabled={})", listeners.size(), enabled);
+            return;
+        }
+
+        changeLog.addCommitListener(this::wakeUp);
+        running = true;
+        publisher = threadFactories.named("consent-changes").newThread(this::publishLoop);
+        publisher.start();
+        logger.info("Consent change publisher started for {} consumers", listeners.size());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        wakeUp();
+        try {
+            publisher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Consent change publisher stopped ({} changes delivered)", changesDelivered.get());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // After the audit pipeline, before the web server - the sequence row exists before the first grant
+    @Override
+    public int getPhase() {
+        return 5;
+    }
+
+    public long changesDelivered() {
+        return changesDelivered.get();
+    }
+
+    public long snapshotsDelivered() {
+        return snapshotsDelivered.get();
+    }
+
+    public long failedDeliveries() {
+        return failedDeliveries.get();
+    }
+
+    private void publishLoop() {
+        while (running) {
+            boolean backlog = false;
+            for (ConsentChangeListener listener : listeners) {
+                backlog |= deliver(listener);
+            }
+            if (backlog) {
+                // A full batch was delivered - keep going without waiting
+                continue;
+            }
+            try {
+                wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deliver the next batch (or a snapshot) to one consumer
+     *
+     * @return true if more changes are probably waiting for this consumer
+     */
+    boolean deliver(ConsentChangeListener listener) {
+        String consumerId = listener.consumerId();
+        long offset = offsets.computeIfAbsent(consumerId, this::loadOffset);
+        try {
+            if (offset == NO_OFFSET) {
+                deliverSnapshot(listener);
+                return true;
+            }
+
+            List<ConsentChange> changes;
+            try {
+                changes = changeLog.changesAfter(offset, batchSize);
+            } catch (ConsentSnapshotRequiredException e) {
+                logger.warn("Consent change consumer {} is behind the retained log (offset {}), reloading snapshot",
+                        consumerId, offset);
+                deliverSnapshot(listener);
+                return true;
+            }
+            if (changes.isEmpty()) {
+                return false;
+            }
+
+            listener.onChanges(changes);
+            saveOffset(consumerId, changes.get(changes.size() - 1).getSequence());
+            changesDelivered.addAndGet(changes.size());
+            return changes.size() == batchSize;
+        } catch (RuntimeException e) {
+            // Offset unchanged: the same batch is retried on the next pass
+            failedDeliveries.incrementAndGet();
+            logger.error("Consent change consumer {} failed after offset {}", consumerId, offset, e);
+            return false;
+        }
+    }
+
+    private void deliverSnapshot(ConsentChangeListener listener) {
+        ConsentSnapshot snapshot = changeLog.snapshot();
+        listener.onSnapshot(snapshot);
+        saveOffset(listener.consumerId(), snapshot.sequence());
+        snapshotsDelivered.incrementAndGet();
+    }
+
+    private long loadOffset(String consumerId) {
+        return offsetRepository.findById(consumerId)
+                .map(ConsentChangeOffset::getLastSequence)
+                .orElse(NO_OFFSET);
+    }
+
+    private void saveOffset(String consumerId, long sequence) {
+        offsetRepository.save(new ConsentChangeOffset(consumerId, sequence));
+        offsets.put(consumerId, sequence);
+    }
+}
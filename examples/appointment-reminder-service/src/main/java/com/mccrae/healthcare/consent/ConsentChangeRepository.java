@@ -0,0 +1,27 @@
+package com.mccrae.healthcare.consent;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ConsentChangeRepository extends JpaRepository<ConsentChange, Long> {
+    
+    // Primary key range scan, in commit order
+    @Query("SELECT c FROM ConsentChange c WHERE c.sequence > :after ORDER BY c.sequence")
+    List<ConsentChange> findChangesAfter(@Param("after") long after, Limit limit);
+    
+    // Oldest retained change, null when the log is empty
+    @Query("SELECT MIN(c.sequence) FROM ConsentChange c")
+    Long findFirstSequence();
+    
+    @Modifying
+    @Query("DELETE FROM ConsentChange c WHERE c.occurredAt < :before")
+    int deleteOccurredBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,27 @@
+package com.mccrae.healthcare.consent;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Single-row counter for consent_changes.sequence
+ * 
+ * Incremented with an UPDATE inside the consent mutation's transaction: the
+ * row lock is held until commit, so sequences are gap-free and committed in
+ * order (see ConsentChangeLog). Never read or written through JPA - the
+ * entity only defines the table.
+ */
+@Entity
+@Table(name = "consent_change_sequence")
+class ConsentChangeSequence {
+    
+    static final int ROW_ID = 1;
+    
+    @Id
+    private int id;
+    
+    @Column(nullable = false)
+    private long lastSequence;
+}
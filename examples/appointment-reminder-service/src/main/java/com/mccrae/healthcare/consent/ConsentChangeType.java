@@ -0,0 +1,9 @@
+package com.mccrae.healthcare.consent;
+
+/**
+ * Kind of consent mutation recorded in consent_changes
+ */
+public enum ConsentChangeType {
+    GRANTED,
+    REVOKED
+}
@@ -1,5 +1,6 @@
 package com.mccrae.healthcare.consent;
 
+import com.mccrae.healthcare.sharding.ShardRouter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -18,39 +20,89 @@ import java.util.UUID;
  * - GET    /api/consents/patient/{ref}      - Get consents for patient
  * - GET    /api/consents/patient/{ref}/active - Get active consents for patient
  * - DELETE /api/consents/{id}               - Revoke consent
+ * - POST   /api/consents/validate-batch     - Validate consent for many patients
+ * - GET    /api/consents/changes?after=     - Consent change log after an offset (410 if pruned)
+ * - GET    /api/consents/changes/snapshot   - All active consents + the offset to continue from
  */
 @RestController
 @RequestMapping("/api/consents")
 public class ConsentController {
     
+    private static final int DEFAULT_CHANGES_LIMIT = 500;
+    private static final int MAX_CHANGES_LIMIT = 1000;
+    
     @Autowired
     private ConsentRepository consentRepository;
     
+    @Autowired
+    private ConsentService consentService;
+    
+    @Autowired
+    private ConsentChangeLog changeLog;
+    
+    @Autowired
+    private ConsentValidator consentValidator;
+    
+    @Autowired
+    private ShardRouter shardRouter;
+    
     @PostMapping
     public ResponseEntity<Consent> createConsent(@Valid @RequestBody Consent consent) {
-        Consent created = consentRepository.save(consent);
+        Consent created = consentService.grantConsent(consent);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
     
     @GetMapping("/patient/{patientRef}")
     public ResponseEntity<List<Consent>> getConsentsForPatient(@PathVariable String patientRef) {
-        List<Consent> consents = consentRepository.findByPatientRef(patientRef);
+        List<Consent> consents = shardRouter.callForPatient(patientRef,
+                () -> consentRepository.findByPatientRef(patientRef));
         return ResponseEntity.ok(consents);
     }
     
     @GetMapping("/patient/{patientRef}/active")
     public ResponseEntity<List<Consent>> getActiveConsentsForPatient(@PathVariable String patientRef) {
-        List<Consent> consents = consentRepository.findActiveConsentsByPatientRef(
-                patientRef,
-                Instant.now()
-        );
+        List<Consent> consents = shardRouter.callForPatient(patientRef,
+                () -> consentRepository.findActiveConsentsByPatientRef(
+                        patientRef,
+                        Instant.now()
+                ));
         return ResponseEntity.ok(consents);
     }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> revokeConsent(@PathVariable UUID id) {
-        consentRepository.deleteById(id);
+        consentService.revokeConsent(id);
         return ResponseEntity.noContent().build();
     }
+    
+    @PostMapping("/validate-batch")
+    public ResponseEntity<ConsentBatchValidationResponse> validateBatch(
+            @Valid @RequestBody ConsentBatchValidationRequest request) {
+        Map<String, Boolean> results = consentValidator.validateConsents(request.patientRefs(), request.scope());
+        int validCount = (int) results.values().stream().filter(Boolean::booleanValue).count();
+        return ResponseEntity.ok(new ConsentBatchValidationResponse(request.scope(), validCount, results));
+    }
+    
+    @GetMapping("/changes")
+    public ResponseEntity<ConsentChangePage> getChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "" + DEFAULT_CHANGES_LIMIT) int limit) {
+        if (after < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<ConsentChange> changes;
+        try {
+            changes = changeLog.changesAfter(after, Math.max(1, Math.min(limit, MAX_CHANGES_LIMIT)));
+        } catch (ConsentSnapshotRequiredException e) {
+            // Offset fell out of retention or is past the log: the consumer must reload /changes/snapshot
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        long nextAfter = changes.isEmpty() ? after : changes.get(changes.size() - 1).getSequence();
+        return ResponseEntity.ok(new ConsentChangePage(changes, nextAfter));
+    }
+    
+    @GetMapping("/changes/snapshot")
+    public ResponseEntity<ConsentSnapshot> getSnapshot() {
+        return ResponseEntity.ok(changeLog.snapshot());
+    }
 }
-
@@ -0,0 +1,159 @@
+package com.mccrae.healthcare.consent;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Consent Decision Cache - in-process cache of consent lookups
+ *
+ * Keyed by (patientRef, scope):
+ * - Positive decisions live until the consent's own expiresAt (capped by max-positive-ttl)
+ * - Negative decisions live for negative-ttl
+ * - Size-bounded, W-TinyLFU eviction (Caffeine)
+ *
+ * Invalidation: every entry remembers the epoch of its patient's stripe at the
+ * moment the lookup started. {@link #invalidatePatient(String)} bumps the epoch,
+ * so both cached entries and lookups still in flight are rejected - a revoked
+ * consent can never be served from the cache afterwards.
+ */
+@Component
+public class ConsentDecisionCache {
+
+    private static final int STRIPES = 1024;
+
+    private final boolean enabled;
+    private final Duration negativeTtl;
+    private final Duration maxPositiveTtl;
+    private final Cache<Key, Decision> cache;
+    private final AtomicLongArray epochs = new AtomicLongArray(STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    public ConsentDecisionCache(
+            @Value("${healthcare.consent.cache.enabled:true}") boolean enabled,
+            @Value("${healthcare.consent.cache.max-size:100000}") long maxSize,
+            @Value("${healthcare.consent.cache.negative-ttl:30s}") Duration negativeTtl,
+            @Value("${healthcare.consent.cache.max-positive-ttl:15m}") Duration maxPositiveTtl) {
+        this.enabled = enabled;
+        this.negativeTtl = negativeTtl;
+        this.maxPositiveTtl = maxPositiveTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new DecisionExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Return the cached decision, or run the lookup and cache its result
+     *
+     * @param loader database lookup, only called on a miss
+     */
+    public Optional<Consent> get(String patientRef, String scope, Supplier<Optional<Consent>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        Key key = new Key(patientRef, scope);
+        int stripe = stripe(patientRef);
+        long epoch = epochs.get(stripe);
+
+        Decision cached = cache.getIfPresent(key);
+        if (cached != null && cached.epoch() == epoch) {
+            hits.increment();
+            return Optional.ofNullable(cached.consent());
+        }
+        misses.increment();
+
+        Optional<Consent> loaded = loader.get();
+        long ttlNanos = ttlNanos(loaded.orElse(null));
+        if (ttlNanos > 0) {
+            cache.put(key, new Decision(loaded.orElse(null), epoch, ttlNanos));
+        }
+        return loaded;
+    }
+
+    /**
+     * Cached decision without loading or touching the hit/miss counters
+     *
+     * @return true/false for a fresh cached decision, empty if unknown
+     */
+    public Optional<Boolean> peek(String patientRef, String scope) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Decision cached = cache.policy().getIfPresentQuietly(new Key(patientRef, scope));
+        if (cached == null || cached.epoch() != epochs.get(stripe(patientRef))) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.consent() != null);
+    }
+
+    /**
+     * Drop every cached decision for the patient (call after consents change)
+     */
+    public void invalidatePatient(String patientRef) {
+        epochs.incrementAndGet(stripe(patientRef));
+        invalidations.increment();
+    }
+
+    public ConsentCacheStats stats() {
+        return new ConsentCacheStats(
+                hits.sum(),
+                misses.sum(),
+                cache.stats().evictionCount(),
+                invalidations.sum(),
+                cache.estimatedSize()
+        );
+    }
+
+    private long ttlNanos(Consent consent) {
+        if (consent == null) {
+            return negativeTtl.toNanos();
+        }
+        Duration untilExpiry = Duration.between(Instant.now(), consent.getExpiresAt());
+        return untilExpiry.compareTo(maxPositiveTtl) < 0 ? untilExpiry.toNanos() : maxPositiveTtl.toNanos();
+    }
+
+    private static int stripe(String patientRef) {
+        return (patientRef.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    private record Key(String patientRef, String scope) {
+    }
+
+    // consent == null is a cached "no active consent"
+    private record Decision(Consent consent, long epoch, long ttlNanos) {
+    }
+
+    private static final class DecisionExpiry implements Expiry<Key, Decision> {
+        @Override
+        public long expireAfterCreate(Key key, Decision decision, long currentTime) {
+            return decision.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Decision decision, long currentTime, long currentDuration) {
+            return decision.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Decision decision, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.mccrae.healthcare.consent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consent validation metrics
+ *
+ * - healthcare.consent.validation (timer, percentile histogram):
+ *   tags scope, operation (single | batch), mode (database | snapshot)
+ * - healthcare.consent.decisions (counter): tags scope, result (valid | invalid)
+ *
+ * Tags never carry a patient reference. Scope is one of the ConsentScope names,
+ * or "unknown" for anything else - tag values stay a fixed, small set. Every
+ * meter is registered up front, so recording is an array lookup.
+ */
+@Component
+public class ConsentMetrics {
+
+    static final String VALIDATION = "healthcare.consent.validation";
+    static final String DECISIONS = "healthcare.consent.decisions";
+
+    private static final String UNKNOWN_SCOPE = "unknown";
+    private static final int SCOPES = ConsentScope.values().length + 1; // + unknown
+
+    enum Operation { SINGLE, BATCH }
+
+    enum Mode { DATABASE, SNAPSHOT }
+
+    private final Map<String, Integer> scopeIndex = new HashMap<>();
+    private final Timer[][][] timers = new Timer[SCOPES][Operation.values().length][Mode.values().length];
+    private final Counter[] valid = new Counter[SCOPES];
+    private final Counter[] invalid = new Counter[SCOPES];
+
+    public ConsentMetrics(MeterRegistry registry) {
+        for (int scope = 0; scope < SCOPES; scope++) {
+            String scopeTag = scope < ConsentScope.values().length ? ConsentScope.values()[scope].name() : UNKNOWN_SCOPE;
+            scopeIndex.put(scopeTag, scope);
+            for (Operation operation : Operation.values()) {
+                for (Mode mode : Mode.values()) {
+                    timers[scope][operation.ordinal()][mode.ordinal()] = Timer.builder(VALIDATION)
+                            .description("Consent validation latency")
+                            .tag("scope", scopeTag)
+                            .tag("operation", operation.name().toLowerCase(Locale.ROOT))
+                            .tag("mode", mode.name().toLowerCase(Locale.ROOT))
+                            .publishPercentileHistogram()
+                            .register(registry);
+                }
+            }
+            valid[scope] = decisions(registry, scopeTag, "valid");
+            invalid[scope] = decisions(registry, scopeTag, "invalid");
+        }
+    }
+
+    /**
+     * @param startNanos System.nanoTime() when validation started
+     */
+    void recordValidation(String scope, Operation operation, Mode mode, long startNanos, int validCount, int invalidCount) {
+        int index = indexOf(scope);
+        timers[index][operation.ordinal()][mode.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (validCount > 0) {
+            valid[index].increment(validCount);
+        }
+        if (invalidCount > 0) {
+            invalid[index].increment(invalidCount);
+        }
+    }
+
+    // No allocation - the snapshot validation path is allocation-free
+    private int indexOf(String scope) {
+        Integer index = scope == null ? null : scopeIndex.get(scope);
+        return index == null ? SCOPES - 1 : index;
+    }
+
+    private static Counter decisions(MeterRegistry registry, String scope, String result) {
+        return Counter.builder(DECISIONS)
+                .description("Consent validation outcomes")
+                .tag("scope", scope)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,49 @@
+package com.mccrae.healthcare.consent;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Pending consent change on a database shard (sharded deployments only)
+ * 
+ * Sharded, a consent commits on its patient's shard, but the change log and its
+ * sequence stay on the home shard. The change is written here, in the consent's
+ * own transaction, and ConsentOutboxRelay moves it into consent_changes.
+ * Never read or written through JPA - the entity only defines the table.
+ */
+@Entity
+@Table(name = "consent_outbox")
+class ConsentOutboxEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id; // Insertion order on this shard
+    
+    @Column(nullable = false)
+    private String changeType;
+    
+    @Column(nullable = false)
+    private UUID consentId;
+    
+    @Column(nullable = false)
+    private String patientRef; // Patient reference ID (safe to log)
+    
+    @Column(nullable = false)
+    private long scopeMask;
+    
+    @Column(nullable = false)
+    private Instant grantedAt; // Always UTC
+    
+    @Column(nullable = false)
+    private Instant expiresAt; // Always UTC
+    
+    @Column(nullable = false)
+    private Instant occurredAt; // Always UTC
+}
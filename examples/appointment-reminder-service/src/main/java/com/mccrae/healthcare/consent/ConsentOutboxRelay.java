@@ -0,0 +1,213 @@
+package com.mccrae.healthcare.consent;
+
+import com.mccrae.healthcare.concurrent.ThreadFactories;
+import com.mccrae.healthcare.sharding.ShardMoveListener;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Consent Outbox Relay - moves committed consent changes from the shards into the change log
+ *
+ * Sharded only. Each shard's consent_outbox is read in insertion order,
+ * batch-size rows at a time:
+ * 1. Append the rows to consent_changes (home shard, one transaction) - sequences assigned here
+ * 2. Delete them from the shard's outbox
+ *
+ * A crash between 1 and 2 appends the rows again on the next pass. Changes
+ * carry the full consent state and a patient's changes stay in order, so
+ * consumers re-apply the repeat harmlessly.
+ *
+ * A patient's changes all come from one shard, in order - except across a
+ * bucket move. beforeSwitch() drains the old shard while the bucket is
+ * blocked, so the patient's earlier changes are logged before any from the
+ * new shard.
+ */
+@Component
+@ConditionalOnProperty(name = "healthcare.sharding.enabled", havingValue = "true")
+public class ConsentOutboxRelay implements SmartLifecycle, ShardMoveListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsentOutboxRelay.class);
+
+    private static final String SELECT_SQL =
+            "SELECT id, change_type, consent_id, patient_ref, scope_mask, granted_at, expires_at, occurred_at "
+                    + "FROM consent_outbox ORDER BY id LIMIT ?";
+
+    @Autowired
+    private ConsentChangeLog changeLog;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ThreadFactories threadFactories;
+
+    @Value("${healthcare.consent.changes.batch-size:500}")
+    private int batchSize;
+
+    @Value("${healthcare.consent.changes.poll-interval:1s}")
+    private Duration pollInterval;
+
+    // One relay pass at a time - the loop and beforeSwitch() must not append the same rows twice
+    private final ReentrantLock relayLock = new ReentrantLock();
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final AtomicLong changesRelayed = new AtomicLong();
+    private Thread relay;
+    private volatile boolean running;
+
+    private record OutboxRow(long id, ConsentChangeType changeType, Consent consent, OffsetDateTime occurredAt) {
+    }
+
+    /**
+     * Relay pending changes now instead of at the next poll
+     */
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    @Override
+    public void start() {
+        changeLog.addOutboxListener(this::wakeUp);
+        running = true;
+        relay = threadFactories.named("consent-outbox").newThread(this::relayLoop);
+        relay.start();
+        logger.info("Consent outbox relay started for {} shards", shardRouter.shardCount());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        wakeUp();
+        try {
+            relay.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Consent outbox relay stopped ({} changes relayed)", changesRelayed.get());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Before the publisher (5) - a restart relays what the last run left before consumers read the log
+    @Override
+    public int getPhase() {
+        return 4;
+    }
+
+    public long changesRelayed() {
+        return changesRelayed.get();
+    }
+
+    /**
+     * Drain the old shard's outbox before the bucket's writes move to the new shard
+     */
+    @Override
+    public void beforeSwitch(int bucket, int fromShard, int toShard, Duration timeout) {
+        try {
+            if (!relayLock.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Consent outbox relay busy", new TimeoutException());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for consent outbox relay", e);
+        }
+        try {
+            while (relayBatch(fromShard)) {
+                // Drain fully - routed writes on the bucket are blocked, others may still add rows
+            }
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    private void relayLoop() {
+        while (running) {
+            boolean backlog = false;
+            relayLock.lock();
+            try {
+                for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                    backlog |= relayBatch(shard);
+                }
+            } catch (RuntimeException e) {
+                // Rows stay in the outbox and are retried on the next pass
+                logger.error("Consent outbox relay failed", e);
+            } finally {
+                relayLock.unlock();
+            }
+            if (backlog) {
+                continue;
+            }
+            try {
+                wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return true if a full batch was relayed (more are probably waiting)
+     */
+    private boolean relayBatch(int shard) {
+        List<OutboxRow> rows = shardRouter.callOnShard(shard, () -> jdbcTemplate.query(SELECT_SQL,
+                (rs, rowNum) -> {
+                    Consent consent = new Consent();
+                    consent.setId(rs.getObject(3, UUID.class));
+                    consent.setPatientRef(rs.getString(4));
+                    consent.setScopeMask(rs.getLong(5));
+                    consent.setGrantedAt(rs.getObject(6, OffsetDateTime.class).toInstant());
+                    consent.setExpiresAt(rs.getObject(7, OffsetDateTime.class).toInstant());
+                    return new OutboxRow(rs.getLong(1), ConsentChangeType.valueOf(rs.getString(2)), consent,
+                            rs.getObject(8, OffsetDateTime.class));
+                }, batchSize));
+        if (rows.isEmpty()) {
+            return false;
+        }
+
+        // Relay thread is unbound - this transaction runs on the home shard
+        transactionTemplate.executeWithoutResult(status -> {
+            for (OutboxRow row : rows) {
+                changeLog.appendRelayed(row.changeType(), row.consent(), row.occurredAt().toInstant());
+            }
+        });
+        // By id, not "id <= last": a lower id may commit after this read and is relayed next pass
+        List<Object[]> ids = rows.stream().map(row -> new Object[]{row.id()}).toList();
+        shardRouter.runOnShard(shard, () -> transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate("DELETE FROM consent_outbox WHERE id = ?", ids)));
+
+        changesRelayed.addAndGet(rows.size());
+        logger.debug("Relayed {} consent changes from shard {}", rows.size(), shard);
+        return rows.size() == batchSize;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,11 +22,50 @@ public interface ConsentRepository extends JpaRepository<Consent, UUID> {
             @Param("now") Instant now
     );
     
-    @Query("SELECT c FROM Consent c WHERE c.patientRef = :patientRef AND :scope MEMBER OF c.scopes AND c.expiresAt > :now")
-    Optional<Consent> findActiveConsentByPatientRefAndScope(
+    // Snapshot of every active consent (change log catch-up)
+    @Query("SELECT c FROM Consent c WHERE c.expiresAt > :now ORDER BY c.patientRef, c.id")
+    List<Consent> findAllActive(@Param("now") Instant now);
+    
+    // Scope checks are bitwise on consents.scope_mask (bitand() is rendered per dialect: BITAND on H2, & on PostgreSQL;
+    // the cast gives H2 a type for the bind parameter)
+    
+    /**
+     * Active consent carrying the scope bit
+     */
+    @Query("SELECT c FROM Consent c WHERE c.patientRef = :patientRef AND bitand(c.scopeMask, cast(:scopeBit as Long)) <> 0 AND c.expiresAt > :now")
+    Optional<Consent> findActiveConsentByPatientRefAndScopeBit(
             @Param("patientRef") String patientRef,
-            @Param("scope") String scope,
+            @Param("scopeBit") long scopeBit,
             @Param("now") Instant now
     );
+    
+    /**
+     * Active consents that carry every scope in the mask
+     */
+    @Query("SELECT c FROM Consent c WHERE c.patientRef = :patientRef AND bitand(c.scopeMask, cast(:scopeMask as Long)) = :scopeMask AND c.expiresAt > :now")
+    List<Consent> findActiveConsentsWithAllScopes(
+            @Param("patientRef") String patientRef,
+            @Param("scopeMask") long scopeMask,
+            @Param("now") Instant now
+    );
+    
+    // Set-based check for bulk validation: which of these patients have an active consent with the scope bit
+    @Query("SELECT DISTINCT c.patientRef FROM Consent c WHERE c.patientRef IN :patientRefs AND bitand(c.scopeMask, cast(:scopeBit as Long)) <> 0 AND c.expiresAt > :now")
+    List<String> findPatientRefsWithActiveScopeBit(
+            @Param("patientRefs") Collection<String> patientRefs,
+            @Param("scopeBit") long scopeBit,
+            @Param("now") Instant now
+    );
+    
+    // Scope-name variants used by ConsentValidator - an unknown scope name matches nothing, without a query
+    
+    default Optional<Consent> findActiveConsentByPatientRefAndScope(String patientRef, String scope, Instant now) {
+        long scopeBit = ConsentScope.bitOf(scope);
+        return scopeBit == 0 ? Optional.empty() : findActiveConsentByPatientRefAndScopeBit(patientRef, scopeBit, now);
+    }
+    
+    default List<String> findPatientRefsWithActiveScope(Collection<String> patientRefs, String scope, Instant now) {
+        long scopeBit = ConsentScope.bitOf(scope);
+        return scopeBit == 0 ? List.of() : findPatientRefsWithActiveScopeBit(patientRefs, scopeBit, now);
+    }
 }
-
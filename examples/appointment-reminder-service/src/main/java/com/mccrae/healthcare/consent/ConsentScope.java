@@ -0,0 +1,74 @@
+package com.mccrae.healthcare.consent;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Consent scopes - stored as bits of consents.scope_mask
+ * 
+ * Each scope owns a fixed bit. Bits are persisted: never reorder or reuse
+ * them - add new scopes with the next free bit (up to 63).
+ */
+public enum ConsentScope {
+    PATIENT_VIEW(0),                       // View basic patient information
+    EMERGENCY_CONTACT_NOTIFY(1),           // Notify emergency contacts
+    EMERGENCY_CONTACT_NOTIFY_DETAILED(2),  // Share detailed info with emergency contacts
+    APPOINTMENT_REMINDER(3),               // Send appointment reminders
+    MEDICATION_REMINDER(4);                // Send medication reminders
+    
+    private static final Map<String, ConsentScope> BY_NAME = new HashMap<>();
+    
+    static {
+        for (ConsentScope scope : values()) {
+            BY_NAME.put(scope.name(), scope);
+        }
+    }
+    
+    private final long bit;
+    
+    ConsentScope(int position) {
+        this.bit = 1L << position;
+    }
+    
+    /**
+     * @return this scope's bit in scope_mask
+     */
+    public long bit() {
+        return bit;
+    }
+    
+    /**
+     * Bit for a scope name, 0 if the name is not a known scope (matches no consent).
+     * No allocation - safe on the validation hot path.
+     */
+    public static long bitOf(String name) {
+        ConsentScope scope = name == null ? null : BY_NAME.get(name);
+        return scope == null ? 0L : scope.bit;
+    }
+    
+    public static Optional<ConsentScope> fromName(String name) {
+        return Optional.ofNullable(name == null ? null : BY_NAME.get(name));
+    }
+    
+    public static long maskOf(Collection<ConsentScope> scopes) {
+        long mask = 0L;
+        for (ConsentScope scope : scopes) {
+            mask |= scope.bit;
+        }
+        return mask;
+    }
+    
+    public static Set<ConsentScope> fromMask(long mask) {
+        Set<ConsentScope> scopes = EnumSet.noneOf(ConsentScope.class);
+        for (ConsentScope scope : values()) {
+            if ((mask & scope.bit) != 0) {
+                scopes.add(scope);
+            }
+        }
+        return scopes;
+    }
+}
@@ -0,0 +1,93 @@
+package com.mccrae.healthcare.consent;
+
+import com.mccrae.healthcare.replica.ReplicaRouter;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Consent Service - every consent mutation goes through here
+ *
+ * Each grant or revoke commits together with its consent_changes row
+ * (ConsentChangeLog), so downstream consumers see exactly the committed
+ * mutations, in commit order. The decision cache is invalidated after commit.
+ *
+ * Sharded, the transaction runs on the patient's shard (ShardRouter).
+ * With read replicas, the patient is pinned to the primary (ReplicaRouter)
+ * before the cache is invalidated, so the reload cannot come from a replica
+ * that has not applied the change yet.
+ */
+@Service
+public class ConsentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsentService.class);
+
+    @Autowired
+    private ConsentRepository consentRepository;
+
+    @Autowired
+    private ConsentChangeLog changeLog;
+
+    @Autowired
+    private ConsentDecisionCache decisionCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    public Consent grantConsent(Consent consent) {
+        // ✅ CORRECT: Log reference ID, not patient details
+        logger.info("Granting consent {} for patient {}", consent.getId(), consent.getPatientRef());
+
+        Consent saved = shardRouter.callForPatient(consent.getPatientRef(), () -> transactionTemplate.execute(status -> {
+            Consent granted = consentRepository.save(consent);
+            changeLog.append(ConsentChangeType.GRANTED, granted);
+            return granted;
+        }));
+
+        // A new grant can turn a cached "no consent" into a valid one
+        replicaRouter.wrote(saved.getPatientRef());
+        decisionCache.invalidatePatient(saved.getPatientRef());
+        return saved;
+    }
+
+    /**
+     * @return the revoked consent, empty if it did not exist
+     */
+    public Optional<Consent> revokeConsent(UUID id) {
+        // The id does not carry the shard key - find the patient first (every shard when sharded)
+        Optional<String> patientRef = shardRouter.scatterFirst(() -> consentRepository.findById(id),
+                Consent::getPatientRef).map(Consent::getPatientRef);
+        if (patientRef.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<Consent> revoked = shardRouter.callForPatient(patientRef.get(), () -> transactionTemplate.execute(status -> {
+            Optional<Consent> consent = consentRepository.findById(id);
+            consent.ifPresent(existing -> {
+                consentRepository.delete(existing);
+                changeLog.append(ConsentChangeType.REVOKED, existing);
+            });
+            return consent;
+        }));
+
+        revoked.ifPresent(consent -> {
+            // ✅ CORRECT: Log reference ID
+            logger.info("Revoked consent {} for patient {}", id, consent.getPatientRef());
+            // Revocation must take effect immediately, never serve the cached grant
+            replicaRouter.wrote(consent.getPatientRef());
+            decisionCache.invalidatePatient(consent.getPatientRef());
+        });
+        return revoked;
+    }
+}
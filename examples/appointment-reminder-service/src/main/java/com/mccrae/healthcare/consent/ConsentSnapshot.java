@@ -0,0 +1,12 @@
+package com.mccrae.healthcare.consent;
+
+import java.util.List;
+
+/**
+ * Every active consent as of one point in the change log
+ * 
+ * Apply the snapshot, then read changes after {@code sequence} - nothing is
+ * missed or applied twice.
+ */
+public record ConsentSnapshot(long sequence, List<Consent> consents) {
+}
@@ -0,0 +1,217 @@
+package com.mccrae.healthcare.consent;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Consent snapshot file - active consents sorted by patientRef, read through a memory mapping
+ *
+ * Layout (big-endian):
+ * <pre>
+ * header   32 bytes   magic "CSNP", version, entry count, key bytes, change log sequence, built-at millis
+ * entries  40 bytes   key offset, key length, scope mask, expiresAt millis, consentId (msb, lsb)
+ * keys     UTF-8 patientRefs, in entry order
+ * </pre>
+ * Entries are sorted by the unsigned UTF-8 bytes of patientRef, so a lookup is a
+ * binary search over fixed-width entries - no parsing, no heap objects. A patient
+ * with several active consents has adjacent entries.
+ *
+ * Files are written once (temp file + atomic move) and never modified.
+ */
+final class ConsentSnapshotFile {
+
+    static final int MAGIC = 0x43534E50; // "CSNP"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int ENTRY_BYTES = 40;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final long sequence;
+    private final long builtAtMillis;
+    private final int keysStart;
+
+    private ConsentSnapshotFile(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a consent snapshot file (version " + VERSION + ")");
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(8);
+        this.sequence = buffer.getLong(16);
+        this.builtAtMillis = buffer.getLong(24);
+        this.keysStart = HEADER_BYTES + count * ENTRY_BYTES;
+        if ((long) keysStart + buffer.getInt(12) != buffer.capacity()) {
+            throw new IllegalArgumentException("Truncated consent snapshot file");
+        }
+    }
+
+    /**
+     * Write the consents (any order) as a snapshot at the given change log sequence
+     *
+     * @throws IllegalArgumentException if the snapshot would not fit in one mapping (2 GB)
+     */
+    static void write(Path file, List<Consent> consents, long sequence) throws IOException {
+        List<EncodedEntry> entries = new ArrayList<>(consents.size());
+        long keyBytes = 0;
+        for (Consent consent : consents) {
+            byte[] key = consent.getPatientRef().getBytes(StandardCharsets.UTF_8);
+            entries.add(new EncodedEntry(key, consent));
+            keyBytes += key.length;
+        }
+        long size = HEADER_BYTES + (long) entries.size() * ENTRY_BYTES + keyBytes;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Consent snapshot too large to map: " + size + " bytes");
+        }
+        entries.sort(Comparator.comparing(EncodedEntry::key, Arrays::compareUnsigned));
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream stream = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            out.writeInt((int) keyBytes);
+            out.writeLong(sequence);
+            out.writeLong(System.currentTimeMillis());
+
+            int keyOffset = 0;
+            for (EncodedEntry entry : entries) {
+                Consent consent = entry.consent();
+                out.writeInt(keyOffset);
+                out.writeInt(entry.key().length);
+                out.writeLong(consent.getScopeMask());
+                out.writeLong(consent.getExpiresAt().toEpochMilli());
+                out.writeLong(consent.getId().getMostSignificantBits());
+                out.writeLong(consent.getId().getLeastSignificantBits());
+                keyOffset += entry.key().length;
+            }
+            for (EncodedEntry entry : entries) {
+                out.write(entry.key());
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Map a snapshot file read-only. The mapping stays valid after the file is deleted.
+     */
+    static ConsentSnapshotFile map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ConsentSnapshotFile(mapped);
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    long builtAtMillis() {
+        return builtAtMillis;
+    }
+
+    /**
+     * True if any of the patient's consents carries the scope bit and expires after now.
+     * Allocation-free for ASCII reference IDs.
+     */
+    boolean hasValidConsent(String patientRef, long scopeBit, long nowMillis) {
+        byte[] utf8 = isAscii(patientRef) ? null : patientRef.getBytes(StandardCharsets.UTF_8);
+        for (int i = findFirst(patientRef, utf8); i >= 0 && i < count && compareKey(i, patientRef, utf8) == 0; i++) {
+            int entry = HEADER_BYTES + i * ENTRY_BYTES;
+            if ((buffer.getLong(entry + 8) & scopeBit) != 0 && buffer.getLong(entry + 16) > nowMillis) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * All of the patient's entries (used to seed the change overlay - not on the lookup path)
+     */
+    List<Entry> entriesFor(String patientRef) {
+        byte[] utf8 = isAscii(patientRef) ? null : patientRef.getBytes(StandardCharsets.UTF_8);
+        List<Entry> entries = new ArrayList<>();
+        for (int i = findFirst(patientRef, utf8); i >= 0 && i < count && compareKey(i, patientRef, utf8) == 0; i++) {
+            int entry = HEADER_BYTES + i * ENTRY_BYTES;
+            entries.add(new Entry(
+                    new UUID(buffer.getLong(entry + 24), buffer.getLong(entry + 32)),
+                    buffer.getLong(entry + 8),
+                    buffer.getLong(entry + 16)));
+        }
+        return entries;
+    }
+
+    // Lower bound: index of the first entry for patientRef, -1 if there is none
+    private int findFirst(String patientRef, byte[] utf8) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareKey(mid, patientRef, utf8) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < count && compareKey(low, patientRef, utf8) == 0 ? low : -1;
+    }
+
+    // Compares entry i's key with patientRef (utf8 is null when patientRef is ASCII)
+    private int compareKey(int i, String patientRef, byte[] utf8) {
+        int entry = HEADER_BYTES + i * ENTRY_BYTES;
+        int offset = keysStart + buffer.getInt(entry);
+        int length = buffer.getInt(entry + 4);
+        int otherLength = utf8 == null ? patientRef.length() : utf8.length;
+        int shared = Math.min(length, otherLength);
+        for (int k = 0; k < shared; k++) {
+            int mine = buffer.get(offset + k) & 0xFF;
+            int other = utf8 == null ? patientRef.charAt(k) : utf8[k] & 0xFF;
+            if (mine != other) {
+                return mine - other;
+            }
+        }
+        return length - otherLength;
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One consent as stored in the snapshot
+     */
+    record Entry(UUID consentId, long scopeMask, long expiresAtMillis) {
+    }
+
+    private record EncodedEntry(byte[] key, Consent consent) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.mccrae.healthcare.consent;
+
+/**
+ * A consumer's change log offset is older than the retained log, or past the
+ * last committed change (e.g. the log was restored from an older backup) - it
+ * must reload from ConsentChangeLog.snapshot() and continue from the snapshot's sequence
+ */
+public class ConsentSnapshotRequiredException extends RuntimeException {
+    
+    public ConsentSnapshotRequiredException(long after) {
+        super("Consent changes after sequence " + after + " are no longer retained, reload from a snapshot");
+    }
+    
+    public ConsentSnapshotRequiredException(long after, long committed) {
+        super("Consent change offset " + after + " is past the last committed sequence " + committed
+                + ", reload from a snapshot");
+    }
+}
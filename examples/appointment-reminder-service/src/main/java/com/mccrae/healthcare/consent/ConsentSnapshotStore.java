@@ -0,0 +1,297 @@
+package com.mccrae.healthcare.consent;
+
+import com.mccrae.healthcare.concurrent.ThreadFactories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Consent Snapshot Store - memory-mapped consent snapshot for ConsentValidator
+ *
+ * Enabled with healthcare.consent.validator.mode=snapshot. Answers
+ * hasValidConsent without the database and without heap objects per consent:
+ * - The snapshot (ConsentSnapshotFile) is built from ConsentChangeLog.snapshot(),
+ *   written to a temp file, moved into place and mapped read-only
+ * - Consents changed since the snapshot's sequence are kept in a small on-heap
+ *   overlay (patientRef -> that patient's current consents), read from the change
+ *   log right after each commit - a revocation takes effect within one refresh
+ * - Every rebuild-interval the snapshot is rebuilt and swapped in atomically;
+ *   lookups in flight finish against the previous mapping
+ *
+ * One "consent-snapshot" thread builds and refreshes; lookups never block.
+ */
+@Component
+@ConditionalOnProperty(name = "healthcare.consent.validator.mode", havingValue = "snapshot")
+public class ConsentSnapshotStore implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsentSnapshotStore.class);
+
+    private static final String FILE_PREFIX = "consent-snapshot-";
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    @Autowired
+    private ConsentChangeLog changeLog;
+
+    @Autowired
+    private ThreadFactories threadFactories;
+
+    @Value("${healthcare.consent.snapshot.directory:data/consent-snapshot}")
+    private Path directory;
+
+    @Value("${healthcare.consent.snapshot.rebuild-interval:5m}")
+    private Duration rebuildInterval;
+
+    @Value("${healthcare.consent.snapshot.refresh-interval:1s}")
+    private Duration refreshInterval;
+
+    private final AtomicReference<State> state = new AtomicReference<>();
+    private final Semaphore wakeUps = new Semaphore(0);
+    private Thread refresher;
+    private volatile boolean running;
+
+    // Guards rebuilds and refreshes
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock: last change log sequence applied to the current state
+    private long appliedSequence;
+    private long lastRebuildNanos;
+
+    /**
+     * True once the first snapshot is mapped - until then ConsentValidator uses the database
+     */
+    public boolean isReady() {
+        return state.get() != null;
+    }
+
+    /**
+     * Check if patient has active consent for the given scope (no database access)
+     *
+     * @throws IllegalStateException if no snapshot has been built yet
+     */
+    public boolean hasValidConsent(String patientRef, String requiredScope) {
+        State current = state.get();
+        if (current == null) {
+            throw new IllegalStateException("Consent snapshot not built yet");
+        }
+        long scopeBit = ConsentScope.bitOf(requiredScope);
+        if (scopeBit == 0) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+
+        // Changed since the snapshot: the overlay replaces the patient's snapshot entries
+        List<ConsentSnapshotFile.Entry> changed = current.overlay().get(patientRef);
+        if (changed != null) {
+            for (int i = 0; i < changed.size(); i++) {
+                ConsentSnapshotFile.Entry entry = changed.get(i);
+                if ((entry.scopeMask() & scopeBit) != 0 && entry.expiresAtMillis() > now) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return current.file().hasValidConsent(patientRef, scopeBit, now);
+    }
+
+    /**
+     * Build a new snapshot from the database and swap it in
+     */
+    public void rebuild() {
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            ConsentSnapshot snapshot = changeLog.snapshot();
+            Path path = directory.resolve(FILE_PREFIX + snapshot.sequence() + "-" + System.currentTimeMillis() + ".bin");
+            ConsentSnapshotFile.write(path, snapshot.consents(), snapshot.sequence());
+            State next = new State(ConsentSnapshotFile.map(path), path, new ConcurrentHashMap<>());
+
+            // Catch up on changes committed while the file was written, then swap
+            appliedSequence = snapshot.sequence();
+            applyChanges(next);
+            State previous = state.getAndSet(next);
+            lastRebuildNanos = System.nanoTime();
+
+            // Open mappings stay valid after the file is deleted
+            if (previous != null) {
+                Files.deleteIfExists(previous.path());
+            }
+            logger.info("Consent snapshot rebuilt at sequence {}: {} consents, {} bytes",
+                    snapshot.sequence(), next.file().count(), Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build consent snapshot in " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Apply changes committed since the last refresh to the overlay
+     */
+    void refresh() {
+        lock.lock();
+        try {
+            State current = state.get();
+            if (current != null) {
+                applyChanges(current);
+            }
+        } catch (ConsentSnapshotRequiredException e) {
+            logger.warn("Consent snapshot is behind the retained change log (sequence {}), rebuilding", appliedSequence);
+            rebuild();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Change log sequence the current snapshot plus overlay reflects
+     */
+    public long appliedSequence() {
+        lock.lock();
+        try {
+            return appliedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deliver pending changes now instead of at the next refresh
+     */
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    @Override
+    public void start() {
+        deleteStaleFiles();
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // ConsentValidator stays on the database until the next attempt succeeds
+            logger.error("Initial consent snapshot build failed", e);
+        }
+
+        changeLog.addCommitListener(this::wakeUp);
+        running = true;
+        refresher = threadFactories.named("consent-snapshot").newThread(this::refreshLoop);
+        refresher.start();
+        logger.info("Consent snapshot store started (rebuild every {}, refresh every {})", rebuildInterval, refreshInterval);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        wakeUp();
+        try {
+            refresher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        State last = state.getAndSet(null);
+        if (last != null) {
+            try {
+                Files.deleteIfExists(last.path());
+            } catch (IOException e) {
+                logger.warn("Could not delete consent snapshot file {}", last.path(), e);
+            }
+        }
+        logger.info("Consent snapshot store stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // After the change log is initialized (ConsentChangePublisher), before the web server
+    @Override
+    public int getPhase() {
+        return 6;
+    }
+
+    private void refreshLoop() {
+        while (running) {
+            try {
+                if (state.get() == null || System.nanoTime() - lastRebuildNanos >= rebuildInterval.toNanos()) {
+                    rebuild();
+                } else {
+                    refresh();
+                }
+            } catch (RuntimeException e) {
+                // The current snapshot keeps serving; retried on the next pass
+                logger.error("Consent snapshot refresh failed at sequence {}", appliedSequence(), e);
+            }
+            try {
+                wakeUps.tryAcquire(refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void applyChanges(State target) {
+        List<ConsentChange> changes;
+        do {
+            changes = changeLog.changesAfter(appliedSequence, REFRESH_BATCH_SIZE);
+            for (ConsentChange change : changes) {
+                apply(target, change);
+                appliedSequence = change.getSequence();
+            }
+        } while (changes.size() == REFRESH_BATCH_SIZE);
+    }
+
+    private static void apply(State target, ConsentChange change) {
+        String patientRef = change.getPatientRef();
+        List<ConsentSnapshotFile.Entry> current = target.overlay().get(patientRef);
+        List<ConsentSnapshotFile.Entry> next = new ArrayList<>(
+                current != null ? current : target.file().entriesFor(patientRef));
+        next.removeIf(entry -> entry.consentId().equals(change.getConsentId()));
+        if (change.getChangeType() == ConsentChangeType.GRANTED) {
+            next.add(new ConsentSnapshotFile.Entry(
+                    change.getConsentId(), change.getScopeMask(), change.getExpiresAt().toEpochMilli()));
+        }
+        // Readers see either the old or the new list, never a partial one
+        target.overlay().put(patientRef, List.copyOf(next));
+    }
+
+    // Files left behind by an instance that did not shut down cleanly
+    private void deleteStaleFiles() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+            for (Path path : stale) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not clean consent snapshot directory {}", directory, e);
+        }
+    }
+
+    private record State(ConsentSnapshotFile file, Path path, Map<String, List<ConsentSnapshotFile.Entry>> overlay) {
+    }
+}
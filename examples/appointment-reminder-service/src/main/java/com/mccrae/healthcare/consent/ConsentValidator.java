@@ -1,27 +1,60 @@
 package com.mccrae.healthcare.consent;
 
+import com.mccrae.healthcare.replica.ReplicaRouter;
+import com.mccrae.healthcare.sharding.ShardRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Consent Validator - validates consent before operations
  * 
  * This is a core service that other features will use.
  * Example: Emergency Contact notifications will use this to validate consent.
+ * 
+ * Sharded, lookups go to the patient's shard; bulk checks run once per shard.
+ * With read replicas, lookups read from a replica unless the patient's
+ * consents changed within the read-your-writes window (ReplicaRouter).
  */
 @Service
 public class ConsentValidator {
     
     private static final Logger logger = LoggerFactory.getLogger(ConsentValidator.class);
     
+    // Keeps each IN (...) list well below driver/database parameter limits
+    static final int BULK_CHUNK_SIZE = 1000;
+    
     @Autowired
     private ConsentRepository consentRepository;
     
+    @Autowired
+    private ConsentDecisionCache decisionCache;
+    
+    @Autowired
+    private ConsentMetrics metrics;
+    
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Autowired
+    private ReplicaRouter replicaRouter;
+    
+    // Present only with healthcare.consent.validator.mode=snapshot
+    @Autowired(required = false)
+    private ConsentSnapshotStore snapshotStore;
+    
     /**
      * Validate that patient has active consent for the given scope
      * 
@@ -30,31 +63,48 @@ public class ConsentValidator {
      * @return Consent if valid, empty if not found or expired
      */
     public Optional<Consent> validateConsent(String patientRef, String requiredScope) {
+        long start = System.nanoTime();
         // ✅ CORRECT: Log reference ID and scope, not patient details
-        logger.info("Validating consent for patient {} with scope {}", patientRef, requiredScope);
+        logger.debug("Validating consent for patient {} with scope {}", patientRef, requiredScope);
         
-        Optional<Consent> consent = consentRepository.findActiveConsentByPatientRefAndScope(
-                patientRef,
-                requiredScope,
-                Instant.now()
-        );
+        // Cached per (patientRef, scope); invalidated when the patient's consents change
+        Optional<Consent> consent = decisionCache.get(patientRef, requiredScope, () -> replicaRouter.read(patientRef, () ->
+                shardRouter.callForPatient(patientRef, () -> consentRepository.findActiveConsentByPatientRefAndScope(
+                        patientRef,
+                        requiredScope,
+                        Instant.now()
+                ))));
         
         if (consent.isEmpty()) {
-            // ✅ CORRECT: Generic log message
-            logger.warn("No active consent found for patient {} with scope {}", patientRef, requiredScope);
+            // ✅ CORRECT: Generic log message - DEBUG: a miss is routine, the ratio is in healthcare.consent.decisions
+            logger.debug("No active consent found for patient {} with scope {}", patientRef, requiredScope);
         }
         
+        metrics.recordValidation(requiredScope, ConsentMetrics.Operation.SINGLE, ConsentMetrics.Mode.DATABASE, start,
+                consent.isPresent() ? 1 : 0, consent.isPresent() ? 0 : 1);
         return consent;
     }
     
     /**
      * Check if patient has active consent for the given scope
      * 
+     * In snapshot mode this is a binary search over the memory-mapped consent
+     * snapshot - no database access, no cache entries.
+     * 
      * @param patientRef Patient reference ID
      * @param requiredScope Required consent scope
      * @return true if consent is valid, false otherwise
      */
     public boolean hasValidConsent(String patientRef, String requiredScope) {
+        if (useSnapshot()) {
+            long start = System.nanoTime();
+            // ✅ CORRECT: Reference ID and scope only
+            logger.debug("Checking consent snapshot for patient {} with scope {}", patientRef, requiredScope);
+            boolean valid = snapshotStore.hasValidConsent(patientRef, requiredScope);
+            metrics.recordValidation(requiredScope, ConsentMetrics.Operation.SINGLE, ConsentMetrics.Mode.SNAPSHOT, start,
+                    valid ? 1 : 0, valid ? 0 : 1);
+            return valid;
+        }
         return validateConsent(patientRef, requiredScope).isPresent();
     }
     
@@ -72,5 +122,71 @@ public class ConsentValidator {
                         "Patient " + patientRef + " does not have valid consent for scope: " + requiredScope
                 ));
     }
+    
+    /**
+     * Validate consent for many patients at once (reminder and notification fan-out)
+     * 
+     * Decisions already in the cache are reused; the rest are resolved with one
+     * set-based query per {@value #BULK_CHUNK_SIZE} patients. In snapshot mode
+     * every patient is checked against the consent snapshot instead.
+     * 
+     * @param patientRefs Patient reference IDs (duplicates are ignored)
+     * @param requiredScope Required consent scope
+     * @return patientRef -> true if consent is valid, in input order
+     */
+    public Map<String, Boolean> validateConsents(Collection<String> patientRefs, String requiredScope) {
+        long start = System.nanoTime();
+        // ✅ CORRECT: Log counts and scope, not patient details
+        logger.info("Validating consent for {} patients with scope {}", patientRefs.size(), requiredScope);
+        
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        if (useSnapshot()) {
+            for (String patientRef : patientRefs) {
+                results.putIfAbsent(patientRef, snapshotStore.hasValidConsent(patientRef, requiredScope));
+            }
+            recordBatch(results, requiredScope, ConsentMetrics.Mode.SNAPSHOT, start);
+            return results;
+        }
+        
+        List<String> unresolved = new ArrayList<>();
+        for (String patientRef : new LinkedHashSet<>(patientRefs)) {
+            Optional<Boolean> cached = decisionCache.peek(patientRef, requiredScope);
+            if (cached.isPresent()) {
+                results.put(patientRef, cached.get());
+            } else {
+                results.put(patientRef, Boolean.FALSE);
+                unresolved.add(patientRef);
+            }
+        }
+        
+        Instant now = Instant.now();
+        for (int from = 0; from < unresolved.size(); from += BULK_CHUNK_SIZE) {
+            List<String> chunk = unresolved.subList(from, Math.min(from + BULK_CHUNK_SIZE, unresolved.size()));
+            Set<String> valid = new HashSet<>(replicaRouter.readAll(chunk, () -> shardRouter.callPerShard(chunk,
+                    patientRef -> patientRef,
+                    shardChunk -> consentRepository.findPatientRefsWithActiveScope(shardChunk, requiredScope, now))));
+            for (String patientRef : valid) {
+                results.put(patientRef, Boolean.TRUE);
+            }
+        }
+        
+        recordBatch(results, requiredScope, ConsentMetrics.Mode.DATABASE, start);
+        return results;
+    }
+    
+    private boolean useSnapshot() {
+        return snapshotStore != null && snapshotStore.isReady();
+    }
+    
+    private void recordBatch(Map<String, Boolean> results, String requiredScope, ConsentMetrics.Mode mode, long start) {
+        int validCount = 0;
+        for (Boolean valid : results.values()) {
+            if (valid) {
+                validCount++;
+            }
+        }
+        metrics.recordValidation(requiredScope, ConsentMetrics.Operation.BATCH, mode, start,
+                validCount, results.size() - validCount);
+        logger.info("{} of {} patients have valid consent with scope {}", validCount, results.size(), requiredScope);
+    }
 }
-
@@ -0,0 +1,14 @@
+package com.mccrae.healthcare.notification;
+
+/**
+ * How much a notification may disclose - one template per level
+ *
+ * NONE: no (or expired) consent - facility information only, no PHI.
+ * STANDARD: the notification type's standard scope (e.g. EMERGENCY_CONTACT_NOTIFY).
+ * DETAILED: its detailed scope (e.g. EMERGENCY_CONTACT_NOTIFY_DETAILED), on top of standard.
+ */
+public enum ConsentLevel {
+    NONE,
+    STANDARD,
+    DETAILED
+}
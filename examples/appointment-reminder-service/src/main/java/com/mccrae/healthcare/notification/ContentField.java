@@ -0,0 +1,81 @@
+package com.mccrae.healthcare.notification;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fields a notification template can reference as {placeholder}
+ *
+ * Which fields a message may contain is decided per NotificationType and
+ * ConsentLevel (see context/phi-sharing-matrix.md). Fields that are never
+ * allowed (diagnosis, lab results, medications, medical history) do not exist
+ * here at all - no template can reference them.
+ */
+public enum ContentField {
+    // Not PHI
+    FACILITY_NAME("facilityName", false, false),
+    FACILITY_PHONE("facilityPhone", false, false),
+    VISITING_HOURS("visitingHours", false, false),
+
+    // PHI - standard consent
+    PATIENT_NAME("patientName", true, false),
+    GENERAL_STATUS("generalStatus", true, false),
+    ADMISSION_TIME("admissionTime", true, true),
+    EXPECTED_DISCHARGE("expectedDischarge", true, false), // approximate
+    CARE_TEAM_PHONE("careTeamPhone", true, false),
+
+    // PHI - detailed consent
+    ADMISSION_REASON("admissionReason", true, false),     // general reason, never a diagnosis
+    DEPARTMENT("department", true, false),
+    EXPECTED_STAY("expectedStay", true, false),           // specific dates
+    SCHEDULED_PROCEDURES("scheduledProcedures", true, false),
+
+    // PHI - appointment reminders (sent to the patient)
+    APPOINTMENT_TYPE("appointmentType", true, false),
+    APPOINTMENT_TIME("appointmentTime", true, true),
+    LOCATION("location", true, false);
+
+    private static final Map<String, ContentField> BY_PLACEHOLDER = new HashMap<>();
+
+    static {
+        for (ContentField field : values()) {
+            BY_PLACEHOLDER.put(field.placeholder, field);
+        }
+    }
+
+    private final String placeholder;
+    private final boolean phi;
+    private final boolean time;
+
+    ContentField(String placeholder, boolean phi, boolean time) {
+        this.placeholder = placeholder;
+        this.phi = phi;
+        this.time = time;
+    }
+
+    public String placeholder() {
+        return placeholder;
+    }
+
+    public boolean isPhi() {
+        return phi;
+    }
+
+    /**
+     * @return true for Instant fields, rendered in the recipient's timezone
+     */
+    public boolean isTime() {
+        return time;
+    }
+
+    /**
+     * @return this field's bit in a rendered notification's field mask
+     */
+    long bit() {
+        return 1L << ordinal();
+    }
+
+    static ContentField fromPlaceholder(String placeholder) {
+        return BY_PLACEHOLDER.get(placeholder);
+    }
+}
@@ -0,0 +1,10 @@
+package com.mccrae.healthcare.notification;
+
+/**
+ * Delivery channel - each has its own queues, rate limit and provider
+ */
+public enum NotificationChannel {
+    SMS,
+    EMAIL,
+    PHONE
+}
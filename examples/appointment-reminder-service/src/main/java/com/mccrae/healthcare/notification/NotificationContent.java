@@ -0,0 +1,77 @@
+package com.mccrae.healthcare.notification;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Field values for one notification - reusable, not thread-safe
+ *
+ * Set every field the sender has; the template for the consent level only
+ * reads the fields it is allowed to, so values beyond the consent level are
+ * never rendered. Call clear() after rendering so PHI is not retained.
+ *
+ * Note: Holds PHI - never log field values
+ */
+public final class NotificationContent {
+
+    private static final ContentField[] FIELDS = ContentField.values();
+
+    private final String[] text = new String[FIELDS.length];
+    private final Instant[] times = new Instant[FIELDS.length];
+    private ZoneId zone = ZoneOffset.UTC;
+
+    public NotificationContent set(ContentField field, String value) {
+        if (field.isTime()) {
+            throw new IllegalArgumentException(field.placeholder() + " is a time field");
+        }
+        text[field.ordinal()] = value;
+        return this;
+    }
+
+    public NotificationContent set(ContentField field, Instant value) {
+        if (!field.isTime()) {
+            throw new IllegalArgumentException(field.placeholder() + " is not a time field");
+        }
+        times[field.ordinal()] = value;
+        return this;
+    }
+
+    /**
+     * Timezone time fields are rendered in - the recipient's (UTC by default)
+     */
+    public NotificationContent zone(ZoneId zone) {
+        this.zone = zone;
+        return this;
+    }
+
+    public void clear() {
+        for (int i = 0; i < FIELDS.length; i++) {
+            text[i] = null;
+            times[i] = null;
+        }
+        zone = ZoneOffset.UTC;
+    }
+
+    boolean has(ContentField field) {
+        return field.isTime() ? times[field.ordinal()] != null : text[field.ordinal()] != null;
+    }
+
+    String text(ContentField field) {
+        return text[field.ordinal()];
+    }
+
+    Instant time(ContentField field) {
+        return times[field.ordinal()];
+    }
+
+    ZoneId zone() {
+        return zone;
+    }
+
+    // Never print field values
+    @Override
+    public String toString() {
+        return "NotificationContent[zone=" + zone + "]";
+    }
+}
@@ -0,0 +1,68 @@
+package com.mccrae.healthcare.notification;
+
+import com.mccrae.healthcare.consent.Consent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Notification Content Builder - renders notification messages within the consent given
+ *
+ * The consent picks the template (NONE / STANDARD / DETAILED); the template
+ * contains only the fields that level allows, so PHI beyond the consent is
+ * never rendered, whatever the caller put in the NotificationContent.
+ *
+ * Messages are rendered into a per-thread buffer that is reused across calls:
+ * the returned String is the only allocation per message (time fields are
+ * formatted straight from the Instant - see ZoneRegistry).
+ */
+@Component
+public class NotificationContentBuilder {
+
+    private static final int BUFFER_CAPACITY = 512;
+    private static final int MAX_RETAINED_CAPACITY = 8 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFERS =
+            ThreadLocal.withInitial(() -> new StringBuilder(BUFFER_CAPACITY));
+
+    private final NotificationTemplates templates;
+
+    @Autowired
+    public NotificationContentBuilder(NotificationTemplates templates) {
+        this.templates = templates;
+    }
+
+    /**
+     * @param consent the patient's validated consent for the type, null if none
+     */
+    public RenderedNotification build(NotificationType type, Consent consent, String language,
+                                      NotificationContent content) {
+        return build(type, type.levelOf(consent), language, content);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a field the template needs is not set
+     */
+    public RenderedNotification build(NotificationType type, ConsentLevel level, String language,
+                                      NotificationContent content) {
+        StringBuilder buffer = BUFFERS.get();
+        try {
+            long rendered = renderTo(type, level, language, content, buffer);
+            return new RenderedNotification(buffer.toString(), level, rendered);
+        } finally {
+            buffer.setLength(0);
+            if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFERS.remove(); // one oversized message must not pin a large buffer per thread
+            }
+        }
+    }
+
+    /**
+     * Append the message to a caller-owned buffer (batch senders writing many messages)
+     *
+     * @return bits (ContentField.bit) of the fields rendered
+     */
+    public long renderTo(NotificationType type, ConsentLevel level, String language,
+                         NotificationContent content, StringBuilder out) {
+        return templates.get(type, level, language).renderTo(content, out);
+    }
+}
@@ -0,0 +1,55 @@
+package com.mccrae.healthcare.notification;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.UUID;
+
+/**
+ * Notification REST API
+ * 
+ * Endpoints:
+ * - POST   /api/notifications          - Queue a CRITICAL, URGENT or NORMAL notification (202, delivery state without content)
+ * - POST   /api/notifications/bulk     - Queue a BULK notification (202) - admitted as bulk traffic, shed first
+ * - GET    /api/notifications/{id}     - Delivery state: attempts, next attempt, last error code
+ * - GET    /api/notifications/stats    - Per-channel queue depths, tokens and outcome counters
+ */
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @PostMapping
+    public ResponseEntity<NotificationDeliveryStatus> deliverNotification(@Valid @RequestBody NotificationRequest request) {
+        // Admission control classes this path as CRITICAL - bulk fan-out must not ride on it
+        if (request.priority() == NotificationPriority.BULK) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(notificationService.deliverNotification(request));
+    }
+    
+    @PostMapping("/bulk")
+    public ResponseEntity<NotificationDeliveryStatus> deliverBulkNotification(@Valid @RequestBody NotificationRequest request) {
+        if (request.priority() != NotificationPriority.BULK) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(notificationService.deliverNotification(request));
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<NotificationDeliveryStatus> getDelivery(@PathVariable UUID id) {
+        return notificationService.getDelivery(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/stats")
+    public ResponseEntity<NotificationStats> stats() {
+        return ResponseEntity.ok(notificationService.stats());
+    }
+}
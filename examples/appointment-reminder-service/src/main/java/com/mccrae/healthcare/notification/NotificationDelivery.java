@@ -0,0 +1,135 @@
+package com.mccrae.healthcare.notification;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Notification Delivery - one notification and its delivery state (the durable retry table)
+ * 
+ * A PENDING row is owned by whoever holds its lease: nextAttemptAt is pushed
+ * forward while the delivery sits in an in-memory channel queue, so a process
+ * that dies mid-queue only delays it - the retry poller picks it up once the
+ * lease runs out. After a failed attempt nextAttemptAt is the backoff time.
+ * 
+ * Note: recipient and message are PHI - never log them. Both are cleared once
+ * the delivery is final (SENT or FAILED); only reference IDs and error codes remain.
+ */
+@Entity
+@Table(name = "notification_deliveries", indexes = {
+        @Index(name = "idx_notification_deliveries_due", columnList = "status, nextAttemptAt")
+})
+public class NotificationDelivery {
+    
+    @Id
+    private UUID id; // Also the provider idempotency key
+    
+    @Column(nullable = false)
+    private String patientRef; // Patient reference ID (safe to log)
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private NotificationChannel channel;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private NotificationPriority priority;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private NotificationStatus status;
+    
+    private String recipient; // PHI - never log this. Null: the patient's own phone/email
+    
+    @Column(length = 2000)
+    private String message; // PHI - never log this
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(nullable = false)
+    private Instant nextAttemptAt; // Due time or queue lease expiry (UTC)
+    
+    @Column(length = 64)
+    private String lastError; // Sanitized error code - no PHI
+    
+    private String correlationId;
+    
+    @Column(nullable = false)
+    private Instant createdAt; // Always UTC
+    
+    @Column(nullable = false)
+    private Instant updatedAt; // Always UTC
+    
+    // Constructors
+    protected NotificationDelivery() {
+    }
+    
+    public NotificationDelivery(NotificationRequest request, Instant nextAttemptAt) {
+        this.id = UUID.randomUUID();
+        this.patientRef = request.patientRef();
+        this.channel = request.channel();
+        this.priority = request.priority();
+        this.status = NotificationStatus.PENDING;
+        this.recipient = request.recipient();
+        this.message = request.message();
+        this.nextAttemptAt = nextAttemptAt;
+        this.correlationId = request.correlationId();
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+    }
+    
+    // Getters
+    public UUID getId() {
+        return id;
+    }
+    
+    public String getPatientRef() {
+        return patientRef;
+    }
+    
+    public NotificationChannel getChannel() {
+        return channel;
+    }
+    
+    public NotificationPriority getPriority() {
+        return priority;
+    }
+    
+    public NotificationStatus getStatus() {
+        return status;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public String getCorrelationId() {
+        return correlationId;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
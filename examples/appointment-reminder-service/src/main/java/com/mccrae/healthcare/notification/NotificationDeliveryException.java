@@ -0,0 +1,28 @@
+package com.mccrae.healthcare.notification;
+
+/**
+ * Thrown by a NotificationProvider when a message was not delivered
+ * 
+ * The error code is stored in notification_deliveries and audit_logs, so it must
+ * be a sanitized code (e.g. "RATE_LIMITED", "INVALID_RECIPIENT") - never provider
+ * text that could echo the recipient or message.
+ */
+public class NotificationDeliveryException extends Exception {
+    
+    private final String errorCode;
+    private final boolean retryable;
+    
+    public NotificationDeliveryException(String errorCode, boolean retryable) {
+        super(errorCode);
+        this.errorCode = errorCode;
+        this.retryable = retryable;
+    }
+    
+    public String getErrorCode() {
+        return errorCode;
+    }
+    
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,28 @@
+package com.mccrae.healthcare.notification;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface NotificationDeliveryRepository extends JpaRepository<NotificationDelivery, UUID> {
+    
+    // Due retries and expired queue leases - backed by idx_notification_deliveries_due
+    @Query("SELECT d FROM NotificationDelivery d "
+            + "WHERE d.status = com.mccrae.healthcare.notification.NotificationStatus.PENDING AND d.nextAttemptAt <= :now "
+            + "ORDER BY d.nextAttemptAt")
+    List<NotificationDelivery> findDue(@Param("now") Instant now, Limit limit);
+    
+    // No recipient or message - see NotificationDeliveryStatus
+    @Query("SELECT new com.mccrae.healthcare.notification.NotificationDeliveryStatus("
+            + "d.id, d.patientRef, d.channel, d.priority, d.status, d.attempts, d.nextAttemptAt, d.lastError, d.createdAt, d.updatedAt) "
+            + "FROM NotificationDelivery d WHERE d.id = :id")
+    Optional<NotificationDeliveryStatus> findStatusById(@Param("id") UUID id);
+}
@@ -0,0 +1,21 @@
+package com.mccrae.healthcare.notification;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Delivery state without recipient or message - safe to return and log
+ */
+public record NotificationDeliveryStatus(
+        UUID id,
+        String patientRef,
+        NotificationChannel channel,
+        NotificationPriority priority,
+        NotificationStatus status,
+        int attempts,
+        Instant nextAttemptAt,
+        String lastError,
+        Instant createdAt,
+        Instant updatedAt
+) {
+}
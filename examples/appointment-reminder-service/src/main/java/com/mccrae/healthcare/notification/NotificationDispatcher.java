@@ -0,0 +1,224 @@
+package com.mccrae.healthcare.notification;
+
+import com.mccrae.healthcare.concurrent.ThreadFactories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Notification Dispatcher - per-channel queues, rate limits and worker threads
+ *
+ * Every channel (SMS, EMAIL, PHONE) has:
+ * - An expedited lane (CRITICAL/URGENT) and a standard lane (NORMAL/BULK), each a
+ *   bounded queue with its own worker threads - an urgent notification never
+ *   queues behind reminders and never waits for a reminder's provider call
+ * - One token bucket at the provider quota
+ *   (healthcare.notifications.{channel}.rate-per-second / burst); expedited-reserve
+ *   of the burst can only be used by the expedited lane
+ *
+ * offer() never blocks: a full queue returns false and the delivery is left to
+ * the retry poller (NotificationService). Queued deliveries are leased in the
+ * database, so nothing is lost if the process stops with work still queued.
+ */
+@Component
+public class NotificationDispatcher implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    @Autowired
+    private NotificationSender sender;
+
+    @Autowired
+    private ThreadFactories threadFactories;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${healthcare.notifications.enabled:true}")
+    private boolean enabled;
+
+    @Value("${healthcare.notifications.batch-size:50}")
+    private int batchSize;
+
+    @Value("${healthcare.notifications.expedited-capacity:1000}")
+    private int expeditedCapacity;
+
+    @Value("${healthcare.notifications.standard-capacity:10000}")
+    private int standardCapacity;
+
+    @Value("${healthcare.notifications.standard-workers:2}")
+    private int standardWorkers;
+
+    @Value("${healthcare.notifications.expedited-reserve:0.2}")
+    private double expeditedReserve;
+
+    private final Map<NotificationChannel, ChannelLanes> channels = new EnumMap<>(NotificationChannel.class);
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * Queue a leased delivery on its channel's lane
+     *
+     * @return false if the lane is full or the dispatcher is not running
+     */
+    boolean offer(QueuedNotification notification) {
+        if (!running) {
+            return false;
+        }
+        ChannelLanes lanes = channels.get(notification.channel());
+        return lanes.lane(notification.priority().isExpedited()).offer(notification);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            logger.info("Notification delivery disabled, deliveries stay PENDING");
+            return;
+        }
+
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            String name = channel.name().toLowerCase(Locale.ROOT);
+            sender.providerFor(channel); // Fail startup, not the first delivery
+
+            double rate = environment.getProperty("healthcare.notifications." + name + ".rate-per-second", Double.class, 10.0);
+            int burst = environment.getProperty("healthcare.notifications." + name + ".burst", Integer.class,
+                    Math.max(2, (int) Math.ceil(rate)));
+            // At least one token must stay usable by standard traffic
+            double reserved = Math.min(burst - 1, burst * expeditedReserve);
+            ChannelLanes lanes = new ChannelLanes(channel, new TokenBucket(rate, burst, reserved),
+                    new ArrayBlockingQueue<>(expeditedCapacity), new ArrayBlockingQueue<>(standardCapacity));
+            channels.put(channel, lanes);
+            logger.info("Notification channel {}: {}/s, burst {}, {} reserved for expedited", channel, rate, burst, reserved);
+        }
+
+        running = true;
+        for (ChannelLanes lanes : channels.values()) {
+            String name = "notify-" + lanes.channel.name().toLowerCase(Locale.ROOT);
+            startWorker(threadFactories.named(name + "-expedited").newThread(() -> workLoop(lanes, true)));
+            for (int i = 0; i < standardWorkers; i++) {
+                startWorker(threadFactories.named(name).newThread(() -> workLoop(lanes, false)));
+            }
+        }
+        logger.info("Notification dispatcher started ({} workers)", workers.size());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // Whatever is still queued keeps its lease and is picked up again by the retry poller
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+        logger.info("Notification dispatcher stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // After the audit pipeline, before the reminder scheduler that feeds it
+    @Override
+    public int getPhase() {
+        return 7;
+    }
+
+    public NotificationStats stats() {
+        List<NotificationStats.ChannelStats> stats = new ArrayList<>();
+        for (ChannelLanes lanes : channels.values()) {
+            stats.add(new NotificationStats.ChannelStats(
+                    lanes.channel,
+                    lanes.expedited.size(),
+                    lanes.standard.size(),
+                    lanes.bucket.availableTokens(),
+                    lanes.sent.sum(),
+                    lanes.retried.sum(),
+                    lanes.failed.sum(),
+                    lanes.expiredLeases.sum()));
+        }
+        return new NotificationStats(running, stats);
+    }
+
+    private void startWorker(Thread worker) {
+        workers.add(worker);
+        worker.start();
+    }
+
+    private void workLoop(ChannelLanes lanes, boolean expedited) {
+        BlockingQueue<QueuedNotification> queue = lanes.lane(expedited);
+        List<QueuedNotification> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                QueuedNotification first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Whatever is already waiting, up to batch-size - never wait to fill a batch
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                lanes.record(sender.deliver(batch, lanes.bucket, expedited));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Rows keep their lease and are retried once it expires
+                logger.error("Notification batch of {} on {} failed", batch.size(), lanes.channel, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static final class ChannelLanes {
+        private final NotificationChannel channel;
+        private final TokenBucket bucket;
+        private final BlockingQueue<QueuedNotification> expedited;
+        private final BlockingQueue<QueuedNotification> standard;
+
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder retried = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder expiredLeases = new LongAdder();
+
+        private ChannelLanes(NotificationChannel channel, TokenBucket bucket,
+                             BlockingQueue<QueuedNotification> expedited, BlockingQueue<QueuedNotification> standard) {
+            this.channel = channel;
+            this.bucket = bucket;
+            this.expedited = expedited;
+            this.standard = standard;
+        }
+
+        private BlockingQueue<QueuedNotification> lane(boolean isExpedited) {
+            return isExpedited ? expedited : standard;
+        }
+
+        private void record(NotificationSender.BatchResult result) {
+            sent.add(result.sent());
+            retried.add(result.retried());
+            failed.add(result.failed());
+            expiredLeases.add(result.expired());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.mccrae.healthcare.notification;
+
+import java.util.UUID;
+
+/**
+ * What a NotificationProvider sends
+ * 
+ * @param deliveryId idempotency key - the same delivery may be attempted more than once
+ * @param recipient  PHI - never log this
+ * @param body       PHI - never log this
+ */
+public record NotificationMessage(UUID deliveryId, String recipient, String body) {
+    
+    // Records print every component - keep PHI out of logs and exception messages
+    @Override
+    public String toString() {
+        return "NotificationMessage[deliveryId=" + deliveryId + "]";
+    }
+}
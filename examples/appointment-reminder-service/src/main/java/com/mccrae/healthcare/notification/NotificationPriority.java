@@ -0,0 +1,18 @@
+package com.mccrae.healthcare.notification;
+
+/**
+ * Notification priority
+ *
+ * CRITICAL and URGENT go through each channel's expedited lane: their own queue,
+ * their own worker and a share of the rate limit that bulk traffic cannot use.
+ */
+public enum NotificationPriority {
+    CRITICAL,
+    URGENT,
+    NORMAL,
+    BULK; // Appointment reminders and other fan-out
+
+    public boolean isExpedited() {
+        return this == CRITICAL || this == URGENT;
+    }
+}
@@ -0,0 +1,19 @@
+package com.mccrae.healthcare.notification;
+
+/**
+ * Delivery provider for one channel (SMS gateway, email relay, voice service)
+ * 
+ * Implementations are Spring beans; exactly one per channel. send() is called
+ * from that channel's worker threads, already inside the channel's rate limit.
+ */
+public interface NotificationProvider {
+    
+    NotificationChannel channel();
+    
+    /**
+     * Send one message, blocking until the provider accepted or rejected it
+     * 
+     * @throws NotificationDeliveryException if the provider rejected the message
+     */
+    void send(NotificationMessage message) throws NotificationDeliveryException;
+}
@@ -0,0 +1,38 @@
+package com.mccrae.healthcare.notification;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Request body for POST /api/notifications (BULK priority: /api/notifications/bulk)
+ * 
+ * @param recipient phone number or email address; null sends to the patient's own
+ *                  phone (SMS, PHONE) or email (EMAIL), looked up at send time
+ * @param message   PHI - never log this
+ */
+public record NotificationRequest(
+        @NotBlank String patientRef,
+        @NotNull NotificationChannel channel,
+        @NotNull NotificationPriority priority,
+        @Size(max = 255) String recipient,
+        @NotBlank @Size(max = 2000) String message,
+        @Size(max = 255) String correlationId
+) {
+    
+    /**
+     * @return this request, carrying correlationId when it has none of its own
+     */
+    NotificationRequest withDefaultCorrelationId(String correlationId) {
+        if (this.correlationId != null || correlationId == null) {
+            return this;
+        }
+        return new NotificationRequest(patientRef, channel, priority, recipient, message, correlationId);
+    }
+    
+    // Records print every component - keep PHI out of logs and exception messages
+    @Override
+    public String toString() {
+        return "NotificationRequest[patientRef=" + patientRef + ", channel=" + channel + ", priority=" + priority + "]";
+    }
+}
@@ -0,0 +1,245 @@
+package com.mccrae.healthcare.notification;
+
+import com.mccrae.healthcare.audit.AuditLogger;
+import com.mccrae.healthcare.audit.NotificationAttempt;
+import com.mccrae.healthcare.patient.PatientContact;
+import com.mccrae.healthcare.patient.PatientRepository;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import com.mccrae.healthcare.tracing.CorrelationId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Notification Sender - sends one batch from a channel queue and records the outcome
+ *
+ * Per batch:
+ * 1. Skip deliveries whose queue lease has expired (the retry poller owns them again)
+ * 2. One lookup for every patient-addressed delivery's phone/email
+ * 3. Take a rate-limit token and call the channel's provider, one delivery at a time
+ * 4. One transaction: update every notification_deliveries row (sent, retry at
+ *    now + backoff[attempt], or failed) and insert one audit row per attempt
+ */
+@Component
+public class NotificationSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationSender.class);
+
+    private static final String FINAL_SQL =
+            "UPDATE notification_deliveries SET status = ?, attempts = ?, last_error = ?, recipient = NULL, message = NULL, "
+                    + "updated_at = ? WHERE id = ? AND status = 'PENDING' AND attempts = ?";
+
+    private static final String RETRY_SQL =
+            "UPDATE notification_deliveries SET attempts = ?, next_attempt_at = ?, last_error = ?, updated_at = ? "
+                    + "WHERE id = ? AND status = 'PENDING' AND attempts = ?";
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AuditLogger auditLogger;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired(required = false)
+    private List<NotificationProvider> providers = List.of();
+
+    // Wait before retry 1, 2, ...; a delivery that fails after the last one is FAILED
+    @Value("${healthcare.notifications.retry.backoff:5m,30m,2h}")
+    private Duration[] backoff;
+
+    /**
+     * The provider for a channel
+     *
+     * @throws IllegalStateException if there is not exactly one
+     */
+    NotificationProvider providerFor(NotificationChannel channel) {
+        NotificationProvider found = null;
+        for (NotificationProvider provider : providers) {
+            if (provider.channel() == channel) {
+                if (found != null) {
+                    throw new IllegalStateException("More than one notification provider for " + channel);
+                }
+                found = provider;
+            }
+        }
+        if (found == null) {
+            throw new IllegalStateException("No notification provider for " + channel);
+        }
+        return found;
+    }
+
+    /**
+     * Send a batch (all on one channel) and record every attempt
+     *
+     * @throws InterruptedException if interrupted while waiting for a token - attempts
+     *         made so far are recorded, the rest keep their lease and are retried later
+     */
+    BatchResult deliver(List<QueuedNotification> batch, TokenBucket bucket, boolean expedited) throws InterruptedException {
+        Instant now = Instant.now();
+        List<QueuedNotification> leased = new ArrayList<>(batch.size());
+        for (QueuedNotification notification : batch) {
+            if (notification.leaseExpiresAt().isAfter(now)) {
+                leased.add(notification);
+            }
+        }
+        int expired = batch.size() - leased.size();
+        if (expired > 0) {
+            logger.warn("Skipped {} notifications whose queue lease expired", expired);
+        }
+
+        Map<String, PatientContact> contacts = patientContacts(leased);
+        List<Outcome> outcomes = new ArrayList<>(leased.size());
+        try {
+            for (QueuedNotification notification : leased) {
+                NotificationProvider provider = providerFor(notification.channel());
+                String recipient = recipient(notification, contacts.get(notification.patientRef()));
+                if (recipient == null) {
+                    outcomes.add(outcome(notification, "NO_RECIPIENT", false));
+                    continue;
+                }
+
+                bucket.acquire(expedited);
+                // Worker log lines for this send carry the delivery's correlation ID
+                if (notification.correlationId() != null) {
+                    MDC.put(CorrelationId.MDC_KEY, notification.correlationId());
+                }
+                try {
+                    provider.send(new NotificationMessage(notification.id(), recipient, notification.message()));
+                    outcomes.add(new Outcome(notification, NotificationStatus.SENT, null, null));
+                } catch (NotificationDeliveryException e) {
+                    outcomes.add(outcome(notification, e.getErrorCode(), e.isRetryable()));
+                } catch (RuntimeException e) {
+                    // ✅ CORRECT: Delivery ID only - provider exceptions may echo the message
+                    logger.error("Provider {} failed on delivery {}: {}", notification.channel(), notification.id(),
+                            e.getClass().getSimpleName());
+                    outcomes.add(outcome(notification, "PROVIDER_ERROR", true));
+                } finally {
+                    MDC.remove(CorrelationId.MDC_KEY);
+                }
+            }
+        } finally {
+            record(outcomes);
+        }
+        return BatchResult.of(outcomes, expired);
+    }
+
+    private Outcome outcome(QueuedNotification notification, String errorCode, boolean retryable) {
+        int attempt = notification.attempts() + 1;
+        if (retryable && attempt <= backoff.length) {
+            Instant retryAt = Instant.now().plus(backoff[attempt - 1]);
+            return new Outcome(notification, NotificationStatus.PENDING, retryAt, errorCode);
+        }
+        return new Outcome(notification, NotificationStatus.FAILED, null, errorCode);
+    }
+
+    private void record(List<Outcome> outcomes) {
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<Object[]> finals = new ArrayList<>();
+        List<Object[]> retries = new ArrayList<>();
+        List<NotificationAttempt> attempts = new ArrayList<>(outcomes.size());
+        for (Outcome outcome : outcomes) {
+            QueuedNotification notification = outcome.notification();
+            int attempt = notification.attempts() + 1;
+            if (outcome.status() == NotificationStatus.PENDING) {
+                retries.add(new Object[]{attempt, outcome.retryAt().atOffset(ZoneOffset.UTC), outcome.errorCode(), now,
+                        notification.id(), notification.attempts()});
+            } else {
+                finals.add(new Object[]{outcome.status().name(), attempt, outcome.errorCode(), now,
+                        notification.id(), notification.attempts()});
+            }
+            attempts.add(new NotificationAttempt(notification.id(), notification.patientRef(),
+                    notification.channel().name(), attempt,
+                    outcome.status() == NotificationStatus.PENDING ? "RETRY_SCHEDULED" : outcome.status().name(),
+                    outcome.errorCode(), notification.correlationId()));
+        }
+
+        // State and audit trail commit together
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!finals.isEmpty()) {
+                jdbcTemplate.batchUpdate(FINAL_SQL, finals);
+            }
+            if (!retries.isEmpty()) {
+                jdbcTemplate.batchUpdate(RETRY_SQL, retries);
+            }
+            auditLogger.logNotificationAttempts(attempts);
+        });
+    }
+
+    private Map<String, PatientContact> patientContacts(List<QueuedNotification> notifications) {
+        Set<String> patientRefs = new LinkedHashSet<>();
+        for (QueuedNotification notification : notifications) {
+            if (notification.recipient() == null) {
+                patientRefs.add(notification.patientRef());
+            }
+        }
+        if (patientRefs.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, PatientContact> contacts = new HashMap<>();
+        for (PatientContact contact : shardRouter.callPerShard(patientRefs, patientRef -> patientRef,
+                patientRepository::findContactsByReferenceIdIn)) {
+            contacts.put(contact.getReferenceId(), contact);
+        }
+        return contacts;
+    }
+
+    private static String recipient(QueuedNotification notification, PatientContact contact) {
+        if (notification.recipient() != null) {
+            return notification.recipient();
+        }
+        if (contact == null) {
+            return null;
+        }
+        return notification.channel() == NotificationChannel.EMAIL ? contact.getEmail() : contact.getPhone();
+    }
+
+    private record Outcome(QueuedNotification notification, NotificationStatus status, Instant retryAt, String errorCode) {
+    }
+
+    /**
+     * Counts for one batch
+     */
+    record BatchResult(int sent, int retried, int failed, int expired) {
+
+        private static BatchResult of(List<Outcome> outcomes, int expired) {
+            int sent = 0;
+            int retried = 0;
+            int failed = 0;
+            for (Outcome outcome : outcomes) {
+                switch (outcome.status()) {
+                    case SENT -> sent++;
+                    case PENDING -> retried++;
+                    case FAILED -> failed++;
+                }
+            }
+            return new BatchResult(sent, retried, failed, expired);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.mccrae.healthcare.notification;
+
+import com.mccrae.healthcare.tracing.CorrelationId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Notification Service - entry point for every outgoing notification
+ *
+ * deliverNotification() stores the delivery in notification_deliveries, leased
+ * for queue-lease, and hands it to the NotificationDispatcher. The row is the
+ * durable record: if the channel queue is full, or the process stops before the
+ * attempt, the lease runs out and retryFailedNotifications() queues it again.
+ *
+ * Retries: a retryable provider failure reschedules the row at
+ * healthcare.notifications.retry.backoff[attempt] (5m, 30m, 2h by default).
+ * Delivery is at-least-once - the delivery ID is the provider idempotency key.
+ */
+@Service
+public class NotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+
+    private static final String CLAIM_SQL =
+            "UPDATE notification_deliveries SET next_attempt_at = ?, updated_at = ? "
+                    + "WHERE id = ? AND status = 'PENDING' AND next_attempt_at <= ?";
+
+    private static final String RELEASE_SQL =
+            "UPDATE notification_deliveries SET next_attempt_at = ? WHERE id = ? AND status = 'PENDING'";
+
+    @Autowired
+    private NotificationDeliveryRepository deliveryRepository;
+
+    @Autowired
+    private NotificationDispatcher dispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${healthcare.notifications.queue-lease:15m}")
+    private Duration queueLease;
+
+    @Value("${healthcare.notifications.retry.batch-size:500}")
+    private int retryBatchSize;
+
+    /**
+     * Store a notification and queue it on its channel
+     *
+     * Inside a transaction the delivery is queued after commit, so the worker
+     * never sends a notification whose row could still roll back.
+     *
+     * Without its own correlation ID, the delivery carries the current request's.
+     *
+     * @return the delivery's state (PENDING) - no recipient or message
+     */
+    public NotificationDeliveryStatus deliverNotification(NotificationRequest request) {
+        request = request.withDefaultCorrelationId(CorrelationId.current());
+        Instant leaseExpiresAt = Instant.now().plus(queueLease);
+        NotificationDelivery delivery = deliveryRepository.save(new NotificationDelivery(request, leaseExpiresAt));
+
+        // ✅ CORRECT: Delivery ID and reference ID, never recipient or message
+        logger.info("Notification {} for patient {} via {} ({})",
+                delivery.getId(), delivery.getPatientRef(), delivery.getChannel(), delivery.getPriority());
+
+        QueuedNotification queued = QueuedNotification.of(delivery, leaseExpiresAt);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(queued);
+                }
+            });
+        } else {
+            enqueue(queued);
+        }
+        return toStatus(delivery);
+    }
+
+    public Optional<NotificationDeliveryStatus> getDelivery(UUID id) {
+        return deliveryRepository.findStatusById(id);
+    }
+
+    public NotificationStats stats() {
+        return dispatcher.stats();
+    }
+
+    /**
+     * Queue deliveries that are due: retries whose backoff has passed, and
+     * deliveries whose queue lease expired (full queue, restart)
+     */
+    @Scheduled(fixedDelayString = "${healthcare.notifications.retry.poll-interval-ms:5000}")
+    public void retryFailedNotifications() {
+        if (!dispatcher.isRunning()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<NotificationDelivery> due = deliveryRepository.findDue(now, Limit.of(retryBatchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // Lease each row first - another instance may be polling the same rows
+        Instant leaseExpiresAt = now.plus(queueLease);
+        OffsetDateTime lease = leaseExpiresAt.atOffset(ZoneOffset.UTC);
+        OffsetDateTime timestamp = now.atOffset(ZoneOffset.UTC);
+        List<Object[]> args = new ArrayList<>(due.size());
+        for (NotificationDelivery delivery : due) {
+            args.add(new Object[]{lease, timestamp, delivery.getId(), timestamp});
+        }
+        int[] claimed = jdbcTemplate.batchUpdate(CLAIM_SQL, args);
+
+        int queued = 0;
+        for (int i = 0; i < claimed.length; i++) {
+            if (claimed[i] != 0 && enqueue(QueuedNotification.of(due.get(i), leaseExpiresAt))) {
+                queued++;
+            }
+        }
+        if (queued < due.size()) {
+            logger.warn("Queued {} of {} due notifications (queues full or claimed elsewhere)", queued, due.size());
+        } else {
+            logger.info("Queued {} due notifications", queued);
+        }
+    }
+
+    /**
+     * @return false if the channel queue was full - the lease is released so the
+     *         retry poller picks the delivery up when there is room
+     */
+    private boolean enqueue(QueuedNotification notification) {
+        if (dispatcher.offer(notification)) {
+            return true;
+        }
+        jdbcTemplate.update(RELEASE_SQL, Instant.now().atOffset(ZoneOffset.UTC), notification.id());
+        logger.debug("Notification queue full for {} ({}), delivery {} deferred to the retry poller",
+                notification.channel(), notification.priority(), notification.id());
+        return false;
+    }
+
+    private static NotificationDeliveryStatus toStatus(NotificationDelivery delivery) {
+        return new NotificationDeliveryStatus(delivery.getId(), delivery.getPatientRef(), delivery.getChannel(),
+                delivery.getPriority(), delivery.getStatus(), delivery.getAttempts(), delivery.getNextAttemptAt(),
+                delivery.getLastError(), delivery.getCreatedAt(), delivery.getUpdatedAt());
+    }
+}
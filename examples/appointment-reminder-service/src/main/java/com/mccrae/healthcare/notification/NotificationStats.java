@@ -0,0 +1,27 @@
+package com.mccrae.healthcare.notification;
+
+import java.util.List;
+
+/**
+ * Point-in-time counters for the NotificationDispatcher, one entry per channel
+ */
+public record NotificationStats(
+        boolean running,
+        List<ChannelStats> channels
+) {
+    
+    /**
+     * availableTokens: rate-limit tokens left right now (expedited traffic may use all of them)
+     */
+    public record ChannelStats(
+            NotificationChannel channel,
+            int expeditedQueued,
+            int standardQueued,
+            double availableTokens,
+            long sent,
+            long retried,
+            long failed,
+            long expiredLeases
+    ) {
+    }
+}
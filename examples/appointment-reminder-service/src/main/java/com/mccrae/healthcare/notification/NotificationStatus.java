@@ -0,0 +1,13 @@
+package com.mccrae.healthcare.notification;
+
+/**
+ * Delivery state in notification_deliveries
+ *
+ * PENDING covers both "queued" and "waiting for a retry" - nextAttemptAt says when
+ * the row is due (see NotificationService).
+ */
+public enum NotificationStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
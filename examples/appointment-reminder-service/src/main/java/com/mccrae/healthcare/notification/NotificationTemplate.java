@@ -0,0 +1,204 @@
+package com.mccrae.healthcare.notification;
+
+import com.mccrae.healthcare.timezone.InstantFormatter;
+import com.mccrae.healthcare.timezone.ZoneRegistry;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One compiled template: a flat list of literal and field parts
+ *
+ * Template syntax:
+ * - {field} - a ContentField placeholder
+ * - {field|pattern} - a time field with a DateTimeFormatter pattern
+ *   (default "d MMM yyyy, h:mm a z"), rendered in the content's timezone
+ * - [text with {field}] - optional section, rendered only when all its fields are set
+ *
+ * Compiling resolves placeholders, checks them against the consent level's
+ * allow-list and builds the formatters once; rendering is a single pass that
+ * appends to the caller's buffer - no parsing, lookups or reflection per message.
+ *
+ * Immutable and thread-safe.
+ */
+final class NotificationTemplate {
+
+    private static final String DEFAULT_TIME_PATTERN = "d MMM yyyy, h:mm a z";
+
+    private static final int LITERAL = 0;
+    private static final int TEXT = 1;
+    private static final int TIME = 2;
+    private static final int SECTION = 3;
+
+    private final String name;
+    private final int[] kinds;
+    private final String[] literals;
+    private final ContentField[] fields;
+    private final InstantFormatter[] formatters;
+    private final NotificationTemplate[] sections;
+
+    private NotificationTemplate(String name, List<Part> parts) {
+        this.name = name;
+        int count = parts.size();
+        this.kinds = new int[count];
+        this.literals = new String[count];
+        this.fields = new ContentField[count];
+        this.formatters = new InstantFormatter[count];
+        this.sections = new NotificationTemplate[count];
+        for (int i = 0; i < count; i++) {
+            Part part = parts.get(i);
+            kinds[i] = part.kind();
+            literals[i] = part.literal();
+            fields[i] = part.field();
+            formatters[i] = part.formatter();
+            sections[i] = part.section();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException on a syntax error, an unknown field, or a
+     *                                  field the consent level does not allow
+     */
+    static NotificationTemplate compile(NotificationType type, ConsentLevel level, String language, String source) {
+        String name = type + "." + level + "." + language;
+        return new Compiler(name, type, level, Locale.forLanguageTag(language), source).compile(0, source.length(), false);
+    }
+
+    /**
+     * Append the rendered message to out
+     *
+     * @return bits (ContentField.bit) of the fields rendered
+     * @throws IllegalArgumentException if a field outside an optional section is not set
+     */
+    long renderTo(NotificationContent content, StringBuilder out) {
+        long rendered = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case LITERAL -> out.append(literals[i]);
+                case TEXT -> {
+                    String value = content.text(fields[i]);
+                    if (value == null) {
+                        throw missing(fields[i]);
+                    }
+                    out.append(value);
+                    rendered |= fields[i].bit();
+                }
+                case TIME -> {
+                    Instant value = content.time(fields[i]);
+                    if (value == null) {
+                        throw missing(fields[i]);
+                    }
+                    formatters[i].formatTo(value, content.zone(), out);
+                    rendered |= fields[i].bit();
+                }
+                default -> {
+                    if (sections[i].hasAllFields(content)) {
+                        rendered |= sections[i].renderTo(content, out);
+                    }
+                }
+            }
+        }
+        return rendered;
+    }
+
+    String name() {
+        return name;
+    }
+
+    private boolean hasAllFields(NotificationContent content) {
+        for (ContentField field : fields) {
+            if (field != null && !content.has(field)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ✅ CORRECT: Names the field, never a value
+    private IllegalArgumentException missing(ContentField field) {
+        return new IllegalArgumentException("Notification field " + field.placeholder() + " not set for " + name);
+    }
+
+    private record Part(int kind, String literal, ContentField field, InstantFormatter formatter,
+                        NotificationTemplate section) {
+    }
+
+    private record Compiler(String name, NotificationType type, ConsentLevel level, Locale locale, String source) {
+
+        NotificationTemplate compile(int start, int end, boolean inSection) {
+            List<Part> parts = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            int i = start;
+            while (i < end) {
+                char c = source.charAt(i);
+                if (c == '{') {
+                    int close = closing(i, end, '}');
+                    flush(literal, parts);
+                    parts.add(placeholder(source.substring(i + 1, close)));
+                    i = close + 1;
+                } else if (c == '[') {
+                    if (inSection) {
+                        throw error("nested optional sections");
+                    }
+                    int close = closing(i, end, ']');
+                    flush(literal, parts);
+                    parts.add(new Part(SECTION, null, null, null, compile(i + 1, close, true)));
+                    i = close + 1;
+                } else if (c == '}' || c == ']') {
+                    throw error("unmatched '" + c + "' at " + i);
+                } else {
+                    literal.append(c);
+                    i++;
+                }
+            }
+            flush(literal, parts);
+            return new NotificationTemplate(name, parts);
+        }
+
+        private Part placeholder(String spec) {
+            int bar = spec.indexOf('|');
+            String placeholder = bar < 0 ? spec : spec.substring(0, bar);
+            ContentField field = ContentField.fromPlaceholder(placeholder);
+            if (field == null) {
+                throw error("unknown field {" + placeholder + "}");
+            }
+            if (!type.allowedFields(level).contains(field)) {
+                throw error("{" + placeholder + "} is not allowed at consent level " + level);
+            }
+            if (!field.isTime()) {
+                if (bar >= 0) {
+                    throw error("{" + placeholder + "} is not a time field");
+                }
+                return new Part(TEXT, null, field, null, null);
+            }
+            String pattern = bar < 0 ? DEFAULT_TIME_PATTERN : spec.substring(bar + 1);
+            return new Part(TIME, null, field, ZoneRegistry.formatter(pattern, locale), null);
+        }
+
+        private int closing(int open, int end, char close) {
+            for (int i = open + 1; i < end; i++) {
+                char c = source.charAt(i);
+                if (c == close) {
+                    return i;
+                }
+                if (close == '}' && (c == '{' || c == '[' || c == ']')) {
+                    break;
+                }
+            }
+            throw error("unclosed '" + source.charAt(open) + "' at " + open);
+        }
+
+        private static void flush(StringBuilder literal, List<Part> parts) {
+            if (!literal.isEmpty()) {
+                parts.add(new Part(LITERAL, literal.toString(), null, null, null));
+                literal.setLength(0);
+            }
+        }
+
+        private IllegalArgumentException error(String problem) {
+            return new IllegalArgumentException("Notification template " + name + ": " + problem);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.mccrae.healthcare.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Notification Templates - every (notification type x consent level x language)
+ * template, compiled once at startup
+ *
+ * Source: notification-templates.properties, keys TYPE.LEVEL.language, e.g.
+ * APPOINTMENT_REMINDER.STANDARD.en. Every type needs an English template for
+ * each level its consent can resolve to; other languages may cover any subset
+ * and fall back to English.
+ *
+ * Any invalid template - unknown field, or a PHI field its consent level does
+ * not allow - fails startup rather than the first message that uses it.
+ */
+@Component
+public class NotificationTemplates {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationTemplates.class);
+
+    public static final String DEFAULT_LANGUAGE = "en";
+
+    private static final NotificationType[] TYPES = NotificationType.values();
+    private static final int LEVELS = ConsentLevel.values().length;
+
+    // language -> templates indexed by type and level (see index()); never modified after construction
+    private final Map<String, NotificationTemplate[]> byLanguage;
+    private final NotificationTemplate[] defaults;
+
+    @Autowired
+    public NotificationTemplates(
+            @Value("${healthcare.notifications.templates:classpath:notification-templates.properties}") Resource source) {
+        this(load(source));
+    }
+
+    NotificationTemplates(Properties source) {
+        Map<String, NotificationTemplate[]> compiled = new HashMap<>();
+        for (String key : source.stringPropertyNames()) {
+            String[] parts = key.split("\\.", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Notification template key " + key + " is not TYPE.LEVEL.language");
+            }
+            NotificationType type = NotificationType.valueOf(parts[0]);
+            ConsentLevel level = ConsentLevel.valueOf(parts[1]);
+            String language = parts[2];
+            compiled.computeIfAbsent(language, l -> new NotificationTemplate[TYPES.length * LEVELS])[index(type, level)] =
+                    NotificationTemplate.compile(type, level, language, source.getProperty(key));
+        }
+
+        this.defaults = compiled.get(DEFAULT_LANGUAGE);
+        for (NotificationType type : TYPES) {
+            for (ConsentLevel level : type.levels()) {
+                if (defaults == null || defaults[index(type, level)] == null) {
+                    throw new IllegalArgumentException("Missing notification template " + type + "." + level + "."
+                            + DEFAULT_LANGUAGE);
+                }
+            }
+        }
+        this.byLanguage = Map.copyOf(compiled);
+        logger.info("Compiled {} notification templates in {} languages", source.size(), byLanguage.size());
+    }
+
+    /**
+     * Template for the language, falling back to its primary language
+     * ("mi-NZ" -> "mi") and then to English
+     */
+    NotificationTemplate get(NotificationType type, ConsentLevel level, String language) {
+        int index = index(type, level);
+        NotificationTemplate template = find(language, index);
+        if (template == null && language != null) {
+            int dash = language.indexOf('-');
+            if (dash > 0) {
+                template = find(language.substring(0, dash), index);
+            }
+        }
+        if (template == null) {
+            template = defaults[index];
+        }
+        if (template == null) {
+            throw new IllegalArgumentException("No notification template for " + type + " at consent level " + level);
+        }
+        return template;
+    }
+
+    public Set<String> languages() {
+        return byLanguage.keySet();
+    }
+
+    private NotificationTemplate find(String language, int index) {
+        NotificationTemplate[] templates = language == null ? null : byLanguage.get(language);
+        return templates == null ? null : templates[index];
+    }
+
+    private static int index(NotificationType type, ConsentLevel level) {
+        return type.ordinal() * LEVELS + level.ordinal();
+    }
+
+    private static Properties load(Resource source) {
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read notification templates " + source.getDescription(), e);
+        }
+        return properties;
+    }
+}
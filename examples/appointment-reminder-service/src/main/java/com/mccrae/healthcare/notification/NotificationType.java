@@ -0,0 +1,80 @@
+package com.mccrae.healthcare.notification;
+
+import com.mccrae.healthcare.consent.Consent;
+import com.mccrae.healthcare.consent.ConsentScope;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.mccrae.healthcare.notification.ContentField.*;
+
+/**
+ * Notification types with templated content, and the fields each consent level allows
+ *
+ * The allow-lists follow context/phi-sharing-matrix.md. Each level includes the
+ * fields of the levels below it. They are enforced when templates are compiled:
+ * a template referencing a field its level does not allow fails startup.
+ */
+public enum NotificationType {
+
+    APPOINTMENT_REMINDER(ConsentScope.APPOINTMENT_REMINDER, null,
+            EnumSet.noneOf(ContentField.class),
+            EnumSet.of(APPOINTMENT_TYPE, APPOINTMENT_TIME, LOCATION),
+            EnumSet.noneOf(ContentField.class)),
+
+    EMERGENCY_CONTACT_ADMISSION(ConsentScope.EMERGENCY_CONTACT_NOTIFY, ConsentScope.EMERGENCY_CONTACT_NOTIFY_DETAILED,
+            EnumSet.of(FACILITY_NAME, FACILITY_PHONE, VISITING_HOURS),
+            EnumSet.of(PATIENT_NAME, GENERAL_STATUS, ADMISSION_TIME, EXPECTED_DISCHARGE, CARE_TEAM_PHONE),
+            EnumSet.of(ADMISSION_REASON, DEPARTMENT, EXPECTED_STAY, SCHEDULED_PROCEDURES));
+
+    private final ConsentScope standardScope;
+    private final ConsentScope detailedScope;
+    private final Map<ConsentLevel, Set<ContentField>> allowed = new EnumMap<>(ConsentLevel.class);
+
+    NotificationType(ConsentScope standardScope, ConsentScope detailedScope,
+                     EnumSet<ContentField> none, EnumSet<ContentField> standard, EnumSet<ContentField> detailed) {
+        this.standardScope = standardScope;
+        this.detailedScope = detailedScope;
+        EnumSet<ContentField> fields = EnumSet.copyOf(none);
+        allowed.put(ConsentLevel.NONE, Collections.unmodifiableSet(EnumSet.copyOf(fields)));
+        fields.addAll(standard);
+        allowed.put(ConsentLevel.STANDARD, Collections.unmodifiableSet(EnumSet.copyOf(fields)));
+        fields.addAll(detailed);
+        allowed.put(ConsentLevel.DETAILED, Collections.unmodifiableSet(EnumSet.copyOf(fields)));
+    }
+
+    /**
+     * Level for a validated consent (null, expired or revoked: NONE).
+     * The detailed scope extends the standard one, so it alone means DETAILED.
+     */
+    public ConsentLevel levelOf(Consent consent) {
+        if (consent == null || !consent.isValid()) {
+            return ConsentLevel.NONE;
+        }
+        if (detailedScope != null && consent.hasScope(detailedScope)) {
+            return ConsentLevel.DETAILED;
+        }
+        return consent.hasScope(standardScope) ? ConsentLevel.STANDARD : ConsentLevel.NONE;
+    }
+
+    public ConsentScope standardScope() {
+        return standardScope;
+    }
+
+    public Set<ContentField> allowedFields(ConsentLevel level) {
+        return allowed.get(level);
+    }
+
+    /**
+     * @return the levels a consent can resolve to - each needs a template
+     */
+    List<ConsentLevel> levels() {
+        return detailedScope == null
+                ? List.of(ConsentLevel.NONE, ConsentLevel.STANDARD)
+                : List.of(ConsentLevel.NONE, ConsentLevel.STANDARD, ConsentLevel.DETAILED);
+    }
+}
@@ -0,0 +1,35 @@
+package com.mccrae.healthcare.notification;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A leased delivery waiting in a channel queue
+ * 
+ * leaseExpiresAt mirrors notification_deliveries.next_attempt_at: once it has
+ * passed, the retry poller may have queued the row again, so the worker skips it.
+ */
+record QueuedNotification(
+        UUID id,
+        String patientRef,
+        NotificationChannel channel,
+        NotificationPriority priority,
+        String recipient, // PHI - never log this
+        String message, // PHI - never log this
+        int attempts,
+        String correlationId,
+        Instant leaseExpiresAt
+) {
+    
+    static QueuedNotification of(NotificationDelivery delivery, Instant leaseExpiresAt) {
+        return new QueuedNotification(delivery.getId(), delivery.getPatientRef(), delivery.getChannel(),
+                delivery.getPriority(), delivery.getRecipient(), delivery.getMessage(), delivery.getAttempts(),
+                delivery.getCorrelationId(), leaseExpiresAt);
+    }
+    
+    // Records print every component - keep PHI out of logs and exception messages
+    @Override
+    public String toString() {
+        return "QueuedNotification[id=" + id + ", channel=" + channel + ", priority=" + priority + "]";
+    }
+}
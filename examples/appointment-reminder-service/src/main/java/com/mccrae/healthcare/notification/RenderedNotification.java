@@ -0,0 +1,34 @@
+package com.mccrae.healthcare.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A rendered notification message and what it disclosed
+ *
+ * @param body          PHI - never log this
+ * @param consentLevel  the level the template was chosen for
+ * @param renderedFields bits (ContentField.bit) of the fields in body
+ */
+public record RenderedNotification(String body, ConsentLevel consentLevel, long renderedFields) {
+
+    /**
+     * PHI fields in the message, for the disclosure audit trail
+     * (e.g. [patientName, generalStatus, admissionTime]) - names only, never values
+     */
+    public List<String> phiFieldsShared() {
+        List<String> shared = new ArrayList<>();
+        for (ContentField field : ContentField.values()) {
+            if (field.isPhi() && (renderedFields & field.bit()) != 0) {
+                shared.add(field.placeholder());
+            }
+        }
+        return shared;
+    }
+
+    // Records print every component - keep PHI out of logs and exception messages
+    @Override
+    public String toString() {
+        return "RenderedNotification[consentLevel=" + consentLevel + ", phiFieldsShared=" + phiFieldsShared() + "]";
+    }
+}
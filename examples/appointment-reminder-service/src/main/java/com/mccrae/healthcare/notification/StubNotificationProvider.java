@@ -0,0 +1,65 @@
+package com.mccrae.healthcare.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stub provider - accepts messages without sending anything (local runs, tests, benchmarks)
+ * 
+ * latency simulates the provider round trip; failureRate is the share of
+ * attempts rejected with a retryable "STUB_UNAVAILABLE".
+ */
+public class StubNotificationProvider implements NotificationProvider {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StubNotificationProvider.class);
+    
+    private final NotificationChannel channel;
+    private final Duration latency;
+    private final double failureRate;
+    
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    
+    public StubNotificationProvider(NotificationChannel channel, Duration latency, double failureRate) {
+        this.channel = channel;
+        this.latency = latency;
+        this.failureRate = failureRate;
+    }
+    
+    @Override
+    public NotificationChannel channel() {
+        return channel;
+    }
+    
+    @Override
+    public void send(NotificationMessage message) throws NotificationDeliveryException {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NotificationDeliveryException("INTERRUPTED", true);
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            rejected.incrementAndGet();
+            throw new NotificationDeliveryException("STUB_UNAVAILABLE", true);
+        }
+        delivered.incrementAndGet();
+        
+        // ✅ CORRECT: Delivery ID only, never recipient or body
+        logger.debug("Stub {} accepted delivery {}", channel, message.deliveryId());
+    }
+    
+    public long delivered() {
+        return delivered.get();
+    }
+    
+    public long rejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,40 @@
+package com.mccrae.healthcare.notification;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Stub providers for every channel (healthcare.notifications.provider=stub, the default)
+ * 
+ * Real providers replace these by setting the property to anything else and
+ * registering their own NotificationProvider beans.
+ */
+@Configuration
+@ConditionalOnProperty(name = "healthcare.notifications.provider", havingValue = "stub", matchIfMissing = true)
+public class StubNotificationProviders {
+    
+    @Value("${healthcare.notifications.stub.latency:0ms}")
+    private Duration latency;
+    
+    @Value("${healthcare.notifications.stub.failure-rate:0}")
+    private double failureRate;
+    
+    @Bean
+    public StubNotificationProvider smsNotificationProvider() {
+        return new StubNotificationProvider(NotificationChannel.SMS, latency, failureRate);
+    }
+    
+    @Bean
+    public StubNotificationProvider emailNotificationProvider() {
+        return new StubNotificationProvider(NotificationChannel.EMAIL, latency, failureRate);
+    }
+    
+    @Bean
+    public StubNotificationProvider phoneNotificationProvider() {
+        return new StubNotificationProvider(NotificationChannel.PHONE, latency, failureRate);
+    }
+}
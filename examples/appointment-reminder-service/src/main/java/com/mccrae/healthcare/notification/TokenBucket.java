@@ -0,0 +1,83 @@
+package com.mccrae.healthcare.notification;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket matching one provider quota - ratePerSecond sustained, burst at most
+ *
+ * reservedTokens of the bucket are kept for expedited (CRITICAL/URGENT) traffic:
+ * standard traffic only takes a token while more than that many are left, so a
+ * reminder backlog can drain the bucket down to the reserve but never below it.
+ */
+final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double burst;
+    private final double reservedTokens;
+    private final LongSupplier nanoTime;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double ratePerSecond, int burst, double reservedTokens) {
+        this(ratePerSecond, burst, reservedTokens, System::nanoTime);
+    }
+
+    TokenBucket(double ratePerSecond, int burst, double reservedTokens, LongSupplier nanoTime) {
+        if (ratePerSecond <= 0 || burst < 1 || reservedTokens < 0 || reservedTokens >= burst) {
+            throw new IllegalArgumentException("Invalid token bucket: rate " + ratePerSecond
+                    + "/s, burst " + burst + ", reserved " + reservedTokens);
+        }
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.reservedTokens = reservedTokens;
+        this.nanoTime = nanoTime;
+        this.tokens = burst;
+        this.refilledAt = nanoTime.getAsLong();
+    }
+
+    /**
+     * Take a token if one is available to this class of traffic
+     *
+     * @return 0 if a token was taken, otherwise nanoseconds until one should be
+     */
+    long tryAcquire(boolean expedited) {
+        lock.lock();
+        try {
+            long now = nanoTime.getAsLong();
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+
+            double floor = expedited ? 0 : reservedTokens;
+            if (tokens - 1 >= floor) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((floor + 1 - tokens) / tokensPerNano));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Block until a token is taken
+     */
+    void acquire(boolean expedited) throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryAcquire(expedited)) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    double availableTokens() {
+        lock.lock();
+        try {
+            return Math.min(burst, tokens + (nanoTime.getAsLong() - refilledAt) * tokensPerNano);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
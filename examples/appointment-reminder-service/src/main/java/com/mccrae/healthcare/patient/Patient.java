@@ -1,8 +1,14 @@
 package com.mccrae.healthcare.patient;
 
+import com.mccrae.healthcare.sharding.ShardKey;
+import com.mccrae.healthcare.timezone.ValidTimeZone;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -13,14 +19,23 @@ import java.util.UUID;
  * - Uses Instant for timestamps (UTC)
  * - Has reference ID for logging (not full patient object)
  * - Validation annotations
+ * 
+ * Second-level cached by id and by referenceId (natural id) - see PatientCache.
  */
 @Entity
-@Table(name = "patients")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PatientCache.ENTITY_REGION)
+@NaturalIdCache(region = PatientCache.NATURAL_ID_REGION)
+@Table(name = "patients", indexes = {
+        @Index(name = "idx_patients_created_at_id", columnList = "createdAt, id"),
+        @Index(name = "idx_patients_shard_bucket", columnList = "shardBucket")
+})
 public class Patient {
     
     @Id
     private UUID id;
     
+    // Mutable: updatePatient may still change it - Hibernate moves the cached natural id
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     @NotBlank
     private String referenceId; // e.g., "PAT_12345" - safe to log
@@ -42,6 +57,8 @@ public class Patient {
     private String phone; // PHI - never log this
     
     @Column(nullable = false)
+    @NotBlank
+    @ValidTimeZone
     private String timezone; // e.g., "Pacific/Auckland"
     
     @Column(nullable = false)
@@ -50,6 +67,9 @@ public class Patient {
     @Column(nullable = false)
     private Instant updatedAt; // Always UTC
     
+    @Column(nullable = false)
+    private int shardBucket; // ShardKey bucket of referenceId - no getter, not part of the API
+    
     // Constructors
     public Patient() {
         this.id = UUID.randomUUID();
@@ -130,9 +150,15 @@ public class Patient {
         this.updatedAt = updatedAt;
     }
     
+    @PrePersist
+    public void prePersist() {
+        this.shardBucket = ShardKey.bucketOf(referenceId);
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = Instant.now();
+        this.shardBucket = ShardKey.bucketOf(referenceId);
     }
 }
 
@@ -0,0 +1,112 @@
+package com.mccrae.healthcare.patient;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Patient Cache - statistics for the Patient second-level cache regions
+ *
+ * Hibernate keeps the regions (PatientCacheConfiguration) consistent with every
+ * write made through JPA: updatePatient and deletePatient update or evict the
+ * entity and its referenceId entry when their transaction commits. Rows
+ * written with plain JDBC bypass the cache - only ShardRebalancer does, and it
+ * moves rows between shards without changing them.
+ *
+ * - healthcare.patient.cache.requests (counter): tags region (natural-id | entity), result (hit | miss)
+ * - healthcare.patient.cache.hit.ratio (gauge): hits / lookups since start, tag region
+ * - healthcare.patient.cache.size (gauge): cached patients
+ */
+@Component
+public class PatientCache implements MeterBinder {
+
+    static final String ENTITY_REGION = "patients";
+    static final String NATURAL_ID_REGION = "patients-by-reference";
+    static final List<String> REGIONS = List.of(ENTITY_REGION, NATURAL_ID_REGION);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Absent with healthcare.patients.cache.enabled=false
+    @Autowired(required = false)
+    private CacheManager patientCacheManager;
+
+    private volatile Statistics statistics;
+
+    public boolean isEnabled() {
+        return patientCacheManager != null;
+    }
+
+    public PatientCacheStats stats() {
+        if (!isEnabled()) {
+            return new PatientCacheStats(false, 0, 0, 0, 0, 0);
+        }
+        CacheRegionStatistics naturalIds = region(NATURAL_ID_REGION);
+        CacheRegionStatistics entities = region(ENTITY_REGION);
+        return new PatientCacheStats(
+                true,
+                naturalIds.getHitCount(),
+                naturalIds.getMissCount(),
+                entities.getHitCount(),
+                entities.getMissCount(),
+                size()
+        );
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!isEnabled()) {
+            return;
+        }
+        counter(registry, "natural-id", "hit", cache -> cache.region(NATURAL_ID_REGION).getHitCount());
+        counter(registry, "natural-id", "miss", cache -> cache.region(NATURAL_ID_REGION).getMissCount());
+        counter(registry, "entity", "hit", cache -> cache.region(ENTITY_REGION).getHitCount());
+        counter(registry, "entity", "miss", cache -> cache.region(ENTITY_REGION).getMissCount());
+        Gauge.builder("healthcare.patient.cache.hit.ratio", this, cache -> cache.stats().hitRatio())
+                .description("Share of referenceId lookups resolved from the cache")
+                .tag("region", "natural-id")
+                .register(registry);
+        Gauge.builder("healthcare.patient.cache.hit.ratio", this, cache -> cache.stats().entityHitRatio())
+                .description("Share of entity loads served from the cache")
+                .tag("region", "entity")
+                .register(registry);
+        Gauge.builder("healthcare.patient.cache.size", this, PatientCache::size)
+                .description("Patients in the second-level cache")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String region, String result, ToLongFunction<PatientCache> count) {
+        FunctionCounter.builder("healthcare.patient.cache.requests", this, cache -> count.applyAsLong(cache))
+                .description("Patient second-level cache lookups")
+                .tag("region", region)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private CacheRegionStatistics region(String region) {
+        Statistics current = statistics;
+        if (current == null) {
+            current = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics = current;
+        }
+        return current.getDomainDataRegionStatistics(region);
+    }
+
+    // Estimated - also counts the lock entries READ_WRITE leaves behind an update or delete until they time out
+    private long size() {
+        Cache<Object, Object> entities = patientCacheManager.getCache(ENTITY_REGION);
+        return entities == null ? 0 : entities.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+    }
+}
@@ -0,0 +1,73 @@
+package com.mccrae.healthcare.patient;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for Patient (healthcare.patients.cache.enabled, on by default)
+ *
+ * JCache regions on Caffeine, in-process:
+ * - patients: entities by id
+ * - patients-by-reference: referenceId -> id (natural id)
+ *
+ * Each region holds at most max-size entries (W-TinyLFU eviction) for at most
+ * ttl. Entries hold PHI - they never leave the heap (store by reference, no
+ * serialization) and ttl bounds how long a removed patient can stay there.
+ *
+ * Regions are created here, so a region missing from this list fails startup
+ * rather than getting an unbounded default cache.
+ */
+@Configuration
+@ConditionalOnProperty(name = "healthcare.patients.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class PatientCacheConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientCacheConfiguration.class);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager patientCacheManager(
+            @Value("${healthcare.patients.cache.max-size:100000}") long maxSize,
+            @Value("${healthcare.patients.cache.ttl:10m}") Duration ttl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Own URI per application context - test contexts in one JVM must not share regions
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("healthcare-patients-" + UUID.randomUUID()), PatientCacheConfiguration.class.getClassLoader());
+        for (String region : PatientCache.REGIONS) {
+            cacheManager.createCache(region, new CaffeineConfiguration<>()
+                    .setMaximumSize(OptionalLong.of(maxSize))
+                    .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()))
+                    .setStoreByValue(false));
+        }
+        logger.info("Patient second-level cache: {} entries per region, ttl {}", maxSize, ttl);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer patientCacheHibernateProperties(CacheManager patientCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, patientCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Region hit/miss counters for PatientCache.stats() - without the per-session log lines
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+}
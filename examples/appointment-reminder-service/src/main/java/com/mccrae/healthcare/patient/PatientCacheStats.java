@@ -0,0 +1,30 @@
+package com.mccrae.healthcare.patient;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Point-in-time counters for the Patient second-level cache
+ *
+ * A lookup by reference ID skips the database only if both the natural id
+ * (referenceId -> id) and the entity are cached.
+ */
+public record PatientCacheStats(
+        boolean enabled,
+        long naturalIdHits,
+        long naturalIdMisses,
+        long entityHits,
+        long entityMisses,
+        long size
+) {
+    @JsonProperty
+    public double hitRatio() {
+        long requests = naturalIdHits + naturalIdMisses;
+        return requests == 0 ? 0.0 : (double) naturalIdHits / requests;
+    }
+
+    @JsonProperty
+    public double entityHitRatio() {
+        long requests = entityHits + entityMisses;
+        return requests == 0 ? 0.0 : (double) entityHits / requests;
+    }
+}
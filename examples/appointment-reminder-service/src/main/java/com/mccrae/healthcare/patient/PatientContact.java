@@ -0,0 +1,14 @@
+package com.mccrae.healthcare.patient;
+
+/**
+ * Projection of Patient with only the contact columns notification delivery needs
+ * 
+ * Note: phone and email are PHI - never log them
+ */
+public interface PatientContact {
+    String getReferenceId();
+    
+    String getPhone();
+    
+    String getEmail();
+}
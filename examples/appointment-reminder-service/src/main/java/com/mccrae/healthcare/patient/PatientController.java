@@ -1,11 +1,20 @@
 package com.mccrae.healthcare.patient;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,8 +23,11 @@ import java.util.UUID;
  * 
  * Endpoints:
  * - POST   /api/patients          - Create patient
+ * - POST   /api/patients/import   - Bulk create from an NDJSON or CSV body
  * - GET    /api/patients/{ref}    - Get patient by reference ID
- * - GET    /api/patients          - Get all patients
+ * - GET    /api/patients/{ref}/summary - Get non-PHI summary (referenceId, timezone, timestamps)
+ * - GET    /api/patients          - Get patients, one keyset page (X-Next-Cursor header)
+ * - GET    /api/patients          - Stream all patients (Accept: application/x-ndjson)
  * - PUT    /api/patients/{id}     - Update patient
  * - DELETE /api/patients/{id}     - Delete patient
  */
@@ -23,15 +35,38 @@ import java.util.UUID;
 @RequestMapping("/api/patients")
 public class PatientController {
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    static final String TEXT_CSV_VALUE = "text/csv";
+    
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    
     @Autowired
     private PatientService patientService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PatientCache patientCache;
+    
     @PostMapping
     public ResponseEntity<Patient> createPatient(@Valid @RequestBody Patient patient) {
         Patient created = patientService.createPatient(patient);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
     
+    @PostMapping(value = "/import", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<PatientImportResult> importPatientsNdjson(InputStream body) throws IOException {
+        return importPatients(body, PatientImportFormat.NDJSON);
+    }
+    
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<PatientImportResult> importPatientsCsv(InputStream body) throws IOException {
+        return importPatients(body, PatientImportFormat.CSV);
+    }
+    
     @GetMapping("/{referenceId}")
     public ResponseEntity<Patient> getPatient(@PathVariable String referenceId) {
         return patientService.getPatientByReferenceId(referenceId)
@@ -39,10 +74,70 @@ public class PatientController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
-    @GetMapping
-    public ResponseEntity<List<Patient>> getAllPatients() {
-        List<Patient> patients = patientService.getAllPatients();
-        return ResponseEntity.ok(patients);
+    @GetMapping("/cache/stats")
+    public ResponseEntity<PatientCacheStats> getCacheStats() {
+        return ResponseEntity.ok(patientCache.stats());
+    }
+    
+    @GetMapping("/{referenceId}/summary")
+    public ResponseEntity<PatientSummary> getPatientSummary(@PathVariable String referenceId) {
+        return patientService.getPatientSummary(referenceId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<Patient>> getPatients(
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String cursor) {
+        PatientCursor after;
+        try {
+            after = cursor == null ? null : PatientCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Patient> patients = patientService.getPatientsPage(after, pageSize);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (patients.size() == pageSize) {
+            // Full page: there may be more, hand back a cursor for the next one
+            response.header(NEXT_CURSOR_HEADER, PatientCursor.after(patients.get(patients.size() - 1)).encode());
+        }
+        return response.body(patients);
+    }
+    
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPatients() {
+        // One JSON object per line, written as rows arrive - nothing is buffered per request
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                patientService.streamAllPatients(patient -> {
+                    try {
+                        writer.writeValue(generator, patient);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+    
+    private ResponseEntity<PatientImportResult> importPatients(InputStream body, PatientImportFormat format)
+            throws IOException {
+        try {
+            return ResponseEntity.ok(patientService.importPatients(body, format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @PutMapping("/{id}")
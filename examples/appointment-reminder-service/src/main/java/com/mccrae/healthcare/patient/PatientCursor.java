@@ -0,0 +1,51 @@
+package com.mccrae.healthcare.patient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Keyset cursor for paging patients in (createdAt, id) order
+ * 
+ * Opaque to clients: encoded as URL-safe Base64 so it can be passed back
+ * as a query parameter. Contains no PHI.
+ */
+public record PatientCursor(Instant createdAt, UUID id) {
+    
+    // (createdAt, id) with ids compared as unsigned bytes - the database's order (merging shard pages)
+    static final Comparator<Patient> ORDER = Comparator.comparing(Patient::getCreatedAt)
+            .thenComparing(Patient::getId, (a, b) -> {
+                int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+                return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+            });
+    
+    public static PatientCursor after(Patient patient) {
+        return new PatientCursor(patient.getCreatedAt(), patient.getId());
+    }
+    
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static PatientCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new PatientCursor(createdAt, UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+            // Covers Base64, number and UUID parse failures, and timestamps outside Instant's range
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
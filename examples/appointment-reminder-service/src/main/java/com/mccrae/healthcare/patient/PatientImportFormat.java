@@ -0,0 +1,11 @@
+package com.mccrae.healthcare.patient;
+
+/**
+ * Body formats accepted by POST /api/patients/import
+ */
+public enum PatientImportFormat {
+    /** One Patient JSON object per line (application/x-ndjson) */
+    NDJSON,
+    /** Header row naming the columns, then one patient per record (text/csv) */
+    CSV
+}
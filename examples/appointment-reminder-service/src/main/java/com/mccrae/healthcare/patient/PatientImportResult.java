@@ -0,0 +1,25 @@
+package com.mccrae.healthcare.patient;
+
+import java.util.List;
+
+/**
+ * Response body for POST /api/patients/import
+ * 
+ * errors lists the first rejected rows only (see PatientImporter.MAX_REPORTED_ERRORS);
+ * rejected is the full count.
+ */
+public record PatientImportResult(
+        int imported,
+        int rejected,
+        List<PatientImportError> errors
+) {
+    
+    /**
+     * One rejected row. reason names fields, never values - no PHI.
+     * 
+     * @param line 1-based line of the row in the request body
+     * @param referenceId null when the row could not be parsed
+     */
+    public record PatientImportError(long line, String referenceId, String reason) {
+    }
+}
@@ -0,0 +1,282 @@
+package com.mccrae.healthcare.patient;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mccrae.healthcare.audit.AuditLogger;
+import com.mccrae.healthcare.patient.PatientImportResult.PatientImportError;
+import com.mccrae.healthcare.replica.ReplicaRouter;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Patient Importer - bulk patient creation from a streamed NDJSON or CSV body
+ *
+ * Rows are parsed and validated one at a time and collected into chunks of
+ * chunk-size patients. Each chunk is one transaction:
+ * 1. One query for reference IDs that already exist
+ * 2. persist() each new patient - Hibernate groups the inserts into JDBC batches
+ *    (hibernate.jdbc.batch_size, order_inserts)
+ * 3. flush() and clear(), so the persistence context never grows past one chunk
+ * 4. One batched insert of the chunk's PATIENT_CREATED audit rows
+ *
+ * Invalid rows are rejected and reported; they never fail the import.
+ * Imported patients are not put in the second-level cache (PatientCache) - an
+ * onboarding batch would push out the patients actually being looked up.
+ * Committed chunks stay committed if a later chunk fails.
+ *
+ * Sharded, a chunk is split by shard - one transaction per shard's part.
+ */
+@Component
+public class PatientImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientImporter.class);
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    static final List<String> CSV_COLUMNS = List.of(
+            "referenceId", "fullName", "dateOfBirth", "email", "phone", "timezone");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AuditLogger auditLogger;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    @Value("${healthcare.patients.import.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * A malformed CSV record after a chunk has committed stops the import there:
+     * the result reports the patients already imported and rejects the bad line.
+     *
+     * @throws IllegalArgumentException if the body is not in the given format at all
+     *         (CSV header missing a column, unterminated quote before any chunk committed)
+     */
+    public PatientImportResult importPatients(InputStream body, PatientImportFormat format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        ImportRun run = new ImportRun();
+        switch (format) {
+            case NDJSON -> readNdjson(reader, run);
+            case CSV -> readCsv(reader, run);
+        }
+        flush(run);
+        return new PatientImportResult(run.imported, run.rejected, run.errors);
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        ObjectReader patientReader = objectMapper.readerFor(Patient.class);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Patient patient;
+            try {
+                patient = patientReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                // ✅ CORRECT: Parser message may quote the row (PHI) - report the line only
+                run.reject(lineNumber, null, "Malformed JSON");
+                continue;
+            }
+            accept(run, lineNumber, patient);
+        }
+    }
+
+    private void readCsv(Reader reader, ImportRun run) throws IOException {
+        PatientCsvReader csv = new PatientCsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        for (String column : CSV_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("CSV header is missing column " + column);
+            }
+        }
+
+        List<String> record;
+        while ((record = nextRecord(csv, run)) != null) {
+            long lineNumber = csv.recordLine();
+            if (record.size() != header.size()) {
+                run.reject(lineNumber, null, "Expected " + header.size() + " columns, found " + record.size());
+                continue;
+            }
+            Patient patient = new Patient();
+            patient.setReferenceId(blankToNull(record.get(columns.get("referenceId"))));
+            patient.setFullName(blankToNull(record.get(columns.get("fullName"))));
+            patient.setEmail(blankToNull(record.get(columns.get("email"))));
+            patient.setPhone(blankToNull(record.get(columns.get("phone"))));
+            patient.setTimezone(blankToNull(record.get(columns.get("timezone"))));
+            String dateOfBirth = blankToNull(record.get(columns.get("dateOfBirth")));
+            if (dateOfBirth != null) {
+                try {
+                    patient.setDateOfBirth(Instant.parse(dateOfBirth));
+                } catch (DateTimeParseException e) {
+                    run.reject(lineNumber, patient.getReferenceId(), "Invalid fields: dateOfBirth");
+                    continue;
+                }
+            }
+            accept(run, lineNumber, patient);
+        }
+    }
+
+    // Committed chunks cannot be taken back - a 400 would hide them, and a retry
+    // would reject every one of them as "Patient already exists"
+    private static List<String> nextRecord(PatientCsvReader csv, ImportRun run) throws IOException {
+        try {
+            return csv.next();
+        } catch (IllegalArgumentException e) {
+            if (run.imported == 0) {
+                throw e;
+            }
+            run.reject(csv.recordLine(), null, "Unterminated quoted field - rest of the file not read");
+            return null;
+        }
+    }
+
+    private void accept(ImportRun run, long lineNumber, Patient patient) {
+        Set<String> invalid = new TreeSet<>();
+        for (ConstraintViolation<Patient> violation : validator.validate(patient)) {
+            invalid.add(violation.getPropertyPath().toString());
+        }
+        if (!invalid.isEmpty()) {
+            run.reject(lineNumber, patient.getReferenceId(), "Invalid fields: " + String.join(", ", invalid));
+            return;
+        }
+        if (!run.seenReferenceIds.add(patient.getReferenceId())) {
+            run.reject(lineNumber, patient.getReferenceId(), "Duplicate referenceId in import");
+            return;
+        }
+
+        run.pending.add(new PendingRow(lineNumber, patient));
+        if (run.pending.size() >= chunkSize) {
+            flush(run);
+        }
+    }
+
+    private void flush(ImportRun run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        List<PendingRow> chunk = run.pending;
+        run.pending = new ArrayList<>(chunkSize);
+
+        shardRouter.runPerShard(chunk, row -> row.patient().getReferenceId(), rows -> insert(run, rows));
+        logger.debug("Patient import: {} imported, {} rejected so far", run.imported, run.rejected);
+    }
+
+    private void insert(ImportRun run, List<PendingRow> chunk) {
+        List<String> referenceIds = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            referenceIds.add(row.patient().getReferenceId());
+        }
+
+        List<PendingRow> created = new ArrayList<>(chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                Set<String> existing = new HashSet<>(patientRepository.findExistingReferenceIds(referenceIds));
+                List<String> createdRefs = new ArrayList<>(chunk.size());
+                for (PendingRow row : chunk) {
+                    if (existing.contains(row.patient().getReferenceId())) {
+                        run.reject(row.line(), row.patient().getReferenceId(), "Patient already exists");
+                        continue;
+                    }
+                    entityManager.persist(row.patient());
+                    created.add(row);
+                    createdRefs.add(row.patient().getReferenceId());
+                }
+                // Send the batched inserts now and detach them - memory stays flat per chunk
+                entityManager.flush();
+                entityManager.clear();
+                auditLogger.logPatientsCreated(createdRefs);
+            });
+            run.imported += created.size();
+            for (PendingRow row : created) {
+                replicaRouter.wrote(row.patient().getReferenceId());
+            }
+        } catch (DataAccessException | PersistenceException e) {
+            // e.g. a concurrent create of the same referenceId - the whole chunk rolled back
+            logger.warn("Patient import chunk of {} rows rolled back", created.size(), e);
+            for (PendingRow row : created) {
+                run.reject(row.line(), row.patient().getReferenceId(), "Database rejected batch");
+            }
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private record PendingRow(long line, Patient patient) {
+    }
+
+    private final class ImportRun {
+        private List<PendingRow> pending = new ArrayList<>(chunkSize);
+        private final Set<String> seenReferenceIds = new HashSet<>();
+        private final List<PatientImportError> errors = new ArrayList<>();
+        private int imported;
+        private int rejected;
+
+        private void reject(long line, String referenceId, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new PatientImportError(line, referenceId, reason));
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.mccrae.healthcare.patient;
+
+import java.util.Optional;
+
+/**
+ * Lookups by referenceId that go through the natural id cache (PatientCache)
+ *
+ * Implemented in PatientLookupRepositoryImpl, part of PatientRepository.
+ */
+public interface PatientLookupRepository {
+
+    Optional<Patient> findByReferenceId(String referenceId);
+}
@@ -0,0 +1,39 @@
+package com.mccrae.healthcare.patient;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+
+import java.util.Optional;
+
+/**
+ * Natural id load instead of a derived query - a cached referenceId resolves
+ * to the cached entity without a SQL statement or a pooled connection
+ *
+ * Uses the caller's EntityManager when one is bound (transaction, open
+ * session in view); otherwise a short-lived session, so no transaction is
+ * started just to read the cache.
+ */
+class PatientLookupRepositoryImpl implements PatientLookupRepository {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Optional<Patient> findByReferenceId(String referenceId) {
+        EntityManager bound = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (bound != null) {
+            return load(bound.unwrap(Session.class), referenceId);
+        }
+        try (Session session = entityManagerFactory.unwrap(SessionFactory.class).openSession()) {
+            return load(session, referenceId);
+        }
+    }
+
+    private static Optional<Patient> load(Session session, String referenceId) {
+        return session.bySimpleNaturalId(Patient.class).loadOptional(referenceId);
+    }
+}
@@ -0,0 +1,54 @@
+package com.mccrae.healthcare.patient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Patient lookup metrics
+ *
+ * - healthcare.patient.lookup (timer, percentile histogram): tag operation
+ *   (by-reference | summary | page)
+ *
+ * Tagged by operation only - never by reference ID.
+ */
+@Component
+public class PatientMetrics {
+
+    static final String LOOKUP = "healthcare.patient.lookup";
+
+    enum Lookup {
+        BY_REFERENCE("by-reference"),
+        SUMMARY("summary"),
+        PAGE("page");
+
+        private final String tag;
+
+        Lookup(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Lookup, Timer> timers = new EnumMap<>(Lookup.class);
+
+    public PatientMetrics(MeterRegistry registry) {
+        for (Lookup lookup : Lookup.values()) {
+            timers.put(lookup, Timer.builder(LOOKUP)
+                    .description("Patient lookup latency")
+                    .tag("operation", lookup.tag)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    /**
+     * @param startNanos System.nanoTime() when the lookup started
+     */
+    void recordLookup(Lookup lookup, long startNanos) {
+        timers.get(lookup).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
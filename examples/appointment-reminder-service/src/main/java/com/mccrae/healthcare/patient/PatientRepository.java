@@ -1,13 +1,46 @@
 package com.mccrae.healthcare.patient;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, UUID> {
-    Optional<Patient> findByReferenceId(String referenceId);
+public interface PatientRepository extends JpaRepository<Patient, UUID>, PatientLookupRepository {
+    // findByReferenceId - natural id lookup, see PatientLookupRepositoryImpl
+    
+    List<PatientTimezone> findByReferenceIdIn(Collection<String> referenceIds);
+    
+    // Contact columns only - see PatientContact
+    List<PatientContact> findContactsByReferenceIdIn(Collection<String> referenceIds);
+    
+    // Non-PHI columns only - see PatientSummary
+    @Query("SELECT new com.mccrae.healthcare.patient.PatientSummary(p.referenceId, p.timezone, p.createdAt, p.updatedAt) "
+            + "FROM Patient p WHERE p.referenceId = :referenceId")
+    Optional<PatientSummary> findSummaryByReferenceId(@Param("referenceId") String referenceId);
+    
+    // Stored reference ID, read before an update that may change it
+    @Query("SELECT p.referenceId FROM Patient p WHERE p.id = :id")
+    Optional<String> findReferenceIdById(@Param("id") UUID id);
+    
+    @Query("SELECT p.referenceId FROM Patient p WHERE p.referenceId IN :referenceIds")
+    List<String> findExistingReferenceIds(@Param("referenceIds") Collection<String> referenceIds);
+    
+    // Keyset pagination on (createdAt, id) - backed by idx_patients_created_at_id
+    @Query("SELECT p FROM Patient p ORDER BY p.createdAt, p.id")
+    List<Patient> findFirstPage(Limit limit);
+    
+    @Query("SELECT p FROM Patient p WHERE p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id) ORDER BY p.createdAt, p.id")
+    List<Patient> findPageAfter(
+            @Param("createdAt") Instant createdAt,
+            @Param("id") UUID id,
+            Limit limit
+    );
 }
-
@@ -1,14 +1,20 @@
 package com.mccrae.healthcare.patient;
 
 import com.mccrae.healthcare.audit.AuditLogger;
+import com.mccrae.healthcare.replica.ReplicaRouter;
+import com.mccrae.healthcare.sharding.ShardRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Patient Service - demonstrates proper PHI handling
@@ -17,6 +23,12 @@ import java.util.UUID;
  * - Log reference IDs, not patient names
  * - Use audit logger for PHI access
  * - Return Optional for not found cases
+ * 
+ * Sharded, reads and writes go to the patient's shard (ShardRouter); pages
+ * and lookups by id ask every shard.
+ * 
+ * With read replicas, lookups and pages read from a replica (ReplicaRouter);
+ * writes pin the patient's reads to the primary for a short window.
  */
 @Service
 public class PatientService {
@@ -26,14 +38,30 @@ public class PatientService {
     @Autowired
     private PatientRepository patientRepository;
     
+    @Autowired
+    private PatientStreamReader patientStreamReader;
+    
+    @Autowired
+    private PatientImporter patientImporter;
+    
     @Autowired
     private AuditLogger auditLogger;
     
+    @Autowired
+    private PatientMetrics metrics;
+    
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Autowired
+    private ReplicaRouter replicaRouter;
+    
     public Patient createPatient(Patient patient) {
         // ✅ CORRECT: Log reference ID, not patient name
         logger.info("Creating patient {}", patient.getReferenceId());
         
-        Patient saved = patientRepository.save(patient);
+        Patient saved = shardRouter.callForPatient(patient.getReferenceId(), () -> patientRepository.save(patient));
+        replicaRouter.wrote(saved.getReferenceId());
         
         // Audit log the creation
         auditLogger.logPatientCreated(saved.getReferenceId());
@@ -41,11 +69,34 @@ public class PatientService {
         return saved;
     }
     
+    /**
+     * Create many patients from a streamed body (clinic onboarding)
+     * 
+     * Rows are validated as they are read and inserted in JDBC batches with
+     * batched PATIENT_CREATED audit rows - see PatientImporter.
+     * 
+     * @throws IllegalArgumentException if the body is not in the given format
+     */
+    public PatientImportResult importPatients(InputStream body, PatientImportFormat format) throws IOException {
+        // ✅ CORRECT: Counts only, no PHI
+        logger.info("Importing patients ({})", format);
+        long start = System.nanoTime();
+        
+        PatientImportResult result = patientImporter.importPatients(body, format);
+        
+        logger.info("Patient import finished: {} imported, {} rejected in {} ms",
+                result.imported(), result.rejected(), (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+    
     public Optional<Patient> getPatientByReferenceId(String referenceId) {
+        long start = System.nanoTime();
         // ✅ CORRECT: Log reference ID
-        logger.info("Retrieving patient {}", referenceId);
+        logger.debug("Retrieving patient {}", referenceId);
         
-        Optional<Patient> patient = patientRepository.findByReferenceId(referenceId);
+        Optional<Patient> patient = replicaRouter.read(referenceId, () -> shardRouter.callForPatient(referenceId,
+                () -> patientRepository.findByReferenceId(referenceId)));
+        metrics.recordLookup(PatientMetrics.Lookup.BY_REFERENCE, start);
         
         if (patient.isPresent()) {
             // Audit log the access
@@ -55,17 +106,74 @@ public class PatientService {
         return patient;
     }
     
-    public List<Patient> getAllPatients() {
+    /**
+     * Reference ID, timezone and timestamps only - no PHI is loaded
+     * 
+     * Not audited as PATIENT_ACCESSED: nothing returned here identifies
+     * the patient beyond the reference ID the caller already has.
+     */
+    public Optional<PatientSummary> getPatientSummary(String referenceId) {
+        long start = System.nanoTime();
+        // ✅ CORRECT: Log reference ID
+        logger.debug("Retrieving summary for patient {}", referenceId);
+        
+        Optional<PatientSummary> summary = replicaRouter.read(referenceId, () -> shardRouter.callForPatient(referenceId,
+                () -> patientRepository.findSummaryByReferenceId(referenceId)));
+        metrics.recordLookup(PatientMetrics.Lookup.SUMMARY, start);
+        return summary;
+    }
+    
+    /**
+     * One page of patients in (createdAt, id) order
+     * 
+     * @param after cursor from the previous page, null for the first page
+     * @param limit maximum number of patients to return
+     */
+    public List<Patient> getPatientsPage(PatientCursor after, int limit) {
+        long start = System.nanoTime();
+        // ✅ CORRECT: Generic log message, no PHI
+        logger.info("Retrieving page of {} patients", limit);
+        List<Patient> page = replicaRouter.readAny(() -> shardRouter.scatterOrdered(shardLimit -> after == null
+                        ? patientRepository.findFirstPage(Limit.of(shardLimit))
+                        : patientRepository.findPageAfter(after.createdAt(), after.id(), Limit.of(shardLimit)),
+                Patient::getReferenceId, PatientCursor.ORDER, limit));
+        metrics.recordLookup(PatientMetrics.Lookup.PAGE, start);
+        return page;
+    }
+    
+    /**
+     * Stream every patient to the consumer without loading the table into memory
+     * 
+     * @return number of patients streamed
+     */
+    public long streamAllPatients(Consumer<Patient> consumer) {
         // ✅ CORRECT: Generic log message, no PHI
-        logger.info("Retrieving all patients");
-        return patientRepository.findAll();
+        logger.info("Streaming all patients");
+        long count = patientStreamReader.forEach(consumer);
+        logger.info("Streamed {} patients", count);
+        return count;
     }
     
+    /**
+     * @throws IllegalArgumentException if sharded and the update changes the patient's
+     *         reference ID to one owned by another shard
+     */
     public Patient updatePatient(Patient patient) {
         // ✅ CORRECT: Log reference ID
         logger.info("Updating patient {}", patient.getReferenceId());
         
-        Patient updated = patientRepository.save(patient);
+        Patient updated = shardRouter.callForPatient(patient.getReferenceId(), () -> {
+            Optional<String> previousReferenceId = patientRepository.findReferenceIdById(patient.getId());
+            if (shardRouter.isSharded() && previousReferenceId.isEmpty()
+                    && shardRouter.scatterFirst(() -> patientRepository.findById(patient.getId()), null).isPresent()) {
+                throw new IllegalArgumentException("Reference ID change would move the patient to another shard");
+            }
+            Patient saved = patientRepository.save(patient);
+            // A changed reference ID: reads by the old one must not see the pre-update row either
+            previousReferenceId.ifPresent(replicaRouter::wrote);
+            return saved;
+        });
+        replicaRouter.wrote(updated.getReferenceId());
         
         // Audit log the update
         auditLogger.logPatientUpdated(updated.getReferenceId());
@@ -74,15 +182,18 @@ public class PatientService {
     }
     
     public void deletePatient(UUID id) {
-        Optional<Patient> patient = patientRepository.findById(id);
+        Optional<Patient> patient = shardRouter.scatterFirst(() -> patientRepository.findById(id),
+                Patient::getReferenceId);
         if (patient.isPresent()) {
+            String referenceId = patient.get().getReferenceId();
             // ✅ CORRECT: Log reference ID
-            logger.info("Deleting patient {}", patient.get().getReferenceId());
+            logger.info("Deleting patient {}", referenceId);
             
             // Audit log the deletion
-            auditLogger.logPatientDeleted(patient.get().getReferenceId());
+            auditLogger.logPatientDeleted(referenceId);
             
-            patientRepository.deleteById(id);
+            shardRouter.runForPatient(referenceId, () -> patientRepository.deleteById(id));
+            replicaRouter.wrote(referenceId);
         }
     }
 }
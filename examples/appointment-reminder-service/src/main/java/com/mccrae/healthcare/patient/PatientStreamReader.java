@@ -0,0 +1,90 @@
+package com.mccrae.healthcare.patient;
+
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Patient Stream Reader - forward-only JDBC scan of the patients table
+ * 
+ * Rows are handed to the consumer one at a time as the driver fetches them
+ * (fetch-size rows per round trip), so memory stays flat regardless of table size.
+ * Entities are built directly from the ResultSet and never enter a persistence context.
+ * 
+ * Sharded, the shards are read one after another - rows are in (createdAt, id)
+ * order within each shard, not across them.
+ */
+@Repository
+public class PatientStreamReader {
+    
+    private static final String SELECT_ALL_SQL =
+            "SELECT id, reference_id, full_name, date_of_birth, email, phone, timezone, created_at, updated_at "
+                    + "FROM patients ORDER BY created_at, id";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Value("${healthcare.patients.stream.fetch-size:500}")
+    private int fetchSize;
+    
+    /**
+     * @return number of rows streamed
+     */
+    public long forEach(Consumer<Patient> consumer) {
+        // Read-only transaction: some drivers (PostgreSQL) only honour fetch size with autocommit off
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        
+        long[] count = {0};
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int current = shard;
+            shardRouter.runOnShard(shard, () -> readOnly.executeWithoutResult(status -> jdbcTemplate.query(
+                    connection -> {
+                        PreparedStatement ps = connection.prepareStatement(
+                                SELECT_ALL_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        ps.setFetchSize(fetchSize);
+                        return ps;
+                    },
+                    rs -> {
+                        Patient patient = mapRow(rs);
+                        // Skip copies left on this shard by an interrupted bucket move
+                        if (shardRouter.owns(current, patient.getReferenceId())) {
+                            consumer.accept(patient);
+                            count[0]++;
+                        }
+                    })));
+        }
+        return count[0];
+    }
+    
+    private static Patient mapRow(ResultSet rs) throws SQLException {
+        Patient patient = new Patient();
+        patient.setId(rs.getObject("id", UUID.class));
+        patient.setReferenceId(rs.getString("reference_id"));
+        patient.setFullName(rs.getString("full_name"));
+        patient.setDateOfBirth(rs.getObject("date_of_birth", OffsetDateTime.class).toInstant());
+        patient.setEmail(rs.getString("email"));
+        patient.setPhone(rs.getString("phone"));
+        patient.setTimezone(rs.getString("timezone"));
+        patient.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class).toInstant());
+        patient.setUpdatedAt(rs.getObject("updated_at", OffsetDateTime.class).toInstant());
+        return patient;
+    }
+}
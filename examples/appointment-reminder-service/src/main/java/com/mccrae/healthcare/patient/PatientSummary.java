@@ -0,0 +1,18 @@
+package com.mccrae.healthcare.patient;
+
+import java.time.Instant;
+
+/**
+ * Non-PHI view of a patient for GET /api/patients/{ref}/summary
+ * 
+ * Built by a JPQL constructor expression, so only these columns are read -
+ * fullName, dateOfBirth, email and phone never leave the database and no
+ * managed entity is created (nothing to dirty-check).
+ */
+public record PatientSummary(
+        String referenceId,
+        String timezone,
+        Instant createdAt,
+        Instant updatedAt
+) {
+}
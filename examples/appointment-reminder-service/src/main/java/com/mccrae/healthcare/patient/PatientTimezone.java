@@ -0,0 +1,11 @@
+package com.mccrae.healthcare.patient;
+
+/**
+ * Projection of Patient with only the columns needed to schedule and render
+ * reminders - no PHI is loaded
+ */
+public interface PatientTimezone {
+    String getReferenceId();
+    
+    String getTimezone();
+}
@@ -0,0 +1,35 @@
+package com.mccrae.healthcare.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * One DataSource over the primary and its read replicas - a connection comes from the replica bound by ReplicaRouter
+ *
+ * Unbound (every write, and reads ReplicaRouter keeps on the primary) gets
+ * the primary. The target is picked when a connection is obtained, so a
+ * transaction already running keeps its connection whatever is bound later.
+ */
+class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // null -> default target (the primary)
+        return ReplicaContext.current();
+    }
+
+    /**
+     * Close the primary's and every replica's pool (destroy method of the bean)
+     */
+    public void close() throws Exception {
+        for (DataSource target : getResolvedDataSources().values()) {
+            if (target instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (getResolvedDefaultDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.mccrae.healthcare.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Primary + read replica datasource wiring (healthcare.replicas.enabled=true)
+ *
+ * The primary is spring.datasource; each healthcare.replicas.urls entry gets a
+ * read-only Hikari pool with the same credentials, behind a
+ * ReadWriteRoutingDataSource.
+ *
+ * Hibernate must take a connection per transaction, not per session: with
+ * open-in-view the request's EntityManager would otherwise keep the replica
+ * connection of its first read, and a later write in the same request (e.g. a
+ * synchronous audit insert) would join it and run on the replica.
+ *
+ * Note: Not combined with healthcare.sharding - both replace the datasource.
+ */
+@Configuration
+@ConditionalOnProperty(name = "healthcare.replicas.enabled", havingValue = "true")
+public class ReplicaConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaConfiguration.class);
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties,
+                                 @Value("${healthcare.replicas.urls}") List<String> urls,
+                                 @Value("${healthcare.sharding.enabled:false}") boolean sharded) {
+        if (sharded) {
+            throw new IllegalStateException("healthcare.replicas and healthcare.sharding cannot both be enabled");
+        }
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+
+        Map<Object, Object> replicas = new HashMap<>();
+        for (int replica = 0; replica < urls.size(); replica++) {
+            HikariDataSource pool = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(replica))
+                    .build();
+            pool.setPoolName("replica-" + replica);
+            pool.setReadOnly(true);
+            replicas.put(replica, pool);
+        }
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(replicas);
+        routing.setDefaultTargetDataSource(primary);
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        // ✅ CORRECT: Log replica count only - URLs may carry credentials
+        logger.info("Read/write datasource: primary + {} replicas", urls.size());
+        return routing;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer replicaHibernateProperties() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+}
@@ -0,0 +1,38 @@
+package com.mccrae.healthcare.replica;
+
+/**
+ * The replica the current thread's reads go to (read by ReadWriteRoutingDataSource)
+ *
+ * Bound only through ReplicaRouter; unbound means the primary.
+ */
+final class ReplicaContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ReplicaContext() {
+    }
+
+    /**
+     * @return the bound replica, null for the primary
+     */
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return the previous binding, for restore()
+     */
+    static Integer bind(int replica) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(replica);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.mccrae.healthcare.replica;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Replica lag and read routing (healthcare.replicas.enabled=true)
+ */
+@RestController
+@RequestMapping("/api/replicas")
+@ConditionalOnProperty(name = "healthcare.replicas.enabled", havingValue = "true")
+public class ReplicaController {
+
+    @Autowired
+    private ReplicaRouter router;
+
+    @GetMapping
+    public ReplicaStats stats() {
+        return router.stats();
+    }
+}
@@ -0,0 +1,28 @@
+package com.mccrae.healthcare.replica;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Single-row replication heartbeat
+ *
+ * ReplicaLagMonitor writes the current time on the primary and reads it back
+ * from each replica - the difference is the replica's lag. Never read or
+ * written through JPA - the entity only defines the table.
+ */
+@Entity
+@Table(name = "replica_heartbeat")
+class ReplicaHeartbeat {
+
+    static final int ROW_ID = 1;
+
+    @Id
+    private int id;
+
+    @Column(nullable = false)
+    private Instant beatAt; // Always UTC
+}
@@ -0,0 +1,107 @@
+package com.mccrae.healthcare.replica;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Replica Lag Monitor - measures how far each read replica is behind the primary
+ *
+ * Every lag-check-interval-ms:
+ * 1. Write the current time to replica_heartbeat on the primary
+ * 2. Read the row back from each replica - lag = written time - replica's time
+ *
+ * A replica that cannot be read is unusable until it answers again. The lag is
+ * measured once per interval, so max-lag should leave room for it to grow
+ * between checks.
+ */
+@Component
+@ConditionalOnProperty(name = "healthcare.replicas.enabled", havingValue = "true")
+public class ReplicaLagMonitor implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String READ_SQL = "SELECT beat_at FROM replica_heartbeat WHERE id = ?";
+
+    @Autowired
+    private ReplicaRouter router;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Scheduled(fixedDelayString = "${healthcare.replicas.lag-check-interval-ms:250}")
+    public void checkLag() {
+        Instant beat = Instant.now();
+        try {
+            // Unbound - the primary
+            OffsetDateTime beatAt = beat.atOffset(ZoneOffset.UTC);
+            if (jdbcTemplate.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = ?",
+                    beatAt, ReplicaHeartbeat.ROW_ID) == 0) {
+                jdbcTemplate.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (?, ?)",
+                        ReplicaHeartbeat.ROW_ID, beatAt);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Replica heartbeat write failed on the primary", e);
+            return;
+        }
+
+        for (int replica = 0; replica < router.replicaCount(); replica++) {
+            try {
+                OffsetDateTime seen = router.onReplica(replica, () -> jdbcTemplate.queryForObject(
+                        READ_SQL, OffsetDateTime.class, ReplicaHeartbeat.ROW_ID));
+                if (seen == null) {
+                    router.markUnusable(replica);
+                    continue;
+                }
+                Duration lag = Duration.between(seen.toInstant(), beat);
+                router.updateLag(replica, lag.isNegative() ? Duration.ZERO : lag);
+            } catch (DataAccessException e) {
+                // Heartbeat row not replicated yet, or the replica is down
+                logger.debug("Replica {} lag check failed", replica, e);
+                router.markUnusable(replica);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int replica = 0; replica < router.replicaCount(); replica++) {
+            int index = replica;
+            Gauge.builder("healthcare.replicas.lag", router, r -> {
+                        long millis = r.lagMillis().get(index);
+                        return millis < 0 ? Double.NaN : millis / 1000.0;
+                    })
+                    .description("Replication lag of the read replica (NaN while unusable)")
+                    .baseUnit("seconds")
+                    .tags(Tags.of("replica", String.valueOf(replica)))
+                    .register(registry);
+        }
+        FunctionCounter.builder("healthcare.replicas.reads", router, ReplicaRouter::replicaReads)
+                .description("Reads by target")
+                .tags(Tags.of("target", "replica"))
+                .register(registry);
+        FunctionCounter.builder("healthcare.replicas.reads", router, ReplicaRouter::primaryReads)
+                .description("Reads by target")
+                .tags(Tags.of("target", "primary"))
+                .register(registry);
+        FunctionCounter.builder("healthcare.replicas.reads", router, ReplicaRouter::pinnedReads)
+                .description("Reads by target")
+                .tags(Tags.of("target", "pinned"))
+                .register(registry);
+    }
+}
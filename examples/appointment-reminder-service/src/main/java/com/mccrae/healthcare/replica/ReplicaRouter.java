@@ -0,0 +1,280 @@
+package com.mccrae.healthcare.replica;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Replica Router - sends reads to a read replica unless they could miss a recent write
+ *
+ * Writes always go to the primary. A read runs on a replica only if:
+ * - no transaction is active (a running transaction keeps the primary connection)
+ * - a replica's measured lag is below max-lag (ReplicaLagMonitor; unmeasured = unusable)
+ * - the patient is not pinned: every write for a patient pins its reads to the
+ *   primary for read-your-writes-window (at least the worst lag seen), so a
+ *   revoked consent is never read back as valid from a replica that has not
+ *   applied the revoke yet
+ *
+ * Pins are per patient, not per client session - any caller reading a patient
+ * just written gets the primary, including the consent decision cache reloading
+ * after an invalidation. They are in-process: several instances need
+ * patient-sticky routing, or replicas disabled.
+ *
+ * Disabled (the default) every method just runs the work inline.
+ */
+@Component
+public class ReplicaRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    private static final long UNUSABLE = -1;
+
+    // Expired pins are dropped once the map grows past this
+    private static final int PIN_SWEEP_SIZE = 10_000;
+
+    private final int replicaCount;
+    private final long maxLagNanos;
+    private final long pinWindowNanos;
+
+    // Last measured lag per replica, UNUSABLE while down or not measured yet
+    private final AtomicLongArray lagNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private volatile long worstLagNanos;
+
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder pinnedReads = new LongAdder();
+
+    /**
+     * No replicas - everything runs on the primary
+     */
+    public ReplicaRouter() {
+        this(0, Duration.ZERO, Duration.ZERO);
+    }
+
+    @Autowired
+    public ReplicaRouter(@Value("${healthcare.replicas.enabled:false}") boolean enabled,
+                         @Value("${healthcare.replicas.urls:}") List<String> urls,
+                         @Value("${healthcare.replicas.max-lag:1s}") Duration maxLag,
+                         @Value("${healthcare.replicas.read-your-writes-window:5s}") Duration pinWindow) {
+        this(replicaCount(enabled, urls), maxLag, pinWindow);
+        if (replicaCount > 0) {
+            logger.info("Read replicas enabled: {} replicas, max lag {}, read-your-writes window {}",
+                    replicaCount, maxLag, pinWindow);
+        }
+    }
+
+    ReplicaRouter(int replicaCount, Duration maxLag, Duration pinWindow) {
+        this.replicaCount = replicaCount;
+        this.maxLagNanos = maxLag.toNanos();
+        this.pinWindowNanos = pinWindow.toNanos();
+        this.lagNanos = new AtomicLongArray(replicaCount);
+        for (int i = 0; i < replicaCount; i++) {
+            lagNanos.set(i, UNUSABLE);
+        }
+    }
+
+    private static int replicaCount(boolean enabled, List<String> urls) {
+        if (!enabled) {
+            return 0;
+        }
+        if (urls == null || urls.isEmpty()) {
+            throw new IllegalStateException("healthcare.replicas.enabled=true needs healthcare.replicas.urls");
+        }
+        return urls.size();
+    }
+
+    public int replicaCount() {
+        return replicaCount;
+    }
+
+    public boolean isEnabled() {
+        return replicaCount > 0;
+    }
+
+    /**
+     * Read one patient's data - on a replica unless the patient was written within the window
+     */
+    public <T> T read(String patientRef, Supplier<T> work) {
+        if (replicaCount == 0) {
+            return work.get();
+        }
+        if (isPinned(patientRef)) {
+            pinnedReads.increment();
+            return work.get();
+        }
+        return readAny(work);
+    }
+
+    /**
+     * Read several patients' data - on the primary if any of them is pinned
+     */
+    public <T> T readAll(Collection<String> patientRefs, Supplier<T> work) {
+        if (replicaCount == 0) {
+            return work.get();
+        }
+        for (String patientRef : patientRefs) {
+            if (isPinned(patientRef)) {
+                pinnedReads.increment();
+                return work.get();
+            }
+        }
+        return readAny(work);
+    }
+
+    /**
+     * Read not tied to recent writes (cross-patient pages, audit reports) - any usable replica
+     */
+    public <T> T readAny(Supplier<T> work) {
+        if (replicaCount == 0) {
+            return work.get();
+        }
+        int replica = TransactionSynchronizationManager.isActualTransactionActive() ? -1 : pickReplica();
+        if (replica < 0) {
+            primaryReads.increment();
+            return work.get();
+        }
+        replicaReads.increment();
+        return onReplica(replica, work);
+    }
+
+    /**
+     * Record a committed write for the patient - pins the patient's reads to the primary
+     */
+    public void wrote(String patientRef) {
+        if (replicaCount == 0 || patientRef == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        pinnedUntil.put(patientRef, now + Math.max(pinWindowNanos, worstLagNanos));
+        if (pinnedUntil.size() > PIN_SWEEP_SIZE) {
+            pinnedUntil.values().removeIf(until -> until - now < 0);
+        }
+    }
+
+    public void wroteAll(Collection<String> patientRefs) {
+        patientRefs.forEach(this::wrote);
+    }
+
+    private boolean isPinned(String patientRef) {
+        Long until = patientRef == null ? null : pinnedUntil.get(patientRef);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        pinnedUntil.remove(patientRef, until);
+        return false;
+    }
+
+    // Round robin over replicas within max-lag; -1 if none
+    private int pickReplica() {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicaCount);
+        for (int i = 0; i < replicaCount; i++) {
+            int replica = (start + i) % replicaCount;
+            long lag = lagNanos.get(replica);
+            if (lag != UNUSABLE && lag <= maxLagNanos) {
+                return replica;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Run work with the replica's connections (lag checks - no usability check)
+     */
+    <T> T onReplica(int replica, Supplier<T> work) {
+        Integer previous = ReplicaContext.bind(replica);
+        try {
+            return work.get();
+        } finally {
+            ReplicaContext.restore(previous);
+        }
+    }
+
+    /**
+     * Record a measured lag (ReplicaLagMonitor)
+     */
+    void updateLag(int replica, Duration lag) {
+        long nanos = lag.toNanos();
+        long previous = lagNanos.getAndSet(replica, nanos);
+        if (nanos > maxLagNanos && (previous == UNUSABLE || previous <= maxLagNanos)) {
+            logger.warn("Replica {} lag {} ms exceeds max lag - reads go to the primary",
+                    replica, lag.toMillis());
+        } else if (nanos <= maxLagNanos && (previous == UNUSABLE || previous > maxLagNanos)) {
+            logger.info("Replica {} usable (lag {} ms)", replica, lag.toMillis());
+        }
+        updateWorstLag();
+    }
+
+    void markUnusable(int replica) {
+        if (lagNanos.getAndSet(replica, UNUSABLE) != UNUSABLE) {
+            logger.warn("Replica {} unreachable - reads go to the primary", replica);
+        }
+        updateWorstLag();
+    }
+
+    // Pins outlast the worst lag of any replica still serving reads
+    private void updateWorstLag() {
+        long worst = 0;
+        for (int i = 0; i < replicaCount; i++) {
+            long lag = lagNanos.get(i);
+            if (lag != UNUSABLE && lag <= maxLagNanos) {
+                worst = Math.max(worst, lag);
+            }
+        }
+        worstLagNanos = worst;
+    }
+
+    /**
+     * @return last measured lag per replica in milliseconds, -1 if unusable
+     */
+    public List<Long> lagMillis() {
+        List<Long> lags = new ArrayList<>(replicaCount);
+        for (int i = 0; i < replicaCount; i++) {
+            long lag = lagNanos.get(i);
+            lags.add(lag == UNUSABLE ? -1 : Duration.ofNanos(lag).toMillis());
+        }
+        return lags;
+    }
+
+    public ReplicaStats stats() {
+        return new ReplicaStats(
+                replicaCount,
+                lagMillis(),
+                Duration.ofNanos(maxLagNanos).toMillis(),
+                primaryReads.sum(),
+                replicaReads.sum(),
+                pinnedReads.sum(),
+                pinnedUntil.size()
+        );
+    }
+
+    public long primaryReads() {
+        return primaryReads.sum();
+    }
+
+    public long replicaReads() {
+        return replicaReads.sum();
+    }
+
+    public long pinnedReads() {
+        return pinnedReads.sum();
+    }
+}
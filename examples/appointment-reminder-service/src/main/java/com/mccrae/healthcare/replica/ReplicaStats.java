@@ -0,0 +1,17 @@
+package com.mccrae.healthcare.replica;
+
+import java.util.List;
+
+/**
+ * Replica lag and read routing counters
+ *
+ * @param lagMillis per replica, -1 while it is unreachable or not measured yet
+ */
+public record ReplicaStats(int replicas,
+                           List<Long> lagMillis,
+                           long maxLagMillis,
+                           long primaryReads,
+                           long replicaReads,
+                           long pinnedReads,
+                           int pinnedPatients) {
+}
@@ -0,0 +1,40 @@
+package com.mccrae.healthcare.sharding;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Which shard owns a hash bucket - the persisted bucket map (home shard only)
+ * 
+ * Read and written by ShardRebalancer with JDBC; mapped here for the schema.
+ */
+@Entity
+@Table(name = "shard_buckets")
+public class ShardBucket {
+    
+    @Id
+    private int bucket;
+    
+    @Column(nullable = false)
+    private int shard;
+    
+    // Constructors
+    protected ShardBucket() {
+    }
+    
+    public ShardBucket(int bucket, int shard) {
+        this.bucket = bucket;
+        this.shard = shard;
+    }
+    
+    // Getters
+    public int getBucket() {
+        return bucket;
+    }
+    
+    public int getShard() {
+        return shard;
+    }
+}
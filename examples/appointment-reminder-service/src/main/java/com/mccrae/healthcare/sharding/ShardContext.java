@@ -0,0 +1,36 @@
+package com.mccrae.healthcare.sharding;
+
+/**
+ * The shard the current thread's database work goes to (read by ShardRoutingDataSource)
+ *
+ * Bound only through ShardRouter; unbound means the home shard.
+ */
+final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? ShardRouter.HOME_SHARD : shard;
+    }
+
+    /**
+     * @return the previous binding, for restore()
+     */
+    static Integer bind(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.mccrae.healthcare.sharding;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Shard layout and resharding (healthcare.sharding.enabled=true)
+ */
+@RestController
+@RequestMapping("/api/shards")
+@ConditionalOnProperty(name = "healthcare.sharding.enabled", havingValue = "true")
+public class ShardController {
+
+    @Autowired
+    private ShardRebalancer rebalancer;
+
+    @GetMapping
+    public ShardStats stats() {
+        return rebalancer.stats();
+    }
+
+    /**
+     * Spread buckets evenly over the configured shards - call after adding a shard
+     */
+    @PostMapping("/rebalance")
+    public List<ShardMove> rebalance() {
+        return rebalancer.rebalance();
+    }
+
+    @PostMapping("/buckets/{bucket}/move")
+    public ResponseEntity<ShardMove> moveBucket(@PathVariable int bucket, @RequestParam int to) {
+        try {
+            return ResponseEntity.ok(rebalancer.moveBucket(bucket, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.mccrae.healthcare.sharding;
+
+/**
+ * Shard Key - maps a patient reference ID to one of BUCKETS fixed hash buckets
+ *
+ * Rows of patient-scoped tables (patients, consents, audit_logs) store their
+ * bucket in a shard_bucket column; shards own buckets, not patients (see
+ * ShardRouter). The bucket count and hash are part of the stored data and must
+ * never change - resharding moves whole buckets between shards instead.
+ */
+public final class ShardKey {
+
+    public static final int BUCKETS = 1024;
+
+    private ShardKey() {
+    }
+
+    /**
+     * @return 0..BUCKETS-1; null (no patient) maps to bucket 0
+     */
+    public static int bucketOf(String patientRef) {
+        if (patientRef == null) {
+            return 0;
+        }
+        // String.hashCode is fixed by the Java spec; the murmur3 finalizer spreads its bits
+        int hash = patientRef.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash & (BUCKETS - 1);
+    }
+}
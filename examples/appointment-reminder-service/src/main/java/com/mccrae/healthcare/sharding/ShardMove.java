@@ -0,0 +1,7 @@
+package com.mccrae.healthcare.sharding;
+
+/**
+ * One completed bucket move
+ */
+public record ShardMove(int bucket, int fromShard, int toShard, long rowsCopied, long millis) {
+}
@@ -0,0 +1,19 @@
+package com.mccrae.healthcare.sharding;
+
+import java.time.Duration;
+
+/**
+ * Bean told before a bucket switches shards during resharding
+ * 
+ * Called after the bucket's rows are copied to the new shard and before reads
+ * and writes switch to it, while routed work on the bucket is blocked. Use it
+ * to finish reading shard-local state for the bucket on the old shard (e.g.
+ * consent changes not yet delivered).
+ */
+public interface ShardMoveListener {
+    
+    /**
+     * @throws RuntimeException to abort the move - the bucket stays where it was
+     */
+    void beforeSwitch(int bucket, int fromShard, int toShard, Duration timeout);
+}
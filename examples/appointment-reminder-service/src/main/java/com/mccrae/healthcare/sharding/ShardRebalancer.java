@@ -0,0 +1,332 @@
+package com.mccrae.healthcare.sharding;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSetMetaData;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shard Rebalancer - shard schemas, the persisted bucket map, and online bucket moves
+ *
+ * On start the other shards get the home shard's schema action, and the bucket
+ * map is loaded from shard_buckets (first start: bucket % shards).
+ *
+ * Adding a shard: append its URL to healthcare.sharding.urls, restart, and
+ * call rebalance() (POST /api/shards/rebalance). Buckets then move one at a time
+ * while the service keeps running:
+ * 1. Copy the bucket's patients, consents and audit rows to the new shard in
+ *    copy-batch-size pages (routed work on the bucket is blocked meanwhile)
+ * 2. Tell ShardMoveListeners, then switch the bucket in shard_buckets and the router
+ * 3. Delete the bucket's rows from the old shard
+ *
+ * A move interrupted before step 2 leaves only unowned copies on the new shard
+ * (scatter queries filter them out; the next move of the bucket replaces them).
+ * One interrupted in step 3 leaves unowned rows on the old shard - same.
+ */
+@Component
+@ConditionalOnProperty(name = "healthcare.sharding.enabled", havingValue = "true")
+public class ShardRebalancer implements SmartLifecycle, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    // Every patient-scoped table carries shard_bucket; ids are UUIDs
+    static final List<String> SHARDED_TABLES = List.of("patients", "consents", "audit_logs");
+
+    private static final UUID MIN_ID = new UUID(0, 0);
+
+    @Autowired
+    private ShardRouter router;
+
+    @Autowired
+    private ShardSchemas schemas;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Looked up per move, not injected as a list - that would start the listeners' lifecycles before this one
+    @Autowired
+    private ObjectProvider<ShardMoveListener> moveListeners;
+
+    @Value("${healthcare.sharding.copy-batch-size:1000}")
+    private int copyBatchSize;
+
+    @Value("${healthcare.sharding.move-timeout:30s}")
+    private Duration moveTimeout;
+
+    // One move at a time - keeps copy load on the shards bounded
+    private final ReentrantLock moveLock = new ReentrantLock();
+
+    private final AtomicLong bucketsMoved = new AtomicLong();
+    private final AtomicLong rowsMoved = new AtomicLong();
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        for (int shard = 1; shard < router.shardCount(); shard++) {
+            router.runOnShard(shard, schemas::apply);
+        }
+        loadBucketMap();
+        running = true;
+        logger.info("Shards ready: {} shards, buckets per shard {}", router.shardCount(), bucketsPerShard());
+    }
+
+    private void loadBucketMap() {
+        int shardCount = router.shardCount();
+        int[] shards = new int[ShardKey.BUCKETS];
+        Arrays.fill(shards, -1);
+        jdbcTemplate.query("SELECT bucket, shard FROM shard_buckets", rs -> {
+            shards[rs.getInt(1)] = rs.getInt(2);
+        });
+
+        List<Object[]> missing = new ArrayList<>();
+        for (int bucket = 0; bucket < shards.length; bucket++) {
+            if (shards[bucket] >= shardCount) {
+                throw new IllegalStateException("Bucket " + bucket + " is on shard " + shards[bucket]
+                        + " but only " + shardCount + " shards are configured");
+            }
+            if (shards[bucket] < 0) {
+                shards[bucket] = bucket % shardCount;
+                missing.add(new Object[]{bucket, shards[bucket]});
+            }
+        }
+        if (!missing.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate("INSERT INTO shard_buckets (bucket, shard) VALUES (?, ?)", missing));
+            logger.info("Initialized {} shard bucket assignments", missing.size());
+        }
+        router.assignAll(shards);
+    }
+
+    /**
+     * Move one bucket to another shard
+     *
+     * @throws IllegalArgumentException if the bucket or shard does not exist
+     */
+    public ShardMove moveBucket(int bucket, int toShard) {
+        if (bucket < 0 || bucket >= ShardKey.BUCKETS) {
+            throw new IllegalArgumentException("No bucket " + bucket);
+        }
+        if (toShard < 0 || toShard >= router.shardCount()) {
+            throw new IllegalArgumentException("No shard " + toShard);
+        }
+        moveLock.lock();
+        try {
+            long start = System.nanoTime();
+            Lock bucketLock = router.bucketMoveLock(bucket);
+            bucketLock.lock();
+            try {
+                int fromShard = router.shardOfBucket(bucket);
+                if (fromShard == toShard) {
+                    return new ShardMove(bucket, fromShard, toShard, 0, 0);
+                }
+                // Copies left by an interrupted earlier move would collide with the new ones
+                deleteBucket(toShard, bucket);
+                long copied = 0;
+                for (String table : SHARDED_TABLES) {
+                    copied += copyBucket(table, bucket, fromShard, toShard);
+                }
+                moveListeners.orderedStream()
+                        .forEach(listener -> listener.beforeSwitch(bucket, fromShard, toShard, moveTimeout));
+
+                jdbcTemplate.update("UPDATE shard_buckets SET shard = ? WHERE bucket = ?", toShard, bucket);
+                router.assign(bucket, toShard);
+                deleteBucket(fromShard, bucket);
+
+                bucketsMoved.incrementAndGet();
+                rowsMoved.addAndGet(copied);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                logger.info("Moved bucket {} from shard {} to shard {}: {} rows in {} ms",
+                        bucket, fromShard, toShard, copied, millis);
+                return new ShardMove(bucket, fromShard, toShard, copied, millis);
+            } finally {
+                bucketLock.unlock();
+            }
+        } finally {
+            moveLock.unlock();
+        }
+    }
+
+    /**
+     * Move buckets until every shard owns an equal share (at most one apart)
+     *
+     * @return the moves made, in order
+     */
+    public List<ShardMove> rebalance() {
+        int shardCount = router.shardCount();
+        int[] shards = router.bucketShards();
+        List<Deque<Integer>> owned = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            owned.add(new ArrayDeque<>());
+        }
+        for (int bucket = 0; bucket < shards.length; bucket++) {
+            owned.get(shards[bucket]).add(bucket);
+        }
+
+        Deque<Integer> surplus = new ArrayDeque<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            while (owned.get(shard).size() > target(shard, shardCount)) {
+                surplus.add(owned.get(shard).pollLast());
+            }
+        }
+        List<ShardMove> moves = new ArrayList<>(surplus.size());
+        for (int shard = 0; shard < shardCount; shard++) {
+            int needed = target(shard, shardCount) - owned.get(shard).size();
+            for (int i = 0; i < needed; i++) {
+                moves.add(moveBucket(surplus.poll(), shard));
+            }
+        }
+        logger.info("Rebalance finished: {} buckets moved, buckets per shard {}", moves.size(), bucketsPerShard());
+        return moves;
+    }
+
+    private static int target(int shard, int shardCount) {
+        return ShardKey.BUCKETS / shardCount + (shard < ShardKey.BUCKETS % shardCount ? 1 : 0);
+    }
+
+    private long copyBucket(String table, int bucket, int fromShard, int toShard) {
+        String select = "SELECT * FROM " + table + " WHERE shard_bucket = ? AND id > ? ORDER BY id LIMIT ?";
+        long copied = 0;
+        UUID after = MIN_ID;
+        while (true) {
+            UUID lastId = after;
+            Page page = router.callOnShard(fromShard, () -> jdbcTemplate.query(select, rs -> {
+                ResultSetMetaData meta = rs.getMetaData();
+                Page rows = new Page(meta.getColumnCount());
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    rows.columns[i - 1] = meta.getColumnLabel(i);
+                }
+                while (rs.next()) {
+                    Object[] row = new Object[rows.columns.length];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = rs.getObject(i + 1);
+                    }
+                    rows.rows.add(row);
+                }
+                return rows;
+            }, bucket, lastId, copyBatchSize));
+            if (page.rows.isEmpty()) {
+                return copied;
+            }
+            String insert = "INSERT INTO " + table + " (" + String.join(", ", page.columns) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(page.columns.length, "?")) + ")";
+            router.runOnShard(toShard, () -> transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(insert, page.rows)));
+            copied += page.rows.size();
+            after = (UUID) page.rows.get(page.rows.size() - 1)[page.idColumn()];
+        }
+    }
+
+    private void deleteBucket(int shard, int bucket) {
+        for (String table : SHARDED_TABLES) {
+            // Chunked - one bucket of audit rows can be large
+            String delete = "DELETE FROM " + table + " WHERE id IN (SELECT id FROM " + table
+                    + " WHERE shard_bucket = ? LIMIT ?)";
+            router.runOnShard(shard, () -> {
+                int deleted;
+                do {
+                    deleted = jdbcTemplate.update(delete, bucket, copyBatchSize);
+                } while (deleted > 0);
+            });
+        }
+    }
+
+    public ShardStats stats() {
+        return new ShardStats(
+                router.shardCount(),
+                bucketsPerShard(),
+                bucketsMoved.get(),
+                rowsMoved.get(),
+                router.routedCalls(),
+                router.scatterQueries(),
+                router.strayRowsFiltered()
+        );
+    }
+
+    private List<Integer> bucketsPerShard() {
+        Integer[] counts = new Integer[router.shardCount()];
+        Arrays.fill(counts, 0);
+        for (int shard : router.bucketShards()) {
+            counts[shard]++;
+        }
+        return List.of(counts);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            int index = shard;
+            Gauge.builder("healthcare.sharding.buckets", this, rebalancer -> rebalancer.bucketsPerShard().get(index))
+                    .description("Hash buckets owned by the shard")
+                    .tags(Tags.of("shard", String.valueOf(shard)))
+                    .register(registry);
+        }
+        FunctionCounter.builder("healthcare.sharding.scatter.queries", router, ShardRouter::scatterQueries)
+                .description("Queries run on every shard")
+                .register(registry);
+        FunctionCounter.builder("healthcare.sharding.rows.moved", rowsMoved, AtomicLong::get)
+                .description("Rows copied to another shard by bucket moves")
+                .register(registry);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Before the audit pipeline (0) replays its journal - writes need the bucket map and shard schemas
+    @Override
+    public int getPhase() {
+        return -10;
+    }
+
+    private static final class Page {
+        private final String[] columns;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        private Page(int columnCount) {
+            this.columns = new String[columnCount];
+        }
+
+        private int idColumn() {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].equalsIgnoreCase("id")) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("No id column");
+        }
+    }
+}
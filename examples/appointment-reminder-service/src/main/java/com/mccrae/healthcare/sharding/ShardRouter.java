@@ -0,0 +1,423 @@
+package com.mccrae.healthcare.sharding;
+
+import com.mccrae.healthcare.concurrent.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Shard Router - sends patient-scoped database work to the shard that owns the patient
+ *
+ * Every table row belongs to one patient, so the patient reference ID is the
+ * shard key: ShardKey hashes it to one of 1024 buckets and each bucket is
+ * owned by one shard (healthcare.sharding.urls, one datasource each). Work is
+ * run with its shard bound to the thread; ShardRoutingDataSource hands out
+ * that shard's connections, so repositories and JdbcTemplate need no changes.
+ *
+ * - callForPatient: single-patient work, on the owning shard
+ * - callPerShard: a batch of patients, split into one call per shard
+ * - scatter / scatterOrdered / scatterFirst: cross-patient queries, run on every
+ *   shard in parallel and merged. Rows a shard holds but does not own (left
+ *   behind by an interrupted bucket move) are filtered out.
+ *
+ * Resharding (ShardRebalancer) moves whole buckets. Routed work holds its
+ * buckets' read locks, so a bucket never switches shards under a running
+ * call - the move waits for it, and new calls wait for the move's switch.
+ *
+ * A transaction stays on the shard it started on: switching shards inside one
+ * throws IllegalStateException rather than silently writing to the wrong shard.
+ * Unsharded (the default) every method just runs the work inline.
+ */
+@Component
+public class ShardRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRouter.class);
+
+    public static final int HOME_SHARD = 0;
+
+    private final int shardCount;
+    private final ReentrantReadWriteLock[] bucketLocks;
+    private final ExecutorService scatterPool;
+
+    // Copy-on-write bucket -> shard map; replaced only under the bucket's write lock
+    private volatile int[] bucketShards;
+
+    private final LongAdder routedCalls = new LongAdder();
+    private final LongAdder scatterQueries = new LongAdder();
+    private final LongAdder strayRowsFiltered = new LongAdder();
+
+    /**
+     * Unsharded router - everything runs on the one datasource
+     */
+    public ShardRouter() {
+        this(1, null);
+    }
+
+    @Autowired
+    public ShardRouter(@Value("${healthcare.sharding.enabled:false}") boolean enabled,
+                       @Value("${healthcare.sharding.urls:}") List<String> urls,
+                       @Value("${healthcare.sharding.scatter-threads:8}") int scatterThreads,
+                       ThreadFactories threadFactories) {
+        this(shardCount(enabled, urls), Executors.newFixedThreadPool(scatterThreads,
+                threadFactories.named("shard-scatter")));
+        if (shardCount > 1) {
+            logger.info("Sharding enabled: {} shards, {} buckets", shardCount, ShardKey.BUCKETS);
+        }
+    }
+
+    private ShardRouter(int shardCount, ExecutorService scatterPool) {
+        this.shardCount = shardCount;
+        if (shardCount == 1 && scatterPool != null) {
+            scatterPool.shutdown();
+            scatterPool = null;
+        }
+        this.scatterPool = scatterPool;
+        this.bucketLocks = new ReentrantReadWriteLock[shardCount > 1 ? ShardKey.BUCKETS : 0];
+        for (int i = 0; i < bucketLocks.length; i++) {
+            bucketLocks[i] = new ReentrantReadWriteLock();
+        }
+        int[] shards = new int[ShardKey.BUCKETS];
+        for (int bucket = 0; bucket < shards.length; bucket++) {
+            shards[bucket] = bucket % shardCount;
+        }
+        this.bucketShards = shards;
+    }
+
+    private static int shardCount(boolean enabled, List<String> urls) {
+        if (!enabled) {
+            return 1;
+        }
+        if (urls == null || urls.isEmpty()) {
+            throw new IllegalStateException("healthcare.sharding.enabled=true needs healthcare.sharding.urls");
+        }
+        return urls.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterPool != null) {
+            scatterPool.shutdownNow();
+        }
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardOf(String patientRef) {
+        return bucketShards[ShardKey.bucketOf(patientRef)];
+    }
+
+    /**
+     * @return true if the shard owns the patient's bucket (rows elsewhere are stale copies)
+     */
+    public boolean owns(int shard, String patientRef) {
+        return shardOf(patientRef) == shard;
+    }
+
+    /**
+     * @return true if this thread is inside routed work for the patient's bucket -
+     *         a write for the patient now cannot race a move of the bucket
+     */
+    public boolean holdsBucketOf(String patientRef) {
+        return shardCount == 1 || bucketLocks[ShardKey.bucketOf(patientRef)].getReadHoldCount() > 0;
+    }
+
+    /**
+     * The shard bound to this thread - where a transaction started now would run
+     */
+    public int currentShard() {
+        return ShardContext.current();
+    }
+
+    /**
+     * Run work on the shard that owns the patient
+     */
+    public <T> T callForPatient(String patientRef, Supplier<T> work) {
+        if (shardCount == 1) {
+            return work.get();
+        }
+        routedCalls.increment();
+        int bucket = ShardKey.bucketOf(patientRef);
+        Lock lock = bucketLocks[bucket].readLock();
+        lock.lock();
+        try {
+            return callOnShard(bucketShards[bucket], work);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void runForPatient(String patientRef, Runnable work) {
+        callForPatient(patientRef, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run work on one shard (not bucket-locked - for shard-wide work)
+     *
+     * @throws IllegalStateException if a transaction is active on another shard
+     */
+    public <T> T callOnShard(int shard, Supplier<T> work) {
+        if (shardCount == 1) {
+            return work.get();
+        }
+        if (shard < 0 || shard >= shardCount) {
+            throw new IllegalArgumentException("No shard " + shard);
+        }
+        int current = ShardContext.current();
+        if (current != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(
+                    "Shard " + shard + " accessed inside a transaction on shard " + current);
+        }
+        Integer previous = ShardContext.bind(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    public void runOnShard(int shard, Runnable work) {
+        callOnShard(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Split items by owning shard and run work once per shard, shard by shard
+     *
+     * All the items' buckets stay read-locked for the whole call.
+     *
+     * @return every call's results, concatenated in shard order
+     */
+    public <T, R> List<R> callPerShard(Collection<T> items, Function<? super T, String> patientRefOf,
+                                       Function<List<T>, List<R>> work) {
+        if (shardCount == 1) {
+            return work.apply(items instanceof List<T> list ? list : new ArrayList<>(items));
+        }
+        routedCalls.increment();
+        BitSet buckets = new BitSet(ShardKey.BUCKETS);
+        for (T item : items) {
+            buckets.set(ShardKey.bucketOf(patientRefOf.apply(item)));
+        }
+        // Ascending bucket order - two batches can never lock each other out
+        List<Lock> held = new ArrayList<>(buckets.cardinality());
+        try {
+            for (int bucket = buckets.nextSetBit(0); bucket >= 0; bucket = buckets.nextSetBit(bucket + 1)) {
+                Lock lock = bucketLocks[bucket].readLock();
+                lock.lock();
+                held.add(lock);
+            }
+            int[] shards = bucketShards;
+            Map<Integer, List<T>> byShard = new TreeMap<>();
+            for (T item : items) {
+                byShard.computeIfAbsent(shards[ShardKey.bucketOf(patientRefOf.apply(item))], s -> new ArrayList<>())
+                        .add(item);
+            }
+            List<R> results = new ArrayList<>();
+            for (Map.Entry<Integer, List<T>> group : byShard.entrySet()) {
+                results.addAll(callOnShard(group.getKey(), () -> work.apply(group.getValue())));
+            }
+            return results;
+        } finally {
+            for (Lock lock : held) {
+                lock.unlock();
+            }
+        }
+    }
+
+    public <T> void runPerShard(Collection<T> items, Function<? super T, String> patientRefOf,
+                                Consumer<List<T>> work) {
+        callPerShard(items, patientRefOf, group -> {
+            work.accept(group);
+            return List.of();
+        });
+    }
+
+    /**
+     * Run a query on every shard in parallel and concatenate the rows
+     *
+     * Runs on pool threads - safe to call inside a transaction, but the query
+     * does not see that transaction's uncommitted writes.
+     *
+     * @param patientRefOf row -> patient reference, to drop rows a shard does not own;
+     *                     null keeps every row (aggregates, shard-local data)
+     */
+    public <T> List<T> scatter(Supplier<List<T>> query, Function<? super T, String> patientRefOf) {
+        if (shardCount == 1) {
+            return query.get();
+        }
+        List<List<T>> perShard = onEveryShard(query);
+        List<T> rows = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (T row : perShard.get(shard)) {
+                if (patientRefOf == null || owns(shard, patientRefOf.apply(row))) {
+                    rows.add(row);
+                } else {
+                    strayRowsFiltered.increment();
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Scatter a query that returns its first rows in order (at most the limit it is given),
+     * and merge them into the first limit rows overall
+     *
+     * A shard's page is only a complete prefix if it was not full, or kept at
+     * least limit rows after dropping rows it does not own - otherwise that shard
+     * is asked again with a larger limit. Keyset pagination relies on this: no
+     * row may be skipped.
+     */
+    public <T> List<T> scatterOrdered(IntFunction<List<T>> query, Function<? super T, String> patientRefOf,
+                                      Comparator<? super T> order, int limit) {
+        if (shardCount == 1) {
+            return query.apply(limit);
+        }
+        int shardLimit = limit;
+        while (true) {
+            int fetch = shardLimit;
+            List<List<T>> perShard = onEveryShard(() -> query.apply(fetch));
+            List<T> rows = new ArrayList<>();
+            boolean complete = true;
+            for (int shard = 0; shard < shardCount; shard++) {
+                List<T> page = perShard.get(shard);
+                int kept = 0;
+                for (T row : page) {
+                    if (patientRefOf == null || owns(shard, patientRefOf.apply(row))) {
+                        rows.add(row);
+                        kept++;
+                    } else {
+                        strayRowsFiltered.increment();
+                    }
+                }
+                if (page.size() >= fetch && kept < limit) {
+                    complete = false;
+                }
+            }
+            if (complete) {
+                rows.sort(order);
+                return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+            }
+            shardLimit = fetch * 2;
+        }
+    }
+
+    /**
+     * Scatter a lookup by a key that is not the shard key (e.g. the UUID id)
+     */
+    public <T> Optional<T> scatterFirst(Supplier<Optional<T>> query, Function<? super T, String> patientRefOf) {
+        if (shardCount == 1) {
+            return query.get();
+        }
+        List<T> found = scatter(() -> query.get().map(List::of).orElse(List.of()), patientRefOf);
+        return found.stream().findFirst();
+    }
+
+    /**
+     * Run a query on every shard in parallel
+     *
+     * @return one result per shard, by shard index
+     */
+    public <R> List<R> onEveryShard(Supplier<R> query) {
+        if (shardCount == 1) {
+            return List.of(query.get());
+        }
+        scatterQueries.increment();
+        List<Future<R>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(scatterPool.submit(() -> callOnShard(target, query)));
+        }
+        List<R> results = new ArrayList<>(shardCount);
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted waiting for shard query", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Write lock of a bucket - held by ShardRebalancer while the bucket moves
+     */
+    Lock bucketMoveLock(int bucket) {
+        return bucketLocks[bucket].writeLock();
+    }
+
+    int shardOfBucket(int bucket) {
+        return bucketShards[bucket];
+    }
+
+    /**
+     * Switch a bucket to another shard (caller holds the bucket's move lock)
+     */
+    void assign(int bucket, int shard) {
+        int[] next = bucketShards.clone();
+        next[bucket] = shard;
+        bucketShards = next;
+    }
+
+    void assignAll(int[] shards) {
+        bucketShards = shards.clone();
+    }
+
+    int[] bucketShards() {
+        return bucketShards.clone();
+    }
+
+    public long routedCalls() {
+        return routedCalls.sum();
+    }
+
+    public long scatterQueries() {
+        return scatterQueries.sum();
+    }
+
+    public long strayRowsFiltered() {
+        return strayRowsFiltered.sum();
+    }
+}
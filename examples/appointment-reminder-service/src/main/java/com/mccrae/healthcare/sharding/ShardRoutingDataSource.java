@@ -0,0 +1,30 @@
+package com.mccrae.healthcare.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * One DataSource over every shard's pool - a connection comes from the shard bound by ShardRouter
+ *
+ * The shard is picked when a connection is obtained: a transaction stays on the
+ * shard it started on, whatever is bound later (ShardRouter refuses to switch).
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    /**
+     * Close every shard's pool (destroy method of the bean)
+     */
+    public void close() throws Exception {
+        for (DataSource shard : getResolvedDataSources().values()) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
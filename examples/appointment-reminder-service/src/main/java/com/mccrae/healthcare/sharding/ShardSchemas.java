@@ -0,0 +1,49 @@
+package com.mccrae.healthcare.sharding;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+import java.util.Map;
+
+/**
+ * Applies the Hibernate schema action (spring.jpa.hibernate.ddl-auto) to every shard
+ *
+ * Hibernate only manages the schema of the datasource it boots on - the home
+ * shard. This integrator keeps the boot metadata so ShardRebalancer can run the
+ * same action (create-drop, update, validate, ...) with each other shard bound.
+ */
+class ShardSchemas implements Integrator {
+
+    private volatile Metadata metadata;
+    private volatile SessionFactoryImplementor sessionFactory;
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory,
+                             SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    /**
+     * Apply the schema action to the shard bound to this thread
+     */
+    void apply() {
+        if (metadata == null) {
+            throw new IllegalStateException("Hibernate has not booted");
+        }
+        Map<String, Object> settings = sessionFactory.getProperties();
+        // Drop-on-close only applies to the home shard; shard schemas go with their databases
+        SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(), settings,
+                action -> {
+                });
+    }
+}
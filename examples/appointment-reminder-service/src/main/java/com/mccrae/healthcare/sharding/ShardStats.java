@@ -0,0 +1,15 @@
+package com.mccrae.healthcare.sharding;
+
+import java.util.List;
+
+/**
+ * Shard layout and routing counters
+ */
+public record ShardStats(int shards,
+                         List<Integer> bucketsPerShard,
+                         long bucketsMoved,
+                         long rowsMoved,
+                         long routedCalls,
+                         long scatterQueries,
+                         long strayRowsFiltered) {
+}
@@ -0,0 +1,72 @@
+package com.mccrae.healthcare.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sharded datasource wiring (healthcare.sharding.enabled=true)
+ *
+ * One Hikari pool per healthcare.sharding.urls entry, with the
+ * spring.datasource credentials, behind a ShardRoutingDataSource. Shard 0 is
+ * the home shard: it also holds the shard-wide tables (bucket map, consent
+ * offsets, audit checkpoints) and is where unrouted work goes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "healthcare.sharding.enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingConfiguration.class);
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties,
+                                 @Value("${healthcare.sharding.urls}") List<String> urls) {
+        Map<Object, Object> shards = new HashMap<>();
+        for (int shard = 0; shard < urls.size(); shard++) {
+            HikariDataSource pool = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(shard))
+                    .build();
+            pool.setPoolName("shard-" + shard);
+            shards.put(shard, pool);
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(shards);
+        routing.setDefaultTargetDataSource(shards.get(ShardRouter.HOME_SHARD));
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        // ✅ CORRECT: Log shard count only - URLs may carry credentials
+        logger.info("Sharded datasource: {} shards", urls.size());
+        return routing;
+    }
+
+    @Bean
+    public ShardSchemas shardSchemas() {
+        return new ShardSchemas();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardingHibernateProperties(ShardSchemas shardSchemas) {
+        return properties -> {
+            // Take a connection per transaction, not per session - the shard is picked at that moment
+            properties.put("hibernate.connection.handling_mode",
+                    "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+            properties.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> List.of(shardSchemas));
+        };
+    }
+}
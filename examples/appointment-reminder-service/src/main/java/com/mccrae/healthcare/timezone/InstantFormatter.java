@@ -0,0 +1,336 @@
+package com.mccrae.healthcare.timezone;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Formats an Instant in a zone with a DateTimeFormatter pattern - without a ZonedDateTime
+ *
+ * Output is identical to DateTimeFormatter.ofPattern(pattern, locale).format(instant.atZone(zone)).
+ * The pattern is compiled once; month, day and AM/PM names come from the locale
+ * once. Per zone, the UTC offsets of the next ten years (and the past two) are
+ * kept as a sorted array of transition seconds, so the local date and time are
+ * plain arithmetic on the epoch second. Zone names ('z') are cached per zone
+ * for standard and daylight time.
+ *
+ * Supported pattern letters: y u M d E a h H m s z, quoted text and literals.
+ * Patterns with other letters, and times outside the cached years, are
+ * formatted by DateTimeFormatter (same output, with allocation).
+ *
+ * Obtain instances from ZoneRegistry.formatter(). Thread-safe.
+ */
+public final class InstantFormatter {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final Duration WINDOW_PAST = Duration.ofDays(2 * 366);
+    private static final Duration WINDOW_FUTURE = Duration.ofDays(10 * 366);
+
+    private static final int LITERAL = 0;
+    private static final int YEAR = 1;        // width in widths[], zero-padded to it
+    private static final int YEAR_2 = 2;
+    private static final int MONTH = 3;       // width 1 or 2
+    private static final int MONTH_SHORT = 4;
+    private static final int MONTH_FULL = 5;
+    private static final int DAY = 6;         // width 1 or 2
+    private static final int WEEKDAY_SHORT = 7;
+    private static final int WEEKDAY_FULL = 8;
+    private static final int AM_PM = 9;
+    private static final int HOUR_12 = 10;    // width 1 or 2
+    private static final int HOUR_24 = 11;    // width 1 or 2
+    private static final int MINUTE = 12;     // width 1 or 2
+    private static final int SECOND = 13;     // width 1 or 2
+    private static final int ZONE_NAME = 14;  // pattern run in literals[]
+
+    private final String pattern;
+    private final Locale locale;
+    private final DateTimeFormatter fallback;
+
+    // null when the pattern has letters not compiled here - every call uses fallback
+    private final int[] ops;
+    private final int[] widths;
+    private final String[] literals;
+
+    private final String[] monthsShort = new String[12];
+    private final String[] monthsFull = new String[12];
+    private final String[] weekdaysShort = new String[7];
+    private final String[] weekdaysFull = new String[7];
+    private final String[] amPm = new String[2];
+
+    private final Map<ZoneId, ZoneTable> zones = new ConcurrentHashMap<>();
+
+    InstantFormatter(String pattern, Locale locale) {
+        this.pattern = pattern;
+        this.locale = locale;
+        this.fallback = DateTimeFormatter.ofPattern(pattern, locale);
+
+        List<int[]> parsed = new ArrayList<>();
+        List<String> text = new ArrayList<>();
+        boolean supported = compile(parsed, text);
+        this.ops = supported ? new int[parsed.size()] : null;
+        this.widths = supported ? new int[parsed.size()] : null;
+        this.literals = supported ? text.toArray(new String[0]) : null;
+        if (supported) {
+            for (int i = 0; i < parsed.size(); i++) {
+                ops[i] = parsed.get(i)[0];
+                widths[i] = parsed.get(i)[1];
+            }
+        }
+
+        DateTimeFormatter shortMonth = DateTimeFormatter.ofPattern("MMM", locale);
+        DateTimeFormatter fullMonth = DateTimeFormatter.ofPattern("MMMM", locale);
+        for (int month = 1; month <= 12; month++) {
+            LocalDate date = LocalDate.of(2000, month, 1);
+            monthsShort[month - 1] = shortMonth.format(date);
+            monthsFull[month - 1] = fullMonth.format(date);
+        }
+        DateTimeFormatter shortWeekday = DateTimeFormatter.ofPattern("EEE", locale);
+        DateTimeFormatter fullWeekday = DateTimeFormatter.ofPattern("EEEE", locale);
+        LocalDate monday = LocalDate.of(2024, 1, 1);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            LocalDate date = monday.plusDays(day.ordinal());
+            weekdaysShort[day.ordinal()] = shortWeekday.format(date);
+            weekdaysFull[day.ordinal()] = fullWeekday.format(date);
+        }
+        DateTimeFormatter marker = DateTimeFormatter.ofPattern("a", locale);
+        amPm[0] = marker.format(LocalTime.MIDNIGHT);
+        amPm[1] = marker.format(LocalTime.NOON);
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    public Locale locale() {
+        return locale;
+    }
+
+    public String format(Instant instant, ZoneId zone) {
+        StringBuilder out = new StringBuilder(pattern.length() + 16);
+        formatTo(instant, zone, out);
+        return out.toString();
+    }
+
+    /**
+     * Append instant, in zone, to out
+     */
+    public void formatTo(Instant instant, ZoneId zone, StringBuilder out) {
+        if (ops == null) {
+            fallback.formatTo(instant.atZone(zone), out);
+            return;
+        }
+        ZoneTable table = zones.get(zone);
+        if (table == null) {
+            table = zones.computeIfAbsent(zone, ZoneTable::new);
+        }
+        long epochSecond = instant.getEpochSecond();
+        int period = table.period(epochSecond);
+        if (period < 0) {
+            fallback.formatTo(instant.atZone(zone), out);
+            return;
+        }
+
+        long localSecond = epochSecond + table.offsets[period];
+        long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(localSecond, SECONDS_PER_DAY);
+
+        // Civil date from epoch day (days-from-civil inverse, proleptic Gregorian)
+        long shifted = epochDay + 719_468;
+        long era = Math.floorDiv(shifted, 146_097);
+        long dayOfEra = shifted - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 1 || year > 9999) {
+            fallback.formatTo(instant.atZone(zone), out); // sign and era rules
+            return;
+        }
+        int weekday = Math.floorMod(epochDay + 3, 7); // 1970-01-01 was a Thursday; 0 = Monday
+        int hour = secondOfDay / 3600;
+        int minute = (secondOfDay / 60) % 60;
+        int second = secondOfDay % 60;
+
+        for (int i = 0; i < ops.length; i++) {
+            switch (ops[i]) {
+                case LITERAL -> out.append(literals[i]);
+                case YEAR -> pad(out, (int) year, widths[i]);
+                case YEAR_2 -> pad(out, (int) (year % 100), 2);
+                case MONTH -> pad(out, month, widths[i]);
+                case MONTH_SHORT -> out.append(monthsShort[month - 1]);
+                case MONTH_FULL -> out.append(monthsFull[month - 1]);
+                case DAY -> pad(out, day, widths[i]);
+                case WEEKDAY_SHORT -> out.append(weekdaysShort[weekday]);
+                case WEEKDAY_FULL -> out.append(weekdaysFull[weekday]);
+                case AM_PM -> out.append(amPm[hour < 12 ? 0 : 1]);
+                case HOUR_12 -> pad(out, hour % 12 == 0 ? 12 : hour % 12, widths[i]);
+                case HOUR_24 -> pad(out, hour, widths[i]);
+                case MINUTE -> pad(out, minute, widths[i]);
+                case SECOND -> pad(out, second, widths[i]);
+                default -> out.append(table.name(i, period, instant));
+            }
+        }
+    }
+
+    // Zero-pads a non-negative value to the pattern letter count ("yyyyy" -> 02024)
+    private static void pad(StringBuilder out, int value, int width) {
+        int digits = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (; digits < width; digits++) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+
+    // Parse the pattern into ops; false if it uses anything not handled here
+    private boolean compile(List<int[]> parsed, List<String> text) {
+        int i = 0;
+        StringBuilder literal = new StringBuilder();
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                int end = pattern.indexOf('\'', i + 1);
+                if (end < 0) {
+                    return false;
+                }
+                literal.append(end == i + 1 ? "'" : pattern.substring(i + 1, end));
+                i = end + 1;
+                continue;
+            }
+            if (!Character.isLetter(c)) {
+                if ("[]{}#".indexOf(c) >= 0) {
+                    return false; // optional sections and reserved characters
+                }
+                literal.append(c);
+                i++;
+                continue;
+            }
+            int run = 1;
+            while (i + run < pattern.length() && pattern.charAt(i + run) == c) {
+                run++;
+            }
+            int op = op(c, run);
+            if (op < 0) {
+                return false;
+            }
+            if (!literal.isEmpty()) {
+                parsed.add(new int[]{LITERAL, 0});
+                text.add(literal.toString());
+                literal.setLength(0);
+            }
+            parsed.add(new int[]{op, run});
+            text.add(op == ZONE_NAME ? pattern.substring(i, i + run) : null);
+            i += run;
+        }
+        if (!literal.isEmpty()) {
+            parsed.add(new int[]{LITERAL, 0});
+            text.add(literal.toString());
+        }
+        return true;
+    }
+
+    private static int op(char letter, int run) {
+        return switch (letter) {
+            case 'y', 'u' -> run == 2 ? YEAR_2 : YEAR;
+            case 'M' -> run <= 2 ? MONTH : run == 3 ? MONTH_SHORT : run == 4 ? MONTH_FULL : -1;
+            case 'd' -> run <= 2 ? DAY : -1;
+            case 'E' -> run <= 3 ? WEEKDAY_SHORT : run == 4 ? WEEKDAY_FULL : -1;
+            case 'a' -> run == 1 ? AM_PM : -1;
+            case 'h' -> run <= 2 ? HOUR_12 : -1;
+            case 'H' -> run <= 2 ? HOUR_24 : -1;
+            case 'm' -> run <= 2 ? MINUTE : -1;
+            case 's' -> run <= 2 ? SECOND : -1;
+            case 'z' -> run <= 4 ? ZONE_NAME : -1;
+            default -> -1;
+        };
+    }
+
+    /**
+     * One zone's UTC offsets over the cached years, and its names in this locale
+     *
+     * offsets[p] applies from transitions[p - 1] (inclusive) to transitions[p].
+     */
+    private final class ZoneTable {
+
+        private final ZoneId zone;
+        private final long windowStart;
+        private final long windowEnd;
+        private final long[] transitions;
+        private final int[] offsets;
+        private final boolean[] daylight;
+
+        // [op index][0 = standard, 1 = daylight] - filled on first use (benign race: same value)
+        private final String[][] names;
+
+        ZoneTable(ZoneId zone) {
+            this.zone = zone;
+            ZoneRules rules = zone.getRules();
+            Instant now = Instant.now();
+            Instant start = now.minus(WINDOW_PAST);
+            Instant end = now.plus(WINDOW_FUTURE);
+            this.windowStart = start.getEpochSecond();
+            this.windowEnd = end.getEpochSecond();
+
+            List<ZoneOffsetTransition> changes = new ArrayList<>();
+            ZoneOffsetTransition transition = rules.nextTransition(start);
+            while (transition != null && transition.getInstant().isBefore(end)) {
+                changes.add(transition);
+                transition = rules.nextTransition(transition.getInstant());
+            }
+            this.transitions = new long[changes.size()];
+            this.offsets = new int[changes.size() + 1];
+            this.daylight = new boolean[changes.size() + 1];
+            offsets[0] = rules.getOffset(start).getTotalSeconds();
+            daylight[0] = rules.isDaylightSavings(start);
+            for (int i = 0; i < changes.size(); i++) {
+                ZoneOffsetTransition change = changes.get(i);
+                transitions[i] = change.toEpochSecond();
+                offsets[i + 1] = change.getOffsetAfter().getTotalSeconds();
+                daylight[i + 1] = rules.isDaylightSavings(change.getInstant());
+            }
+            this.names = new String[ops.length][];
+        }
+
+        /**
+         * @return index into offsets, -1 outside the cached years
+         */
+        int period(long epochSecond) {
+            if (epochSecond < windowStart || epochSecond >= windowEnd) {
+                return -1;
+            }
+            int found = Arrays.binarySearch(transitions, epochSecond);
+            return found >= 0 ? found + 1 : -found - 1;
+        }
+
+        String name(int op, int period, Instant instant) {
+            String[] byType = names[op];
+            if (byType == null) {
+                byType = new String[2];
+                names[op] = byType;
+            }
+            int type = daylight[period] ? 1 : 0;
+            String name = byType[type];
+            if (name == null) {
+                name = DateTimeFormatter.ofPattern(literals[op], locale).format(instant.atZone(zone));
+                byType[type] = name;
+            }
+            return name;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.mccrae.healthcare.timezone;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string must be a zone id ZoneId.of accepts ("Pacific/Auckland", "UTC", "+13:00")
+ *
+ * Null is valid - combine with @NotBlank. Checked through ZoneRegistry, so
+ * validating a batch of patients parses each distinct zone once.
+ */
+@Documented
+@Constraint(validatedBy = ValidTimeZoneValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidTimeZone {
+
+    // ✅ CORRECT: Message never echoes the rejected value
+    String message() default "must be a valid timezone id";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,15 @@
+package com.mccrae.healthcare.timezone;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Validator for @ValidTimeZone
+ */
+public class ValidTimeZoneValidator implements ConstraintValidator<ValidTimeZone, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || ZoneRegistry.isValid(value);
+    }
+}
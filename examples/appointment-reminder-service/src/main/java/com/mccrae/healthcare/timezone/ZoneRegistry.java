@@ -0,0 +1,86 @@
+package com.mccrae.healthcare.timezone;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zone Registry - shared cache of parsed zone ids and compiled instant formatters
+ *
+ * Patients store their timezone as a string ("Pacific/Auckland"). Every
+ * notification time is shown in the recipient's zone, so at fan-out scale the
+ * same few zones are parsed and the same few patterns compiled millions of times.
+ * Here each zone id is parsed once, each (pattern, locale) compiled once into an
+ * InstantFormatter, and each formatter keeps per-(zone, locale) offset tables and
+ * zone names - formatting an Instant allocates nothing but the output.
+ *
+ * Static and thread-safe: used by the Patient timezone constraint (entity
+ * validation has no Spring context), notification templates and the schedulers.
+ */
+public final class ZoneRegistry {
+
+    // Bounded: only valid ids are cached, and offsets like "+05:30" are finite - but never trust input
+    private static final int MAX_ZONES = 4096;
+    private static final int MAX_FORMATTERS = 1024;
+
+    private static final Map<String, ZoneId> ZONES = new ConcurrentHashMap<>();
+    private static final Map<FormatterKey, InstantFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    private ZoneRegistry() {
+    }
+
+    /**
+     * @throws DateTimeException if the id is not a valid zone id
+     */
+    public static ZoneId zone(String id) {
+        ZoneId zone = ZONES.get(id);
+        if (zone != null) {
+            return zone;
+        }
+        zone = ZoneId.of(id);
+        if (ZONES.size() < MAX_ZONES) {
+            ZoneId existing = ZONES.putIfAbsent(id, zone);
+            return existing != null ? existing : zone;
+        }
+        return zone;
+    }
+
+    /**
+     * @return true for region ids ("Pacific/Auckland") and offsets ("UTC", "+13:00")
+     */
+    public static boolean isValid(String id) {
+        if (id == null || id.isBlank()) {
+            return false;
+        }
+        try {
+            zone(id);
+            return true;
+        } catch (DateTimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Compiled formatter for a DateTimeFormatter pattern in a locale
+     *
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public static InstantFormatter formatter(String pattern, Locale locale) {
+        FormatterKey key = new FormatterKey(pattern, locale);
+        InstantFormatter formatter = FORMATTERS.get(key);
+        if (formatter != null) {
+            return formatter;
+        }
+        formatter = new InstantFormatter(pattern, locale);
+        if (FORMATTERS.size() < MAX_FORMATTERS) {
+            InstantFormatter existing = FORMATTERS.putIfAbsent(key, formatter);
+            return existing != null ? existing : formatter;
+        }
+        return formatter;
+    }
+
+    private record FormatterKey(String pattern, Locale locale) {
+    }
+}
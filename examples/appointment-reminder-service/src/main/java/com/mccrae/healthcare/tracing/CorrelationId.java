@@ -0,0 +1,55 @@
+package com.mccrae.healthcare.tracing;
+
+import org.slf4j.MDC;
+
+import java.util.UUID;
+
+/**
+ * Correlation ID of the current unit of work (request, notification delivery)
+ *
+ * Held in the SLF4J MDC under "correlationId", so every log line carries it
+ * (log-event.json) and AuditLogger stamps it on every audit row.
+ *
+ * Accepted from callers in the X-Correlation-Id header when it is 1-64
+ * characters of [A-Za-z0-9._:-] - anything else (including values that could
+ * smuggle PHI or log-injection characters) is replaced by a new UUID.
+ */
+public final class CorrelationId {
+
+    public static final String HEADER = "X-Correlation-Id";
+    public static final String MDC_KEY = "correlationId";
+
+    private static final int MAX_LENGTH = 64;
+
+    private CorrelationId() {
+    }
+
+    /**
+     * @return the current correlation ID, or null outside a request/delivery
+     */
+    public static String current() {
+        return MDC.get(MDC_KEY);
+    }
+
+    /**
+     * @return the caller's ID if it is acceptable, otherwise a new one
+     */
+    static String acceptOrCreate(String supplied) {
+        return isValid(supplied) ? supplied : UUID.randomUUID().toString();
+    }
+
+    static boolean isValid(String value) {
+        if (value == null || value.isEmpty() || value.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == ':';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,133 @@
+package com.mccrae.healthcare.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Span timings of one request - controller, service and repository calls
+ *
+ * Attached to the request thread by TracingFilter and carried to async worker
+ * threads by the TaskDecorator (TracingConfiguration). Spans are appended by
+ * TracingAspect as calls return; at most {@value #MAX_SPANS} are kept, the rest
+ * are only counted (a paged export can make thousands of repository calls).
+ *
+ * Nothing here holds arguments or results - span names are Class.method only.
+ */
+public final class RequestTrace {
+
+    static final int MAX_SPANS = 200;
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final String correlationId;
+    private final String method;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Span> spans = new ArrayList<>();
+    private int droppedSpans;
+
+    RequestTrace(String correlationId, String method) {
+        this.correlationId = correlationId;
+        this.method = method;
+    }
+
+    /**
+     * @return the trace of the request this thread is working for, or null
+     */
+    static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Make this the current thread's trace; returns the one it replaces (usually null)
+     */
+    static RequestTrace attach(RequestTrace trace) {
+        RequestTrace previous = CURRENT.get();
+        CURRENT.set(trace);
+        return previous;
+    }
+
+    static void restore(RequestTrace previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * @return the nesting depth of the span being opened on this thread
+     */
+    static int enter() {
+        return DEPTH.get()[0]++;
+    }
+
+    static void exit() {
+        DEPTH.get()[0]--;
+    }
+
+    void addSpan(String layer, String name, int depth, long spanStartNanos, long durationNanos) {
+        lock.lock();
+        try {
+            if (spans.size() < MAX_SPANS) {
+                spans.add(new Span(layer, name, depth, spanStartNanos - startNanos, durationNanos));
+            } else {
+                droppedSpans++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String correlationId() {
+        return correlationId;
+    }
+
+    String method() {
+        return method;
+    }
+
+    Instant startedAt() {
+        return startedAt;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Spans in the order they started
+     */
+    List<Span> spans() {
+        List<Span> copy;
+        lock.lock();
+        try {
+            copy = new ArrayList<>(spans);
+        } finally {
+            lock.unlock();
+        }
+        copy.sort(Comparator.comparingLong(Span::offsetNanos).thenComparingInt(Span::depth));
+        return copy;
+    }
+
+    int droppedSpans() {
+        lock.lock();
+        try {
+            return droppedSpans;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param offsetNanos span start, relative to the start of the request
+     */
+    record Span(String layer, String name, int depth, long offsetNanos, long durationNanos) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.mccrae.healthcare.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Request tracing REST API
+ * 
+ * Endpoints:
+ * - GET    /api/traces/slow    - Recent requests slower than slow-request-threshold, with span timings
+ */
+@RestController
+@RequestMapping("/api/traces")
+public class TraceController {
+    
+    @Autowired
+    private TraceRecorder traceRecorder;
+    
+    @GetMapping("/slow")
+    public ResponseEntity<List<TraceSummary>> slowRequests() {
+        return ResponseEntity.ok(traceRecorder.recentSlowRequests());
+    }
+}
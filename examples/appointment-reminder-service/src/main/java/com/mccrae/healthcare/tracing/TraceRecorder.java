@@ -0,0 +1,107 @@
+package com.mccrae.healthcare.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Trace Recorder - keeps and logs requests slower than slow-request-threshold
+ *
+ * Each slow request is logged once at WARN with its span breakdown and kept in
+ * a bounded in-memory list (newest first) for GET /api/traces/slow. Fast
+ * requests are discarded - tracing costs nothing after the request ends.
+ */
+@Component
+public class TraceRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TraceRecorder.class);
+
+    private final long thresholdNanos;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<TraceSummary> recent = new ArrayDeque<>();
+
+    public TraceRecorder(
+            @Value("${healthcare.tracing.slow-request-threshold:500ms}") Duration threshold,
+            @Value("${healthcare.tracing.recent-slow-capacity:100}") int capacity) {
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = capacity;
+    }
+
+    /**
+     * Called once per request when the response is complete
+     */
+    void finish(RequestTrace trace, String route, int status) {
+        long elapsed = trace.elapsedNanos();
+        if (elapsed < thresholdNanos) {
+            return;
+        }
+        TraceSummary summary = summarize(trace, route, status, elapsed);
+
+        // ✅ CORRECT: Route template and Class.method names only - no path variables or arguments
+        logger.warn("Slow request {} {} -> {} in {} ms: {}", summary.method(), route, status,
+                Math.round(summary.durationMillis()), render(summary));
+
+        lock.lock();
+        try {
+            if (recent.size() == capacity) {
+                recent.removeLast();
+            }
+            recent.addFirst(summary);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Most recent slow requests, newest first
+     */
+    public List<TraceSummary> recentSlowRequests() {
+        lock.lock();
+        try {
+            return new ArrayList<>(recent);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static TraceSummary summarize(RequestTrace trace, String route, int status, long elapsedNanos) {
+        List<TraceSummary.SpanTiming> spans = new ArrayList<>();
+        for (RequestTrace.Span span : trace.spans()) {
+            spans.add(new TraceSummary.SpanTiming(span.layer(), span.name(), span.depth(),
+                    millis(span.offsetNanos()), millis(span.durationNanos())));
+        }
+        return new TraceSummary(trace.correlationId(), trace.method(), route, status, trace.startedAt(),
+                millis(elapsedNanos), spans, trace.droppedSpans());
+    }
+
+    // "PatientController.getPatient 812.4ms | >PatientService.getPatientByReferenceId 805.1ms | >>PatientRepository..."
+    private static String render(TraceSummary summary) {
+        StringBuilder out = new StringBuilder();
+        for (TraceSummary.SpanTiming span : summary.spans()) {
+            if (!out.isEmpty()) {
+                out.append(" | ");
+            }
+            out.append(">".repeat(span.depth()));
+            out.append(span.name()).append(' ').append(String.format("%.1f", span.durationMillis())).append("ms");
+        }
+        if (summary.droppedSpans() > 0) {
+            out.append(" (+").append(summary.droppedSpans()).append(" more spans)");
+        }
+        return out.isEmpty() ? "no spans" : out.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,34 @@
+package com.mccrae.healthcare.tracing;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A finished slow request: route (URI template), status and span timings
+ *
+ * No path variables, parameters or bodies - correlationId links it to the
+ * request's log lines and audit rows.
+ */
+public record TraceSummary(
+        String correlationId,
+        String method,
+        String route,
+        int status,
+        Instant startedAt,
+        double durationMillis,
+        List<SpanTiming> spans,
+        int droppedSpans
+) {
+
+    /**
+     * offsetMillis: span start relative to the start of the request; depth 0 is outermost
+     */
+    public record SpanTiming(
+            String layer,
+            String name,
+            int depth,
+            double offsetMillis,
+            double durationMillis
+    ) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.mccrae.healthcare.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records controller, service and repository calls as spans of the current RequestTrace
+ *
+ * Outside a traced request (schedulers, dispatcher workers) the advice is a
+ * ThreadLocal read and a direct proceed(). Span names are cached per
+ * (class, method), so a traced call allocates only its Span.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "healthcare.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingAspect {
+
+    private static final ClassValue<Map<Method, String>> NAMES = new ClassValue<>() {
+        @Override
+        protected Map<Method, String> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    @Around("within(com.mccrae.healthcare..*) && @within(org.springframework.web.bind.annotation.RestController)")
+    public Object controller(ProceedingJoinPoint call) throws Throwable {
+        return trace(call, "controller");
+    }
+
+    @Around("within(com.mccrae.healthcare..*) && @within(org.springframework.stereotype.Service)")
+    public Object service(ProceedingJoinPoint call) throws Throwable {
+        return trace(call, "service");
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object repository(ProceedingJoinPoint call) throws Throwable {
+        return trace(call, "repository");
+    }
+
+    private static Object trace(ProceedingJoinPoint call, String layer) throws Throwable {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return call.proceed();
+        }
+        int depth = RequestTrace.enter();
+        long start = System.nanoTime();
+        try {
+            return call.proceed();
+        } finally {
+            long duration = System.nanoTime() - start;
+            RequestTrace.exit();
+            trace.addSpan(layer, spanName(call), depth, start, duration);
+        }
+    }
+
+    private static String spanName(ProceedingJoinPoint call) {
+        Class<?> type = call.getThis().getClass();
+        Method method = ((MethodSignature) call.getSignature()).getMethod();
+        return NAMES.get(type).computeIfAbsent(method, m -> typeName(type) + "." + m.getName());
+    }
+
+    // Repository beans are JDK proxies - name them after their application interface
+    private static String typeName(Class<?> type) {
+        for (Class<?> candidate : type.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(candidate)) {
+                return candidate.getSimpleName();
+            }
+        }
+        String name = type.getSimpleName();
+        int proxySuffix = name.indexOf("$$");
+        return proxySuffix < 0 ? name : name.substring(0, proxySuffix);
+    }
+}
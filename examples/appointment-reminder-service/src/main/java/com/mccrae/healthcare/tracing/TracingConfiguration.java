@@ -0,0 +1,46 @@
+package com.mccrae.healthcare.tracing;
+
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+/**
+ * Carries the MDC (correlation ID) and RequestTrace onto Spring's task executor
+ *
+ * Spring Boot applies a TaskDecorator bean to the auto-configured executor in
+ * both thread modes (pooled platform threads, or a virtual thread per task),
+ * which runs MVC async work such as the streaming NDJSON export.
+ */
+@Configuration
+public class TracingConfiguration {
+
+    @Bean
+    public TaskDecorator correlationTaskDecorator() {
+        return task -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            RequestTrace trace = RequestTrace.current();
+            return () -> {
+                Map<String, String> previousContext = MDC.getCopyOfContextMap();
+                RequestTrace previousTrace = RequestTrace.attach(trace);
+                if (context == null) {
+                    MDC.clear();
+                } else {
+                    MDC.setContextMap(context);
+                }
+                try {
+                    task.run();
+                } finally {
+                    RequestTrace.restore(previousTrace);
+                    if (previousContext == null) {
+                        MDC.clear();
+                    } else {
+                        MDC.setContextMap(previousContext);
+                    }
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.mccrae.healthcare.tracing;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Tracing Filter - correlation ID and span trace for every request
+ *
+ * 1. Accept X-Correlation-Id (if well-formed) or create one; echo it on the response
+ * 2. Put it in the MDC for the request thread - log lines and audit rows pick it up
+ * 3. Attach a RequestTrace that TracingAspect fills with controller/service/repository spans
+ * 4. When the response is complete (after the async part, for streaming responses),
+ *    hand the trace to TraceRecorder and clear the thread
+ *
+ * Runs before AdmissionFilter, so rejected (429) requests carry a correlation ID too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class TracingFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private TraceRecorder traceRecorder;
+
+    @Value("${healthcare.tracing.enabled:true}")
+    private boolean tracingEnabled;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String correlationId = CorrelationId.acceptOrCreate(request.getHeader(CorrelationId.HEADER));
+        response.setHeader(CorrelationId.HEADER, correlationId);
+
+        RequestTrace trace = tracingEnabled ? new RequestTrace(correlationId, request.getMethod()) : null;
+        RequestTrace previous = RequestTrace.attach(trace);
+        MDC.put(CorrelationId.MDC_KEY, correlationId);
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (trace != null && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new FinishOnComplete(this, trace, request));
+                async = true;
+            }
+        } finally {
+            if (trace != null && !async) {
+                finish(trace, request, response.getStatus());
+            }
+            MDC.remove(CorrelationId.MDC_KEY);
+            RequestTrace.restore(previous);
+        }
+    }
+
+    private void finish(RequestTrace trace, HttpServletRequest request, int status) {
+        traceRecorder.finish(trace, route(request), status);
+    }
+
+    // URI template ("/api/patients/{referenceId}") - unmatched requests fall back to the path
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    private record FinishOnComplete(TracingFilter filter, RequestTrace trace, HttpServletRequest request)
+            implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // Completion runs on a container thread - the slow-request log line still gets the ID
+            MDC.put(CorrelationId.MDC_KEY, trace.correlationId());
+            try {
+                filter.finish(trace, request, ((HttpServletResponse) event.getSuppliedResponse()).getStatus());
+            } finally {
+                MDC.remove(CorrelationId.MDC_KEY);
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
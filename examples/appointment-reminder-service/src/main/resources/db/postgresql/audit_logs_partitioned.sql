@@ -0,0 +1,98 @@
+-- ============================================================================
+-- audit_logs - monthly range partitions (PostgreSQL 13+)
+--
+-- The H2 demo database creates audit_logs from the JPA entity (no partitioning).
+-- In production the table is created from this script instead.
+--
+-- Why monthly partitions:
+-- - Range queries bounded by timestamp only scan the matching months
+-- - Indexes stay per-month, so inserts never touch a 7-year index
+-- - Retention (HIPAA: 6 years, we keep 7): DETACH old partitions and archive
+--   them - never DELETE rows from audit_logs
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS audit_logs (
+    id             UUID                     NOT NULL,
+    timestamp      TIMESTAMP WITH TIME ZONE NOT NULL,
+    event_type     VARCHAR(255)             NOT NULL,
+    patient_ref    VARCHAR(255),
+    details        VARCHAR(1000),
+    user_id        VARCHAR(255),
+    correlation_id VARCHAR(255),
+    -- Hash chain (AuditChain): one chain per UTC day and shard of patient_ref
+    chain_day      DATE,
+    chain_shard    INTEGER,
+    chain_seq      BIGINT,
+    content_hash   BYTEA,
+    -- ShardKey bucket of patient_ref (0 without a patient) - see shard_bucket.sql
+    shard_bucket   INTEGER                  NOT NULL,
+    -- The partition key must be part of the primary key
+    PRIMARY KEY (timestamp, id)
+) PARTITION BY RANGE (timestamp);
+
+-- Partitioned indexes: created on every existing and future partition
+CREATE INDEX IF NOT EXISTS idx_audit_logs_patient_ref_timestamp
+    ON audit_logs (patient_ref, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_event_type_timestamp
+    ON audit_logs (event_type, timestamp, id);
+-- Not UNIQUE: a unique index on a partitioned table must include timestamp.
+-- Duplicate sequence numbers are reported by AuditChainVerifier instead.
+CREATE INDEX IF NOT EXISTS idx_audit_logs_chain
+    ON audit_logs (chain_day, chain_shard, chain_seq);
+-- Bucket moves between shards (ShardRebalancer)
+CREATE INDEX IF NOT EXISTS idx_audit_logs_shard_bucket
+    ON audit_logs (shard_bucket);
+
+-- Merkle checkpoints of verified chain segments (small - one row per 1024 audit rows)
+CREATE TABLE IF NOT EXISTS audit_checkpoints (
+    id          UUID                     PRIMARY KEY,
+    chain_day   DATE                     NOT NULL,
+    chain_shard INTEGER                  NOT NULL,
+    from_seq    BIGINT                   NOT NULL,
+    through_seq BIGINT                   NOT NULL,
+    merkle_root BYTEA                    NOT NULL,
+    chain_hash  BYTEA                    NOT NULL,
+    created_at  TIMESTAMP WITH TIME ZONE NOT NULL
+);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_audit_checkpoints_chain
+    ON audit_checkpoints (chain_day, chain_shard, through_seq);
+
+-- Rows outside every monthly partition (clock skew, replayed journals) land here
+CREATE TABLE IF NOT EXISTS audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+-- ----------------------------------------------------------------------------
+-- create_audit_logs_partition(month) - idempotent, returns the partition name
+--
+-- Called ahead of time by AuditPartitionMaintainer
+-- (healthcare.audit.partitioning.enabled=true)
+-- ----------------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION create_audit_logs_partition(month DATE)
+RETURNS TEXT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_start    TIMESTAMP WITH TIME ZONE := (date_trunc('month', month)::date)::timestamp AT TIME ZONE 'UTC';
+    month_end      TIMESTAMP WITH TIME ZONE := ((date_trunc('month', month) + INTERVAL '1 month')::date)::timestamp AT TIME ZONE 'UTC';
+    partition_name TEXT := format('audit_logs_%s', to_char(month, 'YYYY_MM'));
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+        partition_name, month_start, month_end);
+    RETURN partition_name;
+END;
+$$;
+
+-- Current month and the next two
+SELECT create_audit_logs_partition((date_trunc('month', now() AT TIME ZONE 'UTC') + make_interval(months => m))::date)
+FROM generate_series(0, 2) AS m;
+
+-- Retention (run by operations, never by the application):
+--   ALTER TABLE audit_logs DETACH PARTITION audit_logs_2018_01 CONCURRENTLY;
+--   -- archive audit_logs_2018_01, then drop it
+--
+-- With healthcare.audit.archive.enabled, AuditArchiver moves verified days to
+-- columnar segment files and deletes them here. Once a month is fully archived
+-- its partition is empty - reclaim the space:
+--   SELECT count(*) FROM audit_logs_2018_01;  -- must be 0
+--   ALTER TABLE audit_logs DETACH PARTITION audit_logs_2018_01 CONCURRENTLY;
+--   DROP TABLE audit_logs_2018_01;
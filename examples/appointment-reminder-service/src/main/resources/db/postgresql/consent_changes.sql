@@ -0,0 +1,33 @@
+-- ============================================================================
+-- Consent change log (transactional outbox) - PostgreSQL 13+
+--
+-- The H2 demo database creates these tables from the JPA entities.
+-- See ConsentChangeLog for the sequencing rules.
+-- ============================================================================
+
+-- One row, incremented in every consent mutation's transaction. The row lock
+-- serialises writers, which is what makes the sequence gap-free and commit-ordered.
+CREATE TABLE IF NOT EXISTS consent_change_sequence (
+    id            INTEGER PRIMARY KEY,
+    last_sequence BIGINT  NOT NULL
+);
+INSERT INTO consent_change_sequence (id, last_sequence) VALUES (1, 0)
+ON CONFLICT (id) DO NOTHING;
+
+CREATE TABLE IF NOT EXISTS consent_changes (
+    sequence     BIGINT                   PRIMARY KEY,
+    change_type  VARCHAR(255)             NOT NULL,
+    consent_id   UUID                     NOT NULL,
+    patient_ref  VARCHAR(255)             NOT NULL,
+    scope_mask   BIGINT                   NOT NULL,
+    granted_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+    occurred_at  TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Offsets of in-process consumers (ConsentChangePublisher)
+CREATE TABLE IF NOT EXISTS consent_change_offsets (
+    consumer_id   VARCHAR(255)             PRIMARY KEY,
+    last_sequence BIGINT                   NOT NULL,
+    updated_at    TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,80 @@
+-- ============================================================================
+-- consents.scope_mask - migrate scopes from the consent_scopes join table
+-- (PostgreSQL 13+)
+--
+-- The H2 demo database creates consents from the JPA entity. Existing
+-- databases run this once, with the application stopped or on a release
+-- that already reads scope_mask.
+--
+-- Bits must match ConsentScope - never reorder or reuse them:
+--   PATIENT_VIEW                      1   (bit 0)
+--   EMERGENCY_CONTACT_NOTIFY          2   (bit 1)
+--   EMERGENCY_CONTACT_NOTIFY_DETAILED 4   (bit 2)
+--   APPOINTMENT_REMINDER              8   (bit 3)
+--   MEDICATION_REMINDER               16  (bit 4)
+-- ============================================================================
+
+BEGIN;
+
+-- 1. Refuse to migrate scopes the enum does not know - they would be lost silently
+DO $$
+DECLARE
+    unknown TEXT;
+BEGIN
+    SELECT string_agg(DISTINCT scope, ', ') INTO unknown
+    FROM consent_scopes
+    WHERE scope NOT IN ('PATIENT_VIEW', 'EMERGENCY_CONTACT_NOTIFY', 'EMERGENCY_CONTACT_NOTIFY_DETAILED',
+                        'APPOINTMENT_REMINDER', 'MEDICATION_REMINDER');
+    IF unknown IS NOT NULL THEN
+        RAISE EXCEPTION 'consent_scopes contains scopes missing from ConsentScope: %', unknown;
+    END IF;
+END
+$$;
+
+-- 2. New column (0 = no scopes)
+ALTER TABLE consents ADD COLUMN IF NOT EXISTS scope_mask BIGINT NOT NULL DEFAULT 0;
+
+-- 3. Fold each consent's scope rows into one mask
+UPDATE consents c
+SET scope_mask = m.mask
+FROM (
+    SELECT consent_id,
+           bit_or(CASE scope
+                      WHEN 'PATIENT_VIEW'                      THEN 1
+                      WHEN 'EMERGENCY_CONTACT_NOTIFY'          THEN 2
+                      WHEN 'EMERGENCY_CONTACT_NOTIFY_DETAILED' THEN 4
+                      WHEN 'APPOINTMENT_REMINDER'              THEN 8
+                      WHEN 'MEDICATION_REMINDER'               THEN 16
+                  END::BIGINT) AS mask
+    FROM consent_scopes
+    GROUP BY consent_id
+) m
+WHERE m.consent_id = c.id;
+
+-- 4. Verify: every (consent, scope) row is represented by a bit
+DO $$
+DECLARE
+    missing BIGINT;
+BEGIN
+    SELECT count(*) INTO missing
+    FROM consent_scopes s
+    JOIN consents c ON c.id = s.consent_id
+    WHERE c.scope_mask & (CASE s.scope
+                              WHEN 'PATIENT_VIEW'                      THEN 1
+                              WHEN 'EMERGENCY_CONTACT_NOTIFY'          THEN 2
+                              WHEN 'EMERGENCY_CONTACT_NOTIFY_DETAILED' THEN 4
+                              WHEN 'APPOINTMENT_REMINDER'              THEN 8
+                              WHEN 'MEDICATION_REMINDER'               THEN 16
+                          END)::BIGINT = 0;
+    IF missing > 0 THEN
+        RAISE EXCEPTION '% consent scope rows were not migrated', missing;
+    END IF;
+END
+$$;
+
+ALTER TABLE consents ALTER COLUMN scope_mask DROP DEFAULT;
+
+COMMIT;
+
+-- 5. Once the new release has run cleanly, drop the old table:
+-- DROP TABLE consent_scopes;
@@ -0,0 +1,108 @@
+-- ============================================================================
+-- Sharding by patient reference ID - schema for existing databases
+-- (PostgreSQL 13+)
+--
+-- The H2 demo database creates these from the JPA entities. Existing
+-- databases run this once, with the application stopped, before the release
+-- that writes shard_bucket - the application writes it even when sharding is
+-- off. Databases created fresh from audit_logs_partitioned.sql already have
+-- audit_logs.shard_bucket; the rest of this script is still needed.
+--
+-- shard_bucket must equal ShardKey.bucketOf() of the row's patient reference:
+-- Java String.hashCode (UTF-16), murmur3 finalizer, low 10 bits. Never change
+-- the function once rows are stored - bucket moves rely on it.
+--
+-- Sharded deployments: run on every shard database.
+-- ============================================================================
+
+BEGIN;
+
+-- 1. ShardKey.bucketOf() in SQL. Arithmetic on unsigned 32-bit values kept in BIGINT.
+CREATE OR REPLACE FUNCTION shard_bucket_mul32(a BIGINT, b BIGINT)
+RETURNS BIGINT
+LANGUAGE sql IMMUTABLE
+AS $$
+    -- (a * b) mod 2^32 without overflowing BIGINT: multiply by b's halves
+    SELECT ((a * (b & 65535)) + (((a * (b >> 16)) & 65535) << 16)) & 4294967295;
+$$;
+
+CREATE OR REPLACE FUNCTION shard_bucket_of(patient_ref TEXT)
+RETURNS INTEGER
+LANGUAGE plpgsql IMMUTABLE
+AS $$
+DECLARE
+    h  BIGINT := 0;
+    cp INTEGER;
+BEGIN
+    IF patient_ref IS NULL THEN
+        RETURN 0;
+    END IF;
+    -- String.hashCode: h = 31 * h + char over UTF-16 code units
+    FOR i IN 1..char_length(patient_ref) LOOP
+        cp := ascii(substr(patient_ref, i, 1));
+        IF cp > 65535 THEN
+            h := (h * 31 + 55296 + ((cp - 65536) >> 10)) & 4294967295;   -- high surrogate
+            h := (h * 31 + 56320 + ((cp - 65536) & 1023)) & 4294967295;  -- low surrogate
+        ELSE
+            h := (h * 31 + cp) & 4294967295;
+        END IF;
+    END LOOP;
+    -- murmur3 finalizer
+    h := h # (h >> 16);
+    h := shard_bucket_mul32(h, 2246822507);  -- 0x85ebca6b
+    h := h # (h >> 13);
+    h := shard_bucket_mul32(h, 3266489909);  -- 0xc2b2ae35
+    h := h # (h >> 16);
+    RETURN (h & 1023)::INTEGER;               -- ShardKey.BUCKETS - 1
+END;
+$$;
+
+-- 2. Refuse to run if the function disagrees with ShardKey (values from ShardKey.bucketOf)
+DO $$
+BEGIN
+    IF shard_bucket_of('PAT_12345') <> 951
+            OR shard_bucket_of('TEST_PAT_001') <> 684
+            OR shard_bucket_of(NULL) <> 0
+            OR shard_bucket_of(U&'\03A9mega-\+01F600') <> 345 THEN
+        RAISE EXCEPTION 'shard_bucket_of() does not match ShardKey.bucketOf()';
+    END IF;
+END
+$$;
+
+-- 3. Patient-scoped tables: add, backfill, then require the column
+ALTER TABLE patients ADD COLUMN IF NOT EXISTS shard_bucket INTEGER;
+UPDATE patients SET shard_bucket = shard_bucket_of(reference_id) WHERE shard_bucket IS NULL;
+ALTER TABLE patients ALTER COLUMN shard_bucket SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_patients_shard_bucket ON patients (shard_bucket);
+
+ALTER TABLE consents ADD COLUMN IF NOT EXISTS shard_bucket INTEGER;
+UPDATE consents SET shard_bucket = shard_bucket_of(patient_ref) WHERE shard_bucket IS NULL;
+ALTER TABLE consents ALTER COLUMN shard_bucket SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_consents_shard_bucket ON consents (shard_bucket);
+
+-- audit_logs: shard_bucket is not part of content_hash, so the hash chains stay valid.
+-- On a large table, run the UPDATE one monthly partition at a time instead.
+ALTER TABLE audit_logs ADD COLUMN IF NOT EXISTS shard_bucket INTEGER;
+UPDATE audit_logs SET shard_bucket = shard_bucket_of(patient_ref) WHERE shard_bucket IS NULL;
+ALTER TABLE audit_logs ALTER COLUMN shard_bucket SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_audit_logs_shard_bucket ON audit_logs (shard_bucket);
+
+-- 4. Bucket map (ShardRebalancer - read on the home shard, filled on first sharded start)
+CREATE TABLE IF NOT EXISTS shard_buckets (
+    bucket INTEGER PRIMARY KEY,
+    shard  INTEGER NOT NULL
+);
+
+-- 5. Consent changes waiting to be relayed to the home shard's change log (ConsentOutboxRelay)
+CREATE TABLE IF NOT EXISTS consent_outbox (
+    id          BIGINT                   GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    change_type VARCHAR(255)             NOT NULL,
+    consent_id  UUID                     NOT NULL,
+    patient_ref VARCHAR(255)             NOT NULL,
+    scope_mask  BIGINT                   NOT NULL,
+    granted_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+COMMIT;
@@ -0,0 +1,121 @@
+package com.mccrae.healthcare.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for AdaptiveConcurrencyLimit and RequestClassifier
+ *
+ * Note: Uses synthetic test data (TEST_PAT_*)
+ */
+class AdaptiveConcurrencyLimitTest {
+
+    private final long[] now = {0};
+
+    @Test
+    void testAcquire_BulkIsRejectedImmediatelyAtLimit() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimit limit = limit(2, Duration.ZERO, 0);
+
+        // When
+        long first = limit.acquire();
+        long second = limit.acquire();
+        long third = limit.acquire();
+
+        // Then
+        assertThat(first).isNotNegative();
+        assertThat(second).isNotNegative();
+        assertThat(third).isEqualTo(-1);
+        assertThat(limit.stats().rejected()).isEqualTo(1);
+        assertThat(limit.stats().queued()).isZero();
+    }
+
+    @Test
+    void testRelease_SlowRequestsShrinkLimitOncePerLatencyTarget() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimit limit = limit(10, Duration.ZERO, 0);
+        long first = limit.acquire();
+        long second = limit.acquire();
+
+        // When - both finish 200ms later (target 100ms)
+        now[0] += Duration.ofMillis(200).toNanos();
+        boolean firstOverloaded = limit.release(first, false);
+        limit.release(second, false);
+
+        // Then - one burst, one decrease
+        assertThat(firstOverloaded).isTrue();
+        assertThat(limit.stats().limit()).isEqualTo(5);
+
+        // When - a 5xx after the target has passed again
+        now[0] += Duration.ofMillis(200).toNanos();
+        limit.release(limit.acquire(), true);
+
+        // Then
+        assertThat(limit.stats().limit()).isEqualTo(2);
+    }
+
+    @Test
+    void testRelease_FastRequestsGrowLimitOnlyWhenItIsUsed() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimit limit = limit(4, Duration.ZERO, 0);
+
+        // When - one request at a time never uses half the limit
+        for (int i = 0; i < 20; i++) {
+            limit.release(limit.acquire(), false);
+        }
+
+        // Then
+        assertThat(limit.stats().limit()).isEqualTo(4);
+
+        // When - all four slots busy, each completing fast
+        for (int round = 0; round < 4; round++) {
+            long[] admitted = new long[4];
+            for (int i = 0; i < admitted.length; i++) {
+                admitted[i] = limit.acquire();
+            }
+            for (long admittedAt : admitted) {
+                limit.release(admittedAt, false);
+            }
+        }
+
+        // Then
+        assertThat(limit.stats().limit()).isGreaterThan(4);
+    }
+
+    @Test
+    void testAcquire_QueuedRequestTimesOutWhenNoSlotFrees() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(RequestClass.INTERACTIVE, 1, 1, 4, 0.5,
+                Duration.ofMillis(100), Duration.ofMillis(20), 10);
+        limit.acquire();
+
+        // When
+        long queued = limit.acquire();
+
+        // Then
+        assertThat(queued).isEqualTo(-1);
+        assertThat(limit.stats().rejected()).isEqualTo(1);
+        assertThat(limit.stats().waiting()).isZero();
+    }
+
+    @Test
+    void testClassify_NotificationsAreCriticalAndExportsAreBulk() {
+        assertThat(RequestClassifier.classify("POST", "/api/notifications", null)).isEqualTo(RequestClass.CRITICAL);
+        assertThat(RequestClassifier.classify("POST", "/api/notifications/bulk", null)).isEqualTo(RequestClass.BULK);
+        assertThat(RequestClassifier.classify("POST", "/api/patients/import", null)).isEqualTo(RequestClass.BULK);
+        assertThat(RequestClassifier.classify("GET", "/api/patients", "application/x-ndjson")).isEqualTo(RequestClass.BULK);
+        assertThat(RequestClassifier.classify("GET", "/api/consents/changes", null)).isEqualTo(RequestClass.BULK);
+        assertThat(RequestClassifier.classify("GET", "/api/patients", "application/json")).isEqualTo(RequestClass.INTERACTIVE);
+        assertThat(RequestClassifier.classify("GET", "/api/patients/TEST_PAT_001", null)).isEqualTo(RequestClass.INTERACTIVE);
+        assertThat(RequestClassifier.classify("GET", "/api/admission/stats", null)).isNull();
+        assertThat(RequestClassifier.classify("GET", "/h2-console", null)).isNull();
+    }
+
+    private AdaptiveConcurrencyLimit limit(int initialLimit, Duration maxQueueTime, int maxQueueSize) {
+        return new AdaptiveConcurrencyLimit(RequestClass.BULK, initialLimit, 1, 16, 0.5,
+                Duration.ofMillis(100), maxQueueTime, maxQueueSize, () -> now[0]);
+    }
+}
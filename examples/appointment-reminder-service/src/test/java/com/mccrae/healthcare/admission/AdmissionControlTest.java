@@ -0,0 +1,82 @@
+package com.mccrae.healthcare.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for AdmissionControl
+ *
+ * Note: Uses synthetic test data (TEST_PAT_*)
+ */
+class AdmissionControlTest {
+
+    @Test
+    void testAdmit_BulkNotificationIsShedBeforeCriticalAtLimit() throws Exception {
+        // Given - CRITICAL at its limit of 1, with a second CRITICAL notification queueing
+        AdmissionControl admissionControl = new AdmissionControl(true, new MockEnvironment()
+                .withProperty("healthcare.admission.critical.initial-limit", "1")
+                .withProperty("healthcare.admission.critical.min-limit", "1"));
+        AdmissionControl.Admission holding = admissionControl.admit(classify("/api/notifications"));
+        CompletableFuture<AdmissionControl.Admission> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return admissionControl.admit(classify("/api/notifications"));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        awaitWaiting(admissionControl, RequestClass.CRITICAL);
+
+        // When
+        AdmissionControl.Admission bulk = admissionControl.admit(classify("/api/notifications/bulk"));
+        holding.release(false);
+
+        // Then - the BULK notification is shed, the queued CRITICAL one gets the freed slot
+        assertThat(bulk).isNull();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(stats(admissionControl, RequestClass.BULK).rejected()).isEqualTo(1);
+        assertThat(stats(admissionControl, RequestClass.CRITICAL).rejected()).isZero();
+    }
+
+    @Test
+    void testAdmit_BulkNotificationIsShedAtBulkLimitWhileCriticalIsAdmitted() throws Exception {
+        // Given - BULK at its limit of 1 (an import)
+        AdmissionControl admissionControl = new AdmissionControl(true, new MockEnvironment()
+                .withProperty("healthcare.admission.bulk.initial-limit", "1")
+                .withProperty("healthcare.admission.bulk.min-limit", "1"));
+        admissionControl.admit(classify("/api/patients/import"));
+
+        // When
+        AdmissionControl.Admission bulk = admissionControl.admit(classify("/api/notifications/bulk"));
+        AdmissionControl.Admission critical = admissionControl.admit(classify("/api/notifications"));
+
+        // Then
+        assertThat(bulk).isNull();
+        assertThat(critical).isNotNull();
+        assertThat(critical.requestClass()).isEqualTo(RequestClass.CRITICAL);
+    }
+
+    private static RequestClass classify(String path) {
+        return RequestClassifier.classify("POST", path, null);
+    }
+
+    private static AdmissionStats.ClassStats stats(AdmissionControl admissionControl, RequestClass requestClass) {
+        return admissionControl.stats().classes().stream()
+                .filter(stats -> stats.requestClass() == requestClass)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void awaitWaiting(AdmissionControl admissionControl, RequestClass requestClass)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (stats(admissionControl, requestClass).waiting() == 0) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.mccrae.healthcare.appointment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for HierarchicalTimingWheel
+ */
+class HierarchicalTimingWheelTest {
+    
+    @Test
+    void testAdvance_FiresWhenTickEnds_AcrossLevels() {
+        // Given - 1s ticks, 4 slots: level 0 spans 4s, level 1 16s, level 2 64s
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 4, 0);
+        wheel.add("level0", 2_500);
+        wheel.add("level1", 9_000);
+        wheel.add("level2", 40_000);
+        List<String> fired = new ArrayList<>();
+        
+        // When / Then
+        wheel.advanceTo(2_999, fired::add);
+        assertThat(fired).isEmpty();
+        wheel.advanceTo(3_000, fired::add);
+        assertThat(fired).containsExactly("level0");
+        wheel.advanceTo(9_999, fired::add);
+        assertThat(fired).containsExactly("level0");
+        wheel.advanceTo(10_000, fired::add);
+        assertThat(fired).containsExactly("level0", "level1");
+        wheel.advanceTo(40_999, fired::add);
+        assertThat(fired).containsExactly("level0", "level1");
+        wheel.advanceTo(41_000, fired::add);
+        assertThat(fired).containsExactly("level0", "level1", "level2");
+        assertThat(wheel.size()).isZero();
+    }
+    
+    @Test
+    void testAdd_AlreadyDue_ReturnsFalse() {
+        // Given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, 10_500);
+        
+        // When / Then - the current tick started at 10_000
+        assertThat(wheel.add("past", 9_999)).isFalse();
+        assertThat(wheel.add("current tick", 10_000)).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+    
+    @Test
+    void testAdvance_RandomSchedule_EveryItemFiresOnceAndNeverEarly() {
+        // Given
+        Random random = new Random(42);
+        long tick = 100;
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(tick, 8, 0);
+        Map<Integer, Long> due = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            long dueMillis = random.nextInt(1_000_000);
+            due.put(i, dueMillis);
+            assertThat(wheel.add(i, dueMillis)).isTrue();
+        }
+        
+        // When - advance in uneven steps
+        Map<Integer, Long> firedAt = new HashMap<>();
+        long previous = 0;
+        long now = 0;
+        while (now < 1_001_000) {
+            now += 1 + random.nextInt(5_000);
+            long advancedTo = now;
+            long lastAdvance = previous;
+            wheel.advanceTo(advancedTo, item -> {
+                assertThat(firedAt.put(item, advancedTo)).isNull();
+                // Never early, and not held back past the advance after its tick ended
+                assertThat(due.get(item)).isLessThan(advancedTo);
+                assertThat(due.get(item) + tick).isGreaterThan(lastAdvance);
+            });
+            previous = now;
+        }
+        
+        // Then
+        assertThat(firedAt).hasSize(10_000);
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,125 @@
+package com.mccrae.healthcare.appointment;
+
+import com.mccrae.healthcare.audit.AuditLogger;
+import com.mccrae.healthcare.consent.ConsentValidator;
+import com.mccrae.healthcare.patient.PatientRepository;
+import com.mccrae.healthcare.patient.PatientTimezone;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ReminderDispatcher
+ * 
+ * Note: Uses synthetic test data (TEST_PAT_001, TEST_PAT_002)
+ */
+@ExtendWith(MockitoExtension.class)
+class ReminderDispatcherTest {
+    
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    
+    @Mock
+    private PatientRepository patientRepository;
+    
+    @Mock
+    private ConsentValidator consentValidator;
+    
+    @Mock
+    private ReminderNotifier reminderNotifier;
+    
+    @Mock
+    private AuditLogger auditLogger;
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(); // Unsharded - runs work inline
+    
+    @InjectMocks
+    private ReminderDispatcher reminderDispatcher;
+    
+    @Test
+    void testDispatch_SendsOnlyWithConsent_InPatientTimezone() {
+        // Given
+        Appointment withConsent = appointment("TEST_PAT_001");
+        Appointment withoutConsent = appointment("TEST_PAT_002");
+        when(appointmentRepository.findAllById(any())).thenReturn(List.of(withConsent, withoutConsent));
+        when(consentValidator.validateConsents(any(), eq("APPOINTMENT_REMINDER")))
+                .thenReturn(Map.of("TEST_PAT_001", true, "TEST_PAT_002", false));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+        when(patientRepository.findByReferenceIdIn(any())).thenReturn(List.of(timezone("TEST_PAT_001", "Pacific/Auckland")));
+        
+        // When
+        reminderDispatcher.dispatch(List.of(task(withConsent), task(withoutConsent)));
+        
+        // Then
+        verify(reminderNotifier).send(withConsent, ZoneId.of("Pacific/Auckland"));
+        verify(reminderNotifier, never()).send(eq(withoutConsent), any());
+        verify(auditLogger).log(eq("REMINDER_SENT"), eq("TEST_PAT_001"), anyString());
+        verify(auditLogger).log(eq("REMINDER_SKIPPED"), eq("TEST_PAT_002"), anyString());
+    }
+    
+    @Test
+    void testDispatch_RescheduledOrClaimedElsewhere_NotSent() {
+        // Given - stored due time differs from the task's (rescheduled), and a claim lost to another instance
+        Appointment rescheduled = appointment("TEST_PAT_001");
+        ReminderTask staleTask = new ReminderTask(rescheduled.getId(), rescheduled.getReminderDueAt().minusSeconds(60));
+        Appointment alreadyClaimed = appointment("TEST_PAT_002");
+        when(appointmentRepository.findAllById(any())).thenReturn(List.of(rescheduled, alreadyClaimed));
+        when(consentValidator.validateConsents(any(), eq("APPOINTMENT_REMINDER")))
+                .thenReturn(Map.of("TEST_PAT_002", true));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{0});
+        
+        // When
+        reminderDispatcher.dispatch(List.of(staleTask, task(alreadyClaimed)));
+        
+        // Then
+        verify(reminderNotifier, never()).send(any(), any());
+        verify(auditLogger, never()).log(anyString(), anyString(), anyString());
+    }
+    
+    private static Appointment appointment(String patientRef) {
+        Appointment appointment = new Appointment();
+        appointment.setPatientRef(patientRef);
+        appointment.setAppointmentType("Checkup");
+        appointment.setScheduledTime(Instant.now().plus(1, ChronoUnit.DAYS));
+        appointment.setLocation("Room 101");
+        appointment.setProviderName("TEST_PROVIDER");
+        appointment.setReminderDueAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        return appointment;
+    }
+    
+    private static ReminderTask task(Appointment appointment) {
+        return new ReminderTask(appointment.getId(), appointment.getReminderDueAt());
+    }
+    
+    private static PatientTimezone timezone(String referenceId, String timezone) {
+        return new PatientTimezone() {
+            @Override
+            public String getReferenceId() {
+                return referenceId;
+            }
+            
+            @Override
+            public String getTimezone() {
+                return timezone;
+            }
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package com.mccrae.healthcare.audit;
+
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AuditArchiver
+ *
+ * Note: Uses synthetic test data (TEST_PAT_001)
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditArchiverTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @Mock
+    private AuditChainVerifier verifier;
+
+    @Mock
+    private AuditColdStore coldStore;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(); // Unsharded - runs work inline
+
+    @InjectMocks
+    private AuditArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(archiver, "afterDays", 90);
+        ReflectionTestUtils.setField(archiver, "rowsPerSegment", 100);
+    }
+
+    @Test
+    void testArchive_RowsAppendedAfterVerificationAreLeftForTheNextRun() throws Exception {
+        // Given - verify() re-hashed the chain through seq 2; seq 3 was appended while it ran
+        Instant dayStart = DAY.atStartOfDay(ZoneOffset.UTC).toInstant();
+        AuditLog first = chained(dayStart.plusSeconds(1), 1);
+        AuditLog second = chained(dayStart.plusSeconds(2), 2);
+        AuditLog appended = chained(dayStart.plusSeconds(3), 3);
+        when(jdbcTemplate.queryForObject(anyString(), eq(OffsetDateTime.class), any(), any()))
+                .thenReturn(dayStart.plusSeconds(1).atOffset(ZoneOffset.UTC), (OffsetDateTime) null);
+        when(verifier.verifyChains(any(), any())).thenReturn(new AuditChainVerifier.VerifiedChains(
+                new AuditChainVerification(dayStart, dayStart.plusSeconds(86400), 1, 1, 2, 1.0, List.of()),
+                Map.of(new AuditChain.ChainKey(DAY, 0), 2L)));
+        when(coldStore.ids(DAY)).thenReturn(Set.of());
+        when(auditLogRepository.findRange(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(first, second, appended));
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> work = invocation.getArgument(0);
+            work.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // When
+        long moved = archiver.archive();
+
+        // Then - only the verified rows were archived and deleted
+        assertThat(moved).isEqualTo(2);
+        verify(coldStore).add(DAY, List.of(first, second));
+        verify(jdbcTemplate).update(anyString(), any(), any(), eq(first.getId()), eq(second.getId()));
+        verify(jdbcTemplate, never()).update(anyString(), any(), any(), eq(first.getId()), eq(second.getId()),
+                eq(appended.getId()));
+    }
+
+    @Test
+    void testArchive_BrokenChainIsNotArchived() throws Exception {
+        // Given
+        Instant dayStart = DAY.atStartOfDay(ZoneOffset.UTC).toInstant();
+        when(jdbcTemplate.queryForObject(anyString(), eq(OffsetDateTime.class), any(), any()))
+                .thenReturn(dayStart.plusSeconds(1).atOffset(ZoneOffset.UTC), (OffsetDateTime) null);
+        AuditChainBreak broken = new AuditChainBreak(DAY, 0, 2, "content hash mismatch");
+        when(verifier.verifyChains(any(), any())).thenReturn(new AuditChainVerifier.VerifiedChains(
+                new AuditChainVerification(dayStart, dayStart.plusSeconds(86400), 1, 1, 2, 1.0, List.of(broken)),
+                Map.of(new AuditChain.ChainKey(DAY, 0), 2L)));
+
+        // When
+        long moved = archiver.archive();
+
+        // Then
+        assertThat(moved).isZero();
+        verify(coldStore, never()).add(any(), any());
+        verifyNoInteractions(auditLogRepository);
+    }
+
+    private static AuditLog chained(Instant timestamp, long seq) {
+        AuditLog row = new AuditLog(UUID.randomUUID(), timestamp, "PATIENT_ACCESSED", "TEST_PAT_001",
+                "Synthetic test event");
+        row.chain(DAY, 0, seq);
+        return row;
+    }
+}
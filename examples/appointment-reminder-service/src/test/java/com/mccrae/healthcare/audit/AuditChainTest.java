@@ -0,0 +1,210 @@
+package com.mccrae.healthcare.audit;
+
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for AuditChain and AuditChainHasher
+ *
+ * Note: Uses synthetic test data (TEST_PAT_*)
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditChainTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuditColdStore coldStore;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(); // Unsharded - runs work inline
+
+    @InjectMocks
+    private AuditChain auditChain;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(auditChain, "shards", 1);
+        ReflectionTestUtils.setField(auditChain, "transactionLanes", 2);
+    }
+
+    @Test
+    void testAppend_ChainsRowsInSequence() {
+        // Given - empty chain
+        givenNoStoredRows();
+        AuditLog first = new AuditLog("PATIENT_CREATED", "TEST_PAT_001", "Patient record created");
+        AuditLog second = new AuditLog("PATIENT_ACCESSED", "TEST_PAT_001", "Patient record accessed");
+
+        // When
+        auditChain.append(List.of(first, second), () -> { });
+
+        // Then - second is hashed over first
+        AuditChainHasher hasher = new AuditChainHasher();
+        assertThat(first.getChainSeq()).isEqualTo(1);
+        assertThat(second.getChainSeq()).isEqualTo(2);
+        assertThat(first.getContentHash()).isEqualTo(hasher.hash(AuditChainHasher.GENESIS, first));
+        assertThat(second.getContentHash()).isEqualTo(hasher.hash(first.getContentHash(), second));
+    }
+
+    @Test
+    void testAppend_FailedInsertDoesNotAdvanceChain() {
+        // Given
+        givenNoStoredRows();
+        AuditLog failed = new AuditLog("PATIENT_CREATED", "TEST_PAT_001", "Patient record created");
+
+        // When - the insert rolls back, then the same event is retried
+        assertThatThrownBy(() -> auditChain.append(List.of(failed), () -> {
+            throw new IllegalStateException("TEST insert failure");
+        })).isInstanceOf(IllegalStateException.class);
+        auditChain.append(List.of(failed), () -> { });
+
+        // Then - no gap in the chain
+        assertThat(failed.getChainSeq()).isEqualTo(1);
+    }
+
+    @Test
+    void testAppend_OpenOuterTransactionDoesNotBlockOtherWriters() throws Exception {
+        // Given - an import chunk has appended inside its transaction and not yet committed
+        givenNoStoredRows();
+        AuditLog imported = new AuditLog("PATIENT_CREATED", "TEST_PAT_001", "Patient record created");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            auditChain.append(List.of(imported), () -> { });
+
+            // When - the pipeline and a second transaction append from other threads
+            AuditLog flushed = new AuditLog("PATIENT_ACCESSED", "TEST_PAT_002", "Patient record accessed");
+            CompletableFuture.runAsync(() -> auditChain.append(List.of(flushed), () -> { }))
+                    .get(5, TimeUnit.SECONDS);
+            AuditLog outcome = new AuditLog("NOTIFICATION_SENT", "TEST_PAT_003", "Notification sent");
+            CompletableFuture.runAsync(() -> {
+                TransactionSynchronizationManager.initSynchronization();
+                try {
+                    auditChain.append(List.of(outcome), () -> { });
+                    completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+                } finally {
+                    TransactionSynchronizationManager.clear();
+                }
+            }).get(5, TimeUnit.SECONDS);
+
+            // Then - neither waited; each transaction lane has a chain of its own
+            assertThat(flushed.getChainShard()).isZero();
+            assertThat(imported.getChainShard()).isEqualTo(1);
+            assertThat(outcome.getChainShard()).isEqualTo(2);
+            assertThat(flushed.getChainSeq()).isEqualTo(1);
+            assertThat(imported.getChainSeq()).isEqualTo(1);
+            assertThat(outcome.getChainSeq()).isEqualTo(1);
+        } finally {
+            completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    @Test
+    void testAppend_RolledBackOuterTransactionLeavesNoGap() {
+        // Given
+        givenNoStoredRows();
+        AuditLog rolledBack = new AuditLog("PATIENT_CREATED", "TEST_PAT_001", "Patient record created");
+        AuditLog retried = new AuditLog("PATIENT_CREATED", "TEST_PAT_001", "Patient record created");
+
+        // When - the first import chunk rolls back, the retry commits
+        for (int status : new int[]{TransactionSynchronization.STATUS_ROLLED_BACK,
+                TransactionSynchronization.STATUS_COMMITTED}) {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                auditChain.append(List.of(status == TransactionSynchronization.STATUS_COMMITTED ? retried : rolledBack),
+                        () -> { });
+                completeTransaction(status);
+            } finally {
+                TransactionSynchronizationManager.clear();
+            }
+        }
+
+        // Then
+        assertThat(rolledBack.getChainSeq()).isEqualTo(1);
+        assertThat(retried.getChainSeq()).isEqualTo(1);
+        assertThat(retried.getChainShard()).isEqualTo(rolledBack.getChainShard());
+    }
+
+    @Test
+    void testHash_AnyChangedColumnChangesHash() {
+        // Given
+        givenNoStoredRows();
+        AuditLog row = new AuditLog("PATIENT_ACCESSED", "TEST_PAT_001", "Patient record accessed");
+        auditChain.append(List.of(row), () -> { });
+        AuditLog tampered = new AuditLog(row.getId(), row.getTimestamp(), row.getEventType(), row.getPatientRef(),
+                "Patient record accessed ");
+        tampered.chain(row.getChainDay(), row.getChainShard(), row.getChainSeq());
+
+        // When
+        byte[] hash = new AuditChainHasher().hash(AuditChainHasher.GENESIS, tampered);
+
+        // Then
+        assertThat(hash).isNotEqualTo(row.getContentHash());
+    }
+
+    @Test
+    void testMerkleRoot_DependsOnOrder() {
+        // Given
+        AuditChainHasher hasher = new AuditChainHasher();
+        byte[] a = hasher.hash(AuditChainHasher.GENESIS, chained("TEST_PAT_001", 1));
+        byte[] b = hasher.hash(a, chained("TEST_PAT_002", 2));
+        byte[] c = hasher.hash(b, chained("TEST_PAT_003", 3));
+
+        // When / Then
+        assertThat(hasher.merkleRoot(List.of(a, b, c))).isEqualTo(hasher.merkleRoot(List.of(a, b, c)));
+        assertThat(hasher.merkleRoot(List.of(a, c, b))).isNotEqualTo(hasher.merkleRoot(List.of(a, b, c)));
+        assertThat(hasher.merkleRoot(List.of(a, b))).isNotEqualTo(hasher.merkleRoot(List.of(a, b, c)));
+    }
+
+    @Test
+    void testTimestamp_TruncatedToStoredPrecision() {
+        // When
+        AuditLog row = new AuditLog("PATIENT_ACCESSED", "TEST_PAT_001", "Patient record accessed");
+
+        // Then - microseconds, as stored in audit_logs
+        assertThat(row.getTimestamp().getNano() % 1_000).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenNoStoredRows() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any())).thenReturn(List.of());
+    }
+
+    // What the transaction manager does once the outer transaction ends
+    private static void completeTransaction(int status) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        }
+    }
+
+    private static AuditLog chained(String patientRef, long seq) {
+        AuditLog row = new AuditLog("PATIENT_ACCESSED", patientRef, "Patient record accessed");
+        row.chain(AuditChain.dayOf(Instant.now()), 0, seq);
+        return row;
+    }
+}
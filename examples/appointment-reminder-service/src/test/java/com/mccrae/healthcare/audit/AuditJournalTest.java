@@ -0,0 +1,83 @@
+package com.mccrae.healthcare.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for AuditJournal
+ *
+ * Note: Uses synthetic test data (TEST_PAT_001)
+ */
+class AuditJournalTest {
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void testRecover_ReturnsUnreleasedEvents() throws IOException {
+        // Given
+        AuditJournal journal = new AuditJournal(journalDir, 1024 * 1024);
+        journal.open();
+        AuditLog event = new AuditLog("PATIENT_ACCESSED", "TEST_PAT_001", "Patient record accessed");
+        event.setCorrelationId("TEST_CORR_001");
+        journal.append(event);
+        journal.close();
+
+        // When
+        AuditJournal.Recovery recovery = new AuditJournal(journalDir, 1024 * 1024).recover();
+
+        // Then
+        assertThat(recovery.records()).hasSize(1);
+        AuditLog recovered = recovery.records().get(0);
+        assertThat(recovered.getId()).isEqualTo(event.getId());
+        assertThat(recovered.getTimestamp()).isEqualTo(event.getTimestamp());
+        assertThat(recovered.getPatientRef()).isEqualTo("TEST_PAT_001");
+        assertThat(recovered.getCorrelationId()).isEqualTo("TEST_CORR_001");
+        assertThat(recovered.getUserId()).isNull();
+    }
+
+    @Test
+    void testRelease_DeletesCommittedSegments() throws IOException {
+        // Given - tiny segments so every append rolls
+        AuditJournal journal = new AuditJournal(journalDir, 1);
+        journal.open();
+        AuditJournal.Segment first = journal.append(new AuditLog("PATIENT_CREATED", "TEST_PAT_001", "created"));
+        AuditJournal.Segment second = journal.append(new AuditLog("PATIENT_UPDATED", "TEST_PAT_001", "updated"));
+
+        // When
+        journal.release(first);
+        journal.release(second);
+        journal.close();
+
+        // Then
+        assertThat(new AuditJournal(journalDir, 1).recover().records()).isEmpty();
+    }
+
+    @Test
+    void testRecover_IgnoresTornTail() throws IOException {
+        // Given
+        AuditJournal journal = new AuditJournal(journalDir, 1024 * 1024);
+        journal.open();
+        journal.append(new AuditLog("PATIENT_CREATED", "TEST_PAT_001", "created"));
+        journal.close();
+        try (var files = Files.list(journalDir)) {
+            Path segment = files.findFirst().orElseThrow();
+            Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+        }
+
+        // When
+        List<AuditLog> records = new AuditJournal(journalDir, 1024 * 1024).recover().records();
+
+        // Then
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).getEventType()).isEqualTo("PATIENT_CREATED");
+    }
+}
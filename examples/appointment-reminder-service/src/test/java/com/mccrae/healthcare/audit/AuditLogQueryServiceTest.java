@@ -0,0 +1,121 @@
+package com.mccrae.healthcare.audit;
+
+import com.mccrae.healthcare.replica.ReplicaRouter;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AuditLogQueryService
+ * 
+ * Note: Uses synthetic test data (TEST_PAT_001)
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditLogQueryServiceTest {
+    
+    private static final Instant JAN_15 = Instant.parse("2024-01-15T00:00:00Z");
+    private static final Instant FEB_01 = Instant.parse("2024-02-01T00:00:00Z");
+    private static final Instant MAR_01 = Instant.parse("2024-03-01T00:00:00Z");
+    private static final Instant MAR_10 = Instant.parse("2024-03-10T00:00:00Z");
+    
+    @Mock
+    private AuditLogRepository auditLogRepository;
+    
+    @Mock
+    private AuditLogger auditLogger;
+    
+    @Mock
+    private AuditColdStore coldStore;
+    
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(); // Unsharded - runs work inline
+    
+    @Spy
+    private ReplicaRouter replicaRouter = new ReplicaRouter(); // No replicas - runs work inline
+    
+    @InjectMocks
+    private AuditLogQueryService auditLogQueryService;
+    
+    @Test
+    void testFindByPatient_QueriesOneMonthAtATime() {
+        // Given
+        AuditLog january = event(Instant.parse("2024-01-20T10:00:00Z"));
+        when(auditLogRepository.findPatientRange(eq("TEST_PAT_001"), any(), any(), any(), any(), any()))
+                .thenReturn(List.of());
+        when(auditLogRepository.findPatientRange(eq("TEST_PAT_001"), eq(JAN_15), eq(FEB_01), any(), any(), any()))
+                .thenReturn(List.of(january));
+        
+        // When
+        AuditLogPage page = auditLogQueryService.findByPatient("TEST_PAT_001", JAN_15, MAR_10, null, 10);
+        
+        // Then - Jan 15..Feb 1, Feb, Mar 1..Mar 10
+        assertThat(page.items()).containsExactly(january);
+        assertThat(page.nextCursor()).isNull();
+        verify(auditLogRepository).findPatientRange(eq("TEST_PAT_001"), eq(FEB_01), eq(MAR_01), any(), any(), any());
+        verify(auditLogRepository).findPatientRange(eq("TEST_PAT_001"), eq(MAR_01), eq(MAR_10), any(), any(), any());
+        verify(auditLogger).log(eq("AUDIT_LOG_QUERIED"), eq("TEST_PAT_001"), anyString());
+    }
+    
+    @Test
+    void testFindByEventType_FullPageResumesFromCursorMonth() {
+        // Given
+        AuditLog last = event(Instant.parse("2024-02-20T10:00:00Z"));
+        when(auditLogRepository.findEventTypeRange(eq("PATIENT_ACCESSED"), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(last));
+        
+        // When
+        AuditLogPage first = auditLogQueryService.findByEventType("PATIENT_ACCESSED", JAN_15, MAR_10, null, 1);
+        auditLogQueryService.findByEventType("PATIENT_ACCESSED", JAN_15, MAR_10, first.nextCursor(), 1);
+        
+        // Then - second page starts in February, after the last row returned
+        assertThat(first.nextCursor()).isNotNull();
+        verify(auditLogRepository).findEventTypeRange(
+                eq("PATIENT_ACCESSED"), eq(FEB_01), eq(MAR_01), eq(last.getTimestamp()), eq(last.getId()), any());
+        verify(auditLogger, never()).log(anyString(), anyString(), anyString());
+    }
+    
+    @Test
+    void testFindByTimeRange_MergesArchivedRowsInOrder() {
+        // Given - one row in audit_logs, two archived, one of them not yet deleted from audit_logs
+        AuditLog archived = event(Instant.parse("2024-01-16T10:00:00Z"));
+        AuditLog both = event(Instant.parse("2024-01-17T10:00:00Z"));
+        AuditLog hot = event(Instant.parse("2024-01-18T10:00:00Z"));
+        when(auditLogRepository.findRange(any(), any(), any(), any(), any())).thenReturn(List.of());
+        when(auditLogRepository.findRange(eq(JAN_15), eq(FEB_01), any(), any(), any())).thenReturn(List.of(both, hot));
+        when(coldStore.find(isNull(), isNull(), eq(JAN_15), eq(FEB_01), any(), anyInt()))
+                .thenReturn(List.of(archived, both));
+        
+        // When
+        AuditLogPage page = auditLogQueryService.findByTimeRange(JAN_15, MAR_10, null, 10);
+        
+        // Then
+        assertThat(page.items()).containsExactly(archived, both, hot);
+    }
+    
+    @Test
+    void testFindByTimeRange_RejectsEmptyRange() {
+        assertThatThrownBy(() -> auditLogQueryService.findByTimeRange(MAR_10, JAN_15, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static AuditLog event(Instant timestamp) {
+        return new AuditLog(UUID.randomUUID(), timestamp, "PATIENT_ACCESSED", "TEST_PAT_001", "Patient record accessed");
+    }
+}
@@ -0,0 +1,177 @@
+package com.mccrae.healthcare.audit;
+
+import com.mccrae.healthcare.concurrent.ThreadFactories;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AuditPipeline
+ *
+ * Note: Uses synthetic test data (TEST_PAT_001)
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditPipelineTest {
+
+    private static final long JOURNAL_SEGMENT_BYTES = 1024 * 1024;
+
+    @Mock
+    private AuditBatchWriter batchWriter;
+
+    @Spy
+    private AuditMetrics metrics = new AuditMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    private ThreadFactories threadFactories = new ThreadFactories(new MockEnvironment());
+
+    @InjectMocks
+    private AuditPipeline pipeline;
+
+    @TempDir
+    Path journalDir;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pipeline, "enabled", true);
+        ReflectionTestUtils.setField(pipeline, "bufferCapacity", 1);
+        ReflectionTestUtils.setField(pipeline, "maxBatchSize", 500);
+        ReflectionTestUtils.setField(pipeline, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(pipeline, "offerTimeoutMs", 10L);
+        ReflectionTestUtils.setField(pipeline, "retryBackoffMs", 10L);
+        ReflectionTestUtils.setField(pipeline, "journalDirectory", journalDir.toString());
+        ReflectionTestUtils.setField(pipeline, "maxSegmentBytes", JOURNAL_SEGMENT_BYTES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    void testSubmit_FullBufferFallsBackToSynchronousWrite() throws Exception {
+        // Given - the drainer is stuck inserting the first event, the second fills the buffer
+        Thread caller = Thread.currentThread();
+        CountDownLatch drainerWriting = new CountDownLatch(1);
+        CountDownLatch databaseBack = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (Thread.currentThread() != caller) {
+                drainerWriting.countDown();
+                databaseBack.await();
+            }
+            return null;
+        }).when(batchWriter).write(anyList());
+        pipeline.start();
+        AuditLog first = event("PATIENT_CREATED");
+        AuditLog second = event("PATIENT_UPDATED");
+        AuditLog third = event("PATIENT_ACCESSED");
+        pipeline.submit(first);
+        assertThat(drainerWriting.await(5, TimeUnit.SECONDS)).isTrue();
+        pipeline.submit(second);
+
+        // When
+        pipeline.submit(third);
+
+        // Then - the caller inserted its own event instead of waiting for the drainer
+        verify(batchWriter).write(List.of(third));
+        assertThat(pipeline.stats().syncFallbacks()).isEqualTo(1);
+        assertThat(pipeline.stats().queueDepth()).isEqualTo(1);
+
+        // When - the database recovers and the pipeline shuts down
+        databaseBack.countDown();
+        pipeline.stop();
+
+        // Then - the queued events were flushed and released from the journal
+        verify(batchWriter).write(List.of(first));
+        verify(batchWriter).write(List.of(second));
+        assertThat(pipeline.stats().eventsFlushed()).isEqualTo(2);
+        assertThat(new AuditJournal(journalDir, JOURNAL_SEGMENT_BYTES).recover().records()).isEmpty();
+    }
+
+    @Test
+    void testSubmit_DisabledPipelineWritesSynchronously() {
+        // Given
+        ReflectionTestUtils.setField(pipeline, "enabled", false);
+        pipeline.start();
+        AuditLog event = event("PATIENT_ACCESSED");
+
+        // When
+        pipeline.submit(event);
+
+        // Then - written on the caller's thread, nothing journaled
+        verify(batchWriter).write(List.of(event));
+        assertThat(pipeline.isRunning()).isFalse();
+        assertThat(journalDir).isEmptyDirectory();
+    }
+
+    @Test
+    void testStart_ReplaysJournalBeforeAcceptingEvents() throws IOException {
+        // Given - the previous process journaled two events and died before its batch committed
+        AuditJournal previous = new AuditJournal(journalDir, JOURNAL_SEGMENT_BYTES);
+        previous.open();
+        AuditLog lost = event("PATIENT_CREATED");
+        AuditLog committed = event("PATIENT_UPDATED");
+        previous.append(lost);
+        previous.append(committed);
+        previous.close();
+        when(batchWriter.writeMissing(anyList())).thenReturn(1);
+
+        // When
+        pipeline.start();
+        AuditLog next = event("PATIENT_ACCESSED");
+        pipeline.submit(next);
+        pipeline.stop();
+
+        // Then - both journaled events handed to writeMissing, before the new event was written
+        InOrder inOrder = inOrder(batchWriter);
+        inOrder.verify(batchWriter).writeMissing(argThat(events -> events.stream()
+                .map(AuditLog::getId)
+                .toList()
+                .equals(List.of(lost.getId(), committed.getId()))));
+        inOrder.verify(batchWriter).write(List.of(next));
+        assertThat(new AuditJournal(journalDir, JOURNAL_SEGMENT_BYTES).recover().records()).isEmpty();
+    }
+
+    @Test
+    void testFlush_FailedBatchIsRetriedUntilItCommits() {
+        // Given - the first insert fails
+        doThrow(new IllegalStateException("TEST_FAILURE")).doNothing().when(batchWriter).write(anyList());
+        pipeline.start();
+        AuditLog event = event("PATIENT_ACCESSED");
+
+        // When
+        pipeline.submit(event);
+        verify(batchWriter, timeout(5000).times(2)).write(List.of(event));
+        pipeline.stop();
+
+        // Then
+        assertThat(pipeline.stats().failedFlushes()).isEqualTo(1);
+        assertThat(pipeline.stats().eventsFlushed()).isEqualTo(1);
+        verify(batchWriter, never()).writeMissing(any());
+    }
+
+    private static AuditLog event(String eventType) {
+        return new AuditLog(eventType, "TEST_PAT_001", "Synthetic test event");
+    }
+}
@@ -0,0 +1,120 @@
+package com.mccrae.healthcare.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for AuditSegmentFile
+ *
+ * Note: Uses synthetic test data (TEST_PAT_*)
+ */
+class AuditSegmentFileTest {
+
+    private static final LocalDate DAY = LocalDate.parse("2024-01-15");
+    private static final Instant DAY_START = Instant.parse("2024-01-15T00:00:00Z");
+    private static final Instant DAY_END = Instant.parse("2024-01-16T00:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testWriteAndOpen_RoundTripsEveryColumn() throws Exception {
+        // Given
+        List<AuditLog> rows = rows(50);
+        Path file = directory.resolve("audit-2024-01-15-0001.aseg");
+
+        // When
+        AuditSegmentFile.write(file, DAY, rows);
+        AuditSegmentFile segment = AuditSegmentFile.open(file);
+        List<AuditLog> read = segment.find(null, null, micros(DAY_START), micros(DAY_END),
+                AuditLogCursor.startingAt(DAY_START), 100);
+
+        // Then
+        assertThat(segment.rowCount()).isEqualTo(50);
+        assertThat(read).hasSize(50);
+        for (int i = 0; i < rows.size(); i++) {
+            AuditLog expected = rows.get(i);
+            AuditLog actual = read.get(i);
+            assertThat(actual.getId()).isEqualTo(expected.getId());
+            assertThat(actual.getTimestamp()).isEqualTo(expected.getTimestamp());
+            assertThat(actual.getEventType()).isEqualTo(expected.getEventType());
+            assertThat(actual.getPatientRef()).isEqualTo(expected.getPatientRef());
+            assertThat(actual.getDetails()).isEqualTo(expected.getDetails());
+            assertThat(actual.getUserId()).isEqualTo(expected.getUserId());
+            assertThat(actual.getCorrelationId()).isEqualTo(expected.getCorrelationId());
+            assertThat(actual.getChainSeq()).isEqualTo(expected.getChainSeq());
+            assertThat(actual.getContentHash()).isEqualTo(expected.getContentHash());
+        }
+    }
+
+    @Test
+    void testFind_FiltersByPatientAndResumesAfterCursor() throws Exception {
+        // Given
+        Path file = directory.resolve("audit-2024-01-15-0001.aseg");
+        AuditSegmentFile.write(file, DAY, rows(50));
+        AuditSegmentFile segment = AuditSegmentFile.open(file);
+
+        // When - first page of 3, then the rest
+        List<AuditLog> first = segment.find("TEST_PAT_003", null, micros(DAY_START), micros(DAY_END),
+                AuditLogCursor.startingAt(DAY_START), 3);
+        List<AuditLog> rest = segment.find("TEST_PAT_003", null, micros(DAY_START), micros(DAY_END),
+                AuditLogCursor.after(first.get(2)), 100);
+
+        // Then - rows 3, 8, 13... of the day
+        assertThat(first).extracting(AuditLog::getPatientRef).containsOnly("TEST_PAT_003");
+        assertThat(first.size() + rest.size()).isEqualTo(10);
+        assertThat(rest.get(0).getTimestamp()).isAfter(first.get(2).getTimestamp());
+    }
+
+    @Test
+    void testMightContain_SkipsAbsentPatientsAndOtherTimes() throws Exception {
+        // Given
+        Path file = directory.resolve("audit-2024-01-15-0001.aseg");
+        AuditSegmentFile.write(file, DAY, rows(50));
+        AuditSegmentFile segment = AuditSegmentFile.open(file);
+
+        // When / Then
+        assertThat(segment.mightContain("TEST_PAT_001", null, micros(DAY_START), micros(DAY_END))).isTrue();
+        assertThat(segment.mightContain(null, "PATIENT_DELETED", micros(DAY_START), micros(DAY_END))).isFalse();
+        assertThat(segment.mightContain(null, null, micros(DAY_END), micros(DAY_END.plusSeconds(60)))).isFalse();
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (segment.mightContain("TEST_PAT_ABSENT_" + i, null, micros(DAY_START), micros(DAY_END))) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(50);
+    }
+
+    // One row a minute, patients TEST_PAT_000..004 in turn, chained like AuditChain does
+    private static List<AuditLog> rows(int count) {
+        AuditChainHasher hasher = new AuditChainHasher();
+        byte[] previous = AuditChainHasher.GENESIS;
+        List<AuditLog> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AuditLog row = new AuditLog(UUID.randomUUID(), DAY_START.plusSeconds(60L * i),
+                    i % 2 == 0 ? "PATIENT_ACCESSED" : "CONSENT_VALIDATED", "TEST_PAT_00" + (i % 5),
+                    "Patient record accessed");
+            row.setUserId(i % 3 == 0 ? null : "TEST_USER_" + (i % 3));
+            row.setCorrelationId(UUID.randomUUID().toString());
+            row.chain(DAY, 0, i + 1);
+            previous = hasher.hash(previous, row);
+            row.setContentHash(previous);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static long micros(Instant instant) {
+        return AuditChainHasher.epochMicros(instant);
+    }
+}
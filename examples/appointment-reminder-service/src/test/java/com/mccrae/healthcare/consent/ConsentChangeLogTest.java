@@ -0,0 +1,88 @@
+package com.mccrae.healthcare.consent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ConsentChangeLog.changesAfter offset checks
+ *
+ * Note: Uses synthetic test data (TEST_PAT_001)
+ */
+@ExtendWith(MockitoExtension.class)
+class ConsentChangeLogTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ConsentChangeRepository changeRepository;
+
+    @InjectMocks
+    private ConsentChangeLog changeLog;
+
+    @Test
+    void testChangesAfter_OffsetPastCommittedSequenceRequiresSnapshot() {
+        // Given - the log was restored to sequence 5, the consumer had reached 9
+        committedSequence(5);
+
+        // When / Then
+        assertThatThrownBy(() -> changeLog.changesAfter(9, 100))
+                .isInstanceOf(ConsentSnapshotRequiredException.class)
+                .hasMessageContaining("9")
+                .hasMessageContaining("5");
+        verify(changeRepository, never()).findChangesAfter(anyLong(), any());
+    }
+
+    @Test
+    void testChangesAfter_CaughtUpOffsetReturnsNoChanges() {
+        // Given
+        committedSequence(5);
+        when(changeRepository.findChangesAfter(eq(5L), any())).thenReturn(List.of());
+
+        // When
+        List<ConsentChange> changes = changeLog.changesAfter(5, 100);
+
+        // Then
+        assertThat(changes).isEmpty();
+    }
+
+    @Test
+    void testChangesAfter_PrunedOffsetRequiresSnapshot() {
+        // Given - changes 1..3 were pruned
+        committedSequence(5);
+        when(changeRepository.findChangesAfter(eq(1L), any())).thenReturn(List.of(change(4), change(5)));
+
+        // When / Then
+        assertThatThrownBy(() -> changeLog.changesAfter(1, 100))
+                .isInstanceOf(ConsentSnapshotRequiredException.class);
+    }
+
+    private void committedSequence(long sequence) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any())).thenReturn(sequence);
+    }
+
+    private static ConsentChange change(long sequence) {
+        Consent consent = new Consent();
+        consent.setPatientRef("TEST_PAT_001");
+        consent.addScope(ConsentScope.APPOINTMENT_REMINDER);
+        consent.setGrantedAt(Instant.now().minus(1, ChronoUnit.DAYS));
+        consent.setExpiresAt(Instant.now().plus(30, ChronoUnit.DAYS));
+        return new ConsentChange(sequence, ConsentChangeType.GRANTED, consent, Instant.now());
+    }
+}
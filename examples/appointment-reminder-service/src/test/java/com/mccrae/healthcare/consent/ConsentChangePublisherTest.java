@@ -0,0 +1,136 @@
+package com.mccrae.healthcare.consent;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ConsentChangePublisher
+ *
+ * Note: Uses synthetic test data (TEST_PAT_001)
+ */
+@ExtendWith(MockitoExtension.class)
+class ConsentChangePublisherTest {
+
+    @Mock
+    private ConsentChangeLog changeLog;
+
+    @Mock
+    private ConsentChangeOffsetRepository offsetRepository;
+
+    @InjectMocks
+    private ConsentChangePublisher publisher;
+
+    private final RecordingListener listener = new RecordingListener();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(publisher, "listeners", List.of(listener));
+        ReflectionTestUtils.setField(publisher, "batchSize", 2);
+    }
+
+    @Test
+    void testDeliver_NewConsumerGetsSnapshotThenChanges() {
+        // Given
+        when(offsetRepository.findById("test-view")).thenReturn(Optional.empty());
+        when(changeLog.snapshot()).thenReturn(new ConsentSnapshot(7, List.of(consent())));
+        when(changeLog.changesAfter(7, 2)).thenReturn(List.of(change(8)));
+
+        // When
+        boolean backlogAfterSnapshot = publisher.deliver(listener);
+        boolean backlogAfterChanges = publisher.deliver(listener);
+
+        // Then
+        assertThat(backlogAfterSnapshot).isTrue();
+        assertThat(backlogAfterChanges).isFalse();
+        assertThat(listener.snapshots).extracting(ConsentSnapshot::sequence).containsExactly(7L);
+        assertThat(listener.changes).extracting(ConsentChange::getSequence).containsExactly(8L);
+        verify(offsetRepository).save(argThat(offset -> offset.getLastSequence() == 7));
+        verify(offsetRepository).save(argThat(offset -> offset.getLastSequence() == 8));
+    }
+
+    @Test
+    void testDeliver_PrunedOffsetReloadsSnapshot() {
+        // Given
+        when(offsetRepository.findById("test-view")).thenReturn(Optional.of(new ConsentChangeOffset("test-view", 3)));
+        when(changeLog.changesAfter(3, 2)).thenThrow(new ConsentSnapshotRequiredException(3));
+        when(changeLog.snapshot()).thenReturn(new ConsentSnapshot(40, List.of()));
+
+        // When
+        publisher.deliver(listener);
+
+        // Then
+        assertThat(listener.snapshots).extracting(ConsentSnapshot::sequence).containsExactly(40L);
+        assertThat(publisher.snapshotsDelivered()).isEqualTo(1);
+    }
+
+    @Test
+    void testDeliver_FailingConsumerKeepsOffset() {
+        // Given
+        listener.failNext = true;
+        when(offsetRepository.findById("test-view")).thenReturn(Optional.of(new ConsentChangeOffset("test-view", 5)));
+        when(changeLog.changesAfter(5, 2)).thenReturn(List.of(change(6)));
+
+        // When
+        publisher.deliver(listener);
+        publisher.deliver(listener);
+
+        // Then
+        assertThat(publisher.failedDeliveries()).isEqualTo(1);
+        assertThat(listener.changes).extracting(ConsentChange::getSequence).containsExactly(6L);
+        verify(changeLog, times(2)).changesAfter(5, 2);
+        verify(offsetRepository, times(1)).save(argThat(offset -> offset.getLastSequence() == 6));
+    }
+
+    private static Consent consent() {
+        Consent consent = new Consent();
+        consent.setPatientRef("TEST_PAT_001");
+        consent.addScope(ConsentScope.APPOINTMENT_REMINDER);
+        consent.setGrantedAt(Instant.now().minus(1, ChronoUnit.DAYS));
+        consent.setExpiresAt(Instant.now().plus(30, ChronoUnit.DAYS));
+        return consent;
+    }
+
+    private static ConsentChange change(long sequence) {
+        return new ConsentChange(sequence, ConsentChangeType.GRANTED, consent(), Instant.now());
+    }
+
+    private static class RecordingListener implements ConsentChangeListener {
+        private final List<ConsentSnapshot> snapshots = new ArrayList<>();
+        private final List<ConsentChange> changes = new ArrayList<>();
+        private boolean failNext;
+
+        @Override
+        public String consumerId() {
+            return "test-view";
+        }
+
+        @Override
+        public void onSnapshot(ConsentSnapshot snapshot) {
+            snapshots.add(snapshot);
+        }
+
+        @Override
+        public void onChanges(List<ConsentChange> batch) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("TEST_FAILURE");
+            }
+            changes.addAll(batch);
+        }
+    }
+}
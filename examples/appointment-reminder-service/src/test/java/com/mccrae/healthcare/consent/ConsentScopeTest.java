@@ -0,0 +1,42 @@
+package com.mccrae.healthcare.consent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ConsentScope bitmask encoding and Consent.hasScope
+ */
+class ConsentScopeTest {
+    
+    @Test
+    void testMaskRoundTrip() {
+        // Given
+        Set<ConsentScope> scopes = Set.of(ConsentScope.PATIENT_VIEW, ConsentScope.APPOINTMENT_REMINDER);
+        
+        // When
+        long mask = ConsentScope.maskOf(scopes);
+        
+        // Then
+        assertThat(mask).isEqualTo(0b1001L);
+        assertThat(ConsentScope.fromMask(mask)).containsExactlyInAnyOrderElementsOf(scopes);
+    }
+    
+    @Test
+    void testHasScope_ByNameAndEnum() {
+        // Given
+        Consent consent = new Consent();
+        consent.setPatientRef("TEST_PAT_001");
+        consent.setScopes(Set.of(ConsentScope.EMERGENCY_CONTACT_NOTIFY));
+        consent.addScope(ConsentScope.MEDICATION_REMINDER);
+        
+        // When / Then
+        assertThat(consent.hasScope("EMERGENCY_CONTACT_NOTIFY")).isTrue();
+        assertThat(consent.hasScope(ConsentScope.MEDICATION_REMINDER)).isTrue();
+        assertThat(consent.hasScope("APPOINTMENT_REMINDER")).isFalse();
+        assertThat(consent.hasScope("NONEXISTENT_SCOPE")).isFalse();
+        assertThat(consent.hasScope((String) null)).isFalse();
+    }
+}
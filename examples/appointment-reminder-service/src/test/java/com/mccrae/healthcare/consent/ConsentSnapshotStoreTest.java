@@ -0,0 +1,113 @@
+package com.mccrae.healthcare.consent;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ConsentSnapshotStore and the ConsentSnapshotFile format
+ *
+ * Note: Uses synthetic test data (TEST_PAT_*)
+ */
+@ExtendWith(MockitoExtension.class)
+class ConsentSnapshotStoreTest {
+
+    @Mock
+    private ConsentChangeLog changeLog;
+
+    @InjectMocks
+    private ConsentSnapshotStore snapshotStore;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(snapshotStore, "directory", directory);
+    }
+
+    @Test
+    void testSnapshotFile_BinarySearchMatchesScopeAndExpiry() throws Exception {
+        // Given
+        Path file = directory.resolve("test.bin");
+        long now = System.currentTimeMillis();
+        ConsentSnapshotFile.write(file, List.of(
+                consent("TEST_PAT_003", ConsentScope.PATIENT_VIEW, 30),
+                consent("TEST_PAT_001", ConsentScope.APPOINTMENT_REMINDER, 30),
+                consent("TEST_PAT_002", ConsentScope.APPOINTMENT_REMINDER, -1),
+                consent("TEST_PAT_003", ConsentScope.APPOINTMENT_REMINDER, 30),
+                consent("TEST_PAT_ÄÖ", ConsentScope.APPOINTMENT_REMINDER, 30)), 42);
+
+        // When
+        ConsentSnapshotFile snapshot = ConsentSnapshotFile.map(file);
+
+        // Then
+        long reminder = ConsentScope.APPOINTMENT_REMINDER.bit();
+        assertThat(snapshot.sequence()).isEqualTo(42);
+        assertThat(snapshot.count()).isEqualTo(5);
+        assertThat(snapshot.hasValidConsent("TEST_PAT_001", reminder, now)).isTrue();
+        assertThat(snapshot.hasValidConsent("TEST_PAT_001", ConsentScope.PATIENT_VIEW.bit(), now)).isFalse();
+        assertThat(snapshot.hasValidConsent("TEST_PAT_002", reminder, now)).isFalse();
+        assertThat(snapshot.hasValidConsent("TEST_PAT_003", reminder, now)).isTrue();
+        assertThat(snapshot.hasValidConsent("TEST_PAT_003", ConsentScope.PATIENT_VIEW.bit(), now)).isTrue();
+        assertThat(snapshot.hasValidConsent("TEST_PAT_ÄÖ", reminder, now)).isTrue();
+        assertThat(snapshot.hasValidConsent("TEST_PAT_00", reminder, now)).isFalse();
+        assertThat(snapshot.hasValidConsent("TEST_PAT_0011", reminder, now)).isFalse();
+        assertThat(snapshot.entriesFor("TEST_PAT_003")).hasSize(2);
+    }
+
+    @Test
+    void testRefresh_OverlayAppliesRevocationAndRebuildSwapsFile() throws Exception {
+        // Given
+        Consent granted = consent("TEST_PAT_001", ConsentScope.APPOINTMENT_REMINDER, 30);
+        when(changeLog.snapshot()).thenReturn(new ConsentSnapshot(10, List.of(granted)));
+        when(changeLog.changesAfter(anyLong(), anyInt())).thenReturn(List.of());
+        snapshotStore.rebuild();
+        assertThat(snapshotStore.hasValidConsent("TEST_PAT_001", "APPOINTMENT_REMINDER")).isTrue();
+
+        // When
+        when(changeLog.changesAfter(10, 1000)).thenReturn(List.of(
+                new ConsentChange(11, ConsentChangeType.REVOKED, granted, Instant.now())));
+        snapshotStore.refresh();
+
+        // Then
+        assertThat(snapshotStore.appliedSequence()).isEqualTo(11);
+        assertThat(snapshotStore.hasValidConsent("TEST_PAT_001", "APPOINTMENT_REMINDER")).isFalse();
+        assertThat(snapshotStore.hasValidConsent("TEST_PAT_001", "UNKNOWN_SCOPE")).isFalse();
+
+        // When
+        when(changeLog.snapshot()).thenReturn(new ConsentSnapshot(11, List.of()));
+        snapshotStore.rebuild();
+
+        // Then
+        assertThat(snapshotStore.hasValidConsent("TEST_PAT_001", "APPOINTMENT_REMINDER")).isFalse();
+        try (var files = Files.list(directory)) {
+            assertThat(files).singleElement().asString().contains("consent-snapshot-11-");
+        }
+    }
+
+    private static Consent consent(String patientRef, ConsentScope scope, int expiresInDays) {
+        Consent consent = new Consent();
+        consent.setPatientRef(patientRef);
+        consent.addScope(scope);
+        consent.setGrantedAt(Instant.now().minus(60, ChronoUnit.DAYS));
+        consent.setExpiresAt(Instant.now().plus(expiresInDays, ChronoUnit.DAYS));
+        return consent;
+    }
+}
@@ -1,21 +1,33 @@
 package com.mccrae.healthcare.consent;
 
+import com.mccrae.healthcare.replica.ReplicaRouter;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -27,6 +39,21 @@ class ConsentValidatorTest {
     @Mock
     private ConsentRepository consentRepository;
     
+    @Spy
+    private ConsentDecisionCache decisionCache =
+            new ConsentDecisionCache(true, 1000, Duration.ofSeconds(30), Duration.ofMinutes(15));
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Spy
+    private ConsentMetrics metrics = new ConsentMetrics(meterRegistry);
+    
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(); // Unsharded - runs work inline
+    
+    @Spy
+    private ReplicaRouter replicaRouter = new ReplicaRouter(); // No replicas - runs work inline
+    
     @InjectMocks
     private ConsentValidator consentValidator;
     
@@ -36,7 +63,7 @@ class ConsentValidatorTest {
     void setUp() {
         validConsent = new Consent();
         validConsent.setPatientRef("TEST_PAT_001");
-        validConsent.setScopes(Set.of("EMERGENCY_CONTACT_NOTIFY"));
+        validConsent.setScopes(Set.of(ConsentScope.EMERGENCY_CONTACT_NOTIFY));
         validConsent.setGrantedAt(Instant.now().minus(1, ChronoUnit.DAYS));
         validConsent.setExpiresAt(Instant.now().plus(30, ChronoUnit.DAYS));
     }
@@ -156,5 +183,118 @@ class ConsentValidatorTest {
         .isInstanceOf(ConsentException.class)
         .hasMessageContaining("does not have valid consent");
     }
+    
+    @Test
+    void testValidateConsent_SecondCallServedFromCache() {
+        // Given
+        when(consentRepository.findActiveConsentByPatientRefAndScope(
+                eq("TEST_PAT_001"),
+                eq("EMERGENCY_CONTACT_NOTIFY"),
+                any(Instant.class)
+        )).thenReturn(Optional.of(validConsent));
+        
+        // When
+        consentValidator.validateConsent("TEST_PAT_001", "EMERGENCY_CONTACT_NOTIFY");
+        Optional<Consent> result = consentValidator.validateConsent("TEST_PAT_001", "EMERGENCY_CONTACT_NOTIFY");
+        
+        // Then
+        assertThat(result).isPresent();
+        verify(consentRepository, times(1)).findActiveConsentByPatientRefAndScope(
+                eq("TEST_PAT_001"), eq("EMERGENCY_CONTACT_NOTIFY"), any(Instant.class));
+        assertThat(decisionCache.stats().hits()).isEqualTo(1);
+    }
+    
+    @Test
+    void testValidateConsent_RevocationInvalidatesCachedGrant() {
+        // Given
+        when(consentRepository.findActiveConsentByPatientRefAndScope(
+                eq("TEST_PAT_001"),
+                eq("EMERGENCY_CONTACT_NOTIFY"),
+                any(Instant.class)
+        )).thenReturn(Optional.of(validConsent)).thenReturn(Optional.empty());
+        consentValidator.validateConsent("TEST_PAT_001", "EMERGENCY_CONTACT_NOTIFY");
+        
+        // When
+        decisionCache.invalidatePatient("TEST_PAT_001");
+        Optional<Consent> result = consentValidator.validateConsent("TEST_PAT_001", "EMERGENCY_CONTACT_NOTIFY");
+        
+        // Then
+        assertThat(result).isEmpty();
+        verify(consentRepository, times(2)).findActiveConsentByPatientRefAndScope(
+                eq("TEST_PAT_001"), eq("EMERGENCY_CONTACT_NOTIFY"), any(Instant.class));
+    }
+    
+    @Test
+    void testValidateConsents_ResolvesSetInOneQuery() {
+        // Given
+        when(consentRepository.findPatientRefsWithActiveScope(
+                anyCollection(),
+                eq("APPOINTMENT_REMINDER"),
+                any(Instant.class)
+        )).thenReturn(List.of("TEST_PAT_001", "TEST_PAT_003"));
+        
+        // When
+        Map<String, Boolean> results = consentValidator.validateConsents(
+                List.of("TEST_PAT_001", "TEST_PAT_002", "TEST_PAT_003", "TEST_PAT_001"),
+                "APPOINTMENT_REMINDER"
+        );
+        
+        // Then
+        assertThat(results).containsExactly(
+                Map.entry("TEST_PAT_001", true),
+                Map.entry("TEST_PAT_002", false),
+                Map.entry("TEST_PAT_003", true)
+        );
+        verify(consentRepository, times(1)).findPatientRefsWithActiveScope(
+                anyCollection(), eq("APPOINTMENT_REMINDER"), any(Instant.class));
+    }
+    
+    @Test
+    void testValidateConsents_UsesCachedDecisions() {
+        // Given
+        when(consentRepository.findActiveConsentByPatientRefAndScope(
+                eq("TEST_PAT_001"),
+                eq("APPOINTMENT_REMINDER"),
+                any(Instant.class)
+        )).thenReturn(Optional.empty());
+        consentValidator.validateConsent("TEST_PAT_001", "APPOINTMENT_REMINDER");
+        
+        // When
+        Map<String, Boolean> results = consentValidator.validateConsents(
+                List.of("TEST_PAT_001"),
+                "APPOINTMENT_REMINDER"
+        );
+        
+        // Then
+        assertThat(results).containsExactly(Map.entry("TEST_PAT_001", false));
+        verify(consentRepository, never()).findPatientRefsWithActiveScope(
+                anyCollection(), any(), any(Instant.class));
+    }
+    
+    @Test
+    void testValidateConsents_RecordsOutcomesPerScopeWithoutPatientTags() {
+        // Given
+        when(consentRepository.findPatientRefsWithActiveScope(
+                anyCollection(),
+                eq("APPOINTMENT_REMINDER"),
+                any(Instant.class)
+        )).thenReturn(List.of("TEST_PAT_001"));
+        
+        // When
+        consentValidator.validateConsents(List.of("TEST_PAT_001", "TEST_PAT_002"), "APPOINTMENT_REMINDER");
+        consentValidator.validateConsents(List.of("TEST_PAT_003"), "NOT_A_SCOPE");
+        
+        // Then
+        assertThat(meterRegistry.get(ConsentMetrics.DECISIONS)
+                .tags("scope", "APPOINTMENT_REMINDER", "result", "valid").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(ConsentMetrics.DECISIONS)
+                .tags("scope", "APPOINTMENT_REMINDER", "result", "invalid").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(ConsentMetrics.DECISIONS)
+                .tags("scope", "unknown", "result", "invalid").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(ConsentMetrics.VALIDATION)
+                .tags("scope", "APPOINTMENT_REMINDER", "operation", "batch", "mode", "database").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.getMeters()).allSatisfy(meter ->
+                assertThat(meter.getId().getTags()).noneMatch(tag -> tag.getValue().startsWith("TEST_PAT")));
+    }
 }
-
@@ -0,0 +1,156 @@
+package com.mccrae.healthcare.notification;
+
+import com.mccrae.healthcare.consent.Consent;
+import com.mccrae.healthcare.consent.ConsentScope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for NotificationContentBuilder and NotificationTemplates
+ * (context/phi-sharing-matrix.md)
+ *
+ * Note: Uses synthetic test data (TEST_*)
+ */
+class NotificationContentBuilderTest {
+
+    private NotificationContentBuilder builder;
+    private NotificationContent content;
+
+    @BeforeEach
+    void setUp() {
+        builder = new NotificationContentBuilder(
+                new NotificationTemplates(new ClassPathResource("notification-templates.properties")));
+
+        // Every field set - the consent level decides what is rendered
+        content = new NotificationContent()
+                .set(ContentField.FACILITY_NAME, "TEST Hospital")
+                .set(ContentField.FACILITY_PHONE, "+64-9-555-0100")
+                .set(ContentField.VISITING_HOURS, "10 AM - 8 PM daily")
+                .set(ContentField.PATIENT_NAME, "TEST_PATIENT_001")
+                .set(ContentField.GENERAL_STATUS, "Stable")
+                .set(ContentField.ADMISSION_TIME, Instant.parse("2024-01-15T02:00:00Z"))
+                .set(ContentField.CARE_TEAM_PHONE, "+64-9-555-0150")
+                .set(ContentField.ADMISSION_REASON, "TEST_REASON")
+                .set(ContentField.DEPARTMENT, "Cardiology")
+                .zone(ZoneId.of("Pacific/Auckland"));
+    }
+
+    @Test
+    void testStandardConsent_SharesBasicPhiOnly() {
+        // Given
+        Consent consent = consent(ConsentScope.EMERGENCY_CONTACT_NOTIFY);
+
+        // When
+        RenderedNotification rendered = builder.build(
+                NotificationType.EMERGENCY_CONTACT_ADMISSION, consent, "en", content);
+
+        // Then - time in the contact's timezone, no detailed fields, empty optional section left out
+        assertThat(rendered.consentLevel()).isEqualTo(ConsentLevel.STANDARD);
+        assertThat(rendered.body())
+                .startsWith("TEST_PATIENT_001 has been admitted to TEST Hospital.\n")
+                .contains("Admitted: 15 Jan 2024, 3:00 PM NZDT\n")
+                .doesNotContain("TEST_REASON", "Cardiology", "Expected discharge");
+        assertThat(rendered.phiFieldsShared())
+                .containsExactly("patientName", "generalStatus", "admissionTime", "careTeamPhone");
+    }
+
+    @Test
+    void testDetailedConsent_SharesAdditionalPhi() {
+        // Given
+        Consent consent = consent(ConsentScope.EMERGENCY_CONTACT_NOTIFY, ConsentScope.EMERGENCY_CONTACT_NOTIFY_DETAILED);
+        content.set(ContentField.EXPECTED_STAY, "2-3 days");
+
+        // When
+        RenderedNotification rendered = builder.build(
+                NotificationType.EMERGENCY_CONTACT_ADMISSION, consent, "en", content);
+
+        // Then
+        assertThat(rendered.consentLevel()).isEqualTo(ConsentLevel.DETAILED);
+        assertThat(rendered.body()).contains("Reason: TEST_REASON\n", "Expected stay: 2-3 days\n")
+                .doesNotContain("Scheduled:");
+        assertThat(rendered.phiFieldsShared()).contains("admissionReason", "department", "expectedStay");
+    }
+
+    @Test
+    void testNoOrExpiredConsent_SharesNoPhi() {
+        // Given
+        Consent expired = consent(ConsentScope.EMERGENCY_CONTACT_NOTIFY);
+        expired.setExpiresAt(Instant.now().minus(1, ChronoUnit.DAYS));
+
+        // When
+        RenderedNotification none = builder.build(
+                NotificationType.EMERGENCY_CONTACT_ADMISSION, (Consent) null, "en", content);
+        RenderedNotification afterExpiry = builder.build(
+                NotificationType.EMERGENCY_CONTACT_ADMISSION, expired, "en", content);
+
+        // Then
+        assertThat(none.body()).startsWith("A patient has listed you as an emergency contact")
+                .doesNotContain("TEST_PATIENT_001", "Stable", "2024");
+        assertThat(none.phiFieldsShared()).isEmpty();
+        assertThat(afterExpiry.body()).isEqualTo(none.body());
+    }
+
+    @Test
+    void testUnknownLanguage_FallsBackToEnglish() {
+        // When
+        RenderedNotification rendered = builder.build(
+                NotificationType.EMERGENCY_CONTACT_ADMISSION, ConsentLevel.NONE, "xx-YY", content);
+
+        // Then
+        assertThat(rendered.body()).startsWith("A patient has listed you as an emergency contact");
+    }
+
+    @Test
+    void testCompile_RejectsPhiFieldBeyondConsentLevel() {
+        // Given - diagnosis-like detail in a standard-consent template
+        Properties templates = englishTemplates();
+        templates.setProperty("EMERGENCY_CONTACT_ADMISSION.STANDARD.en", "{patientName}: {admissionReason}");
+
+        // When / Then - fails at startup, not when sending
+        assertThatThrownBy(() -> new NotificationTemplates(templates))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("{admissionReason} is not allowed at consent level STANDARD");
+    }
+
+    @Test
+    void testBuild_MissingRequiredFieldNamesFieldOnly() {
+        // Given
+        content.set(ContentField.PATIENT_NAME, (String) null);
+
+        // When / Then
+        assertThatThrownBy(() -> builder.build(
+                NotificationType.EMERGENCY_CONTACT_ADMISSION, ConsentLevel.STANDARD, "en", content))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("patientName")
+                .hasMessageNotContaining("TEST_PATIENT_001");
+    }
+
+    private static Properties englishTemplates() {
+        Properties templates = new Properties();
+        templates.setProperty("APPOINTMENT_REMINDER.NONE.en", "TEST reminder");
+        templates.setProperty("APPOINTMENT_REMINDER.STANDARD.en", "TEST reminder {appointmentType}");
+        templates.setProperty("EMERGENCY_CONTACT_ADMISSION.NONE.en", "TEST {facilityName}");
+        templates.setProperty("EMERGENCY_CONTACT_ADMISSION.STANDARD.en", "TEST {patientName}");
+        templates.setProperty("EMERGENCY_CONTACT_ADMISSION.DETAILED.en", "TEST {patientName} {department}");
+        return templates;
+    }
+
+    private static Consent consent(ConsentScope... scopes) {
+        Consent consent = new Consent();
+        consent.setPatientRef("TEST_PAT_001");
+        consent.setScopes(Set.of(scopes));
+        consent.setGrantedAt(Instant.now().minus(1, ChronoUnit.DAYS));
+        consent.setExpiresAt(Instant.now().plus(365, ChronoUnit.DAYS));
+        return consent;
+    }
+}
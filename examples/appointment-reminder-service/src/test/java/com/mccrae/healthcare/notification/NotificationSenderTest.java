@@ -0,0 +1,188 @@
+package com.mccrae.healthcare.notification;
+
+import com.mccrae.healthcare.audit.AuditLogger;
+import com.mccrae.healthcare.audit.NotificationAttempt;
+import com.mccrae.healthcare.patient.PatientContact;
+import com.mccrae.healthcare.patient.PatientRepository;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for NotificationSender
+ *
+ * Note: Uses synthetic test data (TEST_PAT_*, example.test, +64-21-555-*)
+ */
+@ExtendWith(MockitoExtension.class)
+class NotificationSenderTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private AuditLogger auditLogger;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(); // Unsharded - runs work inline
+
+    @InjectMocks
+    private NotificationSender sender;
+
+    private final RecordingProvider provider = new RecordingProvider();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sender, "providers", List.of(provider));
+        ReflectionTestUtils.setField(sender, "backoff", new Duration[]{Duration.ofMinutes(5), Duration.ofMinutes(30)});
+        ReflectionTestUtils.setField(sender, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void testDeliver_SentRetriedAndFailedAreRecordedInOneBatch() throws Exception {
+        // Given
+        QueuedNotification sent = queued("TEST_PAT_001", "+64-21-555-0001", 0);
+        QueuedNotification retried = queued("TEST_PAT_002", "+64-21-555-0002", 0);
+        QueuedNotification exhausted = queued("TEST_PAT_003", "+64-21-555-0003", 2);
+        // Provider answers in send order: retried, sent, exhausted
+        provider.failures.add(new NotificationDeliveryException("TEST_TIMEOUT", true));
+        provider.failures.add(null);
+        provider.failures.add(new NotificationDeliveryException("TEST_TIMEOUT", true));
+
+        // When
+        NotificationSender.BatchResult result = sender.deliver(List.of(retried, sent, exhausted), bucket(), false);
+
+        // Then
+        assertThat(result).isEqualTo(new NotificationSender.BatchResult(1, 1, 1, 0));
+        assertThat(provider.recipients).containsExactly("+64-21-555-0002", "+64-21-555-0001", "+64-21-555-0003");
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE notification_deliveries SET status"),
+                argThat((List<Object[]> rows) -> rows.size() == 2));
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE notification_deliveries SET attempts"),
+                argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(1)));
+
+        ArgumentCaptor<Collection<NotificationAttempt>> attempts = ArgumentCaptor.captor();
+        verify(auditLogger).logNotificationAttempts(attempts.capture());
+        assertThat(attempts.getValue())
+                .extracting(NotificationAttempt::outcome, NotificationAttempt::attempt, NotificationAttempt::errorCode)
+                .containsExactly(
+                        tuple("RETRY_SCHEDULED", 1, "TEST_TIMEOUT"),
+                        tuple("SENT", 1, null),
+                        tuple("FAILED", 3, "TEST_TIMEOUT"));
+    }
+
+    @Test
+    void testDeliver_ResolvesPatientPhoneAndSkipsExpiredLeases() throws Exception {
+        // Given
+        when(patientRepository.findContactsByReferenceIdIn(any())).thenReturn(List.of(contact("TEST_PAT_001")));
+        QueuedNotification ownPhone = queued("TEST_PAT_001", null, 0);
+        QueuedNotification unknownPatient = queued("TEST_PAT_404", null, 0);
+        QueuedNotification expired = new QueuedNotification(UUID.randomUUID(), "TEST_PAT_002",
+                NotificationChannel.SMS, NotificationPriority.BULK, "+64-21-555-0002", "TEST_MESSAGE", 0, null,
+                Instant.now().minusSeconds(1));
+
+        // When
+        NotificationSender.BatchResult result = sender.deliver(List.of(ownPhone, unknownPatient, expired), bucket(), false);
+
+        // Then
+        assertThat(result).isEqualTo(new NotificationSender.BatchResult(1, 0, 1, 1));
+        assertThat(provider.recipients).containsExactly("+64-21-555-9999");
+        verify(auditLogger).logNotificationAttempts(argThat(attempts -> attempts.stream()
+                .anyMatch(attempt -> attempt.outcome().equals("FAILED") && attempt.errorCode().equals("NO_RECIPIENT"))));
+    }
+
+    @Test
+    void testTokenBucket_StandardTrafficCannotUseExpeditedReserve() {
+        // Given
+        long[] now = {0};
+        TokenBucket bucket = new TokenBucket(1.0, 4, 2, () -> now[0]);
+
+        // When
+        long first = bucket.tryAcquire(false);
+        long second = bucket.tryAcquire(false);
+        long third = bucket.tryAcquire(false);
+
+        // Then
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isEqualTo(Duration.ofSeconds(1).toNanos());
+        assertThat(bucket.tryAcquire(true)).isZero();
+        assertThat(bucket.tryAcquire(true)).isZero();
+        assertThat(bucket.tryAcquire(true)).isPositive();
+
+        now[0] = Duration.ofSeconds(3).toNanos();
+        assertThat(bucket.tryAcquire(false)).isZero();
+    }
+
+    private static TokenBucket bucket() {
+        return new TokenBucket(1000, 100, 0);
+    }
+
+    private static QueuedNotification queued(String patientRef, String recipient, int attempts) {
+        return new QueuedNotification(UUID.randomUUID(), patientRef, NotificationChannel.SMS, NotificationPriority.BULK,
+                recipient, "TEST_MESSAGE", attempts, "TEST_CORRELATION", Instant.now().plusSeconds(60));
+    }
+
+    private static PatientContact contact(String referenceId) {
+        return new PatientContact() {
+            public String getReferenceId() {
+                return referenceId;
+            }
+
+            public String getPhone() {
+                return "+64-21-555-9999";
+            }
+
+            public String getEmail() {
+                return "test.patient@example.test";
+            }
+        };
+    }
+
+    private static String startsWith(String prefix) {
+        return argThat((String sql) -> sql != null && sql.startsWith(prefix));
+    }
+
+    private static class RecordingProvider implements NotificationProvider {
+        private final List<String> recipients = new ArrayList<>();
+        private final List<NotificationDeliveryException> failures = new ArrayList<>();
+
+        @Override
+        public NotificationChannel channel() {
+            return NotificationChannel.SMS;
+        }
+
+        @Override
+        public void send(NotificationMessage message) throws NotificationDeliveryException {
+            recipients.add(message.recipient());
+            NotificationDeliveryException failure = failures.isEmpty() ? null : failures.remove(0);
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
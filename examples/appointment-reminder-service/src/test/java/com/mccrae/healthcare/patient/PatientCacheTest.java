@@ -0,0 +1,134 @@
+package com.mccrae.healthcare.patient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the Patient second-level cache over an embedded H2 database
+ *
+ * Note: Uses synthetic test data (TEST_PAT_001, not "John Smith")
+ */
+class PatientCacheTest {
+
+    private CacheManager cacheManager;
+    private LocalContainerEntityManagerFactoryBean factory;
+    private SessionFactory sessionFactory;
+    private PatientLookupRepositoryImpl lookup;
+    private PatientCache patientCache;
+
+    @BeforeEach
+    void setUp() {
+        PatientCacheConfiguration configuration = new PatientCacheConfiguration();
+        cacheManager = configuration.patientCacheManager(100, Duration.ofMinutes(1));
+        Map<String, Object> properties = new HashMap<>();
+        configuration.patientCacheHibernateProperties(cacheManager).customize(properties);
+        properties.put(AvailableSettings.JAKARTA_JDBC_URL,
+                "jdbc:h2:mem:patient_cache_test_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        properties.put(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        properties.put(AvailableSettings.JAKARTA_VALIDATION_MODE, "none");
+
+        factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setPackagesToScan(Patient.class.getPackageName());
+        factory.setJpaPropertyMap(properties);
+        factory.afterPropertiesSet();
+        sessionFactory = factory.getObject().unwrap(SessionFactory.class);
+
+        lookup = new PatientLookupRepositoryImpl();
+        ReflectionTestUtils.setField(lookup, "entityManagerFactory", sessionFactory);
+        patientCache = new PatientCache();
+        ReflectionTestUtils.setField(patientCache, "entityManagerFactory", sessionFactory);
+        ReflectionTestUtils.setField(patientCache, "patientCacheManager", cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.destroy();
+        cacheManager.close();
+    }
+
+    @Test
+    void testFindByReferenceId_RepeatedLookupSkipsDatabase() {
+        // Given
+        sessionFactory.inTransaction(session -> session.persist(patient("TEST_PAT_001")));
+        lookup.findByReferenceId("TEST_PAT_001");
+        long statements = sessionFactory.getStatistics().getPrepareStatementCount();
+
+        // When
+        Optional<Patient> found = lookup.findByReferenceId("TEST_PAT_001");
+
+        // Then
+        assertThat(found).map(Patient::getFullName).contains("TEST_PATIENT_001");
+        assertThat(sessionFactory.getStatistics().getPrepareStatementCount()).isEqualTo(statements);
+        PatientCacheStats stats = patientCache.stats();
+        assertThat(stats.naturalIdHits()).isPositive();
+        assertThat(stats.entityHits()).isPositive();
+        assertThat(stats.size()).isEqualTo(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        patientCache.bindTo(registry);
+        assertThat(registry.get("healthcare.patient.cache.hit.ratio").tag("region", "natural-id").gauge().value())
+                .isEqualTo(stats.hitRatio())
+                .isPositive();
+    }
+
+    @Test
+    void testUpdate_ReferenceIdChangeMovesCachedNaturalId() {
+        // Given
+        Patient patient = patient("TEST_PAT_001");
+        sessionFactory.inTransaction(session -> session.persist(patient));
+        assertThat(lookup.findByReferenceId("TEST_PAT_001")).isPresent();
+
+        // When - detached merge, as PatientService.updatePatient does through save()
+        patient.setReferenceId("TEST_PAT_002");
+        patient.setTimezone("Pacific/Auckland");
+        sessionFactory.inTransaction(session -> session.merge(patient));
+
+        // Then
+        assertThat(lookup.findByReferenceId("TEST_PAT_001")).isEmpty();
+        assertThat(lookup.findByReferenceId("TEST_PAT_002")).map(Patient::getTimezone).contains("Pacific/Auckland");
+    }
+
+    @Test
+    void testDelete_EvictsCachedPatient() {
+        // Given
+        Patient patient = patient("TEST_PAT_001");
+        sessionFactory.inTransaction(session -> session.persist(patient));
+        assertThat(lookup.findByReferenceId("TEST_PAT_001")).isPresent();
+
+        // When
+        sessionFactory.inTransaction(session -> session.remove(session.find(Patient.class, patient.getId())));
+
+        // Then
+        assertThat(lookup.findByReferenceId("TEST_PAT_001")).isEmpty();
+        Patient byId = sessionFactory.fromSession(session -> session.find(Patient.class, patient.getId()));
+        assertThat(byId).isNull();
+    }
+
+    private static Patient patient(String referenceId) {
+        Patient patient = new Patient();
+        patient.setReferenceId(referenceId);
+        patient.setFullName("TEST_PATIENT_001");
+        patient.setDateOfBirth(Instant.parse("1900-01-01T00:00:00Z"));
+        patient.setEmail("test001@example.invalid");
+        patient.setPhone("+10000000001");
+        patient.setTimezone("UTC");
+        return patient;
+    }
+}
@@ -0,0 +1,187 @@
+package com.mccrae.healthcare.patient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for PatientController paging and NDJSON streaming
+ *
+ * Note: Uses synthetic test data (TEST_PAT_*)
+ */
+@ExtendWith(MockitoExtension.class)
+class PatientControllerTest {
+
+    @Mock
+    private PatientService patientService;
+
+    @Mock
+    private PatientCache patientCache;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private PatientController patientController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(patientController)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Test
+    void testGetPatients_CursorsPageThroughEveryPatientOnce() throws Exception {
+        // Given - 7 patients, three sharing a createdAt so the id breaks the tie
+        List<Patient> patients = new ArrayList<>();
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < 7; i++) {
+            patients.add(patient(i, base.plusSeconds(i < 3 ? 0 : i)));
+        }
+        patients.sort(PatientCursor.ORDER);
+        when(patientService.getPatientsPage(any(), anyInt())).thenAnswer(invocation -> {
+            PatientCursor after = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            return patients.stream()
+                    .filter(patient -> after == null || PatientCursor.ORDER.compare(patient, patient(after)) > 0)
+                    .limit(limit)
+                    .toList();
+        });
+
+        // When - follow X-Next-Cursor until it is absent
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int requests = 0;
+        do {
+            MockHttpServletRequestBuilder page = get("/api/patients").param("limit", "3").accept("application/json");
+            if (cursor != null) {
+                page.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(page)
+                    .andExpect(status().isOk())
+                    .andReturn();
+            for (JsonNode patient : objectMapper.readTree(result.getResponse().getContentAsString())) {
+                seen.add(patient.get("referenceId").asText());
+            }
+            cursor = result.getResponse().getHeader(PatientController.NEXT_CURSOR_HEADER);
+            requests++;
+        } while (cursor != null);
+
+        // Then
+        assertThat(seen).containsExactlyElementsOf(patients.stream().map(Patient::getReferenceId).toList());
+        assertThat(requests).isEqualTo(3);
+    }
+
+    @Test
+    void testGetPatients_BadCursorIsBadRequest() throws Exception {
+        // Given - well-formed, but the timestamp is outside Instant's range
+        String outOfRange = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("9000000000000000000:0:" + UUID.randomUUID()).getBytes(StandardCharsets.US_ASCII));
+
+        // When / Then
+        mockMvc.perform(get("/api/patients").param("cursor", outOfRange).accept("application/json"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/patients").param("cursor", "not a cursor!").accept("application/json"))
+                .andExpect(status().isBadRequest());
+        verify(patientService, never()).getPatientsPage(any(), anyInt());
+    }
+
+    @Test
+    void testStreamPatients_OneLinePerPatientThenEnds() throws Exception {
+        // Given
+        when(patientService.streamAllPatients(any())).thenAnswer(invocation -> {
+            Consumer<Patient> consumer = invocation.getArgument(0);
+            for (int i = 0; i < 3; i++) {
+                consumer.accept(patient(i, Instant.parse("2024-01-01T00:00:00Z")));
+            }
+            return 3L;
+        });
+
+        // When
+        MvcResult started = mockMvc.perform(get("/api/patients").accept(PatientController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then - three complete lines and nothing after the last newline
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).endsWith("\n");
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        for (int i = 0; i < lines.length; i++) {
+            assertThat(objectMapper.readTree(lines[i]).get("referenceId").asText())
+                    .isEqualTo(String.format("TEST_PAT_%03d", i));
+        }
+        assertThat(result.getResponse().getContentType()).startsWith(PatientController.APPLICATION_NDJSON_VALUE);
+        verify(patientService).streamAllPatients(any());
+    }
+
+    @Test
+    void testStreamPatients_EmptyTableEndsWithEmptyBody() throws Exception {
+        // Given
+        when(patientService.streamAllPatients(any())).thenReturn(0L);
+
+        // When
+        MvcResult started = mockMvc.perform(get("/api/patients").accept(PatientController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        assertThat(result.getResponse().getContentAsString()).isEmpty();
+    }
+
+    private static Patient patient(int i, Instant createdAt) {
+        Patient patient = new Patient();
+        patient.setReferenceId(String.format("TEST_PAT_%03d", i));
+        patient.setFullName("TEST_PATIENT_" + i);
+        patient.setDateOfBirth(Instant.parse("1900-01-01T00:00:00Z"));
+        patient.setEmail("test.patient." + i + "@example.test");
+        patient.setPhone("+64-21-555-0000");
+        patient.setTimezone("Pacific/Auckland");
+        patient.setCreatedAt(createdAt);
+        return patient;
+    }
+
+    private static Patient patient(PatientCursor cursor) {
+        Patient patient = new Patient();
+        patient.setId(cursor.id());
+        patient.setCreatedAt(cursor.createdAt());
+        return patient;
+    }
+}
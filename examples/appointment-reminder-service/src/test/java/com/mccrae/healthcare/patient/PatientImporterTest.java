@@ -0,0 +1,201 @@
+package com.mccrae.healthcare.patient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mccrae.healthcare.audit.AuditLogger;
+import com.mccrae.healthcare.replica.ReplicaRouter;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PatientImporter
+ *
+ * Note: Uses synthetic test data (TEST_PAT_*, TEST_PATIENT_*)
+ */
+@ExtendWith(MockitoExtension.class)
+class PatientImporterTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private AuditLogger auditLogger;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(); // Unsharded - runs work inline
+
+    @Spy
+    private ReplicaRouter replicaRouter = new ReplicaRouter(); // No replicas - runs work inline
+
+    @InjectMocks
+    private PatientImporter patientImporter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(patientImporter, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(patientImporter, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(patientImporter, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(patientImporter, "chunkSize", 2);
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+    }
+
+    @Test
+    void testImportNdjson_ChunksInsertsAndAuditsInBatches() throws Exception {
+        // Given
+        when(patientRepository.findExistingReferenceIds(anyCollection())).thenReturn(List.of());
+        String body = ndjson("TEST_PAT_001") + ndjson("TEST_PAT_002") + "\n" + ndjson("TEST_PAT_003");
+
+        // When
+        PatientImportResult result = patientImporter.importPatients(stream(body), PatientImportFormat.NDJSON);
+
+        // Then
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.rejected()).isZero();
+        verify(entityManager, times(3)).persist(any(Patient.class));
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(session, times(2)).setCacheMode(CacheMode.IGNORE);
+        verify(auditLogger).logPatientsCreated(List.of("TEST_PAT_001", "TEST_PAT_002"));
+        verify(auditLogger).logPatientsCreated(List.of("TEST_PAT_003"));
+        verify(auditLogger, never()).logPatientCreated(any());
+    }
+
+    @Test
+    void testImportNdjson_RejectsInvalidDuplicateAndExistingRows() throws Exception {
+        // Given
+        when(patientRepository.findExistingReferenceIds(anyCollection())).thenReturn(List.of("TEST_PAT_002"));
+        String body = ndjson("TEST_PAT_001")
+                + "{\"referenceId\": \"TEST_PAT_BROKEN\"\n"
+                + ndjson("TEST_PAT_001")
+                + "{\"referenceId\":\"TEST_PAT_004\",\"timezone\":\"UTC\"}\n"
+                + ndjson("TEST_PAT_002");
+
+        // When
+        PatientImportResult result = patientImporter.importPatients(stream(body), PatientImportFormat.NDJSON);
+
+        // Then
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(4);
+        assertThat(result.errors()).extracting(PatientImportResult.PatientImportError::line).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(result.errors().get(0).reason()).isEqualTo("Malformed JSON");
+        assertThat(result.errors().get(1).reason()).isEqualTo("Duplicate referenceId in import");
+        assertThat(result.errors().get(2).reason()).isEqualTo("Invalid fields: dateOfBirth, email, fullName, phone");
+        assertThat(result.errors().get(3).reason()).isEqualTo("Patient already exists");
+        verify(auditLogger).logPatientsCreated(List.of("TEST_PAT_001"));
+    }
+
+    @Test
+    void testImportCsv_QuotedFieldsAndMissingColumn() throws Exception {
+        // Given
+        when(patientRepository.findExistingReferenceIds(anyCollection())).thenReturn(List.of());
+        String body = "referenceId,fullName,dateOfBirth,email,phone,timezone\r\n"
+                + "TEST_PAT_001,\"TEST_PATIENT, \"\"001\"\"\",1900-01-01T00:00:00Z,test.001@example.test,+64-21-555-9999,Pacific/Auckland\r\n"
+                + "TEST_PAT_002,TEST_PATIENT_002,not-a-date,test.002@example.test,+64-21-555-9999,UTC\r\n";
+
+        // When
+        PatientImportResult result = patientImporter.importPatients(stream(body), PatientImportFormat.CSV);
+
+        // Then
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.errors()).singleElement()
+                .isEqualTo(new PatientImportResult.PatientImportError(3, "TEST_PAT_002", "Invalid fields: dateOfBirth"));
+        verify(entityManager).persist(argThat((Patient p) -> p.getFullName().equals("TEST_PATIENT, \"001\"")));
+        assertThatThrownBy(() -> patientImporter.importPatients(
+                stream("referenceId,fullName\nTEST_PAT_003,TEST_PATIENT_003\n"), PatientImportFormat.CSV))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testImportCsv_UnterminatedQuoteAfterCommittedChunkReturnsResultSoFar() throws Exception {
+        // Given - chunk size 2: the first two rows commit before the bad record is read
+        when(patientRepository.findExistingReferenceIds(anyCollection())).thenReturn(List.of());
+        String body = "referenceId,fullName,dateOfBirth,email,phone,timezone\n"
+                + "TEST_PAT_001,TEST_PATIENT_001,1900-01-01T00:00:00Z,test.001@example.test,+64-21-555-9999,UTC\n"
+                + "TEST_PAT_002,TEST_PATIENT_002,1900-01-01T00:00:00Z,test.002@example.test,+64-21-555-9999,UTC\n"
+                + "TEST_PAT_003,TEST_PATIENT_003,1900-01-01T00:00:00Z,test.003@example.test,+64-21-555-9999,UTC\n"
+                + "TEST_PAT_004,\"TEST_PATIENT_004,1900-01-01T00:00:00Z,test.004@example.test,+64-21-555-9999,UTC\n"
+                + "TEST_PAT_005,TEST_PATIENT_005,1900-01-01T00:00:00Z,test.005@example.test,+64-21-555-9999,UTC\n";
+
+        // When
+        PatientImportResult result = patientImporter.importPatients(stream(body), PatientImportFormat.CSV);
+
+        // Then - rows before the bad line are imported, nothing after it is read
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.errors()).singleElement()
+                .isEqualTo(new PatientImportResult.PatientImportError(5, null,
+                        "Unterminated quoted field - rest of the file not read"));
+        verify(auditLogger).logPatientsCreated(List.of("TEST_PAT_003"));
+    }
+
+    @Test
+    void testImportCsv_UnterminatedQuoteBeforeAnyCommitFailsWholeImport() {
+        // Given
+        String body = "referenceId,fullName,dateOfBirth,email,phone,timezone\n"
+                + "TEST_PAT_001,TEST_PATIENT_001,1900-01-01T00:00:00Z,test.001@example.test,+64-21-555-9999,UTC\n"
+                + "TEST_PAT_002,\"TEST_PATIENT_002,1900-01-01T00:00:00Z,test.002@example.test,+64-21-555-9999,UTC\n";
+
+        // When / Then
+        assertThatThrownBy(() -> patientImporter.importPatients(stream(body), PatientImportFormat.CSV))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void testImportCsv_RejectsUnknownTimezone() throws Exception {
+        // Given
+        when(patientRepository.findExistingReferenceIds(anyCollection())).thenReturn(List.of());
+        String body = "referenceId,fullName,dateOfBirth,email,phone,timezone\n"
+                + "TEST_PAT_001,TEST_PATIENT_001,1900-01-01T00:00:00Z,test.001@example.test,+64-21-555-9999,+13:00\n"
+                + "TEST_PAT_002,TEST_PATIENT_002,1900-01-01T00:00:00Z,test.002@example.test,+64-21-555-9999,Pacific/Atlantis\n"
+                + "TEST_PAT_003,TEST_PATIENT_003,1900-01-01T00:00:00Z,test.003@example.test,+64-21-555-9999,\n";
+
+        // When
+        PatientImportResult result = patientImporter.importPatients(stream(body), PatientImportFormat.CSV);
+
+        // Then
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.errors()).extracting(PatientImportResult.PatientImportError::reason)
+                .containsExactly("Invalid fields: timezone", "Invalid fields: timezone");
+    }
+
+    private static String ndjson(String referenceId) {
+        return "{\"referenceId\":\"" + referenceId + "\",\"fullName\":\"TEST_PATIENT\","
+                + "\"dateOfBirth\":\"1900-01-01T00:00:00Z\",\"email\":\"test.patient@example.test\","
+                + "\"phone\":\"+64-21-555-9999\",\"timezone\":\"Pacific/Auckland\"}\n";
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
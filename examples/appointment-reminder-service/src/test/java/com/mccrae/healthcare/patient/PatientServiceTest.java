@@ -1,14 +1,21 @@
 package com.mccrae.healthcare.patient;
 
 import com.mccrae.healthcare.audit.AuditLogger;
+import com.mccrae.healthcare.replica.ReplicaRouter;
+import com.mccrae.healthcare.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.data.domain.Limit;
+
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,6 +37,15 @@ class PatientServiceTest {
     @Mock
     private AuditLogger auditLogger;
     
+    @Spy
+    private PatientMetrics metrics = new PatientMetrics(new SimpleMeterRegistry());
+    
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(); // Unsharded - runs work inline
+    
+    @Spy
+    private ReplicaRouter replicaRouter = new ReplicaRouter(); // No replicas - runs work inline
+    
     @InjectMocks
     private PatientService patientService;
     
@@ -91,6 +107,22 @@ class PatientServiceTest {
         verify(auditLogger, never()).logPatientAccessed(any());
     }
     
+    @Test
+    void testGetPatientSummary_LoadsNoPhiAndIsNotAudited() {
+        // Given
+        PatientSummary summary = new PatientSummary("TEST_PAT_001", "Pacific/Auckland",
+                testPatient.getCreatedAt(), testPatient.getUpdatedAt());
+        when(patientRepository.findSummaryByReferenceId("TEST_PAT_001")).thenReturn(Optional.of(summary));
+        
+        // When
+        Optional<PatientSummary> found = patientService.getPatientSummary("TEST_PAT_001");
+        
+        // Then
+        assertThat(found).contains(summary);
+        verify(patientRepository, never()).findByReferenceId(any());
+        verify(auditLogger, never()).logPatientAccessed(any());
+    }
+    
     @Test
     void testUpdatePatient() {
         // Given
@@ -105,6 +137,23 @@ class PatientServiceTest {
         verify(auditLogger).logPatientUpdated("TEST_PAT_001");
     }
     
+    @Test
+    void testUpdatePatient_ReferenceIdChangePinsOldAndNewReference() {
+        // Given - TEST_PAT_001 is renamed to TEST_PAT_002
+        UUID patientId = UUID.randomUUID();
+        testPatient.setId(patientId);
+        testPatient.setReferenceId("TEST_PAT_002");
+        when(patientRepository.findReferenceIdById(patientId)).thenReturn(Optional.of("TEST_PAT_001"));
+        when(patientRepository.save(any(Patient.class))).thenReturn(testPatient);
+        
+        // When
+        patientService.updatePatient(testPatient);
+        
+        // Then - reads by either reference go to the primary
+        verify(replicaRouter).wrote("TEST_PAT_001");
+        verify(replicaRouter).wrote("TEST_PAT_002");
+    }
+    
     @Test
     void testDeletePatient() {
         // Given
@@ -119,5 +168,33 @@ class PatientServiceTest {
         verify(patientRepository).deleteById(patientId);
         verify(auditLogger).logPatientDeleted("TEST_PAT_001");
     }
+    
+    @Test
+    void testGetPatientsPage_FirstPage() {
+        // Given
+        when(patientRepository.findFirstPage(Limit.of(50))).thenReturn(List.of(testPatient));
+        
+        // When
+        List<Patient> page = patientService.getPatientsPage(null, 50);
+        
+        // Then
+        assertThat(page).containsExactly(testPatient);
+        verify(patientRepository, never()).findAll();
+    }
+    
+    @Test
+    void testGetPatientsPage_AfterCursor() {
+        // Given
+        PatientCursor cursor = PatientCursor.decode(PatientCursor.after(testPatient).encode());
+        when(patientRepository.findPageAfter(testPatient.getCreatedAt(), testPatient.getId(), Limit.of(50)))
+                .thenReturn(List.of());
+        
+        // When
+        List<Patient> page = patientService.getPatientsPage(cursor, 50);
+        
+        // Then
+        assertThat(page).isEmpty();
+        assertThat(cursor.createdAt()).isEqualTo(testPatient.getCreatedAt());
+        assertThat(cursor.id()).isEqualTo(testPatient.getId());
+    }
 }
-
@@ -0,0 +1,89 @@
+package com.mccrae.healthcare.patient;
+
+import com.mccrae.healthcare.sharding.ShardRouter;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for PatientStreamReader against an in-memory H2 patients table
+ *
+ * Note: Uses synthetic test data (TEST_PAT_*)
+ */
+class PatientStreamReaderTest {
+
+    private static final int ROWS = 7;
+
+    private JdbcTemplate jdbcTemplate;
+    private PatientStreamReader reader;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:stream_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE patients (id UUID PRIMARY KEY, reference_id VARCHAR(255) NOT NULL, "
+                + "full_name VARCHAR(255) NOT NULL, date_of_birth TIMESTAMP WITH TIME ZONE NOT NULL, "
+                + "email VARCHAR(255) NOT NULL, phone VARCHAR(255) NOT NULL, timezone VARCHAR(255) NOT NULL, "
+                + "created_at TIMESTAMP WITH TIME ZONE NOT NULL, updated_at TIMESTAMP WITH TIME ZONE NOT NULL)");
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        // Inserted newest first - the reader must still return them oldest first
+        for (int i = ROWS - 1; i >= 0; i--) {
+            Timestamp createdAt = Timestamp.from(base.plusSeconds(i));
+            jdbcTemplate.update("INSERT INTO patients VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    UUID.randomUUID(), String.format("TEST_PAT_%03d", i), "TEST_PATIENT_" + i,
+                    Timestamp.from(Instant.parse("1900-01-01T00:00:00Z")), "test.patient." + i + "@example.test",
+                    "+64-21-555-0000", "Pacific/Auckland", createdAt, createdAt);
+        }
+
+        reader = new PatientStreamReader();
+        ReflectionTestUtils.setField(reader, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(reader, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(reader, "shardRouter", new ShardRouter()); // Unsharded - runs work inline
+        ReflectionTestUtils.setField(reader, "fetchSize", 2); // Several round trips for 7 rows
+    }
+
+    @Test
+    void testForEach_StreamsEveryRowInCreatedAtOrderThenEnds() {
+        // Given
+        List<String> streamed = new ArrayList<>();
+
+        // When
+        long count = reader.forEach(patient -> streamed.add(patient.getReferenceId()));
+
+        // Then
+        assertThat(count).isEqualTo(ROWS);
+        assertThat(streamed).containsExactly("TEST_PAT_000", "TEST_PAT_001", "TEST_PAT_002", "TEST_PAT_003",
+                "TEST_PAT_004", "TEST_PAT_005", "TEST_PAT_006");
+    }
+
+    @Test
+    void testForEach_ConsumerFailureStopsTheScan() {
+        // Given - the client goes away after the third row
+        List<String> streamed = new ArrayList<>();
+
+        // When / Then
+        assertThatThrownBy(() -> reader.forEach(patient -> {
+            if (streamed.size() == 3) {
+                throw new IllegalStateException("Client disconnected");
+            }
+            streamed.add(patient.getReferenceId());
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(streamed).hasSize(3);
+
+        // The read-only transaction ended with the failure: the next stream starts from the top
+        assertThat(reader.forEach(patient -> { })).isEqualTo(ROWS);
+    }
+}
@@ -0,0 +1,113 @@
+package com.mccrae.healthcare.replica;
+
+import jakarta.persistence.EntityManager;
+import org.h2.jdbcx.JdbcDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ReplicaConfiguration's Hibernate settings over two embedded H2
+ * databases (primary, replica)
+ */
+class ReplicaConfigurationTest {
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM replica_heartbeat WHERE id = ?";
+
+    private ReplicaRouter router;
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+    private LocalContainerEntityManagerFactoryBean factory;
+    private EntityManagerFactory entityManagerFactory;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        router = new ReplicaRouter(1, Duration.ofSeconds(1), Duration.ZERO);
+        router.updateLag(0, Duration.ZERO);
+
+        String run = UUID.randomUUID().toString();
+        primary = h2("replica_config_primary_" + run);
+        replica = h2("replica_config_replica_" + run);
+        new JdbcTemplate(replica).execute(
+                "CREATE TABLE replica_heartbeat (id INTEGER PRIMARY KEY, beat_at TIMESTAMP WITH TIME ZONE NOT NULL)");
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(0, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        Map<String, Object> properties = new HashMap<>();
+        new ReplicaConfiguration().replicaHibernateProperties().customize(properties);
+        properties.put(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        // Spring Boot's column naming (beat_at)
+        properties.put(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName());
+        factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(routing);
+        // Spring's adapter, as in the application - defaults to holding the session's connection
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setPackagesToScan(ReplicaHeartbeat.class.getPackageName());
+        factory.setJpaPropertyMap(properties);
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        jdbcTemplate = new JdbcTemplate(routing);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.destroy();
+    }
+
+    @Test
+    void testReplicaReadThenWriteInOneRequest_WriteGoesToPrimary() {
+        // Given - one EntityManager for the whole request, as open-in-view binds it
+        EntityManager requestEntityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(requestEntityManager));
+        try {
+            // When - a replica read, then a write (like the synchronous audit fallback)
+            Object read = router.readAny(() -> requestEntityManager.find(ReplicaHeartbeat.class, ReplicaHeartbeat.ROW_ID));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                    "INSERT INTO replica_heartbeat (id, beat_at) VALUES (?, ?)",
+                    ReplicaHeartbeat.ROW_ID, Instant.now().atOffset(ZoneOffset.UTC)));
+
+            // Then
+            assertThat(read).isNull();
+            assertThat(router.replicaReads()).isEqualTo(1);
+            assertThat(new JdbcTemplate(primary).queryForObject(COUNT_SQL, Integer.class, ReplicaHeartbeat.ROW_ID))
+                    .isEqualTo(1);
+            assertThat(new JdbcTemplate(replica).queryForObject(COUNT_SQL, Integer.class, ReplicaHeartbeat.ROW_ID))
+                    .isZero();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            requestEntityManager.close();
+        }
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return h2;
+    }
+}
@@ -0,0 +1,136 @@
+package com.mccrae.healthcare.replica;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ReplicaRouter read routing
+ *
+ * Note: Uses synthetic test data (TEST_PAT_001, not "John Smith")
+ */
+class ReplicaRouterTest {
+
+    private static final String PATIENT_REF = "TEST_PAT_001";
+
+    private ReplicaRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new ReplicaRouter(2, Duration.ofSeconds(1), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void testReadAny_UnmeasuredReplicasAreNotUsed() {
+        // When
+        Integer target = router.readAny(ReplicaContext::current);
+
+        // Then
+        assertThat(target).isNull();
+        assertThat(router.primaryReads()).isEqualTo(1);
+    }
+
+    @Test
+    void testReadAny_SkipsReplicaBehindMaxLag() {
+        // Given
+        router.updateLag(0, Duration.ofSeconds(5));
+        router.updateLag(1, Duration.ofMillis(20));
+
+        // When / Then - every read lands on the caught-up replica
+        for (int i = 0; i < 4; i++) {
+            assertThat(router.readAny(ReplicaContext::current)).isEqualTo(1);
+        }
+        assertThat(router.lagMillis()).containsExactly(5000L, 20L);
+    }
+
+    @Test
+    void testRead_PatientWrittenRecentlyReadsFromPrimary() {
+        // Given
+        router.updateLag(0, Duration.ZERO);
+        router.updateLag(1, Duration.ZERO);
+        router.wrote(PATIENT_REF);
+
+        // When
+        Integer pinned = router.read(PATIENT_REF, ReplicaContext::current);
+        Integer other = router.read("TEST_PAT_002", ReplicaContext::current);
+        Integer batch = router.readAll(List.of("TEST_PAT_002", PATIENT_REF), ReplicaContext::current);
+
+        // Then
+        assertThat(pinned).isNull();
+        assertThat(other).isNotNull();
+        assertThat(batch).isNull();
+        assertThat(router.stats().pinnedReads()).isEqualTo(2);
+        assertThat(router.stats().pinnedPatients()).isEqualTo(1);
+    }
+
+    @Test
+    void testRead_PinExpiresAfterWindow() throws InterruptedException {
+        // Given
+        router = new ReplicaRouter(1, Duration.ofSeconds(1), Duration.ofMillis(20));
+        router.updateLag(0, Duration.ZERO);
+        router.wrote(PATIENT_REF);
+
+        // When
+        Thread.sleep(50);
+
+        // Then
+        assertThat(router.read(PATIENT_REF, ReplicaContext::current)).isZero();
+    }
+
+    @Test
+    void testMarkUnusable_ReadsFallBackToPrimary() {
+        // Given
+        router.updateLag(0, Duration.ZERO);
+        router.updateLag(1, Duration.ZERO);
+
+        // When
+        router.markUnusable(0);
+        router.markUnusable(1);
+
+        // Then
+        assertThat(router.read(PATIENT_REF, ReplicaContext::current)).isNull();
+        assertThat(router.lagMillis()).containsExactly(-1L, -1L);
+    }
+
+    @Test
+    void testReadAny_StaysOnPrimaryInsideTransaction() {
+        // Given
+        router.updateLag(0, Duration.ZERO);
+        router.updateLag(1, Duration.ZERO);
+        JdbcDataSource primary = new JdbcDataSource();
+        primary.setURL("jdbc:h2:mem:replica_test_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(0, primary, 1, primary));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(routing));
+
+        // When
+        Integer target = transactionTemplate.execute(status -> router.readAny(ReplicaContext::current));
+
+        // Then
+        assertThat(target).isNull();
+        assertThat(router.replicaReads()).isZero();
+    }
+
+    @Test
+    void testDisabled_RunsInline() {
+        // Given
+        ReplicaRouter disabled = new ReplicaRouter();
+        disabled.wrote(PATIENT_REF);
+
+        // When / Then
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.read(PATIENT_REF, ReplicaContext::current)).isNull();
+        assertThat(disabled.stats().pinnedPatients()).isZero();
+    }
+}
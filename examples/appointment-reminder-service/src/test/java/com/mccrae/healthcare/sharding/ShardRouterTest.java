@@ -0,0 +1,151 @@
+package com.mccrae.healthcare.sharding;
+
+import com.mccrae.healthcare.concurrent.ThreadFactories;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for ShardRouter over two embedded H2 databases
+ *
+ * Note: Uses synthetic test data (TEST_PAT_001, not "John Smith")
+ */
+class ShardRouterTest {
+
+    private ShardRouter router;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    private record Row(String patientRef, long seq) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        router = new ShardRouter(true, List.of("shard-0", "shard-1"), 2, new ThreadFactories(new MockEnvironment()));
+
+        String run = UUID.randomUUID().toString();
+        Map<Object, Object> shards = new HashMap<>();
+        for (int shard = 0; shard < 2; shard++) {
+            JdbcDataSource h2 = new JdbcDataSource();
+            h2.setURL("jdbc:h2:mem:shard_test_" + shard + "_" + run + ";DB_CLOSE_DELAY=-1");
+            shards.put(shard, h2);
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(shards);
+        routing.setDefaultTargetDataSource(shards.get(ShardRouter.HOME_SHARD));
+        routing.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(routing);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(routing));
+
+        for (int shard = 0; shard < 2; shard++) {
+            router.runOnShard(shard, () -> jdbcTemplate.execute("CREATE TABLE shard_rows (patient_ref VARCHAR(64), seq BIGINT)"));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        router.shutdown();
+    }
+
+    @Test
+    void testCallForPatient_WritesOnlyToOwningShard() {
+        // Given
+        int[] owned = new int[2];
+        for (int i = 0; i < 40; i++) {
+            String patientRef = patientRef(i);
+            owned[router.shardOf(patientRef)]++;
+
+            // When
+            router.runForPatient(patientRef, () -> insert(patientRef, 0));
+        }
+
+        // Then - both shards are used, and each holds exactly its own patients
+        assertThat(owned[0]).isPositive();
+        assertThat(owned[1]).isPositive();
+        for (int shard = 0; shard < 2; shard++) {
+            int current = shard;
+            List<String> refs = router.callOnShard(shard,
+                    () -> jdbcTemplate.queryForList("SELECT patient_ref FROM shard_rows", String.class));
+            assertThat(refs).hasSize(owned[shard]).allMatch(ref -> router.owns(current, ref));
+        }
+    }
+
+    @Test
+    void testScatterOrdered_MergesShardPagesAndDropsStrayRows() {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            String patientRef = patientRef(i);
+            long seq = i;
+            router.runForPatient(patientRef, () -> insert(patientRef, seq));
+        }
+        // A copy left on the wrong shard by an interrupted bucket move
+        String moved = patientRef(0);
+        router.runOnShard(1 - router.shardOf(moved), () -> insert(moved, 0));
+
+        // When
+        List<Row> page = router.scatterOrdered(limit -> jdbcTemplate.query(
+                        "SELECT patient_ref, seq FROM shard_rows ORDER BY seq LIMIT ?",
+                        (rs, rowNum) -> new Row(rs.getString(1), rs.getLong(2)), limit),
+                Row::patientRef, Comparator.comparingLong(Row::seq), 5);
+
+        // Then
+        assertThat(page).extracting(Row::seq).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThat(router.strayRowsFiltered()).isPositive();
+    }
+
+    @Test
+    void testCallPerShard_SplitsBatchByShard() {
+        // Given
+        List<String> patientRefs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            patientRefs.add(patientRef(i));
+        }
+
+        // When
+        List<Integer> shardPerCall = router.callPerShard(patientRefs, ref -> ref, group -> {
+            group.forEach(ref -> insert(ref, 0));
+            return List.of(router.currentShard());
+        });
+
+        // Then - one call per shard, in shard order
+        assertThat(shardPerCall).containsExactlyElementsOf(
+                patientRefs.stream().map(router::shardOf).distinct().sorted().toList());
+        Integer total = router.scatter(() -> jdbcTemplate.queryForList("SELECT COUNT(*) FROM shard_rows", Integer.class), null)
+                .stream().mapToInt(Integer::intValue).sum();
+        assertThat(total).isEqualTo(10);
+    }
+
+    @Test
+    void testCallOnShard_RefusesToSwitchShardInsideTransaction() {
+        // When / Then
+        assertThatThrownBy(() -> router.runOnShard(0, () -> transactionTemplate.executeWithoutResult(status -> {
+            insert(patientRef(1), 0);
+            router.runOnShard(1, () -> insert(patientRef(2), 0));
+        })))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("inside a transaction on shard 0");
+    }
+
+    private void insert(String patientRef, long seq) {
+        jdbcTemplate.update("INSERT INTO shard_rows (patient_ref, seq) VALUES (?, ?)", patientRef, seq);
+    }
+
+    private static String patientRef(int i) {
+        return String.format("TEST_PAT_%03d", i);
+    }
+}
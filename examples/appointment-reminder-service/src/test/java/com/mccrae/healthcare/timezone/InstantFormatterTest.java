@@ -0,0 +1,108 @@
+package com.mccrae.healthcare.timezone;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for InstantFormatter and ZoneRegistry - output must match DateTimeFormatter exactly
+ */
+class InstantFormatterTest {
+
+    private static final List<String> ZONES = List.of(
+            "Pacific/Auckland", "America/New_York", "Europe/London", "Asia/Kolkata",
+            "Australia/Lord_Howe", "UTC", "+13:00", "-03:30");
+
+    private static final List<String> PATTERNS = List.of(
+            "d MMM yyyy, h:mm a z",
+            "EEEE d MMMM yyyy 'at' h:mm a",
+            "yyyy-MM-dd'T'HH:mm:ss zzzz",
+            "EEE dd/MM/yy HH:mm ''z''",
+            "uuuu-M-d H:m:s");
+
+    @Test
+    void testFormat_MatchesDateTimeFormatterAcrossZonesAndPatterns() {
+        // Given - every 7h 13m over two years, crossing each zone's DST changes at odd minutes
+        Instant start = Instant.now().minus(Duration.ofDays(365));
+        Duration step = Duration.ofMinutes(7 * 60 + 13);
+
+        for (Locale locale : List.of(Locale.ENGLISH, Locale.FRANCE, new Locale("mi", "NZ"))) {
+            for (String pattern : PATTERNS) {
+                InstantFormatter formatter = ZoneRegistry.formatter(pattern, locale);
+                DateTimeFormatter expected = DateTimeFormatter.ofPattern(pattern, locale);
+                for (String id : ZONES) {
+                    ZoneId zone = ZoneRegistry.zone(id);
+                    StringBuilder out = new StringBuilder();
+                    for (Instant at = start; at.isBefore(start.plus(Duration.ofDays(730))); at = at.plus(step)) {
+                        // When
+                        out.setLength(0);
+                        formatter.formatTo(at, zone, out);
+
+                        // Then
+                        assertThat(out.toString()).as("%s %s %s %s", pattern, locale, id, at)
+                                .isEqualTo(expected.format(at.atZone(zone)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFormat_DstBoundariesAndOutsideCachedYears() {
+        // Given
+        InstantFormatter formatter = ZoneRegistry.formatter("d MMM yyyy, h:mm:ss a z", Locale.ENGLISH);
+        ZoneId auckland = ZoneRegistry.zone("Pacific/Auckland");
+        Instant nextChange = auckland.getRules().nextTransition(Instant.now()).getInstant();
+
+        // When / Then - the second before, at and after the change; far past and future use the fallback
+        for (Instant at : List.of(nextChange.minusSeconds(1), nextChange, nextChange.plusSeconds(1),
+                Instant.parse("1975-03-01T12:00:00Z"), Instant.parse("2090-07-01T12:00:00Z"),
+                Instant.parse("+12000-01-01T00:00:00Z"))) {
+            assertThat(formatter.format(at, auckland)).isEqualTo(
+                    DateTimeFormatter.ofPattern("d MMM yyyy, h:mm:ss a z", Locale.ENGLISH).format(at.atZone(auckland)));
+        }
+    }
+
+    @Test
+    void testFormat_YearIsPaddedToPatternWidth() {
+        // Given
+        Instant at = Instant.now();
+        ZoneId zone = ZoneRegistry.zone("Pacific/Auckland");
+
+        for (String pattern : List.of("y", "yyy", "yyyy", "yyyyy", "uuuuuu", "yyyyyyyyy-MM-dd")) {
+            // When
+            String formatted = ZoneRegistry.formatter(pattern, Locale.ENGLISH).format(at, zone);
+
+            // Then
+            assertThat(formatted).as(pattern)
+                    .isEqualTo(DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH).format(at.atZone(zone)));
+        }
+        assertThat(ZoneRegistry.formatter("yyyyy", Locale.ENGLISH).format(at, zone))
+                .hasSize(5)
+                .startsWith("0");
+    }
+
+    @Test
+    void testRegistry_CachesAndRejectsInvalidZones() {
+        // When / Then
+        assertThat(ZoneRegistry.zone("Pacific/Auckland")).isSameAs(ZoneRegistry.zone("Pacific/Auckland"));
+        assertThat(ZoneRegistry.formatter("h:mm a", Locale.ENGLISH))
+                .isSameAs(ZoneRegistry.formatter("h:mm a", Locale.ENGLISH));
+        assertThat(ZoneRegistry.isValid("+13:00")).isTrue();
+        assertThat(ZoneRegistry.isValid("Pacific/Atlantis")).isFalse();
+        assertThat(ZoneRegistry.isValid(" ")).isFalse();
+        assertThat(ZoneRegistry.isValid(null)).isFalse();
+        assertThatThrownBy(() -> ZoneRegistry.zone("Pacific/Atlantis")).isInstanceOf(DateTimeException.class);
+        assertThatThrownBy(() -> ZoneRegistry.formatter("d MMM {", Locale.ENGLISH))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
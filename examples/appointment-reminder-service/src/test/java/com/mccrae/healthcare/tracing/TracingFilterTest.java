@@ -0,0 +1,112 @@
+package com.mccrae.healthcare.tracing;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for TracingFilter, CorrelationId and TraceRecorder
+ *
+ * Note: Uses synthetic test data (TEST_PAT_*)
+ */
+class TracingFilterTest {
+
+    private TracingFilter filter;
+    private TraceRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new TraceRecorder(Duration.ZERO, 2);
+        filter = new TracingFilter();
+        ReflectionTestUtils.setField(filter, "traceRecorder", recorder);
+        ReflectionTestUtils.setField(filter, "tracingEnabled", true);
+    }
+
+    @Test
+    void testFilter_AcceptsAndEchoesCallerCorrelationId() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("/api/patients/TEST_PAT_001");
+        request.addHeader(CorrelationId.HEADER, "TEST-CID-001");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String[] seen = new String[1];
+
+        // When
+        filter.doFilter(request, response, (req, res) -> seen[0] = CorrelationId.current());
+
+        // Then - in the MDC during the request, cleared afterwards
+        assertThat(response.getHeader(CorrelationId.HEADER)).isEqualTo("TEST-CID-001");
+        assertThat(seen[0]).isEqualTo("TEST-CID-001");
+        assertThat(MDC.get(CorrelationId.MDC_KEY)).isNull();
+        assertThat(RequestTrace.current()).isNull();
+    }
+
+    @Test
+    void testFilter_ReplacesMalformedCorrelationId() throws Exception {
+        // Given - log injection attempt
+        MockHttpServletRequest request = request("/api/patients/TEST_PAT_001");
+        request.addHeader(CorrelationId.HEADER, "TEST-CID\nforged line");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, (req, res) -> { });
+
+        // Then
+        String issued = response.getHeader(CorrelationId.HEADER);
+        assertThat(issued).isNotNull().doesNotContain("\n");
+        assertThat(CorrelationId.isValid(issued)).isTrue();
+        assertThat(CorrelationId.isValid("x".repeat(65))).isFalse();
+    }
+
+    @Test
+    void testFilter_RecordsNestedSpansUnderRouteTemplate() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("/api/patients/TEST_PAT_001");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/patients/{referenceId}");
+        FilterChain chain = (req, res) -> {
+            RequestTrace trace = RequestTrace.current();
+            int controller = RequestTrace.enter();
+            int service = RequestTrace.enter();
+            trace.addSpan("service", "PatientService.getPatientByReferenceId", service, System.nanoTime(), 1_000);
+            RequestTrace.exit();
+            trace.addSpan("controller", "PatientController.getPatient", controller, System.nanoTime(), 2_000);
+            RequestTrace.exit();
+        };
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then - route template, never the patient reference
+        List<TraceSummary> slow = recorder.recentSlowRequests();
+        assertThat(slow).hasSize(1);
+        assertThat(slow.get(0).route()).isEqualTo("/api/patients/{referenceId}");
+        assertThat(slow.get(0).spans()).extracting(TraceSummary.SpanTiming::depth).containsExactlyInAnyOrder(0, 1);
+    }
+
+    @Test
+    void testRecorder_KeepsOnlyMostRecentSlowRequests() throws Exception {
+        // When - capacity is 2
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = request("/api/patients");
+            request.addHeader(CorrelationId.HEADER, "TEST-CID-" + i);
+            filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+        }
+
+        // Then - newest first
+        assertThat(recorder.recentSlowRequests()).extracting(TraceSummary::correlationId)
+                .containsExactly("TEST-CID-2", "TEST-CID-1");
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}